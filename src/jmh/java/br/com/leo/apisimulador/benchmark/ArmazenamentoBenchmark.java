@@ -0,0 +1,200 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.ArmazenamentoSimulacoesH2;
+import br.com.leo.apisimulador.repository.h2.OutboxEventosSimulacao;
+import br.com.leo.apisimulador.repository.h2.SimulacaoJdbcRepository;
+import br.com.leo.apisimulador.repository.h2.SimulacaoRepository;
+import br.com.leo.apisimulador.repository.log.ArmazenamentoSimulacoesLog;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento das simulações no H2 (batch JDBC na gravação, Spring Data JPA
+ * na leitura) contra o log em segmentos mapeados em memória, com o mesmo
+ * resultado de uma simulação de 96 meses.
+ *
+ * Cada benchmark começa com {@code simulacoesIniciais} simulações
+ * distribuídas em {@code DIAS} dias. O H2 é em memória e o log roda sem
+ * {@code force} a cada lote, para comparar os dois sem o custo do disco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArmazenamentoBenchmark {
+
+    private static final int DIAS = 10;
+    private static final int TAMANHO_PAGINA = 200;
+    private static final BigDecimal TAXA = new BigDecimal("0.017900000");
+    private static final int PRAZO = 96;
+
+    @Param({ "h2", "log" })
+    private String armazenamento;
+
+    @Param({ "50000" })
+    private int simulacoesIniciais;
+
+    @Param({ "200" })
+    private int tamanhoLote;
+
+    private ArmazenamentoSimulacoes alvo;
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean fabricaEntityManager;
+    private Path diretorioLog;
+    private SimulacaoResponseDTO resultado;
+    private LocalDate primeiroDia;
+    private long proximoId;
+    private SplittableRandom aleatorio;
+
+    @Setup
+    public void preparar() throws IOException {
+        TabelaFatoresAmortizacao tabela = CenarioBenchmark.tabelaFatores(TAXA);
+        BigDecimal valor = CenarioBenchmark.valorTipico(TAXA);
+        resultado = new SimulacaoResponseDTO(1L, 1, "Produto 1", TAXA, List.of(
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, new SACCalculadora().calcular(valor, TAXA, PRAZO)),
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.PRICE,
+                        new PriceCalculadora(tabela).calcular(valor, TAXA, PRAZO))));
+
+        alvo = "log".equals(armazenamento) ? abrirLog() : abrirH2();
+        primeiroDia = LocalDate.of(2025, 1, 1);
+        aleatorio = new SplittableRandom(20250825L);
+        proximoId = 1;
+        while (proximoId <= simulacoesIniciais) {
+            gravarLote();
+        }
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        if (alvo instanceof ArmazenamentoSimulacoesLog log) {
+            log.fechar();
+            try (Stream<Path> arquivos = Files.walk(diretorioLog)) {
+                for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+        if (fabricaEntityManager != null) {
+            fabricaEntityManager.destroy();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public int gravarLote() {
+        List<Simulacao> lote = new ArrayList<>(tamanhoLote);
+        for (int i = 0; i < tamanhoLote; i++) {
+            lote.add(simulacao(proximoId++));
+        }
+        alvo.gravar(lote);
+        return lote.size();
+    }
+
+    @Benchmark
+    public Simulacao buscarPorId() {
+        return alvo.buscarPorId(aleatorio.nextLong(1, simulacoesIniciais + 1)).orElseThrow();
+    }
+
+    @Benchmark
+    public int listarPaginaPorChave() {
+        return alvo.listarResumosApos(aleatorio.nextLong(0, simulacoesIniciais - TAMANHO_PAGINA), TAMANHO_PAGINA)
+                .size();
+    }
+
+    @Benchmark
+    public int agregarVolumeDoDia() {
+        return alvo.agregarVolumePorProduto(primeiroDia.plusDays(aleatorio.nextInt(DIAS))).size();
+    }
+
+    private Simulacao simulacao(long id) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setIdSimulacao(id);
+        simulacao.setDataReferencia(primeiroDia.plusDays(id % DIAS));
+        simulacao.setValorDesejado(new BigDecimal("900.00"));
+        simulacao.setPrazo(PRAZO);
+        simulacao.setProdutoId(1 + (int) (id % 4));
+        simulacao.setResultado(resultado);
+        simulacao.setTaxaJuros(TAXA);
+        simulacao.setDescricaoProduto("Produto " + simulacao.getProdutoId());
+        simulacao.setValorTotalSac(new BigDecimal("1234.56"));
+        simulacao.setValorTotalPrice(new BigDecimal("1240.10"));
+        simulacao.setValorPrimeiraPrestacao(new BigDecimal("23.45"));
+        return simulacao;
+    }
+
+    private ArmazenamentoSimulacoes abrirLog() throws IOException {
+        diretorioLog = Files.createTempDirectory("simulacoes-log-benchmark");
+        ArmazenamentoSimulacoesLog log = new ArmazenamentoSimulacoesLog(diretorioLog.toString(), 64, false);
+        log.abrir();
+        return log;
+    }
+
+    private ArmazenamentoSimulacoes abrirH2() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("db/h2/schema.sql")).execute(dataSource);
+
+        fabricaEntityManager = new LocalContainerEntityManagerFactoryBean();
+        fabricaEntityManager.setDataSource(dataSource);
+        fabricaEntityManager.setPackagesToScan("br.com.leo.apisimulador.model.h2");
+        fabricaEntityManager.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        fabricaEntityManager.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.hbm2ddl.auto", "none"));
+        fabricaEntityManager.afterPropertiesSet();
+        EntityManagerFactory fabrica = fabricaEntityManager.getObject();
+
+        SimulacaoRepository repositorio = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(fabrica))
+                .getRepository(SimulacaoRepository.class);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return new ArmazenamentoSimulacoesH2(repositorio, new SimulacaoJdbcRepository(jdbcTemplate),
+                new OutboxEventosSimulacao(jdbcTemplate), new JpaTransactionManager(fabrica));
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.PricePontoFixoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.ResumoAmortizacao;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACPontoFixoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo das parcelas SAC e PRICE nos dois motores e dos resumos em forma
+ * fechada, por prazo e pelas taxas da tabela PRODUTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculadoraBenchmark {
+
+    @Param({ "1", "12", "24", "48", "96", "180", "360", "420" })
+    private int prazo;
+
+    @Param({ "0.017900000", "0.017500000", "0.018200000", "0.015100000" })
+    private String taxa;
+
+    private BigDecimal taxaJuros;
+    private BigDecimal valor;
+    private SACCalculadora sac;
+    private PriceCalculadora price;
+    private SACPontoFixoCalculadora sacPontoFixo;
+    private PricePontoFixoCalculadora pricePontoFixo;
+
+    @Setup
+    public void preparar() {
+        taxaJuros = new BigDecimal(taxa);
+        valor = CenarioBenchmark.valorTipico(taxaJuros);
+
+        TabelaFatoresAmortizacao tabela = CenarioBenchmark.tabelaFatores(taxaJuros);
+        sac = new SACCalculadora();
+        price = new PriceCalculadora(tabela);
+        sacPontoFixo = new SACPontoFixoCalculadora(sac, tabela);
+        pricePontoFixo = new PricePontoFixoCalculadora(price, tabela);
+    }
+
+    @Benchmark
+    public List<ParcelaDTO> sacBigDecimal() {
+        return sac.calcular(valor, taxaJuros, prazo);
+    }
+
+    @Benchmark
+    public List<ParcelaDTO> priceBigDecimal() {
+        return price.calcular(valor, taxaJuros, prazo);
+    }
+
+    @Benchmark
+    public List<ParcelaDTO> sacPontoFixo() {
+        return sacPontoFixo.calcular(valor, taxaJuros, prazo);
+    }
+
+    @Benchmark
+    public List<ParcelaDTO> pricePontoFixo() {
+        return pricePontoFixo.calcular(valor, taxaJuros, prazo);
+    }
+
+    @Benchmark
+    public ResumoAmortizacao resumoSAC() {
+        return sac.calcularResumo(valor, taxaJuros, prazo);
+    }
+
+    @Benchmark
+    public ResumoAmortizacao resumoPRICE() {
+        return price.calcularResumo(valor, taxaJuros, prazo);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Dados compartilhados pelos benchmarks: a tabela PRODUTO real (ver
+ * PRODUTOS-DISPONÍVEIS.md) e a montagem dos componentes sem o contexto
+ * Spring.
+ */
+final class CenarioBenchmark {
+
+    static final int PRAZO_MAXIMO = 420;
+
+    private CenarioBenchmark() {
+    }
+
+    static List<Produto> produtosReais() {
+        return List.of(
+                produto(1, "Produto 1", "0.017900000", 0, 24, "200.00", "10000.00"),
+                produto(2, "Produto 2", "0.017500000", 25, 48, "10000.01", "100000.00"),
+                produto(3, "Produto 3", "0.018200000", 49, 96, "100000.01", "1000000.00"),
+                produto(4, "Produto 4", "0.015100000", 97, null, "1000000.01", null));
+    }
+
+    /**
+     * Tabela de fatores com a taxa informada cobrindo os prazos 1..420, como
+     * se um produto com essa taxa aceitasse qualquer prazo
+     */
+    static TabelaFatoresAmortizacao tabelaFatores(BigDecimal taxa) {
+        TabelaFatoresAmortizacao tabela = new TabelaFatoresAmortizacao();
+        tabela.sincronizar(List.of(produto(1, "Benchmark", taxa.toPlainString(), 1, PRAZO_MAXIMO, "200.00", null)));
+        return tabela;
+    }
+
+    /**
+     * Valor dentro da faixa do produto real com a taxa informada
+     */
+    static BigDecimal valorTipico(BigDecimal taxa) {
+        for (Produto produto : produtosReais()) {
+            if (produto.getTaxaJuros().compareTo(taxa) == 0) {
+                return produto.getValorMaximo() != null
+                        ? produto.getValorMinimo().add(produto.getValorMaximo()).divide(BigDecimal.valueOf(2))
+                                .setScale(2, RoundingMode.HALF_UP)
+                        : produto.getValorMinimo().multiply(BigDecimal.valueOf(3));
+            }
+        }
+        return new BigDecimal("50000.00");
+    }
+
+    private static Produto produto(int codigo, String descricao, String taxa, int prazoMinimo, Integer prazoMaximo,
+            String valorMinimo, String valorMaximo) {
+        return Produto.builder()
+                .codigoProduto(codigo)
+                .descricaoProduto(descricao)
+                .taxaJuros(new BigDecimal(taxa))
+                .minimoMeses((short) prazoMinimo)
+                .maximoMeses(prazoMaximo != null ? prazoMaximo.shortValue() : null)
+                .valorMinimo(new BigDecimal(valorMinimo))
+                .valorMaximo(valorMaximo != null ? new BigDecimal(valorMaximo) : null)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.service.produto.GeradorCatalogoSintetico;
+import br.com.leo.apisimulador.service.produto.IndiceElegibilidade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca do produto elegível: percurso linear (regra do antigo
+ * isProdutoElegivel) contra o {@link IndiceElegibilidade}, com e sem a
+ * conversão do valor para a chave inteira. Com 4 produtos usa a tabela real;
+ * acima disso, catálogos sintéticos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElegibilidadeBenchmark {
+
+    private static final int CONSULTAS = 1024;
+
+    @Param({ "4", "1000", "10000" })
+    private int quantidadeProdutos;
+
+    private List<Produto> produtos;
+    private IndiceElegibilidade indice;
+    private BigDecimal[] valores;
+    private long[] chaves;
+    private int[] prazos;
+    private int proxima;
+
+    @Setup
+    public void preparar() {
+        produtos = quantidadeProdutos == 4
+                ? CenarioBenchmark.produtosReais()
+                : GeradorCatalogoSintetico.gerar(quantidadeProdutos, 42L);
+        indice = IndiceElegibilidade.construir(produtos);
+
+        SplittableRandom aleatorio = new SplittableRandom(42L);
+        valores = new BigDecimal[CONSULTAS];
+        prazos = new int[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            valores[i] = BigDecimal.valueOf(aleatorio.nextLong(20_000L, 200_000_000L), 2);
+            prazos[i] = 1 + aleatorio.nextInt(CenarioBenchmark.PRAZO_MAXIMO);
+        }
+        chaves = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            chaves[i] = IndiceElegibilidade.chaveValor(valores[i], indice.getEscalaValor());
+        }
+    }
+
+    @Benchmark
+    public Produto linear() {
+        int i = proxima++ & (CONSULTAS - 1);
+        return IndiceElegibilidade.buscarLinear(produtos, valores[i], prazos[i]);
+    }
+
+    @Benchmark
+    public Produto indice() {
+        int i = proxima++ & (CONSULTAS - 1);
+        return indice.buscar(valores[i], prazos[i]);
+    }
+
+    @Benchmark
+    public Produto indicePorChave() {
+        int i = proxima++ & (CONSULTAS - 1);
+        return indice.buscarPorChave(chaves[i], prazos[i]);
+    }
+}
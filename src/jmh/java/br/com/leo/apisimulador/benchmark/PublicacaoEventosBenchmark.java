@@ -0,0 +1,96 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.evento.DestinoEventosMemoria;
+import br.com.leo.apisimulador.service.evento.EventoSimulacao;
+import br.com.leo.apisimulador.service.evento.PublicadorEventos;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publicação do evento de uma simulação de 96 meses contra o destino em
+ * memória, que confirma cada envio depois de {@code latenciaMs} (o tempo de
+ * ida e volta ao Event Hub).
+ *
+ * {@code sincrona} envia um evento por vez e espera a confirmação, como a
+ * requisição fazia antes do {@link PublicadorEventos}; {@code lotes} coloca o
+ * evento na fila do publicador e, com a fila cheia, espera vaga em vez de
+ * descartar, de modo que a vazão medida é a que o publicador sustenta (as
+ * tentativas recusadas aparecem como descartadas nas estatísticas dele).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicacaoEventosBenchmark {
+
+    private static final BigDecimal TAXA = new BigDecimal("0.017900000");
+    private static final int PRAZO = 96;
+
+    @Param({ "sincrona", "lotes" })
+    private String publicacao;
+
+    @Param({ "0", "2" })
+    private long latenciaMs;
+
+    private DestinoEventosMemoria destino;
+    private PublicadorEventos publicador;
+    private EventoSimulacao evento;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        BigDecimal valor = CenarioBenchmark.valorTipico(TAXA);
+        SimulacaoResponseDTO resposta = new SimulacaoResponseDTO(1L, 1, "Produto 1", TAXA, List.of(
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, new SACCalculadora().calcular(valor, TAXA, PRAZO)),
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.PRICE,
+                        new PriceCalculadora(CenarioBenchmark.tabelaFatores(TAXA)).calcular(valor, TAXA, PRAZO))));
+        evento = new EventoSimulacao(1L, "1", Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(resposta));
+
+        destino = new DestinoEventosMemoria(latenciaMs, 0);
+        if ("lotes".equals(publicacao)) {
+            publicador = new PublicadorEventos(destino, 10_000, 500, 262_144, 20, 4);
+            publicador.iniciar();
+        }
+    }
+
+    @TearDown
+    public void encerrar() throws InterruptedException {
+        if (publicador != null) {
+            publicador.encerrar();
+        }
+    }
+
+    @Benchmark
+    public boolean publicar() {
+        if (publicador == null) {
+            destino.enviar(null, List.of(evento)).join();
+            return true;
+        }
+        while (!publicador.publicar(evento)) {
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.leo.apisimulador.benchmark;
+
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.enums.MotorCalculoEnum;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.repository.CodecResultadoSimulacao;
+import br.com.leo.apisimulador.service.calculadora.AmortizacaoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.PricePontoFixoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACPontoFixoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida e volta do SimulacaoResponseDTO pelo ObjectMapper, como nas respostas da
+ * API e no antigo RESULTADO_JSON, e pelo CodecResultadoSimulacao, formato em
+ * que o resultado é armazenado. O ObjectMapper é montado pelo mesmo builder
+ * que o Spring Boot usa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({ "1", "24", "96", "180", "420" })
+    private int prazo;
+
+    @Param({ "BIGDECIMAL", "PONTO_FIXO" })
+    private MotorCalculoEnum motor;
+
+    @Param({ "0.017900000", "0.015100000" })
+    private String taxa;
+
+    private ObjectMapper objectMapper;
+    private SimulacaoResponseDTO resposta;
+    private String json;
+    private byte[] binario;
+
+    @Setup
+    public void preparar() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        BigDecimal taxaJuros = new BigDecimal(taxa);
+        BigDecimal valor = CenarioBenchmark.valorTipico(taxaJuros);
+        TabelaFatoresAmortizacao tabela = CenarioBenchmark.tabelaFatores(taxaJuros);
+        SACCalculadora sacReferencia = new SACCalculadora();
+        PriceCalculadora priceReferencia = new PriceCalculadora(tabela);
+        AmortizacaoCalculadora sac = motor == MotorCalculoEnum.PONTO_FIXO
+                ? new SACPontoFixoCalculadora(sacReferencia, tabela)
+                : sacReferencia;
+        AmortizacaoCalculadora price = motor == MotorCalculoEnum.PONTO_FIXO
+                ? new PricePontoFixoCalculadora(priceReferencia, tabela)
+                : priceReferencia;
+
+        resposta = new SimulacaoResponseDTO(1L, 1, "Produto 1", taxaJuros, List.of(
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, sac.calcular(valor, taxaJuros, prazo)),
+                new ResultadoSimulacaoDTO(TipoSimulacaoEnum.PRICE, price.calcular(valor, taxaJuros, prazo))));
+        json = objectMapper.writeValueAsString(resposta);
+        binario = CodecResultadoSimulacao.codificar(resposta);
+    }
+
+    @Benchmark
+    public String serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(resposta);
+    }
+
+    @Benchmark
+    public byte[] serializarBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(resposta);
+    }
+
+    @Benchmark
+    public SimulacaoResponseDTO desserializar() throws JsonProcessingException {
+        return objectMapper.readValue(json, SimulacaoResponseDTO.class);
+    }
+
+    @Benchmark
+    public byte[] codificarBinario() {
+        return CodecResultadoSimulacao.codificar(resposta);
+    }
+
+    @Benchmark
+    public SimulacaoResponseDTO decodificarBinario() {
+        return CodecResultadoSimulacao.decodificar(binario);
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.leo.apisimulador.config;
 
+import br.com.leo.apisimulador.service.evento.DestinoEventos;
+import br.com.leo.apisimulador.service.evento.DestinoEventosEventHub;
 import com.azure.messaging.eventhubs.EventHubClientBuilder;
+import com.azure.messaging.eventhubs.EventHubProducerAsyncClient;
 import com.azure.messaging.eventhubs.EventHubProducerClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -17,10 +20,29 @@ public class EventHubConfig {
     @Value("${azure.eventhub.entity-path}")
     private String entityPath;
 
+    /**
+     * Cliente síncrono, usado no diagnóstico de conectividade
+     */
     @Bean
     public EventHubProducerClient eventHubProducerClient() {
         return new EventHubClientBuilder()
                 .connectionString(connectionString, entityPath)
                 .buildProducerClient();
     }
+
+    /**
+     * Cliente assíncrono, usado na publicação dos eventos das simulações
+     */
+    @Bean(destroyMethod = "close")
+    public EventHubProducerAsyncClient eventHubProducerAsyncClient() {
+        return new EventHubClientBuilder()
+                .connectionString(connectionString, entityPath)
+                .buildAsyncProducerClient();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.simulacao.eventos.destino", havingValue = "eventhub", matchIfMissing = true)
+    public DestinoEventos destinoEventosEventHub(EventHubProducerAsyncClient eventHubProducerAsyncClient) {
+        return new DestinoEventosEventHub(eventHubProducerAsyncClient);
+    }
 }
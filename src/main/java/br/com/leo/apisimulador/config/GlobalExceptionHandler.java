@@ -1,7 +1,11 @@
 package br.com.leo.apisimulador.config;
 
 import br.com.leo.apisimulador.dto.ErrorResponseDTO;
+import br.com.leo.apisimulador.service.SimulacaoNaoEncontradaException;
+import br.com.leo.apisimulador.service.gravacao.FilaGravacaoCheiaException;
+import br.com.leo.apisimulador.service.gravacao.GravacaoNaoConfirmadaException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -34,6 +38,67 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * Trata a recusa por fila de gravação cheia (contrapressão).
+     */
+    @ExceptionHandler(FilaGravacaoCheiaException.class)
+    public ResponseEntity<ErrorResponseDTO> handleFilaGravacaoCheiaException(
+            FilaGravacaoCheiaException ex, WebRequest request) {
+
+        log.warn("Fila de gravação cheia: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.of(
+                "Serviço temporariamente sobrecarregado",
+                "SERVICE_UNAVAILABLE",
+                new String[] { ex.getMessage() });
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Trata a gravação não confirmada a tempo no modo PERSISTENCIA. O ID vai
+     * no cabeçalho Location quando a gravação já estava em andamento e a
+     * simulação ainda pode aparecer.
+     */
+    @ExceptionHandler(GravacaoNaoConfirmadaException.class)
+    public ResponseEntity<ErrorResponseDTO> handleGravacaoNaoConfirmadaException(
+            GravacaoNaoConfirmadaException ex, WebRequest request) {
+
+        log.warn("Gravação não confirmada: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.of(
+                "Gravação da simulação não confirmada",
+                ex.isCancelada() ? "PERSISTENCE_TIMEOUT" : "PERSISTENCE_PENDING",
+                new String[] { ex.getMessage() });
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1");
+        if (!ex.isCancelada()) {
+            resposta.header(HttpHeaders.LOCATION, "/simulacoes/" + ex.getIdSimulacao());
+        }
+        return resposta.body(errorResponse);
+    }
+
+    /**
+     * Trata a busca por uma simulação inexistente.
+     */
+    @ExceptionHandler(SimulacaoNaoEncontradaException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSimulacaoNaoEncontradaException(
+            SimulacaoNaoEncontradaException ex, WebRequest request) {
+
+        log.debug("Simulação não encontrada: {}", ex.getMessage());
+
+        ErrorResponseDTO errorResponse = ErrorResponseDTO.of(
+                "Simulação não encontrada",
+                "NOT_FOUND",
+                new String[] { ex.getMessage() });
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(errorResponse);
+    }
+
     /**
      * Trata exceções de argumento inválido.
      */
@@ -0,0 +1,54 @@
+package br.com.leo.apisimulador.config.geral;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Tempo limite por requisição para as respostas assíncronas do Spring MVC.
+ *
+ * As demais requisições assíncronas ficam com o padrão global; um endpoint
+ * que escreve em streaming por mais tempo (exportação, volume do período)
+ * chama {@link #definirTimeout} antes de retornar o StreamingResponseBody, e
+ * o tempo vale só para aquela requisição.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private static final String ATRIBUTO_TIMEOUT = AsyncConfig.class.getName() + ".TIMEOUT_MS";
+
+    /**
+     * Define o tempo limite da resposta assíncrona desta requisição
+     */
+    public static void definirTimeout(HttpServletRequest request, long timeoutMs) {
+        request.setAttribute(ATRIBUTO_TIMEOUT, timeoutMs);
+    }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new TimeoutPorRequisicao());
+    }
+
+    /**
+     * Aplica o tempo definido pelo endpoint antes de a requisição entrar em
+     * modo assíncrono (depois disso o servlet não aceita mais a mudança)
+     */
+    private static final class TimeoutPorRequisicao implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(@NonNull NativeWebRequest request, @NonNull Callable<T> tarefa) {
+            if (request instanceof AsyncWebRequest requisicaoAssincrona
+                    && request.getAttribute(ATRIBUTO_TIMEOUT, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+                requisicaoAssincrona.setTimeout(timeout);
+            }
+        }
+    }
+}
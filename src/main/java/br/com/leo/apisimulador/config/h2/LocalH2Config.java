@@ -2,11 +2,17 @@ package br.com.leo.apisimulador.config.h2;
 
 import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -32,7 +38,32 @@ public class LocalH2Config {
                 .build();
     }
 
+    /**
+     * JdbcTemplate do H2 para escritas em lote. Participa das transações do
+     * localTransactionManager, que expõe a mesma conexão JDBC do Hibernate.
+     */
     @Bean
+    public JdbcTemplate localJdbcTemplate(@Qualifier("localH2DataSource") DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Schema do H2 gerenciado por script (app.h2.schema), em vez de gerado
+     * pelo Hibernate: índices definidos explicitamente e dados preservados
+     * entre execuções quando o banco está em arquivo.
+     */
+    @Bean
+    public DataSourceInitializer localH2DataSourceInitializer(
+            @Qualifier("localH2DataSource") DataSource dataSource,
+            @Value("${app.h2.schema:classpath:db/h2/schema.sql}") Resource schema) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(schema));
+        return initializer;
+    }
+
+    @Bean
+    @DependsOn("localH2DataSourceInitializer")
     public LocalContainerEntityManagerFactoryBean localEntityManagerFactory(
             @Qualifier("localH2DataSource") DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
@@ -45,7 +76,7 @@ public class LocalH2Config {
         // Configurações específicas do Hibernate para H2
         Map<String, Object> properties = new HashMap<>();
         properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
-        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.hbm2ddl.auto", "none"); // Schema em db/h2/schema.sql
         properties.put("hibernate.show_sql", "true");
         properties.put("hibernate.format_sql", "true");
         properties.put("hibernate.jdbc.time_zone", "America/Sao_Paulo");
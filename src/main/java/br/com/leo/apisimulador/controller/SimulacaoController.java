@@ -1,16 +1,23 @@
 package br.com.leo.apisimulador.controller;
 
+import br.com.leo.apisimulador.config.geral.AsyncConfig;
 import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
 import br.com.leo.apisimulador.dto.*;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoLoteResponseDTO;
 import br.com.leo.apisimulador.dto.simulacao.SimulacaoRequestDTO;
 import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
 import br.com.leo.apisimulador.dto.simulacao.SimulacaoResumoDTO;
 import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoResponseDTO;
-import br.com.leo.apisimulador.model.h2.Simulacao;
-import br.com.leo.apisimulador.repository.h2.SimulacaoRepository;
+import br.com.leo.apisimulador.enums.FormatoExportacaoEnum;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.SimulacaoResumoProjecao;
+import br.com.leo.apisimulador.service.ExportacaoSimulacaoService;
+import br.com.leo.apisimulador.service.SimulacaoLoteService;
 import br.com.leo.apisimulador.service.SimulacaoService;
+import br.com.leo.apisimulador.service.SimulacoesRecentesCacheService.RespostaSerializada;
 import br.com.leo.apisimulador.service.TelemetriaService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.leo.apisimulador.service.VolumeSimuladoPeriodoService;
+import br.com.leo.apisimulador.service.gravacao.ContadorSimulacoes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,13 +25,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -39,23 +51,40 @@ import java.util.stream.Collectors;
 public class SimulacaoController {
 
         private static final String ENDPOINT_SIMULAR = "POST /simulacoes";
+        private static final String ENDPOINT_SIMULAR_LOTE = "POST /simulacoes/lote";
         private static final String ENDPOINT_LISTAR = "GET /simulacoes";
+        private static final String ENDPOINT_OBTER = "GET /simulacoes/{id}";
         private static final String ENDPOINT_LISTAR_DIA_POR_PRODUTO = "GET /simulacoes/dia";
         private static final int TAMANHO_PAGINA_PADRAO = 200;
 
-        private final ObjectMapper objectMapper;
         private final SimulacaoService servicoSimulacao;
-        private final SimulacaoRepository repositorioSimulacao;
+        private final SimulacaoLoteService servicoSimulacaoLote;
+        private final ArmazenamentoSimulacoes armazenamentoSimulacoes;
         private final TelemetriaService servicoTelemetria;
+        private final ContadorSimulacoes contadorSimulacoes;
+        private final ExportacaoSimulacaoService servicoExportacao;
+        private final VolumeSimuladoPeriodoService servicoVolumePeriodo;
+
+        @Value("${app.simulacao.exportacao.timeout-ms:600000}")
+        private long timeoutExportacaoMs;
+
+        @Value("${app.simulacao.volume.timeout-ms:120000}")
+        private long timeoutVolumeMs;
 
         public SimulacaoController(SimulacaoService servicoSimulacao,
-                        SimulacaoRepository repositorioSimulacao,
+                        SimulacaoLoteService servicoSimulacaoLote,
+                        ArmazenamentoSimulacoes armazenamentoSimulacoes,
                         TelemetriaService servicoTelemetria,
-                        ObjectMapper objectMapper) {
+                        ContadorSimulacoes contadorSimulacoes,
+                        ExportacaoSimulacaoService servicoExportacao,
+                        VolumeSimuladoPeriodoService servicoVolumePeriodo) {
                 this.servicoSimulacao = servicoSimulacao;
-                this.repositorioSimulacao = repositorioSimulacao;
+                this.servicoSimulacaoLote = servicoSimulacaoLote;
+                this.armazenamentoSimulacoes = armazenamentoSimulacoes;
                 this.servicoTelemetria = servicoTelemetria;
-                this.objectMapper = objectMapper;
+                this.contadorSimulacoes = contadorSimulacoes;
+                this.servicoExportacao = servicoExportacao;
+                this.servicoVolumePeriodo = servicoVolumePeriodo;
         }
 
         /**
@@ -71,60 +100,128 @@ public class SimulacaoController {
                         @ApiResponse(responseCode = "500", description = "Erro interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class)))
         })
         @PostMapping
-        public ResponseEntity<SimulacaoResponseDTO> simular(@Valid @RequestBody SimulacaoRequestDTO requisicao) {
+        public ResponseEntity<byte[]> simular(@Valid @RequestBody SimulacaoRequestDTO requisicao) {
                 log.info("Iniciando simulação para valor: {} e prazo: {}",
                                 requisicao.valorDesejado(), requisicao.prazo());
 
                 try {
-                        SimulacaoResponseDTO resposta = servicoTelemetria.medirTempoExecucao(
+                        RespostaSerializada resposta = servicoTelemetria.medirTempoExecucao(
                                         ENDPOINT_SIMULAR,
                                         () -> servicoSimulacao.simular(requisicao));
 
-                        return ResponseEntity.ok(resposta);
+                        // O JSON já serializado pelo serviço para o evento e o cache
+                        return ResponseEntity.ok()
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .body(resposta.json());
                 } catch (Exception e) {
                         log.error("Erro ao processar simulação: {}", e.getMessage(), e);
                         throw e;
                 }
         }
 
+        /**
+         * Realiza várias simulações de crédito em uma única requisição.
+         * 
+         * @param requisicoes Os parâmetros de cada simulação
+         * @return Resultado por item, na mesma ordem da requisição
+         */
+        @Operation(summary = "Realiza simulações em lote", description = "Calcula SAC e PRICE para cada item em paralelo, persiste o lote em um único batch e envia os eventos agrupados ao Event Hub. Itens inválidos retornam erro individual sem interromper o lote.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Lote processado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SimulacaoLoteResponseDTO.class))),
+                        @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))),
+                        @ApiResponse(responseCode = "500", description = "Erro interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class)))
+        })
+        @PostMapping("/lote")
+        public ResponseEntity<SimulacaoLoteResponseDTO> simularLote(@RequestBody List<SimulacaoRequestDTO> requisicoes) {
+                log.info("Iniciando simulação em lote com {} itens", requisicoes.size());
+
+                SimulacaoLoteResponseDTO resposta = servicoTelemetria.medirTempoExecucao(
+                                ENDPOINT_SIMULAR_LOTE,
+                                () -> servicoSimulacaoLote.simularLote(requisicoes));
+
+                return ResponseEntity.ok(resposta);
+        }
+
         /**
          * Recupera todas as simulações realizadas com paginação.
          * 
-         * @param pagina  O número da página (começando de 0)
+         * @param pagina  O número da página (começando de 0); ignorado quando
+         *                aposId é informado
          * @param tamanho Tamanho da página (default: 200)
+         * @param aposId  Paginação por chave: retorna as simulações com ID
+         *                maior que este
          * @return Lista paginada de simulações armazenadas
          */
-        @Operation(summary = "Lista todas as simulações realizadas", description = "Retorna uma lista paginada de simulações (200 por página por padrão)")
+        @Operation(summary = "Lista todas as simulações realizadas", description = "Retorna uma lista paginada de simulações (200 por página por padrão). Com aposId, a página começa após esse ID e tem o mesmo custo em qualquer ponto da lista; use proximoAposId da resposta para a página seguinte")
         @GetMapping
         public ResponseEntity<Map<String, Object>> obterTodasSimulacoes(
                         @Parameter(description = "Número da página (começando de 0)") @RequestParam(defaultValue = "0") int pagina,
 
-                        @Parameter(description = "Quantidade de Registros por página (máximo 200)") @RequestParam(defaultValue = "200") int tamanho) {
+                        @Parameter(description = "Quantidade de Registros por página (máximo 200)") @RequestParam(defaultValue = "200") int tamanho,
+
+                        @Parameter(description = "Paginação por chave: ID da última simulação da página anterior (0 para a primeira)") @RequestParam(required = false) Long aposId) {
 
                 // Validar e limitar o tamanho da página
                 if (tamanho > TAMANHO_PAGINA_PADRAO) {
                         tamanho = TAMANHO_PAGINA_PADRAO;
                 }
+                final int tamanhoPagina = Math.max(1, tamanho);
 
-                Pageable paginacao = PageRequest.of(pagina, tamanho, Sort.by("idSimulacao").ascending());
-
-                Page<Simulacao> paginaSimulacoes = servicoTelemetria.medirTempoExecucao(
+                List<SimulacaoResumoProjecao> simulacoes = servicoTelemetria.medirTempoExecucao(
                                 ENDPOINT_LISTAR,
-                                () -> repositorioSimulacao.findAll(paginacao));
+                                () -> aposId != null
+                                                ? armazenamentoSimulacoes.listarResumosApos(aposId, tamanhoPagina)
+                                                : armazenamentoSimulacoes.listarResumos(PageRequest.of(Math.max(0, pagina),
+                                                                tamanhoPagina, Sort.by("idSimulacao").ascending()))
+                                                                .getContent());
 
-                List<SimulacaoResumoDTO> registrosResumidos = paginaSimulacoes.getContent().stream()
-                                .map(this::converterParaResumoSimulacao)
+                List<SimulacaoResumoDTO> registrosResumidos = simulacoes.stream()
+                                .map(servicoSimulacao::resumirSimulacao)
                                 .collect(Collectors.toList());
 
                 Map<String, Object> resposta = new LinkedHashMap<>();
-                resposta.put("pagina", paginaSimulacoes.getNumber() + 1); // Iniciar em 1
-                resposta.put("qtdRegistros", paginaSimulacoes.getTotalElements());
-                resposta.put("qtdRegistrosPagina", tamanho);
+                if (aposId == null) {
+                        resposta.put("pagina", Math.max(0, pagina) + 1); // Iniciar em 1
+                }
+                resposta.put("qtdRegistros", contadorSimulacoes.total());
+                resposta.put("qtdRegistrosPagina", tamanhoPagina);
+                resposta.put("proximoAposId", simulacoes.size() == tamanhoPagina
+                                ? simulacoes.get(simulacoes.size() - 1).getIdSimulacao()
+                                : null);
                 resposta.put("registros", registrosResumidos);
 
                 return ResponseEntity.ok(resposta);
         }
 
+        /**
+         * Recupera uma simulação pelo ID, com o mesmo corpo devolvido na sua
+         * criação.
+         * 
+         * @param id ID da simulação
+         * @return JSON da simulação, com ETag; 304 sem corpo se o ETag
+         *         informado em If-None-Match ainda for o atual
+         */
+        @Operation(summary = "Consulta uma simulação pelo ID", description = "Retorna a simulação com os resultados SAC e PRICE, no mesmo formato de POST /simulacoes. As simulações recentes são servidas da memória. A resposta traz um ETag; com If-None-Match igual a ele a resposta é 304, sem corpo")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Simulação encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SimulacaoResponseDTO.class))),
+                        @ApiResponse(responseCode = "304", description = "Simulação não modificada desde o ETag informado"),
+                        @ApiResponse(responseCode = "404", description = "Simulação não encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class)))
+        })
+        @GetMapping("/{id:\\d+}")
+        public ResponseEntity<byte[]> obterSimulacao(
+                        @Parameter(description = "ID da simulação") @PathVariable long id) {
+
+                RespostaSerializada resposta = servicoTelemetria.medirTempoExecucao(
+                                ENDPOINT_OBTER,
+                                () -> servicoSimulacao.obterSerializada(id));
+
+                // O Spring compara o ETag com If-None-Match e responde 304 sem corpo
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .eTag(resposta.etag())
+                                .body(resposta.json());
+        }
+
         @Operation(summary = "Calcula o volume simulado por dia", description = "Retorna dados agregados de simulações para uma data específica, agrupados por produto.")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Volume simulado calculado com sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = VolumeSimuladoResponseDTO.class))),
@@ -145,47 +242,74 @@ public class SimulacaoController {
         }
 
         /**
-         * Converte uma entidade Simulacao para um DTO resumido com valores totais.
+         * Calcula o volume simulado de um período, dia a dia.
+         * 
+         * @param inicio Primeiro dia do período
+         * @param fim    Último dia do período (inclusive)
+         * @return JSON com os dias, os totais por produto e o total geral
          */
-        private SimulacaoResumoDTO converterParaResumoSimulacao(Simulacao simulacao) {
-                // Extrair valores totais do JSON primeiro para calcular
-                BigDecimal valorTotalSAC = BigDecimal.ZERO.setScale(2, java.math.RoundingMode.HALF_UP);
-                BigDecimal valorTotalPrice = BigDecimal.ZERO.setScale(2, java.math.RoundingMode.HALF_UP);
+        @Operation(summary = "Calcula o volume simulado de um período", description = "Retorna o volume de cada dia do período agrupado por produto, os totais por produto no período e o total geral. Os dias são calculados em paralelo e enviados em ordem à medida que ficam prontos; dias já encerrados ficam em cache.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Volume do período em streaming"),
+                        @ApiResponse(responseCode = "400", description = "Período inválido ou acima do máximo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class)))
+        })
+        @GetMapping("/volume")
+        public ResponseEntity<StreamingResponseBody> obterVolumeSimuladoPorPeriodo(
+                        @Parameter(description = "Data inicial (formato: YYYY-MM-DD)") @RequestParam LocalDate inicio,
 
-                try {
-                        SimulacaoResponseDTO simResponse = objectMapper.readValue(
-                                        simulacao.getResultadoJson(),
-                                        SimulacaoResponseDTO.class);
+                        @Parameter(description = "Data final, inclusive (formato: YYYY-MM-DD)") @RequestParam LocalDate fim,
 
-                        // Calcular totais SAC e PRICE
-                        valorTotalSAC = calcularValorTotalSistema(simResponse, "SAC");
-                        valorTotalPrice = calcularValorTotalSistema(simResponse, "PRICE");
+                        HttpServletRequest request) {
 
-                } catch (Exception e) {
-                        log.error("Erro ao calcular valores totais da simulação {}: {}",
-                                        simulacao.getIdSimulacao(), e.getMessage());
-                }
+                // Valida antes de iniciar a resposta, para responder 400
+                servicoVolumePeriodo.validarPeriodo(inicio, fim);
+                AsyncConfig.definirTimeout(request, timeoutVolumeMs);
 
-                return new SimulacaoResumoDTO(
-                                simulacao.getIdSimulacao(),
-                                simulacao.getValorDesejado().setScale(2, java.math.RoundingMode.HALF_UP),
-                                simulacao.getPrazo(),
-                                valorTotalSAC.setScale(2, java.math.RoundingMode.HALF_UP),
-                                valorTotalPrice.setScale(2, java.math.RoundingMode.HALF_UP));
+                StreamingResponseBody corpo = saida -> servicoVolumePeriodo.escreverPeriodo(saida, inicio, fim);
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(corpo);
         }
 
         /**
-         * Calcula o valor total de prestações para um determinado sistema de
-         * amortização.
+         * Exporta o histórico de simulações em streaming.
+         * 
+         * @param formato        ndjson (padrão) ou csv
+         * @param dataReferencia Filtro opcional pela data da simulação
+         * @param produto        Filtro opcional pelo código do produto
+         * @param compactar      Gera o arquivo em gzip
+         * @return Arquivo com uma simulação por linha, em ordem de ID
          */
-        private BigDecimal calcularValorTotalSistema(SimulacaoResponseDTO simResponse, String tipoSistema) {
-                return simResponse.resultadosSimulacao().stream()
-                                .filter(resultado -> resultado.tipo().name().equals(tipoSistema))
-                                .findFirst()
-                                .map(resultado -> resultado.parcelas().stream()
-                                                .map(parcela -> parcela.valorPrestacao())
-                                                .reduce(BigDecimal.ZERO, BigDecimal::add))
-                                .orElse(BigDecimal.ZERO)
-                                .setScale(2, java.math.RoundingMode.HALF_UP);
+        @Operation(summary = "Exporta o histórico de simulações", description = "Gera NDJSON ou CSV com as colunas de resumo de todas as simulações (ou das filtradas por data e produto), escrito à medida que as linhas são lidas do banco. O consumo de memória não depende da quantidade de simulações")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Arquivo gerado em streaming"),
+                        @ApiResponse(responseCode = "400", description = "Formato não suportado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class)))
+        })
+        @GetMapping("/export")
+        public ResponseEntity<StreamingResponseBody> exportarSimulacoes(
+                        @Parameter(description = "Formato do arquivo: ndjson ou csv") @RequestParam(defaultValue = "ndjson") String formato,
+
+                        @Parameter(description = "Data das simulações (formato: YYYY-MM-DD)") @RequestParam(required = false) LocalDate dataReferencia,
+
+                        @Parameter(description = "Código do produto") @RequestParam(required = false) Integer produto,
+
+                        @Parameter(description = "Compactar em gzip") @RequestParam(defaultValue = "false") boolean compactar,
+
+                        HttpServletRequest request) {
+
+                FormatoExportacaoEnum formatoExportacao = FormatoExportacaoEnum.de(formato);
+                String nomeArquivo = "simulacoes." + formatoExportacao.getExtensao() + (compactar ? ".gz" : "");
+
+                StreamingResponseBody corpo = saida -> servicoExportacao.exportar(
+                                saida, formatoExportacao, dataReferencia, produto, compactar);
+                AsyncConfig.definirTimeout(request, timeoutExportacaoMs);
+
+                return ResponseEntity.ok()
+                                .contentType(MediaType.parseMediaType(compactar
+                                                ? "application/gzip"
+                                                : formatoExportacao.getTipoConteudo() + ";charset=UTF-8"))
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                ContentDisposition.attachment().filename(nomeArquivo).build().toString())
+                                .body(corpo);
         }
-}
\ No newline at end of file
+}
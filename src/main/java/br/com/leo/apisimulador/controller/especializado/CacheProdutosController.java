@@ -1,7 +1,8 @@
 package br.com.leo.apisimulador.controller.especializado;
 
 import br.com.leo.apisimulador.service.ProdutoCacheService;
-import br.com.leo.apisimulador.service.SimulacaoService;
+import br.com.leo.apisimulador.service.ResultadoSimulacaoCacheService;
+import br.com.leo.apisimulador.service.SimulacoesRecentesCacheService;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,7 +25,8 @@ import java.util.Map;
 public class CacheProdutosController {
 
     private final ProdutoCacheService produtoCacheService;
-    private final SimulacaoService simulacaoService;
+    private final ResultadoSimulacaoCacheService resultadoCacheService;
+    private final SimulacoesRecentesCacheService simulacoesRecentesCacheService;
 
     @Operation(summary = "📊 Status do Cache de Produtos", description = "Retorna informações detalhadas sobre o cache de produtos, incluindo status, última atualização, TTL e métricas de performance")
     @GetMapping("/status")
@@ -50,14 +52,15 @@ public class CacheProdutosController {
         try {
             log.info("🔄 Solicitação de atualização forçada do cache de produtos");
 
-            simulacaoService.atualizarCacheProdutos();
-
-            // Aguardar um pouco para a atualização
-            Thread.sleep(2000);
-
+            // Retorna somente quando a recarga terminar
             Map<String, Object> resultado = produtoCacheService.forcarAtualizacao();
 
-            log.info("✅ Cache atualizado com sucesso - Status: {}", resultado.get("status"));
+            if (!"ATUALIZADO".equals(resultado.get("status"))) {
+                log.warn("❌ Falha ao atualizar cache: {}", resultado.get("erro_mensagem"));
+                return ResponseEntity.status(503).body(resultado); // Service Unavailable
+            }
+
+            log.info("✅ Cache atualizado com sucesso - Produtos: {}", resultado.get("produtos_carregados"));
 
             return ResponseEntity.ok(resultado);
 
@@ -68,7 +71,7 @@ public class CacheProdutosController {
         }
     }
 
-    @Operation(summary = "📈 Métricas de Performance do Cache", description = "Retorna métricas detalhadas de performance do cache: hits, misses, tempo de busca e uso de fallbacks")
+    @Operation(summary = "📈 Métricas de Performance do Cache", description = "Retorna métricas detalhadas de performance do cache: hits, misses, tempo de busca e uso de fallbacks, incluindo o cache de resultados de simulação e o das simulações recentes servidas por ID (acertos, falhas e remoções)")
     @GetMapping("/metricas")
     public ResponseEntity<Map<String, Object>> obterMetricasCache() {
         try {
@@ -78,7 +81,9 @@ public class CacheProdutosController {
             Map<String, Object> resultado = Map.of(
                     "metricas_detalhadas", metricas,
                     "status_geral", metricas.get("status"),
-                    "observacao", metricas.get("observacao")
+                    "observacao", metricas.get("observacao"),
+                    "cache_resultados_simulacao", resultadoCacheService.obterEstatisticas(),
+                    "cache_simulacoes_recentes", simulacoesRecentesCacheService.obterEstatisticas()
             );
 
             return ResponseEntity.ok(resultado);
@@ -4,6 +4,16 @@ import com.azure.messaging.eventhubs.EventData;
 import com.azure.messaging.eventhubs.EventHubProducerClient;
 
 import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.enums.ModoResultadoEnum;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.HistoricoTaxasProduto;
+import br.com.leo.apisimulador.service.VolumeSimuladoPeriodoService;
+import br.com.leo.apisimulador.service.evento.DespachanteOutbox;
+import br.com.leo.apisimulador.service.evento.PublicadorEventos;
+import br.com.leo.apisimulador.service.gravacao.ConversaoResultadoSimulacoes;
+import br.com.leo.apisimulador.service.gravacao.GravadorSimulacoes;
+import br.com.leo.apisimulador.service.gravacao.RetencaoSimulacoes;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +28,7 @@ import org.springframework.web.bind.annotation.*;
 import java.net.Socket;
 import java.sql.*;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,9 +48,39 @@ public class DiagnosticoController {
     @Value("${spring.datasource.principal-sqlserver.password}")
     private String password;
 
+    @Value("${app.simulacao.resultado.modo:COMPLETO}")
+    private ModoResultadoEnum modoResultado;
+
     @Autowired(required = false)
     private EventHubProducerClient eventHubProducerClient;
 
+    @Autowired
+    private GravadorSimulacoes gravadorSimulacoes;
+
+    @Autowired(required = false)
+    private RetencaoSimulacoes retencaoSimulacoes;
+
+    @Autowired(required = false)
+    private ConversaoResultadoSimulacoes conversaoResultadoSimulacoes;
+
+    @Autowired
+    private ArmazenamentoSimulacoes armazenamentoSimulacoes;
+
+    @Autowired
+    private HistoricoTaxasProduto historicoTaxasProduto;
+
+    @Autowired
+    private PublicadorEventos publicadorEventos;
+
+    @Autowired
+    private DespachanteOutbox despachanteOutbox;
+
+    @Autowired
+    private ConsolidacaoVolumeDiario consolidacaoVolumeDiario;
+
+    @Autowired
+    private VolumeSimuladoPeriodoService volumeSimuladoPeriodoService;
+
     @GetMapping("/sql-server")
     public ResponseEntity<Map<String, Object>> diagnosticarSqlServer() {
         Map<String, Object> resultado = new HashMap<>();
@@ -182,4 +223,150 @@ public class DiagnosticoController {
             return ResponseEntity.ok(resultado);
         }
     }
+
+    @Operation(summary = "Publicação de eventos", description = "Destino dos eventos das simulações (app.simulacao.eventos.destino), ocupação da fila, lotes em voo, preenchimento médio dos lotes e latência de confirmação do destino")
+    @GetMapping("/eventos")
+    public ResponseEntity<Map<String, Object>> estatisticasEventos() {
+        Map<String, Object> resultado = publicadorEventos.obterEstatisticas();
+        resultado.put("outbox_habilitada", despachanteOutbox.isHabilitado());
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Outbox de eventos", description = "Eventos pendentes na SIMULACAO_EVENTO_OUTBOX, no total e por partição, idade do mais antigo, partições em espera após falha (backoff), eventos descartados por rejeição do destino e eventos publicados pelo despachante")
+    @GetMapping("/eventos/outbox")
+    public ResponseEntity<Map<String, Object>> estatisticasOutbox() {
+        Map<String, Object> resultado = despachanteOutbox.obterEstatisticas();
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Reenviar eventos da outbox", description = "Devolve à outbox os eventos já publicados ou descartados a partir do ID informado, que são reenviados com os mesmos IDs")
+    @PostMapping("/eventos/outbox/reenvio")
+    public ResponseEntity<Map<String, Object>> reenviarOutbox(@RequestParam long desde) {
+        int reabertos = despachanteOutbox.reenviar(desde);
+        Map<String, Object> resultado = despachanteOutbox.obterEstatisticas();
+        resultado.put("reenvio_desde", desde);
+        resultado.put("eventos_reabertos", reabertos);
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Histórico de taxas dos produtos", description = "Versões de taxa registradas em PRODUTO_TAXA_HISTORICO, usadas para recalcular o resultado das simulações gravadas sem ele. Sem produto, lista todas as versões")
+    @GetMapping("/produtos/historico-taxas")
+    public ResponseEntity<Map<String, Object>> historicoTaxasProdutos(
+            @RequestParam(required = false) Integer produto) {
+        Map<String, Object> resultado = historicoTaxasProduto.obterEstatisticas();
+        resultado.put("versoes_listadas", historicoTaxasProduto.listar(produto));
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Gravação assíncrona de simulações", description = "Modo de durabilidade, ocupação da fila e contadores do gravador write-behind da tabela SIMULACAO")
+    @GetMapping("/simulacoes/gravacao")
+    public ResponseEntity<Map<String, Object>> estatisticasGravacao() {
+        Map<String, Object> resultado = gravadorSimulacoes.obterEstatisticas();
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Armazenamento de simulações", description = "Backend de gravação em uso (app.simulacao.armazenamento.tipo) e seus contadores: registros, segmentos e bytes mapeados no log")
+    @GetMapping("/simulacoes/armazenamento")
+    public ResponseEntity<Map<String, Object>> estatisticasArmazenamento() {
+        Map<String, Object> resultado = new LinkedHashMap<>(armazenamentoSimulacoes.obterEstatisticas());
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Retenção de simulações", description = "Resultado das execuções da política de retenção do H2")
+    @GetMapping("/simulacoes/retencao")
+    public ResponseEntity<Map<String, Object>> estatisticasRetencao() {
+        if (retencaoSimulacoes == null) {
+            return ResponseEntity.ok(retencaoIndisponivel());
+        }
+        Map<String, Object> resultado = retencaoSimulacoes.obterEstatisticas();
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Executar a retenção de simulações", description = "Dispara uma execução da política de retenção em segundo plano, mesmo com o agendamento desabilitado. Responde 409 se já houver uma execução em andamento")
+    @PostMapping("/simulacoes/retencao/execucao")
+    public ResponseEntity<Map<String, Object>> executarRetencao() {
+        if (retencaoSimulacoes == null) {
+            return ResponseEntity.status(409).body(retencaoIndisponivel());
+        }
+        boolean iniciada = retencaoSimulacoes.iniciarExecucao();
+        Map<String, Object> resultado = retencaoSimulacoes.obterEstatisticas();
+        resultado.put("execucao_iniciada", iniciada);
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return iniciada ? ResponseEntity.accepted().body(resultado) : ResponseEntity.status(409).body(resultado);
+    }
+
+    private Map<String, Object> retencaoIndisponivel() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("status", "INDISPONIVEL");
+        resultado.put("mensagem", "Retenção disponível apenas com o armazenamento em H2");
+        resultado.put("armazenamento", armazenamentoSimulacoes.tipo());
+        return resultado;
+    }
+
+    @Operation(summary = "Formato do resultado das simulações", description = "Modo de gravação do resultado (app.simulacao.resultado.modo), conversão de RESULTADO_JSON para o formato binário, ocupação dos dois formatos em SIMULACAO e, para uma amostra das simulações mais recentes, tamanho e tempo de decodificação por linha em binário e em JSON")
+    @GetMapping("/simulacoes/resultado")
+    public ResponseEntity<Map<String, Object>> estatisticasResultado(
+            @RequestParam(defaultValue = "200") int amostra) {
+        if (conversaoResultadoSimulacoes == null) {
+            return ResponseEntity.ok(conversaoIndisponivel());
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("modo", modoResultado);
+        resultado.putAll(conversaoResultadoSimulacoes.obterEstatisticas());
+        resultado.put("medicao", conversaoResultadoSimulacoes.medir(Math.max(1, Math.min(amostra, 10_000))));
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Converter o resultado das simulações", description = "Dispara em segundo plano a conversão de RESULTADO_JSON para o formato binário. Responde 409 se já houver uma conversão em andamento")
+    @PostMapping("/simulacoes/resultado/conversao")
+    public ResponseEntity<Map<String, Object>> converterResultado() {
+        if (conversaoResultadoSimulacoes == null) {
+            return ResponseEntity.status(409).body(conversaoIndisponivel());
+        }
+        boolean iniciada = conversaoResultadoSimulacoes.iniciarConversao();
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("modo", modoResultado);
+        resultado.putAll(conversaoResultadoSimulacoes.obterEstatisticas());
+        resultado.put("conversao_iniciada", iniciada);
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return iniciada ? ResponseEntity.accepted().body(resultado) : ResponseEntity.status(409).body(resultado);
+    }
+
+    private Map<String, Object> conversaoIndisponivel() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("status", "INDISPONIVEL");
+        resultado.put("mensagem", "Conversão disponível apenas com o armazenamento em H2");
+        resultado.put("armazenamento", armazenamentoSimulacoes.tipo());
+        resultado.put("modo", modoResultado);
+        return resultado;
+    }
+
+    @Operation(summary = "Consolidação do volume diário", description = "Dias e grupos (dia, produto) mantidos em memória para o relatório de volume")
+    @GetMapping("/simulacoes/volume")
+    public ResponseEntity<Map<String, Object>> estatisticasConsolidacaoVolume() {
+        Map<String, Object> resultado = consolidacaoVolumeDiario.obterEstatisticas();
+        resultado.put("periodo", volumeSimuladoPeriodoService.obterEstatisticas());
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
+
+    @Operation(summary = "Reconstruir a consolidação do volume diário", description = "Refaz os totais em memória a partir do armazenamento. As consultas continuam vendo os totais anteriores até a troca; gravações concluídas durante a reconstrução esperam a troca para somar")
+    @PostMapping("/simulacoes/volume/reconstrucao")
+    public ResponseEntity<Map<String, Object>> reconstruirConsolidacaoVolume() {
+        if (!consolidacaoVolumeDiario.isHabilitada()) {
+            return ResponseEntity.status(409).body(Map.of("erro", "Consolidação do volume diário desabilitada"));
+        }
+        consolidacaoVolumeDiario.reconstruir();
+        Map<String, Object> resultado = consolidacaoVolumeDiario.obterEstatisticas();
+        resultado.put("timestamp", TimeZoneConfig.now());
+        return ResponseEntity.ok(resultado);
+    }
 }
@@ -0,0 +1,72 @@
+package br.com.leo.apisimulador.dto.simulacao;
+
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Cronograma de parcelas em formato colunar: três arrays paralelos de
+ * centavos (amortização, juros e prestação) e o sistema de amortização.
+ *
+ * Substitui a lista de {@link ParcelaDTO} sem alocar um objeto por parcela. É
+ * uma lista imutável de {@link ParcelaDTO} para quem precisa iterar; nesse
+ * caso cada parcela é criada sob demanda. A serialização JSON é feita por
+ * {@link CronogramaAmortizacaoSerializer} e produz exatamente os mesmos bytes
+ * da lista de {@link ParcelaDTO} equivalente.
+ */
+@JsonSerialize(using = CronogramaAmortizacaoSerializer.class)
+public final class CronogramaAmortizacao extends AbstractList<ParcelaDTO> implements RandomAccess {
+
+    private final TipoSimulacaoEnum tipo;
+    private final long[] amortizacao;
+    private final long[] juros;
+    private final long[] prestacao;
+
+    /**
+     * Os arrays passam a pertencer ao cronograma e não devem ser alterados
+     * depois da construção.
+     */
+    public CronogramaAmortizacao(TipoSimulacaoEnum tipo, long[] amortizacao, long[] juros, long[] prestacao) {
+        if (amortizacao.length != juros.length || juros.length != prestacao.length) {
+            throw new IllegalArgumentException("Colunas do cronograma com tamanhos diferentes");
+        }
+        this.tipo = tipo;
+        this.amortizacao = amortizacao;
+        this.juros = juros;
+        this.prestacao = prestacao;
+    }
+
+    public TipoSimulacaoEnum getTipo() {
+        return tipo;
+    }
+
+    public long amortizacaoCentavos(int indice) {
+        return amortizacao[indice];
+    }
+
+    public long jurosCentavos(int indice) {
+        return juros[indice];
+    }
+
+    public long prestacaoCentavos(int indice) {
+        return prestacao[indice];
+    }
+
+    @Override
+    public ParcelaDTO get(int indice) {
+        return new ParcelaDTO(indice + 1, emReais(amortizacao[indice]), emReais(juros[indice]),
+                emReais(prestacao[indice]));
+    }
+
+    @Override
+    public int size() {
+        return prestacao.length;
+    }
+
+    private static BigDecimal emReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.leo.apisimulador.dto.simulacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Escreve um {@link CronogramaAmortizacao} diretamente no
+ * {@link JsonGenerator}, no mesmo formato da lista de {@link ParcelaDTO}:
+ * {@code [{"numero":1,"valorAmortizacao":416.67,"valorJuros":150.00,"valorPrestacao":566.67}, ...]}.
+ *
+ * Os valores em centavos são formatados num buffer de caracteres reutilizado,
+ * com o mesmo texto de {@code BigDecimal.valueOf(centavos, 2).toString()}, sem
+ * criar objetos por parcela.
+ */
+public class CronogramaAmortizacaoSerializer extends StdSerializer<CronogramaAmortizacao> {
+
+    private static final String CAMPO_NUMERO = "numero";
+    private static final String CAMPO_AMORTIZACAO = "valorAmortizacao";
+    private static final String CAMPO_JUROS = "valorJuros";
+    private static final String CAMPO_PRESTACAO = "valorPrestacao";
+
+    /** Sinal, até 19 dígitos e o ponto decimal */
+    private static final int TAMANHO_BUFFER = 24;
+
+    public CronogramaAmortizacaoSerializer() {
+        super(CronogramaAmortizacao.class);
+    }
+
+    @Override
+    public void serialize(CronogramaAmortizacao cronograma, JsonGenerator gerador, SerializerProvider provider)
+            throws IOException {
+        char[] buffer = new char[TAMANHO_BUFFER];
+        int quantidade = cronograma.size();
+
+        gerador.writeStartArray(cronograma, quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            gerador.writeStartObject();
+            gerador.writeNumberField(CAMPO_NUMERO, i + 1);
+            escreverValor(gerador, CAMPO_AMORTIZACAO, cronograma.amortizacaoCentavos(i), buffer);
+            escreverValor(gerador, CAMPO_JUROS, cronograma.jurosCentavos(i), buffer);
+            escreverValor(gerador, CAMPO_PRESTACAO, cronograma.prestacaoCentavos(i), buffer);
+            gerador.writeEndObject();
+        }
+        gerador.writeEndArray();
+    }
+
+    private static void escreverValor(JsonGenerator gerador, String campo, long centavos, char[] buffer)
+            throws IOException {
+        gerador.writeFieldName(campo);
+        int inicio = formatarCentavos(centavos, buffer);
+        gerador.writeNumber(buffer, inicio, buffer.length - inicio);
+    }
+
+    /**
+     * Formata centavos da direita para a esquerda no final do buffer.
+     *
+     * @return posição do primeiro caractere escrito
+     */
+    static int formatarCentavos(long centavos, char[] buffer) {
+        boolean negativo = centavos < 0;
+        // Trabalha com valores negativos para suportar Long.MIN_VALUE
+        long resto = negativo ? centavos : -centavos;
+        int pos = buffer.length;
+
+        buffer[--pos] = (char) ('0' - (resto % 10));
+        resto /= 10;
+        buffer[--pos] = (char) ('0' - (resto % 10));
+        resto /= 10;
+        buffer[--pos] = '.';
+        do {
+            buffer[--pos] = (char) ('0' - (resto % 10));
+            resto /= 10;
+        } while (resto != 0);
+
+        if (negativo) {
+            buffer[--pos] = '-';
+        }
+        return pos;
+    }
+}
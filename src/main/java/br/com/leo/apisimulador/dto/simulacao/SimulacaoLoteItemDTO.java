@@ -0,0 +1,22 @@
+package br.com.leo.apisimulador.dto.simulacao;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de um item da simulação em lote")
+public record SimulacaoLoteItemDTO(
+        @Schema(description = "Posição do item na requisição (começando de 0)", example = "0") int indice,
+
+        @Schema(description = "Indica se o item foi simulado com sucesso", example = "true") boolean sucesso,
+
+        @Schema(description = "Simulação realizada (nula em caso de erro)") SimulacaoResponseDTO simulacao,
+
+        @Schema(description = "Mensagem de erro do item (nula em caso de sucesso)", example = "Nenhum produto encontrado para os parâmetros informados.") String erro) {
+
+    public static SimulacaoLoteItemDTO sucesso(int indice, SimulacaoResponseDTO simulacao) {
+        return new SimulacaoLoteItemDTO(indice, true, simulacao, null);
+    }
+
+    public static SimulacaoLoteItemDTO erro(int indice, String erro) {
+        return new SimulacaoLoteItemDTO(indice, false, null, erro);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.leo.apisimulador.dto.simulacao;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Resposta da simulação em lote, com os itens na ordem da requisição")
+public record SimulacaoLoteResponseDTO(
+        @Schema(description = "Quantidade de itens recebidos", example = "100") int quantidadeItens,
+
+        @Schema(description = "Quantidade de itens simulados com sucesso", example = "98") int quantidadeSucesso,
+
+        @Schema(description = "Quantidade de itens com erro", example = "2") int quantidadeErros,
+
+        @Schema(description = "Resultado de cada item, na ordem da requisição") List<SimulacaoLoteItemDTO> itens) {
+}
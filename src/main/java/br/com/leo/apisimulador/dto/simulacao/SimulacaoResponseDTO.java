@@ -8,7 +8,7 @@ import java.util.List;
 public record SimulacaoResponseDTO(
         @Schema(description = "ID único da simulação", example = "123456") Long idSimulacao,
 
-        @Schema(description = "Código do produto financeiro", example = "1") int codigoProduto,
+        @Schema(description = "Código do produto financeiro", example = "1") Integer codigoProduto,
 
         @Schema(description = "Descrição do produto financeiro", example = "Crédito Pessoal") String descricaoProduto,
 
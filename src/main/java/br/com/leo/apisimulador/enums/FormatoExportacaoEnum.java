@@ -0,0 +1,44 @@
+package br.com.leo.apisimulador.enums;
+
+import java.util.Locale;
+
+/**
+ * Formato do arquivo gerado por GET /simulacoes/export
+ */
+public enum FormatoExportacaoEnum {
+
+    /** Um objeto JSON por linha */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** CSV com cabeçalho, separado por vírgula e decimais com ponto */
+    CSV("text/csv", "csv");
+
+    private final String tipoConteudo;
+    private final String extensao;
+
+    FormatoExportacaoEnum(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    public String getTipoConteudo() {
+        return tipoConteudo;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * @throws IllegalArgumentException se o formato não for suportado
+     */
+    public static FormatoExportacaoEnum de(String formato) {
+        for (FormatoExportacaoEnum valor : values()) {
+            if (valor.name().equals(formato.trim().toUpperCase(Locale.ROOT))) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação não suportado: " + formato
+                + " (use ndjson ou csv)");
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.leo.apisimulador.enums;
+
+/**
+ * Momento em que a gravação assíncrona de uma simulação é confirmada ao
+ * chamador (app.simulacao.gravacao.modo)
+ */
+public enum ModoDurabilidadeEnum {
+
+    /** Confirma assim que a simulação entra na fila; uma queda perde o que não foi gravado */
+    ENFILEIRAMENTO,
+
+    /** Confirma depois que o lote com a simulação foi gravado no H2 */
+    PERSISTENCIA
+}
@@ -0,0 +1,14 @@
+package br.com.leo.apisimulador.enums;
+
+/**
+ * O que é gravado do resultado de cada simulação
+ * (app.simulacao.resultado.modo)
+ */
+public enum ModoResultadoEnum {
+
+    /** Cronogramas SAC e PRICE completos, na coluna RESULTADO */
+    COMPLETO,
+
+    /** Só as entradas e a versão da taxa; os cronogramas são recalculados quando pedidos */
+    RECALCULADO
+}
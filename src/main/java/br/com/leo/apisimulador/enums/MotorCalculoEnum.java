@@ -0,0 +1,13 @@
+package br.com.leo.apisimulador.enums;
+
+/**
+ * Motores disponíveis para o cálculo das parcelas (app.calculo.motor)
+ */
+public enum MotorCalculoEnum {
+
+    /** Cálculo de referência com BigDecimal */
+    BIGDECIMAL,
+
+    /** Cálculo em centavos (long), com retorno ao BigDecimal em caso de estouro */
+    PONTO_FIXO
+}
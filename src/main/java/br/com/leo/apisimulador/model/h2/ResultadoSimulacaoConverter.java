@@ -0,0 +1,24 @@
+package br.com.leo.apisimulador.model.h2;
+
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.repository.CodecResultadoSimulacao;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Coluna RESULTADO (BLOB no {@link CodecResultadoSimulacao formato binário})
+ * lida e gravada como {@link SimulacaoResponseDTO}
+ */
+@Converter
+public class ResultadoSimulacaoConverter implements AttributeConverter<SimulacaoResponseDTO, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(SimulacaoResponseDTO resultado) {
+        return resultado != null ? CodecResultadoSimulacao.codificar(resultado) : null;
+    }
+
+    @Override
+    public SimulacaoResponseDTO convertToEntityAttribute(byte[] dados) {
+        return dados != null ? CodecResultadoSimulacao.decodificar(dados) : null;
+    }
+}
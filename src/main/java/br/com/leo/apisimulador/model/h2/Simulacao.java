@@ -1,8 +1,12 @@
 package br.com.leo.apisimulador.model.h2;
 
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
 import br.com.leo.apisimulador.model.sqlserver.Produto;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -10,9 +14,11 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "SIMULACAO", schema = "PUBLIC")
 @Data
-public class Simulacao {
+public class Simulacao implements Persistable<Long> {
+    /**
+     * Atribuído pelo AlocadorIdSimulacao antes da gravação
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "IDSIMULACAO", nullable = false)
     private Long idSimulacao;
 
@@ -28,9 +34,87 @@ public class Simulacao {
     @Column(name = "PRODUTO_ID")
     private Integer produtoId;
 
+    /**
+     * Resultado completo, decodificado da coluna RESULTADO; o JSON da
+     * resposta é gerado a partir dele quando pedido. Nulo quando gravado com
+     * app.simulacao.resultado.modo=RECALCULADO
+     */
+    @Convert(converter = ResultadoSimulacaoConverter.class)
+    @Column(name = "RESULTADO", columnDefinition = "BLOB")
+    @ToString.Exclude
+    private SimulacaoResponseDTO resultado;
+
+    /**
+     * Formato anterior do resultado, mantido só nas linhas ainda não
+     * convertidas por ConversaoResultadoSimulacoes
+     */
     @Column(name = "RESULTADO_JSON", columnDefinition = "TEXT")
+    @ToString.Exclude
     private String resultadoJson;
 
+    /*
+     * Resumo da simulação gravado junto com o JSON, para que listagem e
+     * relatórios não precisem ler RESULTADO_JSON
+     */
+    @Column(name = "TAXA_JUROS", precision = 10, scale = 9)
+    private BigDecimal taxaJuros;
+
+    /**
+     * Versão de PRODUTO_TAXA_HISTORICO vigente na simulação, de onde a taxa é
+     * lida para recalcular o resultado
+     */
+    @Column(name = "VERSAO_TAXA")
+    private Long versaoTaxa;
+
+    @Column(name = "DESCRICAO_PRODUTO", length = 200)
+    private String descricaoProduto;
+
+    @Column(name = "VALOR_TOTAL_SAC", precision = 18, scale = 2)
+    private BigDecimal valorTotalSac;
+
+    @Column(name = "VALOR_TOTAL_PRICE", precision = 18, scale = 2)
+    private BigDecimal valorTotalPrice;
+
+    /**
+     * Primeira prestação do PRICE
+     */
+    @Column(name = "VALOR_PRIMEIRA_PRESTACAO", precision = 18, scale = 2)
+    private BigDecimal valorPrimeiraPrestacao;
+
     @Transient
     private Produto produto;
+
+    /**
+     * JSON do evento da simulação, gravado na SIMULACAO_EVENTO_OUTBOX junto
+     * com a simulação quando a outbox de eventos está habilitada
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] evento;
+
+    /**
+     * Com ID atribuído, o save do Spring Data só faz persist (um INSERT, sem
+     * SELECT prévio) enquanto a entidade não tiver sido gravada ou carregada
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean nova = true;
+
+    @Override
+    public Long getId() {
+        return idSimulacao;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nova;
+    }
+
+    @PostPersist
+    @PostLoad
+    void marcarGravada() {
+        nova = false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package br.com.leo.apisimulador.repository;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.h2.SimulacaoResumoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeDiaProdutoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Onde as simulações são gravadas e lidas. A implementação é escolhida por
+ * app.simulacao.armazenamento.tipo: {@code h2} (tabela SIMULACAO, padrão) ou
+ * {@code log} (segmentos mapeados em memória, só de acréscimo).
+ *
+ * Os IDs continuam vindo do {@link br.com.leo.apisimulador.repository.h2.AlocadorIdSimulacao}
+ * nos dois casos.
+ */
+public interface ArmazenamentoSimulacoes {
+
+    /**
+     * Grava as simulações, com IDs já atribuídos, de forma atômica: ou todas
+     * ficam gravadas ou nenhuma
+     */
+    void gravar(List<Simulacao> simulacoes);
+
+    Optional<Simulacao> buscarPorId(long idSimulacao);
+
+    /**
+     * Simulações completas (com o resultado) de um dia
+     */
+    List<Simulacao> buscarPorDataReferencia(LocalDate dataReferencia);
+
+    /**
+     * Página da listagem em ordem de ID, sem contar o total
+     */
+    Slice<SimulacaoResumoProjecao> listarResumos(Pageable pagina);
+
+    /**
+     * Página da listagem por chave: as simulações seguintes a {@code aposId}
+     */
+    List<SimulacaoResumoProjecao> listarResumosApos(long aposId, int limite);
+
+    /**
+     * Entrega as simulações filtradas ao {@code processador}, uma por vez e
+     * sem o resultado, sem materializar o conjunto; em ordem de ID, exceto
+     * no log filtrado por data, que segue a ordem de gravação
+     *
+     * @param dataReferencia filtro opcional
+     * @param produtoId      filtro opcional
+     */
+    void percorrerResumos(LocalDate dataReferencia, Integer produtoId, Consumer<Simulacao> processador);
+
+    /**
+     * Totais do dia por produto, em ordem de código do produto
+     */
+    List<VolumeProdutoProjecao> agregarVolumePorProduto(LocalDate dataReferencia);
+
+    /**
+     * Totais de todas as simulações por dia e produto
+     */
+    List<VolumeDiaProdutoProjecao> agregarVolumePorDiaEProduto();
+
+    long contar();
+
+    /**
+     * Maior ID gravado, ou 0
+     */
+    long maiorId();
+
+    String tipo();
+
+    Map<String, Object> obterEstatisticas();
+}
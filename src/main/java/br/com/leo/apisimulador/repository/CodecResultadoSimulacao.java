@@ -0,0 +1,455 @@
+package br.com.leo.apisimulador.repository;
+
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato binário do resultado de uma simulação (coluna RESULTADO e registros
+ * do log), no lugar do RESULTADO_JSON.
+ *
+ * <pre>
+ * byte    versão (1)
+ * byte    opções: bit 0 = corpo compactado (Deflate, sem cabeçalho zlib)
+ * varint  tamanho do corpo descompactado, só quando compactado
+ * corpo:
+ *   byte    presença: 1 = ID, 2 = descrição, 4 = taxa, 8 = resultados,
+ *           16 = sem código do produto
+ *   varlong ID da simulação
+ *   varint  código do produto (zigzag), omitido quando ausente
+ *   varint  bytes UTF-8 da descrição, seguidos deles
+ *   byte    escala da taxa, varlong valor sem escala (zigzag)
+ *   varint  quantidade de resultados; para cada um:
+ *     byte    sistema (0 = ausente, 1 = SAC, 2 = PRICE)
+ *     varint  quantidade de parcelas
+ *     três colunas (amortização, juros, prestação) em centavos: o primeiro
+ *     valor e depois a diferença para o anterior, em varlong zigzag
+ * </pre>
+ *
+ * Como a amortização do SAC e a prestação do PRICE são constantes e as demais
+ * colunas variam pouco de uma parcela para a outra, quase toda diferença cabe
+ * em um byte e se repete, o que o Deflate aproveita. O corpo só é gravado
+ * compactado quando fica menor.
+ *
+ * A decodificação devolve cronogramas colunares ({@link CronogramaAmortizacao}),
+ * cujo JSON é idêntico ao da lista de {@link ParcelaDTO} original. Os números
+ * das parcelas não são gravados: precisam ser 1, 2, 3...
+ */
+public final class CodecResultadoSimulacao {
+
+    public static final byte VERSAO = 1;
+
+    private static final int COMPACTADO = 1;
+
+    private static final int COM_ID = 1;
+    private static final int COM_DESCRICAO = 2;
+    private static final int COM_TAXA = 4;
+    private static final int COM_RESULTADOS = 8;
+    /** Invertido para que os resultados gravados antes dele continuem válidos */
+    private static final int SEM_PRODUTO = 16;
+
+    /** Corpos menores que isso não compensam o Deflate */
+    private static final int MINIMO_COMPACTACAO = 128;
+    private static final int POOL_MAXIMO = 16;
+    /**
+     * Maior corpo descompactado aceito; um cronograma de 420 parcelas nos dois
+     * sistemas ocupa poucos KB
+     */
+    static final int TAMANHO_MAXIMO_CORPO = 4 * 1024 * 1024;
+    /** O Deflate não expande os dados mais que isso por byte compactado */
+    private static final int EXPANSAO_MAXIMA_DEFLATE = 1032;
+
+    private static final Queue<Deflater> DEFLATERS = new ConcurrentLinkedQueue<>();
+    private static final Queue<Inflater> INFLATERS = new ConcurrentLinkedQueue<>();
+
+    private CodecResultadoSimulacao() {
+    }
+
+    /**
+     * Indica se {@code dados} estão neste formato; o RESULTADO_JSON antigo
+     * começa com '{'
+     */
+    public static boolean binario(byte[] dados) {
+        return dados != null && dados.length > 1 && dados[0] == VERSAO;
+    }
+
+    /**
+     * @throws IllegalArgumentException se as parcelas não estiverem numeradas
+     *                                  em sequência a partir de 1
+     * @throws ArithmeticException      se algum valor tiver mais de duas casas
+     *                                  decimais ou a taxa não couber em um long
+     */
+    public static byte[] codificar(SimulacaoResponseDTO resultado) {
+        Saida corpo = new Saida(256);
+        int presenca = (resultado.idSimulacao() != null ? COM_ID : 0)
+                | (resultado.descricaoProduto() != null ? COM_DESCRICAO : 0)
+                | (resultado.taxaJuros() != null ? COM_TAXA : 0)
+                | (resultado.resultadosSimulacao() != null ? COM_RESULTADOS : 0)
+                | (resultado.codigoProduto() == null ? SEM_PRODUTO : 0);
+        corpo.write(presenca);
+        if (resultado.idSimulacao() != null) {
+            corpo.varlong(resultado.idSimulacao());
+        }
+        if (resultado.codigoProduto() != null) {
+            corpo.varlong(zigzag(resultado.codigoProduto()));
+        }
+        if (resultado.descricaoProduto() != null) {
+            byte[] descricao = resultado.descricaoProduto().getBytes(StandardCharsets.UTF_8);
+            corpo.varlong(descricao.length);
+            corpo.write(descricao, 0, descricao.length);
+        }
+        if (resultado.taxaJuros() != null) {
+            corpo.write(resultado.taxaJuros().scale());
+            corpo.varlong(zigzag(resultado.taxaJuros().unscaledValue().longValueExact()));
+        }
+        if (resultado.resultadosSimulacao() != null) {
+            corpo.varlong(resultado.resultadosSimulacao().size());
+            for (ResultadoSimulacaoDTO item : resultado.resultadosSimulacao()) {
+                codificarCronograma(item, corpo);
+            }
+        }
+
+        byte[] compactado = corpo.size() >= MINIMO_COMPACTACAO ? compactar(corpo.bytes(), corpo.size()) : null;
+        Saida saida = new Saida(2 + (compactado != null ? compactado.length + 5 : corpo.size()));
+        saida.write(VERSAO);
+        if (compactado != null && compactado.length < corpo.size()) {
+            saida.write(COMPACTADO);
+            saida.varlong(corpo.size());
+            saida.write(compactado, 0, compactado.length);
+        } else {
+            saida.write(0);
+            saida.write(corpo.bytes(), 0, corpo.size());
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException se os dados não estiverem neste formato,
+     *                                  estiverem truncados ou declararem um
+     *                                  corpo maior que o possível
+     */
+    public static SimulacaoResponseDTO decodificar(byte[] dados) {
+        if (!binario(dados)) {
+            throw new IllegalArgumentException("Resultado da simulação fora do formato binário");
+        }
+        try {
+            Entrada corpo;
+            if ((dados[1] & COMPACTADO) != 0) {
+                Entrada cabecalho = new Entrada(dados, 2);
+                long tamanho = cabecalho.varlong();
+                corpo = new Entrada(descompactar(dados, cabecalho.posicao, tamanho), 0);
+            } else {
+                corpo = new Entrada(dados, 2);
+            }
+
+            int presenca = corpo.byteSemSinal();
+            Long id = (presenca & COM_ID) != 0 ? corpo.varlong() : null;
+            Integer codigoProduto = (presenca & SEM_PRODUTO) == 0 ? (int) dezigzag(corpo.varlong()) : null;
+            String descricao = null;
+            if ((presenca & COM_DESCRICAO) != 0) {
+                int tamanho = (int) corpo.varlong();
+                descricao = new String(corpo.dados, corpo.avancar(tamanho), tamanho, StandardCharsets.UTF_8);
+            }
+            BigDecimal taxa = null;
+            if ((presenca & COM_TAXA) != 0) {
+                int escala = corpo.dados[corpo.avancar(1)];
+                taxa = BigDecimal.valueOf(dezigzag(corpo.varlong()), escala);
+            }
+            List<ResultadoSimulacaoDTO> resultados = null;
+            if ((presenca & COM_RESULTADOS) != 0) {
+                int quantidade = (int) corpo.varlong();
+                if (quantidade < 0 || quantidade > corpo.restante()) {
+                    throw new IllegalArgumentException("Resultado da simulação truncado");
+                }
+                resultados = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    resultados.add(decodificarCronograma(corpo));
+                }
+            }
+            return new SimulacaoResponseDTO(id, codigoProduto, descricao, taxa, resultados);
+
+        } catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Resultado da simulação truncado", e);
+        }
+    }
+
+    private static void codificarCronograma(ResultadoSimulacaoDTO item, Saida saida) {
+        saida.write(codigo(item.tipo()));
+        List<ParcelaDTO> parcelas = item.parcelas() != null ? item.parcelas() : List.of();
+        int quantidade = parcelas.size();
+        saida.varlong(quantidade);
+
+        if (parcelas instanceof CronogramaAmortizacao cronograma) {
+            long anterior = 0;
+            for (int i = 0; i < quantidade; i++) {
+                anterior = diferenca(saida, cronograma.amortizacaoCentavos(i), anterior);
+            }
+            anterior = 0;
+            for (int i = 0; i < quantidade; i++) {
+                anterior = diferenca(saida, cronograma.jurosCentavos(i), anterior);
+            }
+            anterior = 0;
+            for (int i = 0; i < quantidade; i++) {
+                anterior = diferenca(saida, cronograma.prestacaoCentavos(i), anterior);
+            }
+            return;
+        }
+
+        long[] colunas = new long[quantidade * 3];
+        for (int i = 0; i < quantidade; i++) {
+            ParcelaDTO parcela = parcelas.get(i);
+            if (parcela.numero() != i + 1) {
+                throw new IllegalArgumentException("Parcela " + parcela.numero() + " na posição " + (i + 1));
+            }
+            colunas[i] = AritmeticaCentavos.paraCentavos(parcela.valorAmortizacao());
+            colunas[quantidade + i] = AritmeticaCentavos.paraCentavos(parcela.valorJuros());
+            colunas[2 * quantidade + i] = AritmeticaCentavos.paraCentavos(parcela.valorPrestacao());
+        }
+        for (int coluna = 0; coluna < 3; coluna++) {
+            long anterior = 0;
+            for (int i = coluna * quantidade; i < (coluna + 1) * quantidade; i++) {
+                anterior = diferenca(saida, colunas[i], anterior);
+            }
+        }
+    }
+
+    private static ResultadoSimulacaoDTO decodificarCronograma(Entrada entrada) {
+        TipoSimulacaoEnum tipo = tipo(entrada.byteSemSinal());
+        int quantidade = (int) entrada.varlong();
+        // Cada parcela ocupa ao menos um byte por coluna
+        if (quantidade < 0 || quantidade > entrada.restante() / 3) {
+            throw new IllegalArgumentException("Resultado da simulação truncado");
+        }
+        long[] amortizacao = new long[quantidade];
+        long[] juros = new long[quantidade];
+        long[] prestacao = new long[quantidade];
+        acumular(entrada, amortizacao);
+        acumular(entrada, juros);
+        acumular(entrada, prestacao);
+        return new ResultadoSimulacaoDTO(tipo, new CronogramaAmortizacao(tipo, amortizacao, juros, prestacao));
+    }
+
+    private static long diferenca(Saida saida, long valor, long anterior) {
+        saida.varlong(zigzag(valor - anterior));
+        return valor;
+    }
+
+    private static void acumular(Entrada entrada, long[] coluna) {
+        long anterior = 0;
+        for (int i = 0; i < coluna.length; i++) {
+            anterior += dezigzag(entrada.varlong());
+            coluna[i] = anterior;
+        }
+    }
+
+    private static int codigo(TipoSimulacaoEnum tipo) {
+        if (tipo == null) {
+            return 0;
+        }
+        return switch (tipo) {
+            case SAC -> 1;
+            case PRICE -> 2;
+        };
+    }
+
+    private static TipoSimulacaoEnum tipo(int codigo) {
+        return switch (codigo) {
+            case 0 -> null;
+            case 1 -> TipoSimulacaoEnum.SAC;
+            case 2 -> TipoSimulacaoEnum.PRICE;
+            default -> throw new IllegalArgumentException("Sistema de amortização desconhecido: " + codigo);
+        };
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long dezigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static byte[] compactar(byte[] dados, int tamanho) {
+        Deflater deflater = DEFLATERS.poll();
+        if (deflater == null) {
+            // As diferenças repetidas já comprimem bem no nível mais rápido
+            deflater = new Deflater(Deflater.BEST_SPEED, true);
+        }
+        try {
+            deflater.setInput(dados, 0, tamanho);
+            deflater.finish();
+            byte[] saida = new byte[tamanho];
+            int escritos = 0;
+            while (!deflater.finished() && escritos < saida.length) {
+                escritos += deflater.deflate(saida, escritos, saida.length - escritos);
+            }
+            // Não ficou menor que o original: grava sem compactar
+            return deflater.finished() ? Arrays.copyOf(saida, escritos) : null;
+        } finally {
+            devolver(deflater);
+        }
+    }
+
+    /**
+     * @param declarado tamanho lido do próprio resultado: só é alocado se
+     *                  couber no limite e no que os bytes compactados podem
+     *                  produzir
+     */
+    private static byte[] descompactar(byte[] dados, int inicio, long declarado) {
+        long compactados = dados.length - inicio;
+        if (declarado <= 0 || declarado > TAMANHO_MAXIMO_CORPO
+                || declarado > compactados * EXPANSAO_MAXIMA_DEFLATE) {
+            throw new IllegalArgumentException("Tamanho descompactado inválido no resultado da simulação: " + declarado);
+        }
+        int tamanho = (int) declarado;
+        Inflater inflater = INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            inflater.setInput(dados, inicio, dados.length - inicio);
+            byte[] saida = new byte[tamanho];
+            int lidos = 0;
+            while (lidos < tamanho && !inflater.finished()) {
+                int n = inflater.inflate(saida, lidos, tamanho - lidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                lidos += n;
+            }
+            if (lidos != tamanho) {
+                throw new IllegalArgumentException("Resultado da simulação truncado");
+            }
+            return saida;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Resultado da simulação corrompido", e);
+        } finally {
+            devolver(inflater);
+        }
+    }
+
+    private static void devolver(Deflater deflater) {
+        deflater.reset();
+        if (DEFLATERS.size() < POOL_MAXIMO) {
+            DEFLATERS.offer(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    private static void devolver(Inflater inflater) {
+        inflater.reset();
+        if (INFLATERS.size() < POOL_MAXIMO) {
+            INFLATERS.offer(inflater);
+        } else {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Buffer de saída que cresce sob demanda; não usa ByteArrayOutputStream,
+     * cujos métodos sincronizados pesam quando cada byte é escrito isolado
+     */
+    private static final class Saida {
+
+        private byte[] buf;
+        private int tamanho;
+
+        Saida(int capacidade) {
+            buf = new byte[capacidade];
+        }
+
+        void write(int valor) {
+            garantir(1);
+            buf[tamanho++] = (byte) valor;
+        }
+
+        void write(byte[] dados, int inicio, int quantidade) {
+            garantir(quantidade);
+            System.arraycopy(dados, inicio, buf, tamanho, quantidade);
+            tamanho += quantidade;
+        }
+
+        void varlong(long valor) {
+            garantir(10);
+            while ((valor & ~0x7FL) != 0) {
+                buf[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buf[tamanho++] = (byte) valor;
+        }
+
+        int size() {
+            return tamanho;
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, tamanho);
+        }
+
+        private void garantir(int quantidade) {
+            if (tamanho + quantidade > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, tamanho + quantidade));
+            }
+        }
+    }
+
+    private static final class Entrada {
+
+        private final byte[] dados;
+        private int posicao;
+
+        Entrada(byte[] dados, int posicao) {
+            this.dados = dados;
+            this.posicao = posicao;
+        }
+
+        int byteSemSinal() {
+            return dados[posicao++] & 0xFF;
+        }
+
+        int restante() {
+            return dados.length - posicao;
+        }
+
+        /** @return a posição antes de avançar */
+        int avancar(int quantidade) {
+            int inicio = posicao;
+            if (quantidade < 0 || inicio + quantidade > dados.length) {
+                throw new ArrayIndexOutOfBoundsException(inicio + quantidade);
+            }
+            posicao += quantidade;
+            return inicio;
+        }
+
+        long varlong() {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                byte b = dados[posicao++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if (b >= 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("varint maior que 64 bits no resultado da simulação");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Aloca IDSIMULACAO antes do INSERT reservando blocos da sequência
+ * SIMULACAO_SEQ (INCREMENT BY tamanho do bloco): cada NEXT VALUE reserva os
+ * IDs [valor, valor + bloco). Assim a resposta já nasce com o ID, o JSON é
+ * serializado uma única vez e a simulação é gravada com um só INSERT, que o
+ * Hibernate ou o JDBC podem agrupar em batch.
+ */
+@Slf4j
+@Component
+@DependsOn("localEntityManagerFactory")
+public class AlocadorIdSimulacao {
+
+    private static final String SEQUENCIA = "PUBLIC.SIMULACAO_SEQ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArmazenamentoSimulacoes armazenamento;
+
+    @Value("${app.simulacao.id.tamanho-bloco:50}")
+    private int tamanhoBloco;
+
+    private long proximo;
+    private long limite;
+
+    public AlocadorIdSimulacao(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate,
+            ArmazenamentoSimulacoes armazenamento) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.armazenamento = armazenamento;
+    }
+
+    /**
+     * Ajusta a sequência (criada em db/h2/schema.sql) ao tamanho de bloco e a
+     * posiciona após o maior ID já gravado, inclusive os arquivados e os do
+     * armazenamento em log
+     */
+    @PostConstruct
+    public void iniciar() {
+        Long maiorId = jdbcTemplate.queryForObject("SELECT GREATEST("
+                + "(SELECT COALESCE(MAX(IDSIMULACAO), 0) FROM PUBLIC.SIMULACAO), "
+                + "(SELECT COALESCE(MAX(IDSIMULACAO), 0) FROM PUBLIC.SIMULACAO_ARQUIVO))", Long.class);
+        long inicio = Math.max(maiorId != null ? maiorId : 0, armazenamento.maiorId()) + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCIA + " RESTART WITH " + inicio
+                + " INCREMENT BY " + tamanhoBloco);
+        log.info("Alocador de IDs de simulação iniciado: blocos de {} a partir de {}", tamanhoBloco, inicio);
+    }
+
+    /**
+     * Próximo ID livre; acessa o banco uma vez a cada bloco
+     */
+    public synchronized long proximoId() {
+        if (proximo >= limite) {
+            reservarBloco();
+        }
+        return proximo++;
+    }
+
+    /**
+     * Reserva {@code quantidade} IDs consecutivos ou não, na ordem de uso
+     */
+    public synchronized long[] proximosIds(int quantidade) {
+        long[] ids = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            ids[i] = proximoId();
+        }
+        return ids;
+    }
+
+    private void reservarBloco() {
+        Long inicio = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCIA, Long.class);
+        if (inicio == null) {
+            throw new IllegalStateException("Sequência " + SEQUENCIA + " não retornou valor");
+        }
+        proximo = inicio;
+        limite = inicio + tamanhoBloco;
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento padrão: tabela SIMULACAO do H2, gravada em batch JDBC e lida
+ * pelo Spring Data JPA. Os eventos das simulações vão para a
+ * SIMULACAO_EVENTO_OUTBOX na mesma transação.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.simulacao.armazenamento.tipo", havingValue = "h2", matchIfMissing = true)
+public class ArmazenamentoSimulacoesH2 implements ArmazenamentoSimulacoes {
+
+    private final SimulacaoRepository simulacaoRepository;
+    private final SimulacaoJdbcRepository simulacaoJdbcRepository;
+    private final OutboxEventosSimulacao outboxEventos;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.simulacao.exportacao.tamanho-fetch:1000}")
+    private int tamanhoFetch;
+
+    public ArmazenamentoSimulacoesH2(SimulacaoRepository simulacaoRepository,
+            SimulacaoJdbcRepository simulacaoJdbcRepository,
+            OutboxEventosSimulacao outboxEventos,
+            @Qualifier("localTransactionManager") PlatformTransactionManager transactionManager) {
+        this.simulacaoRepository = simulacaoRepository;
+        this.simulacaoJdbcRepository = simulacaoJdbcRepository;
+        this.outboxEventos = outboxEventos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void gravar(List<Simulacao> simulacoes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            simulacaoJdbcRepository.inserirEmLote(simulacoes);
+            outboxEventos.inserir(simulacoes);
+        });
+    }
+
+    @Override
+    public Optional<Simulacao> buscarPorId(long idSimulacao) {
+        return simulacaoRepository.findById(idSimulacao);
+    }
+
+    @Override
+    public List<Simulacao> buscarPorDataReferencia(LocalDate dataReferencia) {
+        return simulacaoRepository.findByDataReferencia(dataReferencia);
+    }
+
+    @Override
+    public Slice<SimulacaoResumoProjecao> listarResumos(Pageable pagina) {
+        return simulacaoRepository.findResumosBy(pagina);
+    }
+
+    @Override
+    public List<SimulacaoResumoProjecao> listarResumosApos(long aposId, int limite) {
+        return simulacaoRepository.findResumosByIdSimulacaoGreaterThanOrderByIdSimulacaoAsc(aposId,
+                Limit.of(limite));
+    }
+
+    @Override
+    public void percorrerResumos(LocalDate dataReferencia, Integer produtoId, Consumer<Simulacao> processador) {
+        simulacaoJdbcRepository.percorrerResumos(dataReferencia, produtoId, tamanhoFetch, processador);
+    }
+
+    @Override
+    public List<VolumeProdutoProjecao> agregarVolumePorProduto(LocalDate dataReferencia) {
+        return simulacaoRepository.agregarVolumePorProduto(dataReferencia);
+    }
+
+    @Override
+    public List<VolumeDiaProdutoProjecao> agregarVolumePorDiaEProduto() {
+        return simulacaoRepository.agregarVolumePorDiaEProduto();
+    }
+
+    @Override
+    public long contar() {
+        return simulacaoRepository.count();
+    }
+
+    @Override
+    public long maiorId() {
+        return simulacaoJdbcRepository.maiorId();
+    }
+
+    @Override
+    public String tipo() {
+        return "h2";
+    }
+
+    @Override
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("tipo", tipo());
+        estatisticas.put("simulacoes", contar());
+        estatisticas.put("maior_id", maiorId());
+        return estatisticas;
+    }
+}
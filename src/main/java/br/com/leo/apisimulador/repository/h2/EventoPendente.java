@@ -0,0 +1,14 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento da SIMULACAO_EVENTO_OUTBOX ainda não confirmado pelo destino
+ */
+public record EventoPendente(
+        long idEvento,
+        String chaveParticao,
+        byte[] corpo,
+        LocalDateTime criadoEm,
+        int tentativas) {
+}
@@ -0,0 +1,160 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Histórico local, só de acréscimo, das taxas dos produtos
+ * (PRODUTO_TAXA_HISTORICO). Cada recarga do catálogo registra uma nova versão
+ * para os produtos cuja taxa ou descrição mudou; as simulações gravam a
+ * versão vigente em VERSAO_TAXA, o que basta para recalcular o resultado
+ * mesmo depois que o SQL Server mudar a taxa.
+ *
+ * O histórico inteiro fica em memória (uma linha por mudança de taxa) e é
+ * recarregado do H2 na inicialização.
+ */
+@Slf4j
+@Repository
+@DependsOn("localEntityManagerFactory")
+public class HistoricoTaxasProduto {
+
+    private static final String SQL_CARREGAR = "SELECT VERSAO, PRODUTO_ID, TAXA_JUROS, DESCRICAO_PRODUTO, "
+            + "REGISTRADA_EM FROM PUBLIC.PRODUTO_TAXA_HISTORICO ORDER BY VERSAO";
+
+    private static final String SQL_INSERIR = "INSERT INTO PUBLIC.PRODUTO_TAXA_HISTORICO "
+            + "(VERSAO, PRODUTO_ID, TAXA_JUROS, DESCRICAO_PRODUTO, REGISTRADA_EM) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, VersaoTaxaProduto> porVersao = new ConcurrentHashMap<>();
+    /** Versões de cada produto, da mais recente para a mais antiga; trocadas por cópia */
+    private final Map<Integer, List<VersaoTaxaProduto>> porProduto = new ConcurrentHashMap<>();
+    private volatile long ultimaVersao;
+
+    public HistoricoTaxasProduto(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public synchronized void carregar() {
+        List<VersaoTaxaProduto> versoes = jdbcTemplate.query(SQL_CARREGAR, (rs, linha) -> new VersaoTaxaProduto(
+                rs.getLong(1),
+                rs.getInt(2),
+                rs.getBigDecimal(3),
+                rs.getString(4),
+                rs.getTimestamp(5) != null ? rs.getTimestamp(5).toLocalDateTime() : null));
+        versoes.forEach(this::publicar);
+        log.info("Histórico de taxas dos produtos carregado: {} versões de {} produtos",
+                porVersao.size(), porProduto.size());
+    }
+
+    /**
+     * Registra uma nova versão para cada produto sem histórico ou com taxa ou
+     * descrição diferente da última versão
+     *
+     * @return quantidade de versões registradas
+     */
+    public synchronized int registrar(List<Produto> produtos) {
+        LocalDateTime agora = TimeZoneConfig.now();
+        List<VersaoTaxaProduto> novas = new ArrayList<>();
+        long versao = ultimaVersao;
+        for (Produto produto : produtos) {
+            if (produto.getCodigoProduto() == null || produto.getTaxaJuros() == null) {
+                continue;
+            }
+            VersaoTaxaProduto atual = ultimaDe(produto.getCodigoProduto());
+            if (atual == null || atual.taxaJuros().compareTo(produto.getTaxaJuros()) != 0
+                    || !Objects.equals(atual.descricaoProduto(), produto.getDescricaoProduto())) {
+                novas.add(new VersaoTaxaProduto(++versao, produto.getCodigoProduto(), produto.getTaxaJuros(),
+                        produto.getDescricaoProduto(), agora));
+            }
+        }
+        if (novas.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(SQL_INSERIR, novas.stream()
+                .map(nova -> new Object[] { nova.versao(), nova.produtoId(), nova.taxaJuros(),
+                        nova.descricaoProduto(), Timestamp.valueOf(nova.registradaEm()) })
+                .toList());
+        novas.forEach(this::publicar);
+        log.info("{} nova(s) versão(ões) de taxa registrada(s) no histórico dos produtos", novas.size());
+        return novas.size();
+    }
+
+    /**
+     * Versão mais recente do produto com a mesma taxa, ou null se a taxa não
+     * estiver no histórico
+     */
+    public Long versaoDe(Produto produto) {
+        if (produto.getCodigoProduto() == null || produto.getTaxaJuros() == null) {
+            return null;
+        }
+        for (VersaoTaxaProduto versao : porProduto.getOrDefault(produto.getCodigoProduto(), List.of())) {
+            if (versao.taxaJuros().compareTo(produto.getTaxaJuros()) == 0) {
+                return versao.versao();
+            }
+        }
+        return null;
+    }
+
+    public Optional<VersaoTaxaProduto> buscar(long versao) {
+        return Optional.ofNullable(porVersao.get(versao));
+    }
+
+    /**
+     * Versões do produto, da mais recente para a mais antiga; todas as
+     * versões, em ordem, se {@code produtoId} for nulo
+     */
+    public List<VersaoTaxaProduto> listar(Integer produtoId) {
+        if (produtoId != null) {
+            return porProduto.getOrDefault(produtoId, List.of());
+        }
+        return porVersao.values().stream()
+                .sorted((a, b) -> Long.compare(a.versao(), b.versao()))
+                .toList();
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("versoes", porVersao.size());
+        estatisticas.put("produtos", porProduto.size());
+        estatisticas.put("ultima_versao", ultimaVersao);
+        return estatisticas;
+    }
+
+    private VersaoTaxaProduto ultimaDe(int produtoId) {
+        List<VersaoTaxaProduto> versoes = porProduto.get(produtoId);
+        return versoes != null && !versoes.isEmpty() ? versoes.get(0) : null;
+    }
+
+    private void publicar(VersaoTaxaProduto versao) {
+        porVersao.put(versao.versao(), versao);
+        porProduto.compute(versao.produtoId(), (produtoId, anteriores) -> {
+            List<VersaoTaxaProduto> versoes = new ArrayList<>();
+            versoes.add(versao);
+            if (anteriores != null) {
+                versoes.addAll(anteriores);
+            }
+            return List.copyOf(versoes);
+        });
+        ultimaVersao = Math.max(ultimaVersao, versao.versao());
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acesso JDBC à SIMULACAO_EVENTO_OUTBOX. {@link #inserir} deve ser chamado
+ * dentro da mesma transação do localTransactionManager que grava as
+ * simulações; as demais operações são do DespachanteOutbox e do diagnóstico.
+ */
+@Repository
+@DependsOn("localEntityManagerFactory")
+public class OutboxEventosSimulacao {
+
+    private static final String SQL_INSERIR = "INSERT INTO PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "(IDEVENTO, CHAVE_PARTICAO, CORPO, CRIADO_EM) VALUES (?, ?, ?, ?)";
+
+    private static final String SQL_PENDENTES = "SELECT IDEVENTO, CHAVE_PARTICAO, CORPO, CRIADO_EM, TENTATIVAS "
+            + "FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX WHERE PUBLICADO_EM IS NULL AND DESCARTADO_EM IS NULL";
+
+    private static final String SQL_MARCAR_PUBLICADO = "UPDATE PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "SET PUBLICADO_EM = ?, ULTIMO_ERRO = NULL WHERE IDEVENTO = ?";
+
+    private static final String SQL_REGISTRAR_FALHA = "UPDATE PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "SET TENTATIVAS = TENTATIVAS + 1, ULTIMO_ERRO = ? WHERE IDEVENTO = ?";
+
+    private static final String SQL_DESCARTAR = "UPDATE PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "SET DESCARTADO_EM = ?, TENTATIVAS = TENTATIVAS + 1, ULTIMO_ERRO = ? WHERE IDEVENTO = ?";
+
+    private static final String SQL_CONTAR_DESCARTADOS = "SELECT COUNT(*), MIN(IDEVENTO) "
+            + "FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX WHERE DESCARTADO_EM IS NOT NULL";
+
+    private static final String SQL_RESUMO_PARTICOES = "SELECT CHAVE_PARTICAO, COUNT(*), MIN(CRIADO_EM), "
+            + "MAX(TENTATIVAS), MIN(IDEVENTO) FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "WHERE PUBLICADO_EM IS NULL AND DESCARTADO_EM IS NULL "
+            + "GROUP BY CHAVE_PARTICAO ORDER BY CHAVE_PARTICAO";
+
+    private static final String SQL_REABRIR = "UPDATE PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "SET PUBLICADO_EM = NULL, DESCARTADO_EM = NULL, TENTATIVAS = 0, ULTIMO_ERRO = NULL "
+            + "WHERE (PUBLICADO_EM IS NOT NULL OR DESCARTADO_EM IS NOT NULL) AND IDEVENTO >= ?";
+
+    private static final String SQL_REMOVER_PUBLICADOS = "DELETE FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX "
+            + "WHERE PUBLICADO_EM IS NOT NULL AND PUBLICADO_EM < ? LIMIT ?";
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxEventosSimulacao(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere o evento de cada simulação que tiver um evento
+     * ({@link Simulacao#getEvento()} não nulo). O chamador já deve estar na
+     * transação do localTransactionManager que grava as simulações, para que
+     * o evento só exista se a simulação for gravada.
+     *
+     * @return quantidade de eventos inseridos
+     */
+    public int inserir(List<Simulacao> simulacoes) {
+        List<Simulacao> comEvento = simulacoes.stream()
+                .filter(simulacao -> simulacao.getEvento() != null)
+                .toList();
+        if (comEvento.isEmpty()) {
+            return 0;
+        }
+        Timestamp agora = Timestamp.valueOf(TimeZoneConfig.now());
+        jdbcTemplate.batchUpdate(SQL_INSERIR, comEvento, comEvento.size(), (stmt, simulacao) -> {
+            stmt.setLong(1, simulacao.getIdSimulacao());
+            stmt.setString(2, String.valueOf(simulacao.getProdutoId()));
+            stmt.setBytes(3, simulacao.getEvento());
+            stmt.setTimestamp(4, agora);
+        });
+        return comEvento.size();
+    }
+
+    /**
+     * Eventos pendentes em ordem de IDEVENTO, ignorando as partições em
+     * espera
+     */
+    public List<EventoPendente> listarPendentes(int limite, Collection<String> particoesIgnoradas) {
+        StringBuilder sql = new StringBuilder(SQL_PENDENTES);
+        List<Object> parametros = new ArrayList<>(particoesIgnoradas);
+        if (!particoesIgnoradas.isEmpty()) {
+            sql.append(" AND CHAVE_PARTICAO NOT IN (")
+                    .append(String.join(", ", Collections.nCopies(particoesIgnoradas.size(), "?")))
+                    .append(')');
+        }
+        sql.append(" ORDER BY IDEVENTO LIMIT ?");
+        parametros.add(limite);
+
+        return jdbcTemplate.query(sql.toString(), (rs, linha) -> new EventoPendente(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getBytes(3),
+                rs.getTimestamp(4).toLocalDateTime(),
+                rs.getInt(5)), parametros.toArray());
+    }
+
+    public void marcarPublicados(List<Long> idsEventos) {
+        if (idsEventos.isEmpty()) {
+            return;
+        }
+        Timestamp agora = Timestamp.valueOf(TimeZoneConfig.now());
+        jdbcTemplate.batchUpdate(SQL_MARCAR_PUBLICADO, idsEventos, idsEventos.size(), (stmt, id) -> {
+            stmt.setTimestamp(1, agora);
+            stmt.setLong(2, id);
+        });
+    }
+
+    public void registrarFalha(List<Long> idsEventos, String erro) {
+        if (idsEventos.isEmpty()) {
+            return;
+        }
+        String mensagem = limitar(erro);
+        jdbcTemplate.batchUpdate(SQL_REGISTRAR_FALHA, idsEventos, idsEventos.size(), (stmt, id) -> {
+            stmt.setString(1, mensagem);
+            stmt.setLong(2, id);
+        });
+    }
+
+    /**
+     * Tira da fila de pendentes, sem marcar como publicados, os eventos que o
+     * destino nunca vai aceitar; voltam com {@link #reabrir}
+     */
+    public void descartar(List<Long> idsEventos, String erro) {
+        if (idsEventos.isEmpty()) {
+            return;
+        }
+        Timestamp agora = Timestamp.valueOf(TimeZoneConfig.now());
+        String mensagem = limitar(erro);
+        jdbcTemplate.batchUpdate(SQL_DESCARTAR, idsEventos, idsEventos.size(), (stmt, id) -> {
+            stmt.setTimestamp(1, agora);
+            stmt.setString(2, mensagem);
+            stmt.setLong(3, id);
+        });
+    }
+
+    /**
+     * Devolve à fila de pendentes os eventos já publicados ou descartados a
+     * partir de {@code desdeIdEvento}, para reenvio
+     *
+     * @return quantidade de eventos reabertos
+     */
+    public int reabrir(long desdeIdEvento) {
+        return jdbcTemplate.update(SQL_REABRIR, desdeIdEvento);
+    }
+
+    /**
+     * Remove até {@code limite} eventos publicados antes de {@code antesDe}
+     *
+     * @return quantidade de eventos removidos
+     */
+    public int removerPublicados(LocalDateTime antesDe, int limite) {
+        return jdbcTemplate.update(SQL_REMOVER_PUBLICADOS, Timestamp.valueOf(antesDe), limite);
+    }
+
+    /**
+     * Pendentes no total e por partição, com a idade do mais antigo
+     */
+    public Map<String, Object> resumirPendentes() {
+        LocalDateTime agora = TimeZoneConfig.now();
+        Map<String, Object> porParticao = new LinkedHashMap<>();
+        long[] total = new long[1];
+        LocalDateTime[] maisAntigo = new LocalDateTime[1];
+        jdbcTemplate.query(SQL_RESUMO_PARTICOES, rs -> {
+            long pendentes = rs.getLong(2);
+            LocalDateTime criadoEm = rs.getTimestamp(3).toLocalDateTime();
+            Map<String, Object> particao = new LinkedHashMap<>();
+            particao.put("pendentes", pendentes);
+            particao.put("primeiro_id_evento", rs.getLong(5));
+            particao.put("idade_mais_antigo_segundos", Duration.between(criadoEm, agora).toSeconds());
+            particao.put("maximo_tentativas", rs.getInt(4));
+            porParticao.put(rs.getString(1), particao);
+            total[0] += pendentes;
+            if (maisAntigo[0] == null || criadoEm.isBefore(maisAntigo[0])) {
+                maisAntigo[0] = criadoEm;
+            }
+        });
+
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("pendentes", total[0]);
+        resumo.put("mais_antigo_pendente", maisAntigo[0]);
+        resumo.put("idade_mais_antigo_segundos",
+                maisAntigo[0] != null ? Duration.between(maisAntigo[0], agora).toSeconds() : 0L);
+        resumo.put("particoes", porParticao);
+        jdbcTemplate.query(SQL_CONTAR_DESCARTADOS, rs -> {
+            resumo.put("descartados", rs.getLong(1));
+            resumo.put("primeiro_id_descartado", rs.getObject(2));
+        });
+        return resumo;
+    }
+
+    private static String limitar(String erro) {
+        return erro != null && erro.length() > TAMANHO_MAXIMO_ERRO
+                ? erro.substring(0, TAMANHO_MAXIMO_ERRO)
+                : erro;
+    }
+}
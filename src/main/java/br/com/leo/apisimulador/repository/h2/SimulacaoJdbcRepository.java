@@ -0,0 +1,144 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.CodecResultadoSimulacao;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Acesso JDBC à tabela SIMULACAO fora do ciclo de vida do Hibernate: escritas
+ * em lote, que devem ser chamadas dentro de uma transação do
+ * localTransactionManager, e leitura sequencial por cursor.
+ */
+@Repository
+public class SimulacaoJdbcRepository {
+
+    private static final String SQL_INSERIR = "INSERT INTO PUBLIC.SIMULACAO "
+            + "(IDSIMULACAO, DATA_REFERENCIA, VALOR_DESEJADO, PRAZO, PRODUTO_ID, RESULTADO, RESULTADO_JSON, "
+            + "TAXA_JUROS, DESCRICAO_PRODUTO, VALOR_TOTAL_SAC, VALOR_TOTAL_PRICE, VALOR_PRIMEIRA_PRESTACAO, "
+            + "VERSAO_TAXA) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_RESUMOS = "SELECT IDSIMULACAO, DATA_REFERENCIA, PRODUTO_ID, "
+            + "DESCRICAO_PRODUTO, VALOR_DESEJADO, PRAZO, TAXA_JUROS, VALOR_TOTAL_SAC, VALOR_TOTAL_PRICE, "
+            + "VALOR_PRIMEIRA_PRESTACAO FROM PUBLIC.SIMULACAO";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SimulacaoJdbcRepository(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere as simulações, com IDs já atribuídos, num único batch JDBC; o
+     * resultado é codificado aqui, fora da thread da requisição
+     */
+    public void inserirEmLote(List<Simulacao> simulacoes) {
+        if (simulacoes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERIR, simulacoes, simulacoes.size(), (stmt, simulacao) -> {
+            stmt.setLong(1, simulacao.getIdSimulacao());
+            stmt.setObject(2, simulacao.getDataReferencia());
+            stmt.setBigDecimal(3, simulacao.getValorDesejado());
+            stmt.setInt(4, simulacao.getPrazo());
+            stmt.setInt(5, simulacao.getProdutoId());
+            stmt.setBytes(6, simulacao.getResultado() != null
+                    ? CodecResultadoSimulacao.codificar(simulacao.getResultado())
+                    : null);
+            stmt.setString(7, simulacao.getResultadoJson());
+            stmt.setBigDecimal(8, simulacao.getTaxaJuros());
+            stmt.setString(9, simulacao.getDescricaoProduto());
+            stmt.setBigDecimal(10, simulacao.getValorTotalSac());
+            stmt.setBigDecimal(11, simulacao.getValorTotalPrice());
+            stmt.setBigDecimal(12, simulacao.getValorPrimeiraPrestacao());
+            stmt.setObject(13, simulacao.getVersaoTaxa(), Types.BIGINT);
+        });
+    }
+
+    /**
+     * Percorre as colunas de resumo das simulações em ordem de IDSIMULACAO,
+     * com filtros opcionais, entregando uma simulação por vez (sem o
+     * resultado) ao {@code processador}.
+     *
+     * O cursor é somente para frente e a consulta roda com
+     * LAZY_QUERY_EXECUTION, para que o H2 não materialize o resultado: a
+     * memória usada depende de {@code tamanhoFetch}, não da quantidade de
+     * linhas.
+     */
+    public void percorrerResumos(LocalDate dataReferencia, Integer produtoId, int tamanhoFetch,
+            Consumer<Simulacao> processador) {
+        StringBuilder sql = new StringBuilder(SQL_RESUMOS);
+        List<Object> parametros = new ArrayList<>(2);
+        if (dataReferencia != null) {
+            sql.append(" WHERE DATA_REFERENCIA = ?");
+            parametros.add(dataReferencia);
+        }
+        if (produtoId != null) {
+            sql.append(parametros.isEmpty() ? " WHERE" : " AND").append(" PRODUTO_ID = ?");
+            parametros.add(produtoId);
+        }
+        sql.append(" ORDER BY IDSIMULACAO");
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (Statement comando = conexao.createStatement()) {
+                comando.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+            try (PreparedStatement consulta = conexao.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                consulta.setFetchSize(tamanhoFetch);
+                for (int i = 0; i < parametros.size(); i++) {
+                    consulta.setObject(i + 1, parametros.get(i));
+                }
+                try (ResultSet linhas = consulta.executeQuery()) {
+                    while (linhas.next()) {
+                        processador.accept(mapearResumo(linhas));
+                    }
+                }
+            } finally {
+                // A conexão volta ao pool com o modo padrão
+                try (Statement comando = conexao.createStatement()) {
+                    comando.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Maior IDSIMULACAO da tabela, ou 0
+     */
+    public long maiorId() {
+        Long maior = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(IDSIMULACAO), 0) FROM PUBLIC.SIMULACAO",
+                Long.class);
+        return maior != null ? maior : 0L;
+    }
+
+    private static Simulacao mapearResumo(ResultSet linha) throws SQLException {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setIdSimulacao(linha.getLong(1));
+        Date data = linha.getDate(2);
+        simulacao.setDataReferencia(data != null ? data.toLocalDate() : null);
+        simulacao.setProdutoId(linha.getInt(3));
+        simulacao.setDescricaoProduto(linha.getString(4));
+        simulacao.setValorDesejado(linha.getBigDecimal(5));
+        simulacao.setPrazo(linha.getInt(6));
+        simulacao.setTaxaJuros(linha.getBigDecimal(7));
+        simulacao.setValorTotalSac(linha.getBigDecimal(8));
+        simulacao.setValorTotalPrice(linha.getBigDecimal(9));
+        simulacao.setValorPrimeiraPrestacao(linha.getBigDecimal(10));
+        return simulacao;
+    }
+}
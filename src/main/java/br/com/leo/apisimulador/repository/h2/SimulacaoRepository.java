@@ -2,8 +2,12 @@ package br.com.leo.apisimulador.repository.h2;
 
 import br.com.leo.apisimulador.model.h2.Simulacao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -14,4 +18,38 @@ public interface SimulacaoRepository extends JpaRepository<Simulacao, Long> {
     List<Simulacao> findByDataReferencia(LocalDate dataReferencia);
     @NonNull
     Page<Simulacao> findAll(@NonNull Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Página da listagem lendo apenas as colunas de resumo, sem COUNT(*)
+     */
+    Slice<SimulacaoResumoProjecao> findResumosBy(Pageable pageable);
+
+    /**
+     * Página da listagem por chave: as simulações seguintes a
+     * {@code aposId}, buscadas pelo índice da chave primária
+     */
+    List<SimulacaoResumoProjecao> findResumosByIdSimulacaoGreaterThanOrderByIdSimulacaoAsc(Long aposId,
+            Limit limite);
+
+    /**
+     * Relatório de volume do dia agregado por produto em uma única consulta
+     * sobre as colunas de resumo
+     */
+    @Query("SELECT s.produtoId AS produtoId, MAX(s.descricaoProduto) AS descricaoProduto, "
+            + "COUNT(s) AS quantidade, SUM(s.valorDesejado) AS valorTotalDesejado, "
+            + "SUM(s.taxaJuros) AS somaTaxasJuros, SUM(s.valorTotalPrice) AS valorTotalCredito, "
+            + "SUM(s.valorPrimeiraPrestacao) AS somaPrimeirasPrestacoes "
+            + "FROM Simulacao s WHERE s.dataReferencia = :dataReferencia "
+            + "GROUP BY s.produtoId ORDER BY s.produtoId")
+    List<VolumeProdutoProjecao> agregarVolumePorProduto(@Param("dataReferencia") LocalDate dataReferencia);
+
+    /**
+     * Totais de todas as simulações agregados por dia e produto
+     */
+    @Query("SELECT s.dataReferencia AS dataReferencia, s.produtoId AS produtoId, "
+            + "MAX(s.descricaoProduto) AS descricaoProduto, COUNT(s) AS quantidade, "
+            + "SUM(s.valorDesejado) AS valorTotalDesejado, SUM(s.taxaJuros) AS somaTaxasJuros, "
+            + "SUM(s.valorTotalPrice) AS valorTotalCredito, SUM(s.valorPrimeiraPrestacao) AS somaPrimeirasPrestacoes "
+            + "FROM Simulacao s GROUP BY s.dataReferencia, s.produtoId")
+    List<VolumeDiaProdutoProjecao> agregarVolumePorDiaEProduto();
+}
@@ -0,0 +1,19 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import java.math.BigDecimal;
+
+/**
+ * Colunas de SIMULACAO lidas pela listagem, sem o resultado
+ */
+public interface SimulacaoResumoProjecao {
+
+    Long getIdSimulacao();
+
+    BigDecimal getValorDesejado();
+
+    Integer getPrazo();
+
+    BigDecimal getValorTotalSac();
+
+    BigDecimal getValorTotalPrice();
+}
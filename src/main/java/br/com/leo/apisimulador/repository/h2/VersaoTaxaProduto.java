@@ -0,0 +1,12 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha de PRODUTO_TAXA_HISTORICO: taxa e descrição que o produto tinha a
+ * partir de {@code registradaEm}
+ */
+public record VersaoTaxaProduto(long versao, int produtoId, BigDecimal taxaJuros, String descricaoProduto,
+        LocalDateTime registradaEm) {
+}
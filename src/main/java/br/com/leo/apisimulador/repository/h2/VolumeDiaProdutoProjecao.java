@@ -0,0 +1,11 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import java.time.LocalDate;
+
+/**
+ * Totais das simulações de um produto em um dia, com o dia
+ */
+public interface VolumeDiaProdutoProjecao extends VolumeProdutoProjecao {
+
+    LocalDate getDataReferencia();
+}
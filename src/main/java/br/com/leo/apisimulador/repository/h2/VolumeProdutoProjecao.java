@@ -0,0 +1,28 @@
+package br.com.leo.apisimulador.repository.h2;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais das simulações de um produto em um dia, agregados no banco. As
+ * somas são nulas quando nenhuma linha do grupo tem a coluna preenchida.
+ */
+public interface VolumeProdutoProjecao {
+
+    Integer getProdutoId();
+
+    /**
+     * Descrição gravada com as simulações, usada quando o produto não está
+     * mais no catálogo
+     */
+    String getDescricaoProduto();
+
+    Long getQuantidade();
+
+    BigDecimal getValorTotalDesejado();
+
+    BigDecimal getSomaTaxasJuros();
+
+    BigDecimal getValorTotalCredito();
+
+    BigDecimal getSomaPrimeirasPrestacoes();
+}
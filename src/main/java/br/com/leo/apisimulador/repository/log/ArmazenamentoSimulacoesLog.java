@@ -0,0 +1,476 @@
+package br.com.leo.apisimulador.repository.log;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.OutboxEventosSimulacao;
+import br.com.leo.apisimulador.repository.h2.SimulacaoResumoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeDiaProdutoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento das simulações em um log só de acréscimo, em segmentos
+ * mapeados em memória (app.simulacao.armazenamento.tipo=log), sem Hibernate
+ * nem H2 no caminho da gravação.
+ *
+ * Cada segmento guarda simulações de um único dia
+ * ({@code simulacoes-AAAA-MM-DD-NNNNNN.seg}); um índice por dia aponta os
+ * segmentos de cada DATA_REFERENCIA e o {@link IndiceIdsLog} localiza cada
+ * ID. Os dois índices são reconstruídos na inicialização, percorrendo os
+ * segmentos; um registro com CRC inválido marca o fim dos dados daquele
+ * segmento. As leituras decodificam os campos direto do segmento mapeado.
+ *
+ * Um lote é escrito inteiro, gravado em disco ({@code force}) quando
+ * forcar-gravacao está ativo, e só então publicado para leitura; se a
+ * escrita falhar no meio, os registros já escritos são descartados.
+ *
+ * Os eventos das simulações vão para a SIMULACAO_EVENTO_OUTBOX do H2 depois
+ * que o lote foi escrito, fora de transação: se o processo cair entre as duas
+ * escritas, os eventos daquele lote se perdem (nunca o contrário, um evento
+ * de simulação não gravada).
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.simulacao.armazenamento.tipo", havingValue = "log")
+public class ArmazenamentoSimulacoesLog implements ArmazenamentoSimulacoes {
+
+    private static final Pattern NOME_SEGMENTO = Pattern
+            .compile("simulacoes-(\\d{4}-\\d{2}-\\d{2})-(\\d{6})\\.seg");
+    private static final int BLOCO_LEITURA = 1024;
+    private static final long BYTES_MB = 1024L * 1024L;
+
+    private final String diretorio;
+    private final int tamanhoSegmentoMb;
+    private final boolean forcarGravacao;
+
+    /** Ausente no benchmark, que usa o log sem o H2 */
+    @Autowired(required = false)
+    private OutboxEventosSimulacao outboxEventos;
+
+    private final IndiceIdsLog indice = new IndiceIdsLog();
+    private final Map<LocalDate, List<SegmentoLog>> segmentosPorDia = new ConcurrentSkipListMap<>();
+    /** Segmentos pelo número; trocado por cópia quando um segmento é criado */
+    private volatile SegmentoLog[] segmentos = new SegmentoLog[0];
+    private Path raiz;
+
+    private final AtomicLong registrosGravados = new AtomicLong();
+    private final AtomicLong lotesGravados = new AtomicLong();
+    private final AtomicLong bytesGravados = new AtomicLong();
+    private final AtomicLong lotesDescartados = new AtomicLong();
+    private volatile long duracaoRecuperacaoMs;
+    private volatile int segmentosCorrompidos;
+
+    public ArmazenamentoSimulacoesLog(
+            @Value("${app.simulacao.armazenamento.log.diretorio:./dados/simulacoes-log}") String diretorio,
+            @Value("${app.simulacao.armazenamento.log.tamanho-segmento-mb:64}") int tamanhoSegmentoMb,
+            @Value("${app.simulacao.armazenamento.log.forcar-gravacao:true}") boolean forcarGravacao) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmentoMb = tamanhoSegmentoMb;
+        this.forcarGravacao = forcarGravacao;
+    }
+
+    @PostConstruct
+    public void abrir() throws IOException {
+        long inicio = System.nanoTime();
+        raiz = Paths.get(diretorio);
+        Files.createDirectories(raiz);
+
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(raiz)) {
+            arquivos = listagem
+                    .filter(arquivo -> NOME_SEGMENTO.matcher(arquivo.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(ArmazenamentoSimulacoesLog::numeroSegmento))
+                    .toList();
+        }
+
+        for (Path arquivo : arquivos) {
+            Matcher nome = NOME_SEGMENTO.matcher(arquivo.getFileName().toString());
+            nome.matches();
+            SegmentoLog segmento = SegmentoLog.abrir(Integer.parseInt(nome.group(2)),
+                    LocalDate.parse(nome.group(1)), arquivo, capacidadeSegmento());
+            boolean corrompido = segmento.recuperar(posicao -> {
+                long id = CodecRegistroSimulacao.id(segmento.getBuffer(), posicao);
+                if (!indice.adicionar(id, IndiceIdsLog.localizacao(segmento.getNumero(), posicao))) {
+                    log.warn("Simulação {} repetida no segmento {}; mantida a primeira ocorrência", id,
+                            arquivo.getFileName());
+                }
+            });
+            if (corrompido) {
+                segmentosCorrompidos++;
+                log.warn("⚠️ Segmento {} tinha um registro incompleto após {} bytes; descartado",
+                        arquivo.getFileName(), segmento.getLimite());
+            }
+            registrar(segmento);
+        }
+
+        duracaoRecuperacaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Log de simulações aberto em {}: {} segmentos, {} simulações em {} ms",
+                raiz.toAbsolutePath(), arquivos.size(), indice.tamanho(), duracaoRecuperacaoMs);
+    }
+
+    @PreDestroy
+    public synchronized void fechar() {
+        for (SegmentoLog segmento : segmentos) {
+            if (segmento == null) {
+                continue;
+            }
+            try {
+                segmento.forcar();
+                segmento.fechar();
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Falha ao fechar o segmento {}: {}", segmento.getArquivo().getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void gravar(List<Simulacao> simulacoes) {
+        if (simulacoes.isEmpty()) {
+            return;
+        }
+        // Codifica antes de pegar o lock: um valor fora do formato recusa o lote inteiro
+        byte[][] registros = new byte[simulacoes.size()][];
+        for (int i = 0; i < registros.length; i++) {
+            if (simulacoes.get(i).getIdSimulacao() == null) {
+                throw new IllegalArgumentException("Simulação sem ID não pode ser gravada no log");
+            }
+            registros[i] = CodecRegistroSimulacao.codificar(simulacoes.get(i));
+        }
+        escrever(simulacoes, registros);
+        if (outboxEventos != null) {
+            outboxEventos.inserir(simulacoes);
+        }
+    }
+
+    @Override
+    public Optional<Simulacao> buscarPorId(long idSimulacao) {
+        long localizacao = indice.localizar(idSimulacao);
+        if (localizacao == IndiceIdsLog.AUSENTE) {
+            return Optional.empty();
+        }
+        return Optional.of(CodecRegistroSimulacao.decodificar(buffer(localizacao),
+                IndiceIdsLog.posicao(localizacao), true));
+    }
+
+    @Override
+    public List<Simulacao> buscarPorDataReferencia(LocalDate dataReferencia) {
+        List<Simulacao> simulacoes = new ArrayList<>();
+        for (SegmentoLog segmento : segmentosDoDia(dataReferencia)) {
+            ByteBuffer buffer = segmento.getBuffer();
+            segmento.percorrer(posicao -> simulacoes.add(CodecRegistroSimulacao.decodificar(buffer, posicao, true)));
+        }
+        return simulacoes;
+    }
+
+    /**
+     * Sempre em ordem de ID; a ordenação pedida em {@code pagina} é ignorada
+     */
+    @Override
+    public Slice<SimulacaoResumoProjecao> listarResumos(Pageable pagina) {
+        long inicio = pagina.isPaged() ? pagina.getOffset() : 0;
+        int tamanho = pagina.isPaged() ? pagina.getPageSize() : Integer.MAX_VALUE - 1;
+        long[] localizacoes = indice.localizacoes(inicio, tamanho + 1);
+        boolean haMais = localizacoes.length > tamanho;
+        return new SliceImpl<>(resumir(localizacoes, Math.min(tamanho, localizacoes.length)), pagina, haMais);
+    }
+
+    @Override
+    public List<SimulacaoResumoProjecao> listarResumosApos(long aposId, int limite) {
+        long[] localizacoes = indice.localizacoesApos(aposId, limite);
+        return resumir(localizacoes, localizacoes.length);
+    }
+
+    /**
+     * Sem filtro de data, percorre o índice em ordem de ID; com ele, lê os
+     * segmentos do dia em sequência, na ordem de gravação (que só difere da de
+     * ID entre simulações concorrentes)
+     */
+    @Override
+    public void percorrerResumos(LocalDate dataReferencia, Integer produtoId, Consumer<Simulacao> processador) {
+        if (dataReferencia != null) {
+            for (SegmentoLog segmento : segmentosDoDia(dataReferencia)) {
+                ByteBuffer buffer = segmento.getBuffer();
+                segmento.percorrer(posicao -> {
+                    if (produtoId == null || CodecRegistroSimulacao.produtoId(buffer, posicao) == produtoId) {
+                        processador.accept(CodecRegistroSimulacao.decodificar(buffer, posicao, false));
+                    }
+                });
+            }
+            return;
+        }
+
+        long ultimoId = Long.MIN_VALUE;
+        long[] localizacoes;
+        do {
+            localizacoes = indice.localizacoesApos(ultimoId, BLOCO_LEITURA);
+            for (long localizacao : localizacoes) {
+                ByteBuffer buffer = buffer(localizacao);
+                int posicao = IndiceIdsLog.posicao(localizacao);
+                ultimoId = CodecRegistroSimulacao.id(buffer, posicao);
+                if (produtoId == null || CodecRegistroSimulacao.produtoId(buffer, posicao) == produtoId) {
+                    processador.accept(CodecRegistroSimulacao.decodificar(buffer, posicao, false));
+                }
+            }
+        } while (localizacoes.length == BLOCO_LEITURA);
+    }
+
+    @Override
+    public List<VolumeProdutoProjecao> agregarVolumePorProduto(LocalDate dataReferencia) {
+        return List.copyOf(agregarDia(dataReferencia));
+    }
+
+    @Override
+    public List<VolumeDiaProdutoProjecao> agregarVolumePorDiaEProduto() {
+        List<VolumeDiaProdutoProjecao> totais = new ArrayList<>();
+        for (LocalDate dia : segmentosPorDia.keySet()) {
+            totais.addAll(agregarDia(dia));
+        }
+        return totais;
+    }
+
+    @Override
+    public long contar() {
+        return indice.tamanho();
+    }
+
+    @Override
+    public long maiorId() {
+        return indice.maiorId();
+    }
+
+    @Override
+    public String tipo() {
+        return "log";
+    }
+
+    @Override
+    public Map<String, Object> obterEstatisticas() {
+        SegmentoLog[] atuais = segmentos;
+        long bytesUsados = 0;
+        long bytesMapeados = 0;
+        int quantidadeSegmentos = 0;
+        for (SegmentoLog segmento : atuais) {
+            if (segmento != null) {
+                quantidadeSegmentos++;
+                bytesUsados += segmento.getLimite();
+                bytesMapeados += segmento.getCapacidade();
+            }
+        }
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("tipo", tipo());
+        estatisticas.put("diretorio", raiz != null ? raiz.toAbsolutePath().toString() : diretorio);
+        estatisticas.put("simulacoes", indice.tamanho());
+        estatisticas.put("maior_id", indice.maiorId());
+        estatisticas.put("segmentos", quantidadeSegmentos);
+        estatisticas.put("dias", segmentosPorDia.size());
+        estatisticas.put("tamanho_segmento_mb", tamanhoSegmentoMb);
+        estatisticas.put("bytes_usados", bytesUsados);
+        estatisticas.put("bytes_mapeados", bytesMapeados);
+        estatisticas.put("bytes_indice", indice.bytesEstimados());
+        estatisticas.put("forcar_gravacao", forcarGravacao);
+        estatisticas.put("registros_gravados", registrosGravados.get());
+        estatisticas.put("lotes_gravados", lotesGravados.get());
+        estatisticas.put("lotes_descartados", lotesDescartados.get());
+        estatisticas.put("bytes_gravados", bytesGravados.get());
+        estatisticas.put("segmentos_corrompidos_na_abertura", segmentosCorrompidos);
+        estatisticas.put("duracao_recuperacao_ms", duracaoRecuperacaoMs);
+        return estatisticas;
+    }
+
+    private synchronized void escrever(List<Simulacao> simulacoes, byte[][] registros) {
+        Set<Long> idsDoLote = new HashSet<>(simulacoes.size() * 2);
+        for (Simulacao simulacao : simulacoes) {
+            long id = simulacao.getIdSimulacao();
+            if (!idsDoLote.add(id) || indice.contem(id)) {
+                throw new DuplicateKeyException("Simulação " + id + " já gravada no log");
+            }
+        }
+
+        long[] localizacoes = new long[registros.length];
+        List<SegmentoLog> alterados = new ArrayList<>(1);
+        List<Integer> inicios = new ArrayList<>(1);
+        long bytes = 0;
+        try {
+            for (int i = 0; i < registros.length; i++) {
+                LocalDate dia = diaDoSegmento(simulacoes.get(i));
+                SegmentoLog segmento = segmentoAtivo(dia);
+                int posicao = segmento != null ? segmento.acrescentar(registros[i]) : -1;
+                if (posicao < 0) {
+                    segmento = criarSegmento(dia, registros[i].length);
+                    posicao = segmento.acrescentar(registros[i]);
+                }
+                if (!alterados.contains(segmento)) {
+                    alterados.add(segmento);
+                    inicios.add(posicao);
+                }
+                localizacoes[i] = IndiceIdsLog.localizacao(segmento.getNumero(), posicao);
+                bytes += registros[i].length;
+            }
+            if (forcarGravacao) {
+                alterados.forEach(SegmentoLog::forcar);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (int i = 0; i < alterados.size(); i++) {
+                alterados.get(i).descartarAPartirDe(inicios.get(i));
+            }
+            lotesDescartados.incrementAndGet();
+            throw e instanceof IOException
+                    ? new DataAccessResourceFailureException("Falha ao gravar no log de simulações", e)
+                    : (RuntimeException) e;
+        }
+
+        alterados.forEach(SegmentoLog::publicar);
+        for (int i = 0; i < localizacoes.length; i++) {
+            indice.adicionar(simulacoes.get(i).getIdSimulacao(), localizacoes[i]);
+        }
+        registrosGravados.addAndGet(registros.length);
+        bytesGravados.addAndGet(bytes);
+        lotesGravados.incrementAndGet();
+    }
+
+    private SegmentoLog segmentoAtivo(LocalDate dia) {
+        List<SegmentoLog> doDia = segmentosPorDia.get(dia);
+        return doDia != null && !doDia.isEmpty() ? doDia.get(doDia.size() - 1) : null;
+    }
+
+    /**
+     * Novo segmento para o dia; um registro maior que o tamanho configurado
+     * ganha um segmento do seu tamanho
+     */
+    private SegmentoLog criarSegmento(LocalDate dia, int tamanhoRegistro) throws IOException {
+        int numero = segmentos.length;
+        Path arquivo = raiz.resolve(String.format("simulacoes-%s-%06d.seg", dia, numero));
+        SegmentoLog segmento = SegmentoLog.abrir(numero, dia, arquivo,
+                Math.max(capacidadeSegmento(), tamanhoRegistro));
+        registrar(segmento);
+        log.debug("Segmento {} criado", arquivo.getFileName());
+        return segmento;
+    }
+
+    private void registrar(SegmentoLog segmento) {
+        SegmentoLog[] atuais = segmentos;
+        SegmentoLog[] novos = Arrays.copyOf(atuais, Math.max(atuais.length, segmento.getNumero() + 1));
+        novos[segmento.getNumero()] = segmento;
+        segmentos = novos;
+        segmentosPorDia.computeIfAbsent(segmento.getDia(), dia -> new CopyOnWriteArrayList<>()).add(segmento);
+    }
+
+    private List<SegmentoLog> segmentosDoDia(LocalDate dia) {
+        return segmentosPorDia.getOrDefault(dia, List.of());
+    }
+
+    private ByteBuffer buffer(long localizacao) {
+        return segmentos[IndiceIdsLog.segmento(localizacao)].getBuffer();
+    }
+
+    private List<SimulacaoResumoProjecao> resumir(long[] localizacoes, int quantidade) {
+        List<SimulacaoResumoProjecao> resumos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            resumos.add(CodecRegistroSimulacao.resumir(buffer(localizacoes[i]),
+                    IndiceIdsLog.posicao(localizacoes[i])));
+        }
+        return resumos;
+    }
+
+    /**
+     * Soma as colunas de resumo do dia por produto, lendo só os campos fixos
+     * de cada registro; a descrição é decodificada uma vez por produto
+     */
+    private List<TotaisDiaProdutoLog> agregarDia(LocalDate dia) {
+        Map<Integer, long[]> somas = new TreeMap<>();
+        Map<Integer, long[]> ultimaDescricao = new TreeMap<>();
+        for (SegmentoLog segmento : segmentosDoDia(dia)) {
+            ByteBuffer buffer = segmento.getBuffer();
+            segmento.percorrer(posicao -> {
+                int produtoId = CodecRegistroSimulacao.produtoId(buffer, posicao);
+                long[] soma = somas.computeIfAbsent(produtoId, p -> new long[5]);
+                soma[0]++;
+                soma[1] += valorOuZero(CodecRegistroSimulacao.valorDesejadoCentavos(buffer, posicao));
+                long taxa = CodecRegistroSimulacao.taxaEscalada(buffer, posicao);
+                if (taxa != CodecRegistroSimulacao.NULO) {
+                    soma[2] += taxa;
+                    soma[3] += valorOuZero(CodecRegistroSimulacao.totalPriceCentavos(buffer, posicao));
+                    soma[4] += valorOuZero(CodecRegistroSimulacao.primeiraPrestacaoCentavos(buffer, posicao));
+                    ultimaDescricao.put(produtoId, new long[] { segmento.getNumero(), posicao });
+                }
+            });
+        }
+
+        List<TotaisDiaProdutoLog> totais = new ArrayList<>(somas.size());
+        somas.forEach((produtoId, soma) -> {
+            long[] descricao = ultimaDescricao.get(produtoId);
+            totais.add(new TotaisDiaProdutoLog(
+                    dia,
+                    CodecRegistroSimulacao.inteiro(produtoId),
+                    descricao != null
+                            ? CodecRegistroSimulacao.descricaoProduto(segmentos[(int) descricao[0]].getBuffer(),
+                                    (int) descricao[1])
+                            : null,
+                    soma[0],
+                    AritmeticaCentavos.paraValor(soma[1]),
+                    BigDecimal.valueOf(soma[2], AritmeticaCentavos.ESCALA_TAXA),
+                    AritmeticaCentavos.paraValor(soma[3]),
+                    AritmeticaCentavos.paraValor(soma[4])));
+        });
+        return totais;
+    }
+
+    /**
+     * Simulações sem data ficam no segmento do dia da época
+     */
+    private static LocalDate diaDoSegmento(Simulacao simulacao) {
+        return simulacao.getDataReferencia() != null ? simulacao.getDataReferencia() : LocalDate.EPOCH;
+    }
+
+    private static long valorOuZero(long valor) {
+        return valor != CodecRegistroSimulacao.NULO ? valor : 0L;
+    }
+
+    private int capacidadeSegmento() {
+        return (int) Math.min(Integer.MAX_VALUE, tamanhoSegmentoMb * BYTES_MB);
+    }
+
+    private static int numeroSegmento(Path arquivo) {
+        Matcher nome = NOME_SEGMENTO.matcher(arquivo.getFileName().toString());
+        return nome.matches() ? Integer.parseInt(nome.group(2)) : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,232 @@
+package br.com.leo.apisimulador.repository.log;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.CodecResultadoSimulacao;
+import br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binário de uma simulação no log, prefixado pelo tamanho:
+ *
+ * <pre>
+ *  0  int   tamanho do restante do registro
+ *  4  int   CRC32C dos bytes a partir do offset 8
+ *  8  long  IDSIMULACAO
+ * 16  int   DATA_REFERENCIA (dia da época)
+ * 20  int   PRAZO
+ * 24  int   PRODUTO_ID
+ * 28  long  VALOR_DESEJADO (centavos)
+ * 36  long  TAXA_JUROS (bilionésimos)
+ * 44  long  VALOR_TOTAL_SAC (centavos)
+ * 52  long  VALOR_TOTAL_PRICE (centavos)
+ * 60  long  VALOR_PRIMEIRA_PRESTACAO (centavos)
+ * 68  int   bytes UTF-8 de DESCRICAO_PRODUTO
+ * 72  int   bytes do resultado
+ * 76        DESCRICAO_PRODUTO (UTF-8), resultado
+ * </pre>
+ *
+ * O resultado está no formato de {@link CodecResultadoSimulacao}; registros
+ * gravados antes dele trazem o RESULTADO_JSON em UTF-8, que começa com '{'.
+ * Nulos são gravados como o menor valor do tipo (tamanho -1 para textos).
+ * Os campos de resumo são lidos por posição absoluta direto do segmento
+ * mapeado, sem copiar o registro nem decodificar o resultado.
+ */
+final class CodecRegistroSimulacao {
+
+    static final int TAMANHO_PREFIXO = 4;
+
+    private static final int CRC = 4;
+    private static final int ID = 8;
+    private static final int DATA = 16;
+    private static final int PRAZO = 20;
+    private static final int PRODUTO = 24;
+    private static final int VALOR_DESEJADO = 28;
+    private static final int TAXA = 36;
+    private static final int TOTAL_SAC = 44;
+    private static final int TOTAL_PRICE = 52;
+    private static final int PRIMEIRA_PRESTACAO = 60;
+    private static final int TAMANHO_DESCRICAO = 68;
+    private static final int TAMANHO_RESULTADO = 72;
+    private static final int CABECALHO = 76;
+
+    static final long NULO = Long.MIN_VALUE;
+    static final int NULO_INT = Integer.MIN_VALUE;
+
+    private CodecRegistroSimulacao() {
+    }
+
+    /**
+     * @throws ArithmeticException se um valor não couber no formato
+     */
+    static byte[] codificar(Simulacao simulacao) {
+        byte[] descricao = bytes(simulacao.getDescricaoProduto());
+        byte[] resultado = simulacao.getResultado() != null
+                ? CodecResultadoSimulacao.codificar(simulacao.getResultado())
+                : bytes(simulacao.getResultadoJson());
+        int total = CABECALHO + (descricao != null ? descricao.length : 0)
+                + (resultado != null ? resultado.length : 0);
+
+        ByteBuffer registro = ByteBuffer.allocate(total);
+        registro.putInt(0, total - TAMANHO_PREFIXO);
+        registro.putLong(ID, simulacao.getIdSimulacao());
+        registro.putInt(DATA, simulacao.getDataReferencia() != null
+                ? Math.toIntExact(simulacao.getDataReferencia().toEpochDay())
+                : NULO_INT);
+        registro.putInt(PRAZO, simulacao.getPrazo() != null ? simulacao.getPrazo() : NULO_INT);
+        registro.putInt(PRODUTO, simulacao.getProdutoId() != null ? simulacao.getProdutoId() : NULO_INT);
+        registro.putLong(VALOR_DESEJADO, centavos(simulacao.getValorDesejado()));
+        registro.putLong(TAXA, simulacao.getTaxaJuros() != null
+                ? AritmeticaCentavos.paraTaxaEscalada(
+                        simulacao.getTaxaJuros().setScale(AritmeticaCentavos.ESCALA_TAXA, RoundingMode.HALF_UP))
+                : NULO);
+        registro.putLong(TOTAL_SAC, centavos(simulacao.getValorTotalSac()));
+        registro.putLong(TOTAL_PRICE, centavos(simulacao.getValorTotalPrice()));
+        registro.putLong(PRIMEIRA_PRESTACAO, centavos(simulacao.getValorPrimeiraPrestacao()));
+        registro.putInt(TAMANHO_DESCRICAO, descricao != null ? descricao.length : -1);
+        registro.putInt(TAMANHO_RESULTADO, resultado != null ? resultado.length : -1);
+        registro.position(CABECALHO);
+        if (descricao != null) {
+            registro.put(descricao);
+        }
+        if (resultado != null) {
+            registro.put(resultado);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(registro.array(), ID, total - ID);
+        registro.putInt(CRC, (int) crc.getValue());
+        return registro.array();
+    }
+
+    /**
+     * Tamanho total do registro na {@code posicao}: 0 no fim dos dados e -1
+     * se o tamanho gravado for inválido
+     */
+    static int tamanhoTotal(ByteBuffer buffer, int posicao, int capacidade) {
+        int restante = buffer.getInt(posicao);
+        if (restante == 0) {
+            return 0;
+        }
+        if (restante < CABECALHO - TAMANHO_PREFIXO || restante > capacidade - posicao - TAMANHO_PREFIXO) {
+            return -1;
+        }
+        return restante + TAMANHO_PREFIXO;
+    }
+
+    static boolean integro(ByteBuffer buffer, int posicao) {
+        int total = buffer.getInt(posicao) + TAMANHO_PREFIXO;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(posicao + ID, total - ID));
+        return (int) crc.getValue() == buffer.getInt(posicao + CRC);
+    }
+
+    static long id(ByteBuffer buffer, int posicao) {
+        return buffer.getLong(posicao + ID);
+    }
+
+    static int diaEpoca(ByteBuffer buffer, int posicao) {
+        return buffer.getInt(posicao + DATA);
+    }
+
+    static int produtoId(ByteBuffer buffer, int posicao) {
+        return buffer.getInt(posicao + PRODUTO);
+    }
+
+    static long valorDesejadoCentavos(ByteBuffer buffer, int posicao) {
+        return buffer.getLong(posicao + VALOR_DESEJADO);
+    }
+
+    static long taxaEscalada(ByteBuffer buffer, int posicao) {
+        return buffer.getLong(posicao + TAXA);
+    }
+
+    static long totalPriceCentavos(ByteBuffer buffer, int posicao) {
+        return buffer.getLong(posicao + TOTAL_PRICE);
+    }
+
+    static long primeiraPrestacaoCentavos(ByteBuffer buffer, int posicao) {
+        return buffer.getLong(posicao + PRIMEIRA_PRESTACAO);
+    }
+
+    static String descricaoProduto(ByteBuffer buffer, int posicao) {
+        return texto(buffer, posicao + CABECALHO, buffer.getInt(posicao + TAMANHO_DESCRICAO));
+    }
+
+    /**
+     * Simulação do registro; sem o resultado quando {@code comResultado} é
+     * false
+     */
+    static Simulacao decodificar(ByteBuffer buffer, int posicao, boolean comResultado) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setIdSimulacao(id(buffer, posicao));
+        int dia = diaEpoca(buffer, posicao);
+        simulacao.setDataReferencia(dia != NULO_INT ? LocalDate.ofEpochDay(dia) : null);
+        simulacao.setPrazo(inteiro(buffer.getInt(posicao + PRAZO)));
+        simulacao.setProdutoId(inteiro(produtoId(buffer, posicao)));
+        simulacao.setValorDesejado(valor(valorDesejadoCentavos(buffer, posicao)));
+        long taxa = taxaEscalada(buffer, posicao);
+        simulacao.setTaxaJuros(taxa != NULO ? BigDecimal.valueOf(taxa, AritmeticaCentavos.ESCALA_TAXA) : null);
+        simulacao.setValorTotalSac(valor(buffer.getLong(posicao + TOTAL_SAC)));
+        simulacao.setValorTotalPrice(valor(totalPriceCentavos(buffer, posicao)));
+        simulacao.setValorPrimeiraPrestacao(valor(primeiraPrestacaoCentavos(buffer, posicao)));
+
+        int tamanhoDescricao = buffer.getInt(posicao + TAMANHO_DESCRICAO);
+        simulacao.setDescricaoProduto(texto(buffer, posicao + CABECALHO, tamanhoDescricao));
+        int tamanhoResultado = buffer.getInt(posicao + TAMANHO_RESULTADO);
+        if (comResultado && tamanhoResultado >= 0) {
+            byte[] resultado = new byte[tamanhoResultado];
+            buffer.get(posicao + CABECALHO + Math.max(0, tamanhoDescricao), resultado);
+            if (CodecResultadoSimulacao.binario(resultado)) {
+                simulacao.setResultado(CodecResultadoSimulacao.decodificar(resultado));
+            } else {
+                simulacao.setResultadoJson(new String(resultado, StandardCharsets.UTF_8));
+            }
+        }
+        return simulacao;
+    }
+
+    static ResumoSimulacaoLog resumir(ByteBuffer buffer, int posicao) {
+        return new ResumoSimulacaoLog(
+                id(buffer, posicao),
+                valor(valorDesejadoCentavos(buffer, posicao)),
+                inteiro(buffer.getInt(posicao + PRAZO)),
+                valor(buffer.getLong(posicao + TOTAL_SAC)),
+                valor(totalPriceCentavos(buffer, posicao)));
+    }
+
+    static Integer inteiro(int valor) {
+        return valor != NULO_INT ? valor : null;
+    }
+
+    static BigDecimal valor(long centavos) {
+        return centavos != NULO ? AritmeticaCentavos.paraValor(centavos) : null;
+    }
+
+    /**
+     * Valor nas duas casas de VALOR_DESEJADO e dos totais, em centavos
+     */
+    private static long centavos(BigDecimal valor) {
+        return valor != null
+                ? AritmeticaCentavos.paraCentavos(valor.setScale(AritmeticaCentavos.ESCALA_MOEDA, RoundingMode.HALF_UP))
+                : NULO;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String texto(ByteBuffer buffer, int posicao, int tamanho) {
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(posicao, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
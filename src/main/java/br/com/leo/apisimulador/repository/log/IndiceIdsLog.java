@@ -0,0 +1,138 @@
+package br.com.leo.apisimulador.repository.log;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice IDSIMULACAO → localização do registro no log, em dois arrays
+ * primitivos ordenados por ID (16 bytes por simulação).
+ *
+ * A localização é {@code numeroSegmento << 32 | posicao}. Como os IDs são
+ * alocados em ordem crescente, quase toda inclusão é no fim; as que chegam
+ * fora de ordem (simulações concorrentes gravadas em lotes diferentes) só
+ * deslocam as últimas posições.
+ */
+final class IndiceIdsLog {
+
+    static final long AUSENTE = -1L;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] ids = new long[1024];
+    private long[] localizacoes = new long[1024];
+    private int tamanho;
+
+    static long localizacao(int numeroSegmento, int posicao) {
+        return (long) numeroSegmento << 32 | posicao;
+    }
+
+    static int segmento(long localizacao) {
+        return (int) (localizacao >>> 32);
+    }
+
+    static int posicao(long localizacao) {
+        return (int) localizacao;
+    }
+
+    /**
+     * Chamado apenas pelo escritor do log
+     *
+     * @return false se o ID já estava no índice
+     */
+    boolean adicionar(long id, long localizacao) {
+        long carimbo = lock.writeLock();
+        try {
+            int indice = tamanho;
+            if (tamanho > 0 && ids[tamanho - 1] >= id) {
+                int busca = Arrays.binarySearch(ids, 0, tamanho, id);
+                if (busca >= 0) {
+                    return false;
+                }
+                indice = -busca - 1;
+            }
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, tamanho * 2);
+                localizacoes = Arrays.copyOf(localizacoes, tamanho * 2);
+            }
+            System.arraycopy(ids, indice, ids, indice + 1, tamanho - indice);
+            System.arraycopy(localizacoes, indice, localizacoes, indice + 1, tamanho - indice);
+            ids[indice] = id;
+            localizacoes[indice] = localizacao;
+            tamanho++;
+            return true;
+        } finally {
+            lock.unlockWrite(carimbo);
+        }
+    }
+
+    boolean contem(long id) {
+        return localizar(id) != AUSENTE;
+    }
+
+    long localizar(long id) {
+        long carimbo = lock.readLock();
+        try {
+            int indice = Arrays.binarySearch(ids, 0, tamanho, id);
+            return indice >= 0 ? localizacoes[indice] : AUSENTE;
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+
+    /**
+     * Localizações das entradas a partir da posição {@code inicio}, em ordem
+     * de ID
+     */
+    long[] localizacoes(long inicio, int quantidade) {
+        long carimbo = lock.readLock();
+        try {
+            if (inicio >= tamanho) {
+                return new long[0];
+            }
+            int de = (int) inicio;
+            return Arrays.copyOfRange(localizacoes, de, de + Math.min(quantidade, tamanho - de));
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+
+    /**
+     * Localizações dos IDs maiores que {@code id}, em ordem de ID
+     */
+    long[] localizacoesApos(long id, int quantidade) {
+        long carimbo = lock.readLock();
+        try {
+            int indice = Arrays.binarySearch(ids, 0, tamanho, id);
+            int de = indice >= 0 ? indice + 1 : -indice - 1;
+            return Arrays.copyOfRange(localizacoes, de, de + Math.min(quantidade, tamanho - de));
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+
+    long maiorId() {
+        long carimbo = lock.readLock();
+        try {
+            return tamanho > 0 ? ids[tamanho - 1] : 0L;
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+
+    int tamanho() {
+        long carimbo = lock.readLock();
+        try {
+            return tamanho;
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+
+    long bytesEstimados() {
+        long carimbo = lock.readLock();
+        try {
+            return 16L * ids.length;
+        } finally {
+            lock.unlockRead(carimbo);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.leo.apisimulador.repository.log;
+
+import br.com.leo.apisimulador.repository.h2.SimulacaoResumoProjecao;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Colunas da listagem lidas de um registro do log
+ */
+@Getter
+@RequiredArgsConstructor
+final class ResumoSimulacaoLog implements SimulacaoResumoProjecao {
+
+    private final Long idSimulacao;
+    private final BigDecimal valorDesejado;
+    private final Integer prazo;
+    private final BigDecimal valorTotalSac;
+    private final BigDecimal valorTotalPrice;
+}
@@ -0,0 +1,154 @@
+package br.com.leo.apisimulador.repository.log;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+
+/**
+ * Um arquivo de segmento do log de simulações, mapeado inteiro em memória
+ * com o tamanho fixo {@code capacidade}.
+ *
+ * Os registros são gravados em sequência a partir do início; o fim dos dados
+ * é o primeiro registro com tamanho zero ou inválido. Há um único escritor
+ * (sob o lock do {@link ArmazenamentoSimulacoesLog}); os leitores acessam o
+ * buffer por posição absoluta até {@link #getLimite()}, que só avança quando
+ * o lote inteiro foi escrito ({@link #publicar()}).
+ */
+@Getter
+final class SegmentoLog {
+
+    private final int numero;
+    private final LocalDate dia;
+    private final Path arquivo;
+    private final int capacidade;
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+
+    /** Fim dos registros escritos, visto apenas pelo escritor */
+    private int fimEscrita;
+    /** Fim dos registros publicados para leitura */
+    private volatile int limite;
+
+    private SegmentoLog(int numero, LocalDate dia, Path arquivo, int capacidade, FileChannel canal,
+            MappedByteBuffer buffer) {
+        this.numero = numero;
+        this.dia = dia;
+        this.arquivo = arquivo;
+        this.capacidade = capacidade;
+        this.canal = canal;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre (ou cria, com {@code capacidade} bytes) o arquivo do segmento.
+     * Segmentos existentes mantêm o tamanho com que foram criados.
+     */
+    static SegmentoLog abrir(int numero, LocalDate dia, Path arquivo, int capacidade) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long tamanhoAtual = canal.size();
+            int tamanho = tamanhoAtual > 0 ? (int) Math.min(tamanhoAtual, Integer.MAX_VALUE) : capacidade;
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            return new SegmentoLog(numero, dia, arquivo, tamanho, canal, buffer);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Percorre os registros gravados, entregando a posição de cada um, e
+     * posiciona o fim do segmento depois do último registro íntegro. Bytes
+     * após um registro corrompido (gravação interrompida) são zerados, para
+     * que não reapareçam depois de novas gravações.
+     *
+     * @return true se um registro corrompido foi descartado
+     */
+    boolean recuperar(IntConsumer processador) {
+        int posicao = 0;
+        boolean corrompido = false;
+        while (posicao + CodecRegistroSimulacao.TAMANHO_PREFIXO <= capacidade) {
+            int tamanho = CodecRegistroSimulacao.tamanhoTotal(buffer, posicao, capacidade);
+            if (tamanho == 0) {
+                break;
+            }
+            if (tamanho < 0 || !CodecRegistroSimulacao.integro(buffer, posicao)) {
+                corrompido = true;
+                break;
+            }
+            processador.accept(posicao);
+            posicao += tamanho;
+        }
+        if (corrompido) {
+            for (int i = posicao; i < capacidade; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        fimEscrita = posicao;
+        limite = posicao;
+        return corrompido;
+    }
+
+    /**
+     * Grava o registro no fim do segmento
+     *
+     * @return posição do registro, ou -1 se não couber
+     */
+    int acrescentar(byte[] registro) {
+        int posicao = fimEscrita;
+        if (registro.length > capacidade - posicao) {
+            return -1;
+        }
+        buffer.put(posicao, registro);
+        fimEscrita = posicao + registro.length;
+        return posicao;
+    }
+
+    /**
+     * Torna visíveis para leitura os registros escritos até aqui
+     */
+    void publicar() {
+        limite = fimEscrita;
+    }
+
+    /**
+     * Descarta os registros a partir de {@code posicao}, gravados por um lote
+     * que falhou
+     */
+    void descartarAPartirDe(int posicao) {
+        for (int i = posicao; i < fimEscrita; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        fimEscrita = posicao;
+    }
+
+    /**
+     * Entrega a posição de cada registro publicado até o momento da chamada
+     */
+    void percorrer(IntConsumer processador) {
+        int fim = limite;
+        int posicao = 0;
+        while (posicao < fim) {
+            processador.accept(posicao);
+            posicao += CodecRegistroSimulacao.tamanhoTotal(buffer, posicao, capacidade);
+        }
+    }
+
+    /**
+     * Grava em disco as páginas alteradas do segmento
+     */
+    void forcar() {
+        buffer.force();
+    }
+
+    void fechar() throws IOException {
+        canal.close();
+    }
+}
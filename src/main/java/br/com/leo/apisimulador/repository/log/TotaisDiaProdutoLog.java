@@ -0,0 +1,26 @@
+package br.com.leo.apisimulador.repository.log;
+
+import br.com.leo.apisimulador.repository.h2.VolumeDiaProdutoProjecao;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de um produto em um dia somados a partir dos registros do log, no
+ * formato da agregação feita no H2
+ */
+@Getter
+@RequiredArgsConstructor
+final class TotaisDiaProdutoLog implements VolumeDiaProdutoProjecao {
+
+    private final LocalDate dataReferencia;
+    private final Integer produtoId;
+    private final String descricaoProduto;
+    private final Long quantidade;
+    private final BigDecimal valorTotalDesejado;
+    private final BigDecimal somaTaxasJuros;
+    private final BigDecimal valorTotalCredito;
+    private final BigDecimal somaPrimeirasPrestacoes;
+}
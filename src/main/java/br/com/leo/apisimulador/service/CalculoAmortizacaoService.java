@@ -1,8 +1,15 @@
 package br.com.leo.apisimulador.service;
 
 import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.enums.MotorCalculoEnum;
+import br.com.leo.apisimulador.service.calculadora.AmortizacaoCalculadora;
 import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.PricePontoFixoCalculadora;
+import br.com.leo.apisimulador.service.calculadora.ResumoAmortizacao;
 import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACPontoFixoCalculadora;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -11,15 +18,26 @@ import java.util.List;
 /**
  * Serviço fachada para os diferentes tipos de cálculo de amortização
  */
+@Slf4j
 @Service
 public class CalculoAmortizacaoService {
 
-    private final SACCalculadora sacCalculadora;
-    private final PriceCalculadora priceCalculadora;
+    private final AmortizacaoCalculadora sacCalculadora;
+    private final AmortizacaoCalculadora priceCalculadora;
+    private final MotorCalculoEnum motor;
 
-    public CalculoAmortizacaoService(SACCalculadora sacCalculadora, PriceCalculadora priceCalculadora) {
-        this.sacCalculadora = sacCalculadora;
-        this.priceCalculadora = priceCalculadora;
+    public CalculoAmortizacaoService(SACCalculadora sacCalculadora, PriceCalculadora priceCalculadora,
+            SACPontoFixoCalculadora sacPontoFixoCalculadora, PricePontoFixoCalculadora pricePontoFixoCalculadora,
+            @Value("${app.calculo.motor:BIGDECIMAL}") MotorCalculoEnum motor) {
+        this.motor = motor;
+        if (motor == MotorCalculoEnum.PONTO_FIXO) {
+            this.sacCalculadora = sacPontoFixoCalculadora;
+            this.priceCalculadora = pricePontoFixoCalculadora;
+        } else {
+            this.sacCalculadora = sacCalculadora;
+            this.priceCalculadora = priceCalculadora;
+        }
+        log.info("Motor de cálculo de amortização: {}", motor);
     }
 
     /**
@@ -35,4 +53,24 @@ public class CalculoAmortizacaoService {
     public List<ParcelaDTO> calcularPRICE(BigDecimal valor, BigDecimal taxa, int meses) {
         return priceCalculadora.calcular(valor, taxa, meses);
     }
-}
\ No newline at end of file
+
+    /**
+     * Totais do SAC (total pago, juros, primeira e última prestação) sem
+     * materializar as parcelas
+     */
+    public ResumoAmortizacao calcularResumoSAC(BigDecimal valor, BigDecimal taxa, int meses) {
+        return sacCalculadora.calcularResumo(valor, taxa, meses);
+    }
+
+    /**
+     * Totais do PRICE (total pago, juros, primeira e última prestação) sem
+     * materializar as parcelas
+     */
+    public ResumoAmortizacao calcularResumoPRICE(BigDecimal valor, BigDecimal taxa, int meses) {
+        return priceCalculadora.calcularResumo(valor, taxa, meses);
+    }
+
+    public MotorCalculoEnum getMotor() {
+        return motor;
+    }
+}
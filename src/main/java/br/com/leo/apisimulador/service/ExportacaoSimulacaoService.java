@@ -0,0 +1,180 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.enums.FormatoExportacaoEnum;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação do histórico de simulações em NDJSON ou CSV, escrita direto na
+ * resposta à medida que as simulações são lidas do armazenamento (cursor JDBC
+ * no H2, leitura sequencial dos segmentos no log). Nenhuma página é mantida
+ * em memória: o consumo é o buffer de escrita mais o fetch do cursor.
+ */
+@Slf4j
+@Service
+public class ExportacaoSimulacaoService {
+
+    public static final String OPERACAO_EXPORTAR = "GET /simulacoes/export";
+
+    private static final String CABECALHO_CSV = "idSimulacao,dataReferencia,codigoProduto,descricaoProduto,"
+            + "valorDesejado,prazo,taxaJuros,valorTotalParcelasSAC,valorTotalParcelasPrice,valorPrimeiraPrestacao";
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ArmazenamentoSimulacoes armazenamento;
+    private final ObjectMapper objectMapper;
+    private final TelemetriaService telemetria;
+
+    public ExportacaoSimulacaoService(ArmazenamentoSimulacoes armazenamento, ObjectMapper objectMapper,
+            TelemetriaService telemetria) {
+        this.armazenamento = armazenamento;
+        this.objectMapper = objectMapper;
+        this.telemetria = telemetria;
+    }
+
+    /**
+     * Escreve as simulações filtradas em {@code saida}, na ordem do
+     * armazenamento ({@link ArmazenamentoSimulacoes#percorrerResumos})
+     *
+     * @param dataReferencia filtro opcional por DATA_REFERENCIA
+     * @param produtoId      filtro opcional por PRODUTO_ID
+     * @param compactar      grava em gzip
+     */
+    public void exportar(OutputStream saida, FormatoExportacaoEnum formato, LocalDate dataReferencia,
+            Integer produtoId, boolean compactar) throws IOException {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        long[] linhas = new long[1];
+
+        OutputStream destino = compactar ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : saida;
+        try (Writer escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8),
+                TAMANHO_BUFFER)) {
+            if (formato == FormatoExportacaoEnum.CSV) {
+                escritor.write(CABECALHO_CSV);
+                escritor.write('\n');
+                armazenamento.percorrerResumos(dataReferencia, produtoId, simulacao -> {
+                    escreverCsv(escritor, simulacao);
+                    linhas[0]++;
+                });
+            } else {
+                try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(escritor)) {
+                    gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    // Cada objeto termina com '\n', sem o espaço entre valores raiz
+                    gerador.setRootValueSeparator(null);
+                    armazenamento.percorrerResumos(dataReferencia, produtoId, simulacao -> {
+                        escreverNdjson(gerador, simulacao);
+                        linhas[0]++;
+                    });
+                }
+            }
+            sucesso = true;
+        } catch (UncheckedIOException e) {
+            // Cliente desconectado no meio da exportação
+            throw e.getCause();
+        } finally {
+            Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+            telemetria.registrarTempoResposta(OPERACAO_EXPORTAR, duracao, sucesso);
+            log.info("Exportação {} de {} simulações em {} ms{}", formato, linhas[0], duracao.toMillis(),
+                    sucesso ? "" : " (interrompida)");
+        }
+    }
+
+    private static void escreverNdjson(JsonGenerator gerador, Simulacao simulacao) {
+        try {
+            gerador.writeStartObject();
+            gerador.writeNumberField("idSimulacao", simulacao.getIdSimulacao());
+            LocalDate data = simulacao.getDataReferencia();
+            gerador.writeStringField("dataReferencia", data != null ? data.toString() : null);
+            gerador.writeNumberField("codigoProduto", inteiro(simulacao.getProdutoId()));
+            gerador.writeStringField("descricaoProduto", simulacao.getDescricaoProduto());
+            escreverDecimal(gerador, "valorDesejado", simulacao.getValorDesejado());
+            gerador.writeNumberField("prazo", inteiro(simulacao.getPrazo()));
+            escreverDecimal(gerador, "taxaJuros", simulacao.getTaxaJuros());
+            escreverDecimal(gerador, "valorTotalParcelasSAC", simulacao.getValorTotalSac());
+            escreverDecimal(gerador, "valorTotalParcelasPrice", simulacao.getValorTotalPrice());
+            escreverDecimal(gerador, "valorPrimeiraPrestacao", simulacao.getValorPrimeiraPrestacao());
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void escreverDecimal(JsonGenerator gerador, String campo, BigDecimal valor) throws IOException {
+        if (valor != null) {
+            gerador.writeNumberField(campo, valor);
+        } else {
+            gerador.writeNullField(campo);
+        }
+    }
+
+    private static void escreverCsv(Writer escritor, Simulacao simulacao) {
+        try {
+            escritor.write(Long.toString(simulacao.getIdSimulacao()));
+            escritor.write(',');
+            LocalDate data = simulacao.getDataReferencia();
+            escritor.write(data != null ? data.toString() : "");
+            escritor.write(',');
+            escritor.write(Integer.toString(inteiro(simulacao.getProdutoId())));
+            escritor.write(',');
+            escreverTextoCsv(escritor, simulacao.getDescricaoProduto());
+            escreverValorCsv(escritor, simulacao.getValorDesejado());
+            escritor.write(',');
+            escritor.write(Integer.toString(inteiro(simulacao.getPrazo())));
+            escreverValorCsv(escritor, simulacao.getTaxaJuros());
+            escreverValorCsv(escritor, simulacao.getValorTotalSac());
+            escreverValorCsv(escritor, simulacao.getValorTotalPrice());
+            escreverValorCsv(escritor, simulacao.getValorPrimeiraPrestacao());
+            escritor.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void escreverValorCsv(Writer escritor, BigDecimal valor) throws IOException {
+        escritor.write(',');
+        if (valor != null) {
+            escritor.write(valor.toPlainString());
+        }
+    }
+
+    /**
+     * Coluna inteira nula sai como 0, como no getInt do JDBC
+     */
+    private static int inteiro(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    /**
+     * Texto entre aspas quando contém separador, aspas ou quebra de linha
+     * (RFC 4180)
+     */
+    private static void escreverTextoCsv(Writer escritor, String texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0
+                && texto.indexOf('\r') < 0) {
+            escritor.write(texto);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(texto.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
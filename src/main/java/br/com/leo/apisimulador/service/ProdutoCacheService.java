@@ -1,49 +1,296 @@
 package br.com.leo.apisimulador.service;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.List;
-import java.util.HashMap;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.repository.h2.HistoricoTaxasProduto;
 import br.com.leo.apisimulador.repository.sqlserver.ProdutoRepository;
 import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import br.com.leo.apisimulador.service.produto.CatalogoProdutos;
 
+/**
+ * Cache em memória dos produtos do SQL Server.
+ *
+ * O catálogo é um retrato imutável trocado atomicamente a cada recarga. A
+ * recarga roda em segundo plano a cada app.cache.produtos.refresh-interval;
+ * depois de ttl-minutes sem recarga bem-sucedida o catálogo expira e, com
+ * use-fallback ativo, continua sendo servido enquanto uma nova tentativa roda
+ * em segundo plano (stale-while-revalidate). Sem fallback, a leitura de um
+ * catálogo expirado recarrega de forma síncrona e propaga a falha.
+ */
+@Slf4j
 @Service
 public class ProdutoCacheService {
 
     @Autowired(required = false)
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private TabelaFatoresAmortizacao tabelaFatores;
+
+    @Autowired
+    private ResultadoSimulacaoCacheService resultadoCacheService;
+
+    @Autowired
+    private HistoricoTaxasProduto historicoTaxas;
+
+    @Value("${app.cache.produtos.ttl-minutes:15}")
+    private long ttlMinutos;
+
+    @Value("${app.cache.produtos.refresh-interval:300000}")
+    private long intervaloAtualizacaoMs;
+
+    @Value("${app.cache.produtos.use-fallback:true}")
+    private boolean usarFallback;
+
+    private final AtomicReference<CatalogoProdutos> catalogo = new AtomicReference<>(CatalogoProdutos.VAZIO);
+    private final AtomicBoolean revalidacaoEmAndamento = new AtomicBoolean();
+    private final ExecutorService revalidador = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "produto-cache-revalidacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong totalAtualizacoes = new AtomicLong();
+    private final AtomicLong totalFalhas = new AtomicLong();
+    private final AtomicLong leiturasExpiradas = new AtomicLong();
+    private volatile long falhasConsecutivas;
+    private volatile String ultimoErro;
+    private volatile long duracaoUltimaCargaMs;
+
+    @PreDestroy
+    public void encerrar() {
+        revalidador.shutdownNow();
+    }
+
+    /**
+     * Recarga periódica; a primeira execução faz a carga inicial
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.cache.produtos.refresh-interval:300000}")
+    public void atualizarPeriodicamente() {
+        if (produtoRepository == null) {
+            return;
+        }
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            // Já registrado em recarregar; o catálogo anterior continua publicado
+        }
+    }
+
+    public List<Produto> buscarProdutos() {
+        return obterCatalogo().produtos();
+    }
+
+    /**
+     * Catálogo atual, recarregado conforme o TTL e a política de fallback
+     */
+    public CatalogoProdutos obterCatalogo() {
+        CatalogoProdutos atual = catalogo.get();
+        if (produtoRepository == null) {
+            // Fallback: catálogo vazio se não houver acesso ao SQL Server
+            return atual;
+        }
+        if (!atual.carregado()) {
+            return recarregar();
+        }
+        if (!expirado(atual)) {
+            return atual;
+        }
+
+        if (usarFallback) {
+            leiturasExpiradas.incrementAndGet();
+            revalidarEmSegundoPlano();
+            return atual;
+        }
+        return recarregar();
+    }
+
+    public Map<String, Object> forcarAtualizacao() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        try {
+            CatalogoProdutos atualizado = recarregar();
+            resultadoCacheService.invalidar();
+            resultado.put("status", "ATUALIZADO");
+            resultado.put("mensagem", "Cache de produtos recarregado do SQL Server");
+            resultado.put("produtos_carregados", atualizado.tamanho());
+            resultado.put("ultima_atualizacao", atualizado.carregadoEm());
+            resultado.put("duracao_ms", duracaoUltimaCargaMs);
+        } catch (RuntimeException e) {
+            resultado.put("status", "FALHA");
+            resultado.put("mensagem", "Falha ao recarregar produtos; catálogo anterior mantido");
+            resultado.put("erro_mensagem", e.getMessage());
+        }
+        return resultado;
+    }
+
     public Map<String, Object> forcarReconexao() {
-        Map<String, Object> resultado = new HashMap<>();
-        resultado.put("status", "RECONECTADO");
-        resultado.put("mensagem", "Reconexão simulada com sucesso");
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        if (produtoRepository == null) {
+            resultado.put("status", "INDISPONIVEL");
+            resultado.put("erro_mensagem", "Repositório de produtos (SQL Server) não configurado");
+            return resultado;
+        }
+        try {
+            CatalogoProdutos atualizado = recarregar();
+            resultado.put("status", "RECONECTADO");
+            resultado.put("mensagem", "Conexão com o SQL Server verificada e catálogo recarregado");
+            resultado.put("produtos_carregados", atualizado.tamanho());
+            resultado.put("duracao_ms", duracaoUltimaCargaMs);
+        } catch (RuntimeException e) {
+            resultado.put("status", "FALHA");
+            resultado.put("erro_mensagem", e.getMessage());
+            resultado.put("falhas_consecutivas", falhasConsecutivas);
+        }
         return resultado;
     }
 
     public Map<String, Object> obterEstatisticas() {
-        Map<String, Object> estatisticas = new HashMap<>();
-        estatisticas.put("produtos_carregados", produtoRepository != null ? produtoRepository.count() : 0);
-        estatisticas.put("status", produtoRepository != null ? "ATIVO" : "FALLBACK");
-        estatisticas.put("observacao",
-                produtoRepository != null ? "Cache funcionando normalmente" : "Cache em fallback");
+        CatalogoProdutos atual = catalogo.get();
+        String status = determinarStatus(atual);
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("status", status);
+        estatisticas.put("produtos_carregados", atual.tamanho());
+        estatisticas.put("ultima_atualizacao", atual.carregadoEm());
+        estatisticas.put("idade_segundos", atual.carregado() ? atual.idadeMillis() / 1000 : null);
+        estatisticas.put("ttl_minutos", ttlMinutos);
+        estatisticas.put("intervalo_atualizacao_ms", intervaloAtualizacaoMs);
+        estatisticas.put("usa_fallback", usarFallback);
+        estatisticas.put("total_atualizacoes", totalAtualizacoes.get());
+        estatisticas.put("total_falhas", totalFalhas.get());
+        estatisticas.put("falhas_consecutivas", falhasConsecutivas);
+        estatisticas.put("ultimo_erro", ultimoErro);
+        estatisticas.put("leituras_expiradas", leiturasExpiradas.get());
+        estatisticas.put("duracao_ultima_carga_ms", duracaoUltimaCargaMs);
+        estatisticas.put("observacao", switch (status) {
+            case "ATIVO" -> "Cache funcionando normalmente";
+            case "EXPIRADO" -> "Catálogo expirado servido como fallback enquanto o SQL Server não responde";
+            case "VAZIO" -> "Catálogo ainda não carregado";
+            default -> "Cache em fallback";
+        });
+        estatisticas.put("indice_elegibilidade", atual.indice().obterEstatisticas());
+        estatisticas.put("tabela_fatores", tabelaFatores.obterEstatisticas());
+        estatisticas.put("historico_taxas", historicoTaxas.obterEstatisticas());
         return estatisticas;
     }
 
-    public Map<String, Object> forcarAtualizacao() {
-        Map<String, Object> resultado = new HashMap<>();
-        resultado.put("status", "ATUALIZADO");
-        resultado.put("mensagem", "Atualização simulada com sucesso");
-        return resultado;
+    /**
+     * Carrega os produtos do SQL Server e publica o novo catálogo. Cargas
+     * concorrentes são serializadas.
+     *
+     * @throws RuntimeException se o SQL Server falhar; o catálogo anterior é
+     *                          mantido
+     */
+    private synchronized CatalogoProdutos recarregar() {
+        if (produtoRepository == null) {
+            return catalogo.get();
+        }
+        long inicio = System.nanoTime();
+        try {
+            List<Produto> produtos = produtoRepository.findAll();
+            // Recalcula os fatores PRICE apenas dos produtos com taxa alterada
+            if (tabelaFatores.sincronizar(produtos)) {
+                resultadoCacheService.invalidar();
+            }
+            registrarHistoricoTaxas(produtos);
+            CatalogoProdutos novo = CatalogoProdutos.de(produtos, TimeZoneConfig.now());
+            CatalogoProdutos anterior = catalogo.getAndSet(novo);
+            avisarProdutosIgnorados(anterior, novo);
+
+            duracaoUltimaCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+            totalAtualizacoes.incrementAndGet();
+            if (falhasConsecutivas > 0) {
+                log.info("✅ SQL Server voltou a responder após {} falha(s)", falhasConsecutivas);
+            }
+            falhasConsecutivas = 0;
+            ultimoErro = null;
+            log.debug("Catálogo de produtos recarregado: {} produtos em {} ms", novo.tamanho(), duracaoUltimaCargaMs);
+            return novo;
+
+        } catch (RuntimeException e) {
+            totalFalhas.incrementAndGet();
+            falhasConsecutivas++;
+            ultimoErro = e.getMessage();
+            log.warn("⚠️ Falha ao recarregar produtos do SQL Server ({} consecutiva(s)): {}",
+                    falhasConsecutivas, e.getMessage());
+            throw e;
+        }
     }
 
-    public List<Produto> buscarProdutos() {
-        if (produtoRepository != null) {
-            return produtoRepository.findAll();
+    /**
+     * Registra as taxas novas antes de publicar o catálogo, para que toda
+     * simulação feita com ele encontre a versão da sua taxa. Uma falha no H2
+     * não impede a recarga: essas simulações ficam sem versão e são
+     * recalculadas pela taxa gravada com elas
+     */
+    private void registrarHistoricoTaxas(List<Produto> produtos) {
+        try {
+            historicoTaxas.registrar(produtos);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Falha ao registrar o histórico de taxas dos produtos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Avisa uma única vez sobre produtos com limites mínimos nulos, quando o
+     * conjunto desses produtos muda
+     */
+    private static void avisarProdutosIgnorados(CatalogoProdutos anterior, CatalogoProdutos novo) {
+        int[] ignorados = novo.indice().getProdutosIgnorados();
+        if (ignorados.length > 0 && !Arrays.equals(ignorados, anterior.indice().getProdutosIgnorados())) {
+            log.warn("Produtos {} têm campos mínimos nulos - ignorados na elegibilidade", Arrays.toString(ignorados));
+        }
+        if (!novo.indice().isDisponivel()) {
+            log.warn("Limites de valor dos produtos fora da faixa do índice de elegibilidade - usando busca linear");
+        }
+    }
+
+    private void revalidarEmSegundoPlano() {
+        if (!revalidacaoEmAndamento.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            revalidador.execute(() -> {
+                try {
+                    recarregar();
+                } catch (RuntimeException e) {
+                    // Mantém o catálogo expirado; a próxima leitura tenta de novo
+                } finally {
+                    revalidacaoEmAndamento.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            revalidacaoEmAndamento.set(false);
+        }
+    }
+
+    private boolean expirado(CatalogoProdutos atual) {
+        return atual.idadeMillis() > ttlMinutos * 60_000;
+    }
+
+    private String determinarStatus(CatalogoProdutos atual) {
+        if (produtoRepository == null) {
+            return "FALLBACK";
+        }
+        if (!atual.carregado()) {
+            return "VAZIO";
         }
-        // Fallback: retorna lista vazia se não houver acesso ao SQL Server
-        return new ArrayList<>();
+        return expirado(atual) ? "EXPIRADO" : "ATIVO";
     }
 }
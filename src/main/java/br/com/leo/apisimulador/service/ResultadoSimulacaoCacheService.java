@@ -0,0 +1,229 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU aproximado dos resultados SAC/PRICE já calculados, limitado por
+ * quantidade de entradas e por bytes estimados.
+ *
+ * A chave é (código do produto, taxa, valor, prazo): a própria PC_TAXA_JUROS
+ * funciona como versão da taxa, então uma mudança de taxa nunca reaproveita
+ * resultados antigos. O cache é esvaziado sempre que o cache de produtos é
+ * atualizado; cada entrada guarda a geração em que o cálculo começou, e
+ * entradas de uma geração anterior à atual são tratadas como ausentes.
+ *
+ * As consultas não usam lock: um acerto só atualiza o instante do último
+ * acesso da entrada. Quando um limite é ultrapassado, uma única thread por
+ * vez remove as entradas de acesso mais antigo até ficar em
+ * {@value #PERCENTUAL_APOS_REMOCAO}% dos limites, o que amortiza a ordenação
+ * entre várias inserções.
+ */
+@Slf4j
+@Service
+public class ResultadoSimulacaoCacheService {
+
+    private static final int BYTES_ENTRADA = 160;
+    private static final int BYTES_CABECALHO_ARRAY = 16;
+    private static final int BYTES_PARCELA_BIGDECIMAL = 168;
+    private static final int PERCENTUAL_APOS_REMOCAO = 90;
+
+    @Value("${app.simulacao.cache.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${app.simulacao.cache.maximo-entradas:10000}")
+    private int maximoEntradas;
+
+    @Value("${app.simulacao.cache.maximo-bytes:67108864}")
+    private long maximoBytes;
+
+    private final ConcurrentHashMap<ChaveSimulacao, EntradaCache> entradas = new ConcurrentHashMap<>(256);
+    private final AtomicLong bytesOcupados = new AtomicLong();
+    private final AtomicLong geracao = new AtomicLong();
+    private final AtomicBoolean removendo = new AtomicBoolean();
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong remocoes = new AtomicLong();
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    /**
+     * Valor normalizado sem zeros à direita: 1000, 1000.0 e 1000.00 geram as
+     * mesmas parcelas e portanto a mesma chave
+     */
+    private record ChaveSimulacao(int codigoProduto, BigDecimal taxa, BigDecimal valor, int prazo) {
+    }
+
+    private static final class EntradaCache {
+        private final List<ResultadoSimulacaoDTO> resultados;
+        private final long bytes;
+        private final long geracao;
+        private volatile long ultimoAcesso;
+
+        private EntradaCache(List<ResultadoSimulacaoDTO> resultados, long bytes, long geracao) {
+            this.resultados = resultados;
+            this.bytes = bytes;
+            this.geracao = geracao;
+            this.ultimoAcesso = System.nanoTime();
+        }
+    }
+
+    private record Candidata(ChaveSimulacao chave, EntradaCache entrada, long ultimoAcesso) {
+    }
+
+    /**
+     * Retorna os resultados em cache para o produto, valor e prazo, ou os
+     * calcula e armazena
+     */
+    public List<ResultadoSimulacaoDTO> obter(Produto produto, BigDecimal valor, int prazo,
+            Supplier<List<ResultadoSimulacaoDTO>> calculo) {
+        if (!habilitado || produto.getCodigoProduto() == null || produto.getTaxaJuros() == null) {
+            return calculo.get();
+        }
+
+        ChaveSimulacao chave = new ChaveSimulacao(produto.getCodigoProduto(),
+                produto.getTaxaJuros().stripTrailingZeros(), valor.stripTrailingZeros(), prazo);
+        long geracaoInicial = geracao.get();
+        EntradaCache entrada = entradas.get(chave);
+        if (entrada != null && entrada.geracao == geracaoInicial) {
+            entrada.ultimoAcesso = System.nanoTime();
+            acertos.incrementAndGet();
+            return entrada.resultados;
+        }
+
+        falhas.incrementAndGet();
+        List<ResultadoSimulacaoDTO> resultados = calculo.get();
+        armazenar(chave, resultados, geracaoInicial);
+        return resultados;
+    }
+
+    /**
+     * Descarta todas as entradas. Chamado quando o cache de produtos é
+     * atualizado.
+     */
+    public void invalidar() {
+        geracao.incrementAndGet();
+        int descartadas = 0;
+        for (Map.Entry<ChaveSimulacao, EntradaCache> entrada : entradas.entrySet()) {
+            if (remover(entrada.getKey(), entrada.getValue())) {
+                descartadas++;
+            }
+        }
+        if (descartadas > 0) {
+            log.info("Cache de resultados de simulação invalidado: {} entradas descartadas", descartadas);
+        }
+        invalidacoes.incrementAndGet();
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        long totalAcertos = acertos.get();
+        long totalConsultas = totalAcertos + falhas.get();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("entradas", entradas.size());
+        estatisticas.put("maximo_entradas", maximoEntradas);
+        estatisticas.put("bytes_estimados", bytesOcupados.get());
+        estatisticas.put("maximo_bytes", maximoBytes);
+        estatisticas.put("acertos", totalAcertos);
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("remocoes", remocoes.get());
+        estatisticas.put("invalidacoes", invalidacoes.get());
+        estatisticas.put("taxa_acerto", totalConsultas > 0 ? (double) totalAcertos / totalConsultas : 0.0);
+        return estatisticas;
+    }
+
+    private void armazenar(ChaveSimulacao chave, List<ResultadoSimulacaoDTO> resultados, long geracaoInicial) {
+        if (geracao.get() != geracaoInicial) {
+            return;
+        }
+        long bytes = estimarBytes(resultados);
+        if (bytes > maximoBytes) {
+            return;
+        }
+        EntradaCache nova = new EntradaCache(resultados, bytes, geracaoInicial);
+        EntradaCache anterior = entradas.put(chave, nova);
+        bytesOcupados.addAndGet(anterior != null ? bytes - anterior.bytes : bytes);
+
+        // Uma invalidação entre a verificação da geração e o put não remove a
+        // entrada nova: remove aqui para não ocupar espaço até a próxima remoção
+        if (geracao.get() != geracaoInicial) {
+            remover(chave, nova);
+            return;
+        }
+        if (excedeLimites(maximoEntradas, maximoBytes)) {
+            removerMenosUsadas();
+        }
+    }
+
+    /**
+     * Remove as entradas de acesso mais antigo até ficar abaixo dos limites
+     * reduzidos. Se outra thread já está removendo, retorna sem esperar.
+     */
+    private void removerMenosUsadas() {
+        if (!removendo.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int entradasAlvo = (int) ((long) maximoEntradas * PERCENTUAL_APOS_REMOCAO / 100);
+            long bytesAlvo = maximoBytes / 100 * PERCENTUAL_APOS_REMOCAO;
+            // O instante é copiado antes da ordenação: acertos concorrentes o
+            // alteram, e a ordenação exige uma comparação estável
+            List<Candidata> candidatas = new ArrayList<>(entradas.size());
+            entradas.forEach((chave, entrada) -> candidatas.add(new Candidata(chave, entrada, entrada.ultimoAcesso)));
+            candidatas.sort(Comparator.comparingLong(Candidata::ultimoAcesso));
+            for (Candidata candidata : candidatas) {
+                if (!excedeLimites(entradasAlvo, bytesAlvo)) {
+                    break;
+                }
+                if (remover(candidata.chave(), candidata.entrada())) {
+                    remocoes.incrementAndGet();
+                }
+            }
+        } finally {
+            removendo.set(false);
+        }
+    }
+
+    private boolean excedeLimites(int limiteEntradas, long limiteBytes) {
+        return entradas.size() > limiteEntradas || bytesOcupados.get() > limiteBytes;
+    }
+
+    /**
+     * Remove a entrada só se ela ainda for a associada à chave, para que os
+     * bytes de cada entrada sejam descontados uma única vez
+     */
+    private boolean remover(ChaveSimulacao chave, EntradaCache entrada) {
+        if (entradas.remove(chave, entrada)) {
+            bytesOcupados.addAndGet(-entrada.bytes);
+            return true;
+        }
+        return false;
+    }
+
+    private static long estimarBytes(List<ResultadoSimulacaoDTO> resultados) {
+        long total = BYTES_ENTRADA;
+        for (ResultadoSimulacaoDTO resultado : resultados) {
+            int parcelas = resultado.parcelas().size();
+            total += resultado.parcelas() instanceof CronogramaAmortizacao
+                    ? 3L * (BYTES_CABECALHO_ARRAY + 8L * parcelas)
+                    : BYTES_CABECALHO_ARRAY + (long) BYTES_PARCELA_BIGDECIMAL * parcelas;
+        }
+        return total;
+    }
+}
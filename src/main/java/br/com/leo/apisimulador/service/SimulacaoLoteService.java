@@ -0,0 +1,244 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoLoteItemDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoLoteResponseDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoRequestDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.AlocadorIdSimulacao;
+import br.com.leo.apisimulador.service.evento.DespachanteOutbox;
+import br.com.leo.apisimulador.service.evento.EventoSimulacao;
+import br.com.leo.apisimulador.service.evento.PublicadorEventos;
+import br.com.leo.apisimulador.service.gravacao.ContadorSimulacoes;
+import br.com.leo.apisimulador.service.produto.CatalogoProdutos;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Simulação em lote: elegibilidade e cálculo SAC/PRICE em paralelo num
+ * ForkJoinPool limitado e persistência numa única gravação, com os eventos na
+ * outbox ({@link DespachanteOutbox}) ou, sem ela, publicados pelo
+ * {@link PublicadorEventos} depois da gravação. Erros são reportados por item e não interrompem o
+ * lote.
+ */
+@Slf4j
+@Service
+public class SimulacaoLoteService {
+
+    private final SimulacaoService simulacaoService;
+    private final ProdutoCacheService produtoCacheService;
+    private final ArmazenamentoSimulacoes armazenamento;
+    private final AlocadorIdSimulacao alocadorId;
+    private final ContadorSimulacoes contadorSimulacoes;
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PublicadorEventos publicadorEventos;
+    private final DespachanteOutbox despachanteOutbox;
+
+    @Value("${app.simulacao.lote.tamanho-maximo:500}")
+    private int tamanhoMaximo;
+
+    @Value("${app.simulacao.lote.paralelismo:4}")
+    private int paralelismo;
+
+    private ForkJoinPool pool;
+
+    public SimulacaoLoteService(SimulacaoService simulacaoService,
+            ProdutoCacheService produtoCacheService,
+            ArmazenamentoSimulacoes armazenamento,
+            AlocadorIdSimulacao alocadorId,
+            ContadorSimulacoes contadorSimulacoes,
+            ConsolidacaoVolumeDiario consolidacaoVolume,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PublicadorEventos publicadorEventos,
+            DespachanteOutbox despachanteOutbox) {
+        this.simulacaoService = simulacaoService;
+        this.produtoCacheService = produtoCacheService;
+        this.armazenamento = armazenamento;
+        this.alocadorId = alocadorId;
+        this.contadorSimulacoes = contadorSimulacoes;
+        this.consolidacaoVolume = consolidacaoVolume;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.publicadorEventos = publicadorEventos;
+        this.despachanteOutbox = despachanteOutbox;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        pool = new ForkJoinPool(Math.max(1, paralelismo));
+        log.info("Pool de simulação em lote iniciado com paralelismo {}", pool.getParallelism());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdown();
+    }
+
+    /**
+     * Item avaliado: resultado do cálculo ou mensagem de erro
+     */
+    private record ItemAvaliado(Produto produto, Simulacao simulacao, List<ResultadoSimulacaoDTO> resultados,
+            String erro) {
+    }
+
+    public SimulacaoLoteResponseDTO simularLote(List<SimulacaoRequestDTO> requisicoes) {
+        if (requisicoes == null || requisicoes.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma simulação");
+        }
+        if (requisicoes.size() > tamanhoMaximo) {
+            throw new IllegalArgumentException(
+                    "O lote deve conter no máximo " + tamanhoMaximo + " simulações");
+        }
+
+        // O catálogo é lido uma vez para o lote inteiro
+        CatalogoProdutos catalogo = produtoCacheService.obterCatalogo();
+
+        // Stream paralelo dentro do pool limitado; toList preserva a ordem de entrada
+        List<ItemAvaliado> avaliados = pool.submit(() -> IntStream.range(0, requisicoes.size())
+                .parallel()
+                .mapToObj(i -> avaliar(catalogo, requisicoes.get(i)))
+                .toList())
+                .join();
+
+        List<Simulacao> simulacoes = new ArrayList<>();
+        for (ItemAvaliado item : avaliados) {
+            if (item.erro() == null) {
+                simulacoes.add(item.simulacao());
+            }
+        }
+
+        // IDs alocados na ordem de entrada, antes da gravação
+        long[] ids = alocadorId.proximosIds(simulacoes.size());
+        for (int i = 0; i < ids.length; i++) {
+            simulacoes.get(i).setIdSimulacao(ids[i]);
+        }
+
+        List<SimulacaoLoteItemDTO> itens = montarItens(avaliados);
+        consolidacaoVolume.gravarERegistrar(simulacoes, () -> armazenamento.gravar(simulacoes));
+        contadorSimulacoes.adicionar(simulacoes.size());
+
+        publicarEventos(itens);
+
+        int quantidadeSucesso = simulacoes.size();
+        log.info("Lote de {} simulações processado: {} com sucesso, {} com erro",
+                requisicoes.size(), quantidadeSucesso, requisicoes.size() - quantidadeSucesso);
+        return new SimulacaoLoteResponseDTO(requisicoes.size(), quantidadeSucesso,
+                requisicoes.size() - quantidadeSucesso, itens);
+    }
+
+    private ItemAvaliado avaliar(CatalogoProdutos catalogo, SimulacaoRequestDTO requisicao) {
+        if (requisicao == null) {
+            return new ItemAvaliado(null, null, null, "Item nulo");
+        }
+        Set<ConstraintViolation<SimulacaoRequestDTO>> violacoes = validator.validate(requisicao);
+        if (!violacoes.isEmpty()) {
+            return new ItemAvaliado(null, null, null, violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        try {
+            Produto produto = simulacaoService.buscarProdutoElegivel(catalogo, requisicao);
+            List<ResultadoSimulacaoDTO> resultados = simulacaoService.calcularSimulacoes(requisicao, produto);
+            return new ItemAvaliado(produto, simulacaoService.criarSimulacao(requisicao, produto), resultados,
+                    null);
+        } catch (Exception e) {
+            // Exceções sem mensagem (NullPointerException, por exemplo) não
+            // são erros de negócio: registra e responde com o tipo
+            if (e.getMessage() == null) {
+                log.warn("Erro inesperado ao avaliar item do lote", e);
+                return new ItemAvaliado(null, null, null, "Erro interno: " + e.getClass().getSimpleName());
+            }
+            return new ItemAvaliado(null, null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Gera as respostas, já com os IDs, e as guarda nas simulações a gravar
+     * conforme app.simulacao.resultado.modo, junto com o evento quando a
+     * outbox está habilitada
+     */
+    private List<SimulacaoLoteItemDTO> montarItens(List<ItemAvaliado> avaliados) {
+        boolean comOutbox = despachanteOutbox.isHabilitado();
+        List<SimulacaoLoteItemDTO> itens = new ArrayList<>(avaliados.size());
+        for (int i = 0; i < avaliados.size(); i++) {
+            ItemAvaliado item = avaliados.get(i);
+            if (item.erro() != null) {
+                itens.add(SimulacaoLoteItemDTO.erro(i, item.erro()));
+                continue;
+            }
+            SimulacaoResponseDTO resposta = criarResposta(item);
+            simulacaoService.guardarResultado(item.simulacao(), resposta);
+            if (comOutbox) {
+                item.simulacao().setEvento(serializarEvento(resposta));
+            }
+            itens.add(SimulacaoLoteItemDTO.sucesso(i, resposta));
+        }
+        return itens;
+    }
+
+    private static SimulacaoResponseDTO criarResposta(ItemAvaliado item) {
+        return new SimulacaoResponseDTO(
+                item.simulacao().getIdSimulacao(),
+                item.produto().getCodigoProduto(),
+                item.produto().getDescricaoProduto(),
+                item.produto().getTaxaJuros(),
+                item.resultados());
+    }
+
+    /**
+     * O evento vai na mesma gravação da simulação: sem ele, o lote não é
+     * gravado
+     */
+    private byte[] serializarEvento(SimulacaoResponseDTO resposta) {
+        try {
+            return objectMapper.writeValueAsBytes(resposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o evento da simulação " + resposta.idSimulacao(), e);
+        }
+    }
+
+    /**
+     * Sem a outbox, publica as respostas dos itens simulados com sucesso, já
+     * gravados; não depende do resultado guardado nas simulações, ausente no
+     * modo RECALCULADO
+     */
+    private void publicarEventos(List<SimulacaoLoteItemDTO> itens) {
+        if (despachanteOutbox.isHabilitado() || !publicadorEventos.isAtivo()) {
+            return;
+        }
+        for (SimulacaoLoteItemDTO item : itens) {
+            if (!item.sucesso()) {
+                continue;
+            }
+            try {
+                publicadorEventos.publicar(EventoSimulacao.de(item.simulacao(),
+                        objectMapper.writeValueAsBytes(item.simulacao())));
+            } catch (JsonProcessingException e) {
+                log.error("❌ Falha ao serializar o evento da simulação {}: {}", item.simulacao().idSimulacao(),
+                        e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.leo.apisimulador.service;
+
+/**
+ * Nenhuma simulação gravada com o ID pedido
+ */
+public class SimulacaoNaoEncontradaException extends RuntimeException {
+
+    public SimulacaoNaoEncontradaException(long idSimulacao) {
+        super("Simulação " + idSimulacao + " não encontrada");
+    }
+}
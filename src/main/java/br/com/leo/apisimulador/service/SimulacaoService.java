@@ -4,27 +4,45 @@ import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
 import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
 import br.com.leo.apisimulador.dto.simulacao.SimulacaoRequestDTO;
 import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResumoDTO;
 import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoProdutoDTO;
 import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoResponseDTO;
+import br.com.leo.apisimulador.enums.ModoResultadoEnum;
 import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
 import br.com.leo.apisimulador.model.h2.Simulacao;
 import br.com.leo.apisimulador.model.sqlserver.Produto;
-import br.com.leo.apisimulador.repository.h2.SimulacaoRepository;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.AlocadorIdSimulacao;
+import br.com.leo.apisimulador.repository.h2.HistoricoTaxasProduto;
+import br.com.leo.apisimulador.repository.h2.SimulacaoResumoProjecao;
+import br.com.leo.apisimulador.repository.h2.VersaoTaxaProduto;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
 import br.com.leo.apisimulador.repository.sqlserver.ProdutoRepository;
-import com.azure.messaging.eventhubs.EventData;
-import com.azure.messaging.eventhubs.EventHubProducerClient;
+import br.com.leo.apisimulador.service.SimulacoesRecentesCacheService.RespostaSerializada;
+import br.com.leo.apisimulador.service.calculadora.ResumoAmortizacao;
+import br.com.leo.apisimulador.service.evento.DespachanteOutbox;
+import br.com.leo.apisimulador.service.evento.EventoSimulacao;
+import br.com.leo.apisimulador.service.evento.PublicadorEventos;
+import br.com.leo.apisimulador.service.gravacao.FilaGravacaoCheiaException;
+import br.com.leo.apisimulador.service.gravacao.GravacaoNaoConfirmadaException;
+import br.com.leo.apisimulador.service.gravacao.GravadorSimulacoes;
+import br.com.leo.apisimulador.service.produto.CatalogoProdutos;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import br.com.leo.apisimulador.service.volume.MetricasVolumeProduto;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,61 +50,76 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SimulacaoService {
 
-    private final SimulacaoRepository simulacaoRepository;
+    private final ArmazenamentoSimulacoes armazenamento;
     private final CalculoAmortizacaoService calculoService;
-    private final EventHubProducerClient eventHubProducerClient;
     private final ObjectMapper objectMapper;
     private final TelemetriaService telemetria;
     private final ProdutoCacheService produtoCacheService;
+    private final ResultadoSimulacaoCacheService resultadoCacheService;
+    private final AlocadorIdSimulacao alocadorId;
+    private final GravadorSimulacoes gravador;
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+    private final HistoricoTaxasProduto historicoTaxas;
+    private final SimulacoesRecentesCacheService simulacoesRecentes;
+    private final PublicadorEventos publicadorEventos;
+    private final DespachanteOutbox despachanteOutbox;
 
     @Autowired
     private ProdutoRepository produtoRepository;
 
-    @Transactional("localTransactionManager")
-    public SimulacaoResponseDTO simular(SimulacaoRequestDTO requisicao) {
+    @Value("${app.simulacao.resultado.modo:COMPLETO}")
+    private ModoResultadoEnum modoResultado;
+
+    /**
+     * @return o JSON da resposta, o mesmo publicado no evento e servido por GET
+     *         /simulacoes/{id}
+     */
+    public RespostaSerializada simular(SimulacaoRequestDTO requisicao) {
         return telemetria.medirTempoExecucao("simulacao_emprestimo", () -> {
             try {
                 Produto produto = buscarProdutoElegivel(requisicao);
                 List<ResultadoSimulacaoDTO> resultados = calcularSimulacoes(requisicao, produto);
 
-                // Criar e persistir a simulação
+                // O ID é alocado antes da gravação: um único INSERT, já com o resultado
                 Simulacao simulacao = criarSimulacao(requisicao, produto);
+                simulacao.setIdSimulacao(alocadorId.proximoId());
 
-                // Criar a resposta com o record
                 SimulacaoResponseDTO resposta = new SimulacaoResponseDTO(
-                        null, // ID será atualizado após persistência
+                        simulacao.getIdSimulacao(),
                         produto.getCodigoProduto(),
                         produto.getDescricaoProduto(),
                         produto.getTaxaJuros(),
                         resultados);
 
-                // Persistir a simulação
-                try {
-                    simulacao.setResultadoJson(objectMapper.writeValueAsString(resposta));
-                    simulacao = simulacaoRepository.save(simulacao);
-
-                    // Criar nova resposta com ID atualizado
-                    resposta = new SimulacaoResponseDTO(
-                            simulacao.getIdSimulacao(),
-                            produto.getCodigoProduto(),
-                            produto.getDescricaoProduto(),
-                            produto.getTaxaJuros(),
-                            resultados);
-
-                    // Atualizar o JSON com o ID correto
-                    simulacao.setResultadoJson(objectMapper.writeValueAsString(resposta));
-                    simulacaoRepository.save(simulacao);
+                // O mesmo JSON vai para o Event Hub e fica pronto para GET /simulacoes/{id}
+                byte[] json = objectMapper.writeValueAsBytes(resposta);
+                // Com a outbox, o evento é gravado na mesma transação da simulação
+                boolean comOutbox = despachanteOutbox.isHabilitado();
+                if (comOutbox) {
+                    simulacao.setEvento(json);
+                }
 
+                // Persistir a simulação (write-behind; confirmação conforme app.simulacao.gravacao.modo)
+                CompletableFuture<Void> gravacao;
+                try {
+                    guardarResultado(simulacao, resposta);
+                    gravacao = gravador.gravar(simulacao);
+                } catch (FilaGravacaoCheiaException | GravacaoNaoConfirmadaException e) {
+                    throw e;
                 } catch (Exception e) {
                     log.error("Erro ao persistir simulação: {}", e.getMessage(), e);
                     throw new RuntimeException("Falha ao persistir simulação", e);
                 }
 
-                enviarParaEventHub(simulacao.getResultadoJson());
+                RespostaSerializada serializada = simulacoesRecentes.registrar(simulacao.getIdSimulacao(), json);
+                acompanharGravacao(gravacao, resposta, json, comOutbox);
 
                 log.info("Simulação concluída com sucesso");
-                return resposta;
+                return serializada;
 
+            } catch (FilaGravacaoCheiaException | GravacaoNaoConfirmadaException e) {
+                log.warn("⚠️ Simulação recusada: {}", e.getMessage());
+                throw e;
             } catch (Exception e) {
                 log.error("Erro ao processar simulação: {}", e.getMessage(), e);
                 throw new RuntimeException("Falha ao processar simulação: " + e.getMessage(), e);
@@ -94,50 +127,49 @@ public class SimulacaoService {
         });
     }
 
-    private Produto buscarProdutoElegivel(SimulacaoRequestDTO requisicao) {
-        return produtoCacheService.buscarProdutos().stream()
-                .filter(p -> isProdutoElegivel(p, requisicao))
-                .findFirst()
-                .orElseThrow(() -> {
-                    log.error("Nenhum produto encontrado para os parâmetros: valor={}, prazo={}",
-                            requisicao.valorDesejado(), requisicao.prazo());
-                    return new RuntimeException("Nenhum produto encontrado para os parâmetros informados.");
-                });
+    /**
+     * No modo ENFILEIRAMENTO a resposta entra nas simulações recentes antes de
+     * a gravação ser confirmada: se a gravação falhar, sai delas, para que GET
+     * /simulacoes/{id} não sirva uma simulação que não existe. Sem a outbox, o
+     * evento só é publicado depois que a simulação estiver gravada
+     */
+    private void acompanharGravacao(CompletableFuture<Void> gravacao, SimulacaoResponseDTO resposta, byte[] json,
+            boolean comOutbox) {
+        gravacao.whenComplete((ignorado, erro) -> {
+            if (erro != null) {
+                simulacoesRecentes.removerNaoGravada(resposta.idSimulacao());
+            }
+            if (comOutbox) {
+                return;
+            }
+            if (erro == null) {
+                publicadorEventos.publicar(EventoSimulacao.de(resposta, json));
+            } else {
+                publicadorEventos.descartarNaoGravado(resposta.idSimulacao(), erro);
+            }
+        });
     }
 
-    private boolean isProdutoElegivel(Produto produto, SimulacaoRequestDTO requisicao) {
-        // Verificar se os campos essenciais básicos não são nulos
-        if (produto.getValorMinimo() == null || produto.getMinimoMeses() == null) {
-            log.warn("Produto {} tem campos mínimos nulos - ignorando na elegibilidade", produto.getCodigoProduto());
-            return false;
-        }
-
-        // Verificar valor mínimo
-        if (requisicao.valorDesejado().compareTo(produto.getValorMinimo()) < 0) {
-            return false;
-        }
-
-        // Verificar prazo mínimo
-        if (requisicao.prazo() < produto.getMinimoMeses()) {
-            return false;
-        }
-
-        // Verificar valor máximo (se não for nulo)
-        if (produto.getValorMaximo() != null &&
-                requisicao.valorDesejado().compareTo(produto.getValorMaximo()) > 0) {
-            return false;
-        }
+    private Produto buscarProdutoElegivel(SimulacaoRequestDTO requisicao) {
+        return buscarProdutoElegivel(produtoCacheService.obterCatalogo(), requisicao);
+    }
 
-        // Verificar prazo máximo (se não for nulo)
-        if (produto.getMaximoMeses() != null &&
-                requisicao.prazo() > produto.getMaximoMeses()) {
-            return false;
+    Produto buscarProdutoElegivel(CatalogoProdutos catalogo, SimulacaoRequestDTO requisicao) {
+        Produto produto = catalogo.buscarElegivel(requisicao.valorDesejado(), requisicao.prazo());
+        if (produto == null) {
+            log.error("Nenhum produto encontrado para os parâmetros: valor={}, prazo={}",
+                    requisicao.valorDesejado(), requisicao.prazo());
+            throw new RuntimeException("Nenhum produto encontrado para os parâmetros informados.");
         }
+        return produto;
+    }
 
-        return true;
+    List<ResultadoSimulacaoDTO> calcularSimulacoes(SimulacaoRequestDTO requisicao, Produto produto) {
+        return resultadoCacheService.obter(produto, requisicao.valorDesejado(), requisicao.prazo(),
+                () -> calcularParcelas(requisicao, produto));
     }
 
-    private List<ResultadoSimulacaoDTO> calcularSimulacoes(SimulacaoRequestDTO requisicao, Produto produto) {
+    private List<ResultadoSimulacaoDTO> calcularParcelas(SimulacaoRequestDTO requisicao, Produto produto) {
         List<ParcelaDTO> parcelasSAC = calculoService.calcularSAC(
                 requisicao.valorDesejado(),
                 produto.getTaxaJuros(),
@@ -153,110 +185,156 @@ public class SimulacaoService {
                 new ResultadoSimulacaoDTO(TipoSimulacaoEnum.PRICE, parcelasPRICE));
     }
 
-    private Simulacao criarSimulacao(SimulacaoRequestDTO requisicao, Produto produto) {
+    Simulacao criarSimulacao(SimulacaoRequestDTO requisicao, Produto produto) {
         Simulacao simulacao = new Simulacao();
         // simulacao.setProduto(produto);
         simulacao.setProdutoId(produto.getCodigoProduto());
         simulacao.setValorDesejado(requisicao.valorDesejado());
         simulacao.setPrazo(requisicao.prazo());
+        simulacao.setVersaoTaxa(historicoTaxas.versaoDe(produto));
+        preencherResumo(simulacao, produto.getDescricaoProduto(), produto.getTaxaJuros());
         return simulacao;
     }
 
-    private void enviarParaEventHub(String mensagem) {
-        try {
-            log.info("🚀 Enviando simulação para Azure Event Hub...");
-            log.debug("📄 Payload: {}", mensagem.substring(0, Math.min(100, mensagem.length())) + "...");
-
-            eventHubProducerClient.send(List.of(new EventData(mensagem)));
-
-            log.info("✅ Simulação enviada com sucesso para Azure Event Hub");
-        } catch (Exception e) {
-            log.error("❌ Erro ao enviar mensagem para EventHub: {}", e.getMessage(), e);
-            log.error("🔍 Verifique: 1) Conexão de rede, 2) Credenciais do .env, 3) Permissões do Event Hub");
+    /**
+     * Guarda a resposta na simulação a gravar, exceto com
+     * app.simulacao.resultado.modo=RECALCULADO, em que só as entradas e a
+     * versão da taxa são gravadas
+     */
+    void guardarResultado(Simulacao simulacao, SimulacaoResponseDTO resposta) {
+        if (modoResultado == ModoResultadoEnum.COMPLETO) {
+            simulacao.setResultado(resposta);
         }
     }
 
-    public VolumeSimuladoResponseDTO calcularVolumeSimuladoPorDia(LocalDate data) {
-        List<Simulacao> simulacoesDoDia = simulacaoRepository.findByDataReferencia(data);
-
-        Map<Integer, List<Simulacao>> simulacoesPorProduto = simulacoesDoDia.stream()
-                .collect(Collectors.groupingBy(Simulacao::getProdutoId));
+    /**
+     * Resultado de uma simulação gravada: o guardado com ela (binário ou, nas
+     * linhas antigas, JSON) ou, se gravada sem resultado, recalculado do
+     * valor, do prazo e da taxa da versão registrada. O cálculo é
+     * determinístico, então o recalculado é igual ao devolvido na simulação
+     *
+     * @throws IllegalStateException se a simulação não tiver resultado nem
+     *                               taxa para recalculá-lo
+     */
+    public SimulacaoResponseDTO obterResultado(Simulacao simulacao) {
+        if (simulacao.getResultado() != null) {
+            return simulacao.getResultado();
+        }
+        if (simulacao.getResultadoJson() != null) {
+            try {
+                return objectMapper.readValue(simulacao.getResultadoJson(), SimulacaoResponseDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Resultado ilegível na simulação " + simulacao.getIdSimulacao(), e);
+            }
+        }
 
-        List<VolumeSimuladoProdutoDTO> produtosCalculados = simulacoesPorProduto.entrySet().stream()
-                .map(entry -> {
-                    Integer produtoId = entry.getKey();
-                    List<Simulacao> simulacoes = entry.getValue();
-                    return calcularMetricasProduto(produtoId, simulacoes);
-                })
-                .collect(Collectors.toList());
+        Produto produto = produtoDaSimulacao(simulacao);
+        SimulacaoRequestDTO requisicao = new SimulacaoRequestDTO(simulacao.getValorDesejado(), simulacao.getPrazo());
+        return new SimulacaoResponseDTO(
+                simulacao.getIdSimulacao(),
+                produto.getCodigoProduto(),
+                produto.getDescricaoProduto(),
+                produto.getTaxaJuros(),
+                calcularSimulacoes(requisicao, produto));
+    }
 
-        return new VolumeSimuladoResponseDTO(data, produtosCalculados);
+    /**
+     * JSON da resposta de uma simulação gravada, como devolvido em POST
+     * /simulacoes: das simulações recentes em memória ou, fora delas, do
+     * armazenamento. O JSON das linhas antigas é servido como foi gravado; os
+     * demais são serializados uma vez e passam a ficar em memória
+     *
+     * @throws SimulacaoNaoEncontradaException se não houver simulação com o ID
+     */
+    public RespostaSerializada obterSerializada(long idSimulacao) {
+        RespostaSerializada recente = simulacoesRecentes.obter(idSimulacao);
+        if (recente != null) {
+            return recente;
+        }
+        long geracaoLeitura = simulacoesRecentes.obterGeracaoRemocoes();
+        Simulacao simulacao = armazenamento.buscarPorId(idSimulacao)
+                .orElseThrow(() -> new SimulacaoNaoEncontradaException(idSimulacao));
+        try {
+            byte[] json = simulacao.getResultado() == null && simulacao.getResultadoJson() != null
+                    ? simulacao.getResultadoJson().getBytes(StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsBytes(obterResultado(simulacao));
+            return simulacoesRecentes.registrarLida(idSimulacao, json, geracaoLeitura);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a simulação " + idSimulacao, e);
+        }
     }
 
-    private VolumeSimuladoProdutoDTO calcularMetricasProduto(Integer produtoId, List<Simulacao> simulacoes) {
-        if (simulacoes == null || simulacoes.isEmpty()) {
-            return null;
+    /**
+     * Produto como estava na simulação: taxa da versão registrada ou, sem
+     * ela (log, histórico indisponível), a gravada em TAXA_JUROS
+     */
+    private Produto produtoDaSimulacao(Simulacao simulacao) {
+        VersaoTaxaProduto versao = simulacao.getVersaoTaxa() != null
+                ? historicoTaxas.buscar(simulacao.getVersaoTaxa()).orElse(null)
+                : null;
+        BigDecimal taxaJuros = versao != null ? versao.taxaJuros() : simulacao.getTaxaJuros();
+        if (taxaJuros == null) {
+            throw new IllegalStateException("Simulação " + simulacao.getIdSimulacao()
+                    + " gravada sem resultado e sem taxa para recalculá-lo");
         }
+        return Produto.builder()
+                .codigoProduto(simulacao.getProdutoId())
+                .descricaoProduto(simulacao.getDescricaoProduto() == null && versao != null
+                        ? versao.descricaoProduto()
+                        : simulacao.getDescricaoProduto())
+                .taxaJuros(taxaJuros)
+                .build();
+    }
 
-        String descricaoProduto = extrairDescricaoProduto(simulacoes.get(0).getResultadoJson());
-        BigDecimal valorTotalDesejado = BigDecimal.ZERO;
-        BigDecimal valorTotalCredito = BigDecimal.ZERO;
-        BigDecimal somaTaxasJuros = BigDecimal.ZERO;
-        BigDecimal somaValoresPrimeiraPrestacao = BigDecimal.ZERO;
+    /**
+     * Preenche as colunas de resumo (taxa, descrição, totais de SAC e PRICE e
+     * primeira prestação do PRICE), com os totais em forma fechada
+     */
+    public void preencherResumo(Simulacao simulacao, String descricaoProduto, BigDecimal taxaJuros) {
+        ResumoAmortizacao resumoSac = calculoService.calcularResumoSAC(
+                simulacao.getValorDesejado(), taxaJuros, simulacao.getPrazo());
+        ResumoAmortizacao resumoPrice = calculoService.calcularResumoPRICE(
+                simulacao.getValorDesejado(), taxaJuros, simulacao.getPrazo());
+
+        simulacao.setTaxaJuros(taxaJuros);
+        simulacao.setDescricaoProduto(descricaoProduto);
+        simulacao.setValorTotalSac(resumoSac.totalPrestacoes());
+        simulacao.setValorTotalPrice(resumoPrice.totalPrestacoes());
+        simulacao.setValorPrimeiraPrestacao(resumoPrice.primeiraPrestacao());
+    }
 
-        for (Simulacao s : simulacoes) {
-            valorTotalDesejado = valorTotalDesejado.add(s.getValorDesejado());
-            try {
-                SimulacaoResponseDTO simResponse = objectMapper.readValue(s.getResultadoJson(),
-                        SimulacaoResponseDTO.class);
-                somaTaxasJuros = somaTaxasJuros.add(simResponse.taxaJuros());
-
-                ResultadoSimulacaoDTO priceResult = simResponse.resultadosSimulacao().stream()
-                        .filter(r -> r.tipo() == TipoSimulacaoEnum.PRICE).findFirst().orElse(null);
-
-                if (priceResult != null) {
-                    BigDecimal totalCreditoSimulacao = priceResult.parcelas().stream()
-                            .map(ParcelaDTO::valorPrestacao)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    valorTotalCredito = valorTotalCredito.add(totalCreditoSimulacao);
-
-                    if (!priceResult.parcelas().isEmpty()) {
-                        somaValoresPrimeiraPrestacao = somaValoresPrimeiraPrestacao
-                                .add(priceResult.parcelas().get(0).valorPrestacao());
-                    }
-                }
+    public VolumeSimuladoResponseDTO calcularVolumeSimuladoPorDia(LocalDate data) {
+        // Totais em memória; com a consolidação desligada, agregados no banco
+        List<VolumeProdutoProjecao> volumes = consolidacaoVolume.isHabilitada()
+                ? consolidacaoVolume.consultar(data)
+                : armazenamento.agregarVolumePorProduto(data);
+        CatalogoProdutos catalogo = produtoCacheService.obterCatalogo();
+
+        List<VolumeSimuladoProdutoDTO> produtosCalculados = volumes.stream()
+                .map(volume -> MetricasVolumeProduto.calcular(volume,
+                        catalogo.buscarPorCodigo(volume.getProdutoId())))
+                .collect(Collectors.toList());
 
-            } catch (Exception e) {
-                log.error("Erro ao processar JSON da simulação {}: {}", s.getIdSimulacao(), e.getMessage());
-            }
-        }
+        return new VolumeSimuladoResponseDTO(data, produtosCalculados);
+    }
 
-        int quantidadeSimulacoes = simulacoes.size();
-        BigDecimal taxaMedia = (quantidadeSimulacoes > 0)
-                ? somaTaxasJuros.divide(BigDecimal.valueOf(quantidadeSimulacoes), 4, RoundingMode.HALF_UP)
+    /**
+     * Converte as colunas de resumo de uma simulação para o DTO da listagem
+     */
+    public SimulacaoResumoDTO resumirSimulacao(SimulacaoResumoProjecao simulacao) {
+        BigDecimal valorTotalSAC = simulacao.getValorTotalSac() != null
+                ? simulacao.getValorTotalSac()
                 : BigDecimal.ZERO;
-        BigDecimal valorMedioPrestacao = (quantidadeSimulacoes > 0)
-                ? somaValoresPrimeiraPrestacao.divide(BigDecimal.valueOf(quantidadeSimulacoes), 2, RoundingMode.HALF_UP)
+        BigDecimal valorTotalPrice = simulacao.getValorTotalPrice() != null
+                ? simulacao.getValorTotalPrice()
                 : BigDecimal.ZERO;
 
-        return new VolumeSimuladoProdutoDTO(
-                produtoId,
-                descricaoProduto,
-                quantidadeSimulacoes,
-                taxaMedia,
-                valorTotalDesejado,
-                valorTotalCredito,
-                valorMedioPrestacao);
-    }
-
-    private String extrairDescricaoProduto(String resultadoJson) {
-        try {
-            SimulacaoResponseDTO simResponse = objectMapper.readValue(resultadoJson, SimulacaoResponseDTO.class);
-            return simResponse.descricaoProduto();
-        } catch (Exception e) {
-            log.error("Erro ao extrair descrição do produto do JSON: {}", e.getMessage());
-            return "Descrição Indisponível";
-        }
+        return new SimulacaoResumoDTO(
+                simulacao.getIdSimulacao(),
+                simulacao.getValorDesejado().setScale(2, RoundingMode.HALF_UP),
+                simulacao.getPrazo(),
+                valorTotalSAC.setScale(2, RoundingMode.HALF_UP),
+                valorTotalPrice.setScale(2, RoundingMode.HALF_UP));
     }
 
     /**
@@ -271,9 +349,6 @@ public class SimulacaoService {
      * Busca produto específico by ID usando cache
      */
     public Produto buscarProdutoPorId(Integer codigoProduto) {
-        return produtoCacheService.buscarProdutos().stream()
-                .filter(p -> p.getCodigoProduto().equals(codigoProduto))
-                .findFirst()
-                .orElse(null);
+        return codigoProduto != null ? produtoCacheService.obterCatalogo().buscarPorCodigo(codigoProduto) : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package br.com.leo.apisimulador.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache LRU do JSON já serializado das simulações mais recentes, servido por
+ * GET /simulacoes/{id} sem ler o armazenamento nem serializar de novo.
+ *
+ * Recebe o JSON gerado em POST /simulacoes assim que a simulação é entregue
+ * ao gravador (no modo ENFILEIRAMENTO, antes de a gravação ser confirmada) e
+ * o das simulações lidas do armazenamento por ID. Limitado por quantidade de
+ * entradas e pelos bytes dos JSON guardados. Uma simulação gravada nunca
+ * muda, então as entradas não expiram; só saem quando a gravação falha
+ * ({@link #removerNaoGravada}) ou quando a retenção remove a simulação de
+ * SIMULACAO ({@link #remover}).
+ */
+@Service
+public class SimulacoesRecentesCacheService {
+
+    private static final int BYTES_ENTRADA = 96;
+
+    @Value("${app.simulacao.recentes.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${app.simulacao.recentes.maximo-entradas:2000}")
+    private int maximoEntradas;
+
+    @Value("${app.simulacao.recentes.maximo-bytes:16777216}")
+    private long maximoBytes;
+
+    private final LinkedHashMap<Long, RespostaSerializada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytesOcupados;
+    /** Incrementada a cada remoção pela retenção, sob o lock da instância */
+    private long geracaoRemocoes;
+
+    private final AtomicLong acertos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong remocoes = new AtomicLong();
+    private final AtomicLong removidasPelaRetencao = new AtomicLong();
+    private final AtomicLong removidasSemGravacao = new AtomicLong();
+
+    /**
+     * JSON da resposta de uma simulação e o ETag correspondente: o ID e o
+     * CRC32C do JSON
+     */
+    public record RespostaSerializada(byte[] json, String etag) {
+
+        public static RespostaSerializada de(long idSimulacao, byte[] json) {
+            CRC32C crc = new CRC32C();
+            crc.update(json);
+            return new RespostaSerializada(json, "\"" + idSimulacao + "-" + Long.toHexString(crc.getValue()) + "\"");
+        }
+
+        private long bytes() {
+            return BYTES_ENTRADA + json.length;
+        }
+    }
+
+    /**
+     * @return a resposta em cache, ou null
+     */
+    public RespostaSerializada obter(long idSimulacao) {
+        if (!habilitado) {
+            return null;
+        }
+        RespostaSerializada resposta;
+        synchronized (this) {
+            resposta = entradas.get(idSimulacao);
+        }
+        (resposta != null ? acertos : falhas).incrementAndGet();
+        return resposta;
+    }
+
+    public RespostaSerializada registrar(long idSimulacao, byte[] json) {
+        RespostaSerializada resposta = RespostaSerializada.de(idSimulacao, json);
+        if (habilitado && resposta.bytes() <= maximoBytes) {
+            armazenar(idSimulacao, resposta, -1);
+        }
+        return resposta;
+    }
+
+    /**
+     * Como {@link #registrar}, para o JSON de uma simulação lida do
+     * armazenamento: não guarda se houve remoção depois de
+     * {@code geracaoLeitura}, obtida com {@link #obterGeracaoRemocoes} antes da
+     * leitura, porque a linha lida pode ter acabado de sair do banco
+     */
+    public RespostaSerializada registrarLida(long idSimulacao, byte[] json, long geracaoLeitura) {
+        RespostaSerializada resposta = RespostaSerializada.de(idSimulacao, json);
+        if (habilitado && resposta.bytes() <= maximoBytes) {
+            armazenar(idSimulacao, resposta, geracaoLeitura);
+        }
+        return resposta;
+    }
+
+    public synchronized long obterGeracaoRemocoes() {
+        return geracaoRemocoes;
+    }
+
+    /**
+     * Retira as simulações removidas de SIMULACAO; chamado depois da
+     * confirmação da remoção
+     */
+    public synchronized void remover(Collection<Long> idsSimulacao) {
+        geracaoRemocoes++;
+        for (Long idSimulacao : idsSimulacao) {
+            RespostaSerializada removida = entradas.remove(idSimulacao);
+            if (removida != null) {
+                bytesOcupados -= removida.bytes();
+                removidasPelaRetencao.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Retira a simulação registrada em POST /simulacoes cuja gravação falhou
+     */
+    public synchronized void removerNaoGravada(long idSimulacao) {
+        RespostaSerializada removida = entradas.remove(idSimulacao);
+        if (removida != null) {
+            bytesOcupados -= removida.bytes();
+            removidasSemGravacao.incrementAndGet();
+        }
+    }
+
+    public synchronized Map<String, Object> obterEstatisticas() {
+        long totalAcertos = acertos.get();
+        long totalConsultas = totalAcertos + falhas.get();
+
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitado", habilitado);
+        estatisticas.put("entradas", entradas.size());
+        estatisticas.put("maximo_entradas", maximoEntradas);
+        estatisticas.put("bytes", bytesOcupados);
+        estatisticas.put("maximo_bytes", maximoBytes);
+        estatisticas.put("acertos", totalAcertos);
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("remocoes", remocoes.get());
+        estatisticas.put("removidas_pela_retencao", removidasPelaRetencao.get());
+        estatisticas.put("removidas_sem_gravacao", removidasSemGravacao.get());
+        estatisticas.put("taxa_acerto", totalConsultas > 0 ? (double) totalAcertos / totalConsultas : 0.0);
+        return estatisticas;
+    }
+
+    private synchronized void armazenar(long idSimulacao, RespostaSerializada resposta, long geracaoLeitura) {
+        if (geracaoLeitura >= 0 && geracaoLeitura != geracaoRemocoes) {
+            return;
+        }
+        RespostaSerializada anterior = entradas.put(idSimulacao, resposta);
+        if (anterior != null) {
+            bytesOcupados -= anterior.bytes();
+        }
+        bytesOcupados += resposta.bytes();
+
+        // Remove as entradas menos usadas recentemente até respeitar os limites
+        Iterator<RespostaSerializada> iterador = entradas.values().iterator();
+        while ((entradas.size() > maximoEntradas || bytesOcupados > maximoBytes) && iterador.hasNext()) {
+            bytesOcupados -= iterador.next().bytes();
+            iterador.remove();
+            remocoes.incrementAndGet();
+        }
+    }
+}
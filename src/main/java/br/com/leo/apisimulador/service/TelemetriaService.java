@@ -83,8 +83,11 @@ public class TelemetriaService {
         // Mapear os endpoints conhecidos da SimulacaoController
         Map<String, String> endpointNames = Map.of(
                 "POST /simulacoes", "Simulacao - Criar",
+                "POST /simulacoes/lote", "Simulacao - Lote",
                 "GET /simulacoes", "Simulacao - Listar",
-                "GET /simulacoes/dia", "Simulacao - Volume por Dia"
+                "GET /simulacoes/dia", "Simulacao - Volume por Dia",
+                "GET /simulacoes/export", "Simulacao - Exportacao",
+                "GET /simulacoes/volume", "Simulacao - Volume por Periodo"
         );
 
         for (String operacao : volumeRequisicoes.keySet()) {
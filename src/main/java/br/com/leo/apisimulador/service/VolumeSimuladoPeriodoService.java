@@ -0,0 +1,241 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoProdutoDTO;
+import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoResponseDTO;
+import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoTotalDTO;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import br.com.leo.apisimulador.service.produto.CatalogoProdutos;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import br.com.leo.apisimulador.service.volume.MetricasVolumeProduto;
+import br.com.leo.apisimulador.service.volume.TotaisVolumeProduto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Volume simulado de um período, dia a dia, por produto e no total.
+ *
+ * Os dias são avaliados em paralelo num pool limitado
+ * (app.simulacao.volume.paralelismo) e escritos na resposta em ordem de data
+ * assim que cada um fica pronto; no máximo o dobro do paralelismo fica em
+ * andamento, então a memória não depende do tamanho do período. Os totais de
+ * cada dia vêm da {@link ConsolidacaoVolumeDiario}, que congela os dias
+ * anteriores a hoje; com ela desligada, são agregados no armazenamento.
+ */
+@Slf4j
+@Service
+public class VolumeSimuladoPeriodoService {
+
+    public static final String OPERACAO_VOLUME_PERIODO = "GET /simulacoes/volume";
+
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+    private final ArmazenamentoSimulacoes armazenamento;
+    private final ProdutoCacheService produtoCacheService;
+    private final ObjectMapper objectMapper;
+    private final TelemetriaService telemetria;
+
+    @Value("${app.simulacao.volume.paralelismo:4}")
+    private int paralelismo;
+
+    @Value("${app.simulacao.volume.dias-maximo:366}")
+    private int diasMaximo;
+
+    private ExecutorService pool;
+
+    private record DiaEmAndamento(LocalDate dia, CompletableFuture<List<VolumeProdutoProjecao>> totais) {
+    }
+
+    /**
+     * Somas de um produto (ou do período inteiro) ao longo dos dias
+     */
+    private static final class Acumulado {
+        private String descricaoProduto;
+        private long quantidade;
+        private BigDecimal valorTotalDesejado = BigDecimal.ZERO;
+        private BigDecimal somaTaxasJuros = BigDecimal.ZERO;
+        private BigDecimal valorTotalCredito = BigDecimal.ZERO;
+        private BigDecimal somaPrimeirasPrestacoes = BigDecimal.ZERO;
+
+        void somar(VolumeProdutoProjecao volume) {
+            if (volume.getDescricaoProduto() != null) {
+                descricaoProduto = volume.getDescricaoProduto();
+            }
+            quantidade += volume.getQuantidade();
+            valorTotalDesejado = valorTotalDesejado.add(valorOuZero(volume.getValorTotalDesejado()));
+            somaTaxasJuros = somaTaxasJuros.add(valorOuZero(volume.getSomaTaxasJuros()));
+            valorTotalCredito = valorTotalCredito.add(valorOuZero(volume.getValorTotalCredito()));
+            somaPrimeirasPrestacoes = somaPrimeirasPrestacoes.add(valorOuZero(volume.getSomaPrimeirasPrestacoes()));
+        }
+
+        TotaisVolumeProduto totais(Integer produtoId) {
+            return new TotaisVolumeProduto(produtoId, descricaoProduto, quantidade, valorTotalDesejado,
+                    somaTaxasJuros, valorTotalCredito, somaPrimeirasPrestacoes);
+        }
+    }
+
+    public VolumeSimuladoPeriodoService(ConsolidacaoVolumeDiario consolidacaoVolume,
+            ArmazenamentoSimulacoes armazenamento, ProdutoCacheService produtoCacheService,
+            ObjectMapper objectMapper, TelemetriaService telemetria) {
+        this.consolidacaoVolume = consolidacaoVolume;
+        this.armazenamento = armazenamento;
+        this.produtoCacheService = produtoCacheService;
+        this.objectMapper = objectMapper;
+        this.telemetria = telemetria;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Math.max(1, paralelismo), tarefa -> {
+            Thread thread = new Thread(tarefa, "volume-periodo-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @throws IllegalArgumentException se o período for inválido ou maior
+     *                                  que app.simulacao.volume.dias-maximo
+     */
+    public void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à data inicial");
+        }
+        long dias = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        if (dias > diasMaximo) {
+            throw new IllegalArgumentException("Período de " + dias + " dias excede o máximo de " + diasMaximo);
+        }
+    }
+
+    /**
+     * Escreve em {@code saida} o JSON do período: os dias, em ordem, à medida
+     * que ficam prontos, seguidos dos totais por produto e do total geral
+     */
+    public void escreverPeriodo(OutputStream saida, LocalDate inicio, LocalDate fim) throws IOException {
+        validarPeriodo(inicio, fim);
+        long inicioNanos = System.nanoTime();
+        boolean sucesso = false;
+
+        CatalogoProdutos catalogo = produtoCacheService.obterCatalogo();
+        Map<Integer, Acumulado> porProduto = new TreeMap<>();
+        Acumulado geral = new Acumulado();
+        Deque<DiaEmAndamento> emAndamento = new ArrayDeque<>();
+        int janela = Math.max(1, paralelismo) * 2;
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.writeStartObject();
+            gerador.writeStringField("inicio", inicio.toString());
+            gerador.writeStringField("fim", fim.toString());
+            gerador.writeArrayFieldStart("dias");
+
+            LocalDate proximo = inicio;
+            while (proximo != null || !emAndamento.isEmpty()) {
+                while (proximo != null && emAndamento.size() < janela) {
+                    LocalDate dia = proximo;
+                    emAndamento.addLast(new DiaEmAndamento(dia,
+                            CompletableFuture.supplyAsync(() -> obterTotaisDia(dia), pool)));
+                    proximo = dia.isBefore(fim) ? dia.plusDays(1) : null;
+                }
+
+                DiaEmAndamento diaEmAndamento = emAndamento.removeFirst();
+                List<VolumeProdutoProjecao> totais = aguardar(diaEmAndamento.totais());
+
+                List<VolumeSimuladoProdutoDTO> produtos = totais.stream()
+                        .map(volume -> MetricasVolumeProduto.calcular(volume,
+                                catalogo.buscarPorCodigo(volume.getProdutoId())))
+                        .toList();
+                objectMapper.writeValue(gerador, new VolumeSimuladoResponseDTO(diaEmAndamento.dia(), produtos));
+                gerador.flush();
+
+                for (VolumeProdutoProjecao volume : totais) {
+                    porProduto.computeIfAbsent(volume.getProdutoId(), p -> new Acumulado()).somar(volume);
+                    geral.somar(volume);
+                }
+            }
+            gerador.writeEndArray();
+
+            gerador.writeArrayFieldStart("produtos");
+            for (Map.Entry<Integer, Acumulado> entrada : porProduto.entrySet()) {
+                objectMapper.writeValue(gerador, MetricasVolumeProduto.calcular(
+                        entrada.getValue().totais(entrada.getKey()), catalogo.buscarPorCodigo(entrada.getKey())));
+            }
+            gerador.writeEndArray();
+
+            gerador.writeFieldName("total");
+            objectMapper.writeValue(gerador, totalGeral(geral));
+            gerador.writeEndObject();
+            sucesso = true;
+        } finally {
+            emAndamento.forEach(pendente -> pendente.totais().cancel(true));
+            telemetria.registrarTempoResposta(OPERACAO_VOLUME_PERIODO,
+                    Duration.ofNanos(System.nanoTime() - inicioNanos), sucesso);
+        }
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("paralelismo", paralelismo);
+        estatisticas.put("dias_maximo", diasMaximo);
+        return estatisticas;
+    }
+
+    private List<VolumeProdutoProjecao> obterTotaisDia(LocalDate dia) {
+        return consolidacaoVolume.isHabilitada()
+                ? consolidacaoVolume.consultar(dia)
+                : armazenamento.agregarVolumePorProduto(dia);
+    }
+
+    private static List<VolumeProdutoProjecao> aguardar(CompletableFuture<List<VolumeProdutoProjecao>> tarefa) {
+        try {
+            return tarefa.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    private static VolumeSimuladoTotalDTO totalGeral(Acumulado geral) {
+        if (geral.quantidade == 0) {
+            return new VolumeSimuladoTotalDTO(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+        BigDecimal quantidade = BigDecimal.valueOf(geral.quantidade);
+        return new VolumeSimuladoTotalDTO(
+                (int) geral.quantidade,
+                geral.somaTaxasJuros.divide(quantidade, 4, RoundingMode.HALF_UP),
+                geral.valorTotalDesejado,
+                geral.valorTotalCredito,
+                geral.somaPrimeirasPrestacoes.divide(quantidade, 2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
@@ -19,4 +19,16 @@ public interface AmortizacaoCalculadora {
      * @return Lista de parcelas calculadas
      */
     List<ParcelaDTO> calcular(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas);
+
+    /**
+     * Calcula apenas os totais do empréstimo, sem materializar as parcelas
+     *
+     * @param valorEmprestimo Valor total do empréstimo
+     * @param taxaJuros       Taxa de juros por período
+     * @param numeroParcelas  Número de parcelas do empréstimo
+     * @return Totais arredondados como no cálculo parcela a parcela
+     */
+    default ResumoAmortizacao calcularResumo(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        return ResumoAmortizacao.somar(calcular(valorEmprestimo, taxaJuros, numeroParcelas));
+    }
 }
\ No newline at end of file
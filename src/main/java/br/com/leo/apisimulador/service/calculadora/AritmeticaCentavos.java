@@ -0,0 +1,100 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import java.math.BigDecimal;
+
+/**
+ * Aritmética de ponto fixo usada pelos motores de cálculo em centavos.
+ *
+ * Valores monetários são representados em centavos (escala 2) e taxas em
+ * bilionésimos (escala 9, a mesma de PC_TAXA_JUROS). Todo arredondamento é
+ * HALF_UP, simétrico em torno de zero, exatamente como em
+ * {@link java.math.RoundingMode#HALF_UP}. Qualquer estouro de {@code long}
+ * lança {@link ArithmeticException} para que o chamador recorra ao
+ * cálculo com {@link BigDecimal}.
+ */
+public final class AritmeticaCentavos {
+
+    public static final int ESCALA_MOEDA = 2;
+    public static final int ESCALA_TAXA = 9;
+    public static final long UNIDADE_TAXA = 1_000_000_000L;
+
+    private AritmeticaCentavos() {
+    }
+
+    /**
+     * Converte um valor monetário para centavos.
+     *
+     * @throws ArithmeticException se o valor tiver mais de duas casas decimais
+     *                             significativas ou não couber em um long
+     */
+    public static long paraCentavos(BigDecimal valor) {
+        return valor.movePointRight(ESCALA_MOEDA).longValueExact();
+    }
+
+    /**
+     * Converte uma taxa para bilionésimos.
+     *
+     * @throws ArithmeticException se a taxa tiver mais de nove casas decimais
+     *                             significativas ou não couber em um long
+     */
+    public static long paraTaxaEscalada(BigDecimal taxa) {
+        return taxa.movePointRight(ESCALA_TAXA).longValueExact();
+    }
+
+    public static BigDecimal paraValor(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA_MOEDA);
+    }
+
+    /**
+     * Calcula {@code centavos * taxa} arredondado para centavos (HALF_UP).
+     */
+    public static long aplicarTaxa(long centavos, long taxaEscalada) {
+        return dividirHalfUp(Math.multiplyExact(centavos, taxaEscalada), UNIDADE_TAXA);
+    }
+
+    /**
+     * Divisão inteira com arredondamento HALF_UP (empate se afasta de zero).
+     *
+     * @param divisor deve ser positivo
+     */
+    public static long dividirHalfUp(long dividendo, long divisor) {
+        long quociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) >= divisor - Math.abs(resto)) {
+            quociente += Long.signum(dividendo);
+        }
+        return quociente;
+    }
+
+    /**
+     * Soma de {@code floor((a*i + b) / m)} para {@code i = 0..n-1}, em
+     * O(log m) passos (algoritmo euclidiano de soma de pisos).
+     *
+     * @param n quantidade de termos, não negativa
+     * @param m divisor, positivo
+     * @param a coeficiente, não negativo
+     * @param b termo constante, não negativo
+     */
+    public static long somarPisos(long n, long m, long a, long b) {
+        long soma = 0;
+        while (true) {
+            if (a >= m) {
+                soma = Math.addExact(soma, Math.multiplyExact(Math.multiplyExact(n, n - 1) / 2, a / m));
+                a %= m;
+            }
+            if (b >= m) {
+                soma = Math.addExact(soma, Math.multiplyExact(n, b / m));
+                b %= m;
+            }
+            long yMaximo = Math.addExact(Math.multiplyExact(a, n), b);
+            if (yMaximo < m) {
+                return soma;
+            }
+            n = yMaximo / m;
+            b = yMaximo % m;
+            long troca = m;
+            m = a;
+            a = troca;
+        }
+    }
+}
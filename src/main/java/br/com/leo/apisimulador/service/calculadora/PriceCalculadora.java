@@ -1,28 +1,69 @@
 package br.com.leo.apisimulador.service.calculadora;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
 import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
+import static br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos.*;
+
 /**
- * Implementação do Sistema Francês de Amortização (PRICE)
+ * Implementação do Sistema Francês de Amortização (PRICE).
+ *
+ * Os valores são calculados em BigDecimal e guardados, em centavos, num
+ * {@link CronogramaAmortizacao} colunar; valores que não cabem em
+ * {@code long} voltam a ser devolvidos como lista de {@link ParcelaDTO}.
  */
 @Component
+@RequiredArgsConstructor
 public class PriceCalculadora implements AmortizacaoCalculadora {
 
+    private final TabelaFatoresAmortizacao tabelaFatores;
+
     @Override
     public List<ParcelaDTO> calcular(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
-        List<ParcelaDTO> parcelas = new ArrayList<>();
+        BigDecimal fator = tabelaFatores.fatorPrice(taxaJuros, numeroParcelas);
+        if (numeroParcelas > 0) {
+            try {
+                return calcularCronograma(valorEmprestimo, taxaJuros, numeroParcelas, fator);
+            } catch (ArithmeticException e) {
+                // Valores fora de long: lista de parcelas
+            }
+        }
+        return calcularParcelas(valorEmprestimo, taxaJuros, numeroParcelas, fator);
+    }
 
-        // Cálculo do fator de financiamento
-        BigDecimal fator = (taxaJuros.add(BigDecimal.ONE)).pow(numeroParcelas).multiply(taxaJuros)
-                .divide(((taxaJuros.add(BigDecimal.ONE)).pow(numeroParcelas).subtract(BigDecimal.ONE)), 10,
-                        RoundingMode.HALF_UP);
+    private static CronogramaAmortizacao calcularCronograma(BigDecimal valorEmprestimo, BigDecimal taxaJuros,
+            int numeroParcelas, BigDecimal fator) {
+        long[] amortizacoes = new long[numeroParcelas];
+        long[] juros = new long[numeroParcelas];
+        long[] prestacoes = new long[numeroParcelas];
+
+        BigDecimal parcelaConstante = valorEmprestimo.multiply(fator).setScale(2, RoundingMode.HALF_UP);
+        long parcelaCentavos = paraCentavos(parcelaConstante);
+        BigDecimal saldo = valorEmprestimo;
+
+        for (int i = 0; i < numeroParcelas; i++) {
+            BigDecimal jurosPeriodo = saldo.multiply(taxaJuros).setScale(2, RoundingMode.HALF_UP);
+            juros[i] = paraCentavos(jurosPeriodo);
+            // Diferença de valores com duas casas: exata em centavos
+            amortizacoes[i] = Math.subtractExact(parcelaCentavos, juros[i]);
+            prestacoes[i] = parcelaCentavos;
+            saldo = saldo.subtract(parcelaConstante.subtract(jurosPeriodo));
+        }
+        return new CronogramaAmortizacao(TipoSimulacaoEnum.PRICE, amortizacoes, juros, prestacoes);
+    }
+
+    private static List<ParcelaDTO> calcularParcelas(BigDecimal valorEmprestimo, BigDecimal taxaJuros,
+            int numeroParcelas, BigDecimal fator) {
+        List<ParcelaDTO> parcelas = new ArrayList<>();
 
         BigDecimal parcelaConstante = valorEmprestimo.multiply(fator).setScale(2, RoundingMode.HALF_UP);
         BigDecimal saldo = valorEmprestimo;
@@ -35,4 +76,48 @@ public class PriceCalculadora implements AmortizacaoCalculadora {
         }
         return parcelas;
     }
+
+    /**
+     * Totais do PRICE: a prestação é constante, então o total pago e a
+     * primeira/última prestação saem em O(1) da prestação. O total de juros
+     * depende do saldo arredondado período a período e é obtido pela mesma
+     * recorrência, em centavos e sem alocar parcelas.
+     */
+    @Override
+    public ResumoAmortizacao calcularResumo(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        if (numeroParcelas > 0) {
+            try {
+                long fator = tabelaFatores.fatorPrice(taxaJuros, numeroParcelas).unscaledValue().longValueExact();
+                return resumirEmCentavos(paraCentavos(valorEmprestimo), paraTaxaEscalada(taxaJuros), fator,
+                        numeroParcelas);
+            } catch (ArithmeticException e) {
+                // Fora da faixa de ponto fixo: soma as parcelas calculadas
+            }
+        }
+        return AmortizacaoCalculadora.super.calcularResumo(valorEmprestimo, taxaJuros, numeroParcelas);
+    }
+
+    private static ResumoAmortizacao resumirEmCentavos(long valor, long taxa, long fator, int numeroParcelas) {
+        long prestacao = dividirHalfUp(Math.multiplyExact(valor, fator),
+                TabelaFatoresAmortizacao.UNIDADE_FATOR);
+        long saldo = valor;
+        long totalJuros = 0;
+        for (int i = 0; i < numeroParcelas; i++) {
+            long juros = aplicarTaxa(saldo, taxa);
+            totalJuros = Math.addExact(totalJuros, juros);
+            saldo = Math.subtractExact(saldo, Math.subtractExact(prestacao, juros));
+        }
+        return ResumoAmortizacao.deCentavos(Math.multiplyExact(prestacao, numeroParcelas), totalJuros,
+                prestacao, prestacao);
+    }
+
+    /**
+     * Cálculo do fator de financiamento (coeficiente PRICE), com 10 casas
+     * decimais
+     */
+    public static BigDecimal calcularFator(BigDecimal taxaJuros, int numeroParcelas) {
+        return (taxaJuros.add(BigDecimal.ONE)).pow(numeroParcelas).multiply(taxaJuros)
+                .divide(((taxaJuros.add(BigDecimal.ONE)).pow(numeroParcelas).subtract(BigDecimal.ONE)), 10,
+                        RoundingMode.HALF_UP);
+    }
 }
\ No newline at end of file
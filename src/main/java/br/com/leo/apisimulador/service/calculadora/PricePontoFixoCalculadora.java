@@ -0,0 +1,74 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos.*;
+
+/**
+ * Sistema Francês de Amortização (PRICE) calculado em centavos ({@code long}).
+ *
+ * O fator de financiamento (10 casas decimais) vem da
+ * {@link TabelaFatoresAmortizacao} ou, fora dela, de
+ * {@link PriceCalculadora#calcularFator}; as parcelas são calculadas em ponto
+ * fixo, num {@link CronogramaAmortizacao} colunar, e coincidem com as de
+ * {@link PriceCalculadora}.
+ * Quando os valores não cabem em {@code long}, delega para ela.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PricePontoFixoCalculadora implements AmortizacaoCalculadora {
+
+    private final PriceCalculadora calculadoraReferencia;
+    private final TabelaFatoresAmortizacao tabelaFatores;
+
+    @Override
+    public List<ParcelaDTO> calcular(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        if (numeroParcelas <= 0) {
+            return calculadoraReferencia.calcular(valorEmprestimo, taxaJuros, numeroParcelas);
+        }
+        try {
+            long taxa = tabelaFatores.taxaEscalada(taxaJuros);
+            long fator = tabelaFatores.fatorPriceEscalado(taxa, numeroParcelas);
+            if (fator == TabelaFatoresAmortizacao.SEM_FATOR) {
+                fator = PriceCalculadora.calcularFator(taxaJuros, numeroParcelas).unscaledValue().longValueExact();
+            }
+            return calcularEmCentavos(paraCentavos(valorEmprestimo), taxa, fator, numeroParcelas);
+        } catch (ArithmeticException e) {
+            log.debug("PRICE fora da faixa de ponto fixo (valor={}, taxa={}, prazo={}) - usando BigDecimal",
+                    valorEmprestimo, taxaJuros, numeroParcelas);
+            return calculadoraReferencia.calcular(valorEmprestimo, taxaJuros, numeroParcelas);
+        }
+    }
+
+    @Override
+    public ResumoAmortizacao calcularResumo(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        // A calculadora de referência já resume em centavos, sem materializar parcelas
+        return calculadoraReferencia.calcularResumo(valorEmprestimo, taxaJuros, numeroParcelas);
+    }
+
+    private CronogramaAmortizacao calcularEmCentavos(long valor, long taxa, long fator, int numeroParcelas) {
+        long valorPrestacao = dividirHalfUp(Math.multiplyExact(valor, fator), TabelaFatoresAmortizacao.UNIDADE_FATOR);
+        long[] amortizacao = new long[numeroParcelas];
+        long[] juros = new long[numeroParcelas];
+        long[] prestacao = new long[numeroParcelas];
+        long saldo = valor;
+
+        for (int i = 0; i < numeroParcelas; i++) {
+            juros[i] = aplicarTaxa(saldo, taxa);
+            amortizacao[i] = Math.subtractExact(valorPrestacao, juros[i]);
+            prestacao[i] = valorPrestacao;
+            saldo = Math.subtractExact(saldo, amortizacao[i]);
+        }
+        return new CronogramaAmortizacao(TipoSimulacaoEnum.PRICE, amortizacao, juros, prestacao);
+    }
+}
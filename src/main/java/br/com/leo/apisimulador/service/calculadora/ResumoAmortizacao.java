@@ -0,0 +1,53 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Totais de um cronograma de amortização, com os mesmos arredondamentos do
+ * cálculo parcela a parcela.
+ *
+ * @param totalPrestacoes   soma de todas as prestações
+ * @param totalJuros        soma dos juros de todas as parcelas
+ * @param primeiraPrestacao valor da primeira prestação
+ * @param ultimaPrestacao   valor da última prestação
+ */
+public record ResumoAmortizacao(
+        BigDecimal totalPrestacoes,
+        BigDecimal totalJuros,
+        BigDecimal primeiraPrestacao,
+        BigDecimal ultimaPrestacao) {
+
+    public static final ResumoAmortizacao VAZIO = deCentavos(0, 0, 0, 0);
+
+    public static ResumoAmortizacao deCentavos(long totalPrestacoes, long totalJuros, long primeiraPrestacao,
+            long ultimaPrestacao) {
+        return new ResumoAmortizacao(
+                AritmeticaCentavos.paraValor(totalPrestacoes),
+                AritmeticaCentavos.paraValor(totalJuros),
+                AritmeticaCentavos.paraValor(primeiraPrestacao),
+                AritmeticaCentavos.paraValor(ultimaPrestacao));
+    }
+
+    /**
+     * Resumo obtido percorrendo as parcelas já calculadas
+     */
+    public static ResumoAmortizacao somar(List<ParcelaDTO> parcelas) {
+        if (parcelas.isEmpty()) {
+            return VAZIO;
+        }
+        BigDecimal totalPrestacoes = BigDecimal.ZERO;
+        BigDecimal totalJuros = BigDecimal.ZERO;
+        for (ParcelaDTO parcela : parcelas) {
+            totalPrestacoes = totalPrestacoes.add(parcela.valorPrestacao());
+            totalJuros = totalJuros.add(parcela.valorJuros());
+        }
+        return new ResumoAmortizacao(
+                totalPrestacoes.setScale(AritmeticaCentavos.ESCALA_MOEDA),
+                totalJuros.setScale(AritmeticaCentavos.ESCALA_MOEDA),
+                parcelas.get(0).valorPrestacao(),
+                parcelas.get(parcelas.size() - 1).valorPrestacao());
+    }
+}
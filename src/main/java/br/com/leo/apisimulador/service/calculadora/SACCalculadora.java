@@ -2,21 +2,61 @@ package br.com.leo.apisimulador.service.calculadora;
 
 import org.springframework.stereotype.Component;
 
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
 import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
+import static br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos.*;
+
 /**
- * Implementação do Sistema de Amortização Constante (SAC)
+ * Implementação do Sistema de Amortização Constante (SAC).
+ *
+ * Os valores são calculados em BigDecimal e guardados, em centavos, num
+ * {@link CronogramaAmortizacao} colunar; valores que não cabem em
+ * {@code long} voltam a ser devolvidos como lista de {@link ParcelaDTO}.
  */
 @Component
 public class SACCalculadora implements AmortizacaoCalculadora {
 
     @Override
     public List<ParcelaDTO> calcular(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        if (numeroParcelas > 0) {
+            try {
+                return calcularCronograma(valorEmprestimo, taxaJuros, numeroParcelas);
+            } catch (ArithmeticException e) {
+                // Valores fora de long: lista de parcelas
+            }
+        }
+        return calcularParcelas(valorEmprestimo, taxaJuros, numeroParcelas);
+    }
+
+    private static CronogramaAmortizacao calcularCronograma(BigDecimal valorEmprestimo, BigDecimal taxaJuros,
+            int numeroParcelas) {
+        long[] amortizacoes = new long[numeroParcelas];
+        long[] juros = new long[numeroParcelas];
+        long[] prestacoes = new long[numeroParcelas];
+
+        BigDecimal amortizacao = valorEmprestimo.divide(BigDecimal.valueOf(numeroParcelas), 2, RoundingMode.HALF_UP);
+        long amortizacaoCentavos = paraCentavos(amortizacao);
+        BigDecimal saldo = valorEmprestimo;
+
+        for (int i = 0; i < numeroParcelas; i++) {
+            juros[i] = paraCentavos(saldo.multiply(taxaJuros).setScale(2, RoundingMode.HALF_UP));
+            amortizacoes[i] = amortizacaoCentavos;
+            // Soma de valores com duas casas: exata em centavos
+            prestacoes[i] = Math.addExact(amortizacaoCentavos, juros[i]);
+            saldo = saldo.subtract(amortizacao);
+        }
+        return new CronogramaAmortizacao(TipoSimulacaoEnum.SAC, amortizacoes, juros, prestacoes);
+    }
+
+    private static List<ParcelaDTO> calcularParcelas(BigDecimal valorEmprestimo, BigDecimal taxaJuros,
+            int numeroParcelas) {
         List<ParcelaDTO> parcelas = new ArrayList<>();
 
         BigDecimal amortizacao = valorEmprestimo.divide(BigDecimal.valueOf(numeroParcelas), 2, RoundingMode.HALF_UP);
@@ -30,4 +70,57 @@ public class SACCalculadora implements AmortizacaoCalculadora {
         }
         return parcelas;
     }
-}
\ No newline at end of file
+
+    /**
+     * Totais do SAC em forma fechada: a prestação é a amortização constante
+     * mais os juros, e a soma dos juros arredondados (HALF_UP) sobre o saldo,
+     * que decresce linearmente, é obtida por soma de pisos em O(log n).
+     */
+    @Override
+    public ResumoAmortizacao calcularResumo(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        if (numeroParcelas > 0 && valorEmprestimo.signum() > 0 && taxaJuros.signum() > 0) {
+            try {
+                return resumirEmCentavos(paraCentavos(valorEmprestimo), paraTaxaEscalada(taxaJuros),
+                        numeroParcelas);
+            } catch (ArithmeticException e) {
+                // Fora da faixa de ponto fixo: soma as parcelas calculadas
+            }
+        }
+        return AmortizacaoCalculadora.super.calcularResumo(valorEmprestimo, taxaJuros, numeroParcelas);
+    }
+
+    private static ResumoAmortizacao resumirEmCentavos(long valor, long taxa, int numeroParcelas) {
+        long amortizacao = dividirHalfUp(valor, numeroParcelas);
+        long totalJuros = somarJuros(valor, taxa, amortizacao, numeroParcelas);
+        long saldoFinal = Math.subtractExact(valor, Math.multiplyExact(amortizacao, numeroParcelas - 1L));
+
+        return ResumoAmortizacao.deCentavos(
+                Math.addExact(Math.multiplyExact(amortizacao, numeroParcelas), totalJuros),
+                totalJuros,
+                Math.addExact(amortizacao, aplicarTaxa(valor, taxa)),
+                Math.addExact(amortizacao, aplicarTaxa(saldoFinal, taxa)));
+    }
+
+    /**
+     * Soma de round((valor - k * amortizacao) * taxa) para k = 0..n-1. Os
+     * termos positivos usam round(c) = floor((2c + D) / 2D); os negativos (o
+     * saldo pode ficar negativo no fim quando a amortização foi arredondada
+     * para cima) usam round(c) = -floor((-2c + D) / 2D).
+     */
+    private static long somarJuros(long valor, long taxa, long amortizacao, int numeroParcelas) {
+        long base = Math.multiplyExact(valor, taxa);
+        long passo = Math.multiplyExact(amortizacao, taxa);
+        long divisorDuplo = 2 * UNIDADE_TAXA;
+
+        long positivos = Math.min(numeroParcelas, base / passo + 1);
+        long soma = somarPisos(positivos, divisorDuplo, 2 * passo,
+                Math.addExact(Math.multiplyExact(2, base - Math.multiplyExact(passo, positivos - 1)), UNIDADE_TAXA));
+
+        long negativos = numeroParcelas - positivos;
+        if (negativos > 0) {
+            soma -= somarPisos(negativos, divisorDuplo, 2 * passo,
+                    Math.addExact(Math.multiplyExact(2, Math.multiplyExact(passo, positivos) - base), UNIDADE_TAXA));
+        }
+        return soma;
+    }
+}
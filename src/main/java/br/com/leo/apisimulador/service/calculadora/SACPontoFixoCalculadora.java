@@ -0,0 +1,67 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import br.com.leo.apisimulador.dto.simulacao.CronogramaAmortizacao;
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos.*;
+
+/**
+ * Sistema de Amortização Constante (SAC) calculado em centavos ({@code long}).
+ *
+ * Produz exatamente as mesmas parcelas que {@link SACCalculadora}, num
+ * {@link CronogramaAmortizacao} colunar; quando os valores não cabem na
+ * representação de ponto fixo, delega para ela.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SACPontoFixoCalculadora implements AmortizacaoCalculadora {
+
+    private final SACCalculadora calculadoraReferencia;
+    private final TabelaFatoresAmortizacao tabelaFatores;
+
+    @Override
+    public List<ParcelaDTO> calcular(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        if (numeroParcelas <= 0) {
+            return calculadoraReferencia.calcular(valorEmprestimo, taxaJuros, numeroParcelas);
+        }
+        try {
+            return calcularEmCentavos(paraCentavos(valorEmprestimo), tabelaFatores.taxaEscalada(taxaJuros),
+                    numeroParcelas);
+        } catch (ArithmeticException e) {
+            log.debug("SAC fora da faixa de ponto fixo (valor={}, taxa={}, prazo={}) - usando BigDecimal",
+                    valorEmprestimo, taxaJuros, numeroParcelas);
+            return calculadoraReferencia.calcular(valorEmprestimo, taxaJuros, numeroParcelas);
+        }
+    }
+
+    @Override
+    public ResumoAmortizacao calcularResumo(BigDecimal valorEmprestimo, BigDecimal taxaJuros, int numeroParcelas) {
+        // A calculadora de referência já resume em centavos, sem materializar parcelas
+        return calculadoraReferencia.calcularResumo(valorEmprestimo, taxaJuros, numeroParcelas);
+    }
+
+    private CronogramaAmortizacao calcularEmCentavos(long valor, long taxa, int numeroParcelas) {
+        long valorAmortizacao = dividirHalfUp(valor, numeroParcelas);
+        long[] amortizacao = new long[numeroParcelas];
+        long[] juros = new long[numeroParcelas];
+        long[] prestacao = new long[numeroParcelas];
+        long saldo = valor;
+
+        for (int i = 0; i < numeroParcelas; i++) {
+            amortizacao[i] = valorAmortizacao;
+            juros[i] = aplicarTaxa(saldo, taxa);
+            prestacao[i] = Math.addExact(valorAmortizacao, juros[i]);
+            saldo = Math.subtractExact(saldo, valorAmortizacao);
+        }
+        return new CronogramaAmortizacao(TipoSimulacaoEnum.SAC, amortizacao, juros, prestacao);
+    }
+}
@@ -0,0 +1,269 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabela pré-calculada dos fatores de financiamento PRICE de cada produto,
+ * para todos os prazos válidos (NU_MINIMO_MESES..NU_MAXIMO_MESES).
+ *
+ * Os fatores são guardados como {@code long} na escala 10 (a mesma de
+ * {@link PriceCalculadora#calcularFator}); para o SAC a constante por período
+ * é a própria taxa, guardada em bilionésimos. A tabela é reconstruída apenas
+ * para os produtos cuja taxa ou faixa de prazo mudou e é publicada por troca
+ * de referência, de modo que a leitura não usa lock.
+ *
+ * A busca é indexada pela taxa em bilionésimos (endereçamento aberto sobre
+ * {@code long}, sem boxing) e, dentro da taxa, pelo prazo: cada consulta é
+ * O(1), independente da quantidade de produtos.
+ */
+@Slf4j
+@Component
+public class TabelaFatoresAmortizacao {
+
+    public static final int ESCALA_FATOR = 10;
+    public static final long UNIDADE_FATOR = 10_000_000_000L;
+    public static final long SEM_FATOR = -1L;
+
+    private static final int BYTES_CABECALHO_ARRAY = 16;
+    private static final int BYTES_ENTRADA = 64;
+
+    @Value("${app.calculo.prazo-maximo-referencia:420}")
+    private int prazoMaximoReferencia;
+
+    private volatile FatoresProduto[] entradas = new FatoresProduto[0];
+    /** Publicado junto com {@link #entradas} */
+    private volatile IndiceTaxas indice = IndiceTaxas.construir(entradas);
+
+    /**
+     * Fatores de um produto. {@code fatoresPrice[prazo - prazoMinimo]} é o
+     * fator PRICE com 10 casas decimais (unscaled).
+     */
+    public record FatoresProduto(
+            int codigoProduto,
+            BigDecimal taxa,
+            long taxaEscalada,
+            int prazoMinimo,
+            int prazoMaximo,
+            long[] fatoresPrice) {
+
+        boolean mesmaConfiguracao(Produto produto, int prazoMinimo, int prazoMaximo) {
+            return taxa.compareTo(produto.getTaxaJuros()) == 0
+                    && this.prazoMinimo == prazoMinimo
+                    && this.prazoMaximo == prazoMaximo;
+        }
+    }
+
+    /**
+     * Sincroniza a tabela com a lista atual de produtos, recalculando apenas os
+     * produtos novos ou cuja PC_TAXA_JUROS (ou faixa de prazo) mudou.
+     *
+     * @return true se algum produto foi recalculado ou removido
+     */
+    public synchronized boolean sincronizar(List<Produto> produtos) {
+        FatoresProduto[] atuais = entradas;
+        List<FatoresProduto> novas = new ArrayList<>(produtos.size());
+        int recalculados = 0;
+
+        for (Produto produto : produtos) {
+            if (produto.getCodigoProduto() == null || produto.getTaxaJuros() == null
+                    || produto.getTaxaJuros().signum() <= 0) {
+                continue;
+            }
+            int prazoMinimo = produto.getMinimoMeses() != null ? Math.max(1, produto.getMinimoMeses()) : 1;
+            int prazoMaximo = produto.getMaximoMeses() != null ? produto.getMaximoMeses() : prazoMaximoReferencia;
+            if (prazoMaximo < prazoMinimo) {
+                continue;
+            }
+
+            FatoresProduto existente = buscarPorCodigo(atuais, produto.getCodigoProduto());
+            if (existente != null && existente.mesmaConfiguracao(produto, prazoMinimo, prazoMaximo)) {
+                novas.add(existente);
+            } else {
+                novas.add(construir(produto, prazoMinimo, prazoMaximo));
+                recalculados++;
+            }
+        }
+
+        boolean alterada = recalculados > 0 || novas.size() != atuais.length;
+        if (alterada) {
+            FatoresProduto[] publicadas = novas.toArray(new FatoresProduto[0]);
+            indice = IndiceTaxas.construir(publicadas);
+            entradas = publicadas;
+            log.info("Tabela de fatores de amortização atualizada: {} produto(s) recalculado(s), {} fatores, ~{} bytes",
+                    recalculados, quantidadeFatores(), bytesEstimados());
+        }
+        return alterada;
+    }
+
+    /**
+     * Fator PRICE (unscaled, escala 10) para a taxa e o prazo, ou
+     * {@link #SEM_FATOR} se não houver produto com essa taxa cobrindo o prazo.
+     */
+    public long fatorPriceEscalado(BigDecimal taxa, int prazo) {
+        long taxaEscalada;
+        try {
+            taxaEscalada = AritmeticaCentavos.paraTaxaEscalada(taxa);
+        } catch (ArithmeticException e) {
+            return SEM_FATOR;
+        }
+        return fatorPriceEscalado(taxaEscalada, prazo);
+    }
+
+    /**
+     * Fator PRICE (unscaled, escala 10) para a taxa em bilionésimos e o
+     * prazo, ou {@link #SEM_FATOR}
+     */
+    public long fatorPriceEscalado(long taxaEscalada, int prazo) {
+        FatoresProduto[] candidatos = indice.buscar(taxaEscalada);
+        if (candidatos == null) {
+            return SEM_FATOR;
+        }
+        // Produtos com a mesma taxa: normalmente um só
+        for (FatoresProduto fatores : candidatos) {
+            if (prazo >= fatores.prazoMinimo && prazo <= fatores.prazoMaximo) {
+                return fatores.fatoresPrice[prazo - fatores.prazoMinimo];
+            }
+        }
+        return SEM_FATOR;
+    }
+
+    /**
+     * Fator PRICE com 10 casas decimais, da tabela quando disponível
+     */
+    public BigDecimal fatorPrice(BigDecimal taxa, int prazo) {
+        long fator = fatorPriceEscalado(taxa, prazo);
+        return fator != SEM_FATOR
+                ? BigDecimal.valueOf(fator, ESCALA_FATOR)
+                : PriceCalculadora.calcularFator(taxa, prazo);
+    }
+
+    /**
+     * Taxa em bilionésimos (constante por período do SAC)
+     *
+     * @throws ArithmeticException se a taxa não for representável em ponto fixo
+     */
+    public long taxaEscalada(BigDecimal taxa) {
+        return AritmeticaCentavos.paraTaxaEscalada(taxa);
+    }
+
+    public int quantidadeProdutos() {
+        return entradas.length;
+    }
+
+    public long quantidadeFatores() {
+        long total = 0;
+        for (FatoresProduto fatores : entradas) {
+            total += fatores.fatoresPrice.length;
+        }
+        return total;
+    }
+
+    /**
+     * Estimativa do espaço ocupado em heap pelas entradas da tabela
+     */
+    public long bytesEstimados() {
+        long total = BYTES_CABECALHO_ARRAY + 8L * entradas.length;
+        for (FatoresProduto fatores : entradas) {
+            total += BYTES_ENTRADA + BYTES_CABECALHO_ARRAY + 8L * fatores.fatoresPrice.length;
+        }
+        return total;
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("produtos", quantidadeProdutos());
+        estatisticas.put("fatores_price", quantidadeFatores());
+        estatisticas.put("bytes_estimados", bytesEstimados());
+        return estatisticas;
+    }
+
+    private FatoresProduto construir(Produto produto, int prazoMinimo, int prazoMaximo) {
+        BigDecimal taxa = produto.getTaxaJuros();
+        long[] fatores = new long[prazoMaximo - prazoMinimo + 1];
+        for (int prazo = prazoMinimo; prazo <= prazoMaximo; prazo++) {
+            BigInteger fator = PriceCalculadora.calcularFator(taxa, prazo).unscaledValue();
+            fatores[prazo - prazoMinimo] = fator.bitLength() < Long.SIZE ? fator.longValue() : SEM_FATOR;
+        }
+
+        long taxaEscalada;
+        try {
+            taxaEscalada = AritmeticaCentavos.paraTaxaEscalada(taxa);
+        } catch (ArithmeticException e) {
+            taxaEscalada = SEM_FATOR;
+        }
+        return new FatoresProduto(produto.getCodigoProduto(), taxa, taxaEscalada, prazoMinimo, prazoMaximo,
+                fatores);
+    }
+
+    /**
+     * Produtos da tabela agrupados pela taxa em bilionésimos, em
+     * endereçamento aberto com sondagem linear; imutável depois de construído
+     */
+    private static final class IndiceTaxas {
+
+        private final long[] chaves;
+        private final FatoresProduto[][] valores;
+        private final int mascara;
+
+        private IndiceTaxas(int capacidade) {
+            chaves = new long[capacidade];
+            valores = new FatoresProduto[capacidade][];
+            mascara = capacidade - 1;
+        }
+
+        static IndiceTaxas construir(FatoresProduto[] entradas) {
+            Map<Long, List<FatoresProduto>> porTaxa = new LinkedHashMap<>();
+            for (FatoresProduto fatores : entradas) {
+                if (fatores.taxaEscalada != SEM_FATOR) {
+                    porTaxa.computeIfAbsent(fatores.taxaEscalada, taxa -> new ArrayList<>()).add(fatores);
+                }
+            }
+            // Ocupação de no máximo 50%
+            IndiceTaxas indice = new IndiceTaxas(Math.max(2, Integer.highestOneBit(porTaxa.size() * 2 + 1) << 1));
+            porTaxa.forEach((taxa, fatores) -> {
+                int posicao = indice.posicaoInicial(taxa);
+                while (indice.valores[posicao] != null) {
+                    posicao = (posicao + 1) & indice.mascara;
+                }
+                indice.chaves[posicao] = taxa;
+                indice.valores[posicao] = fatores.toArray(new FatoresProduto[0]);
+            });
+            return indice;
+        }
+
+        FatoresProduto[] buscar(long taxaEscalada) {
+            int posicao = posicaoInicial(taxaEscalada);
+            while (valores[posicao] != null) {
+                if (chaves[posicao] == taxaEscalada) {
+                    return valores[posicao];
+                }
+                posicao = (posicao + 1) & mascara;
+            }
+            return null;
+        }
+
+        private int posicaoInicial(long chave) {
+            long h = chave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+
+    private static FatoresProduto buscarPorCodigo(FatoresProduto[] fatores, int codigoProduto) {
+        for (FatoresProduto f : fatores) {
+            if (f.codigoProduto == codigoProduto) {
+                return f;
+            }
+        }
+        return null;
+    }
+}
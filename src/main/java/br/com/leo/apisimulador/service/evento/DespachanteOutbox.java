@@ -0,0 +1,313 @@
+package br.com.leo.apisimulador.service.evento;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.repository.h2.EventoPendente;
+import br.com.leo.apisimulador.repository.h2.OutboxEventosSimulacao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repassa ao {@link DestinoEventos} os eventos da SIMULACAO_EVENTO_OUTBOX
+ * (app.simulacao.eventos.outbox.habilitada), gravados junto com as
+ * simulações.
+ *
+ * A cada intervalo-ms uma thread lê até tamanho-lote eventos pendentes em
+ * ordem de ID, envia um lote por chave de partição (o produto) e espera as
+ * confirmações antes do ciclo seguinte; os confirmados são marcados como
+ * publicados. Um lote recusado deixa a partição em espera, com intervalo
+ * dobrado a cada falha seguida (de backoff-inicial-ms até backoff-maximo-ms),
+ * e nenhum evento posterior da partição é enviado antes dele; as outras
+ * partições seguem normalmente. Os eventos que o destino rejeita de vez
+ * ({@link EventosRejeitadosException}) são descartados: saem dos pendentes
+ * sem serem marcados como publicados, e o restante do lote é confirmado.
+ *
+ * A entrega é pelo menos uma vez: se a confirmação se perder, o lote é
+ * reenviado com os mesmos IDs de evento. Os publicados ficam na tabela por
+ * retencao-horas, o que permite reenviá-los pelo diagnóstico.
+ */
+@Slf4j
+@Component
+public class DespachanteOutbox {
+
+    private static final long INTERVALO_LIMPEZA_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int BLOCO_LIMPEZA = 10_000;
+
+    private final OutboxEventosSimulacao outbox;
+    private final DestinoEventos destino;
+
+    @Value("${app.simulacao.eventos.outbox.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${app.simulacao.eventos.outbox.intervalo-ms:100}")
+    private long intervaloMs;
+
+    @Value("${app.simulacao.eventos.outbox.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${app.simulacao.eventos.outbox.backoff-inicial-ms:500}")
+    private long backoffInicialMs;
+
+    @Value("${app.simulacao.eventos.outbox.backoff-maximo-ms:60000}")
+    private long backoffMaximoMs;
+
+    @Value("${app.simulacao.eventos.outbox.timeout-envio-ms:30000}")
+    private long timeoutEnvioMs;
+
+    @Value("${app.simulacao.eventos.outbox.retencao-horas:24}")
+    private long retencaoHoras;
+
+    private ScheduledExecutorService executor;
+    private final Map<String, EsperaParticao> emEspera = new ConcurrentHashMap<>();
+    private volatile long ultimaLimpeza = System.nanoTime();
+    private volatile LocalDateTime ultimaPublicacao;
+
+    private final AtomicLong ciclos = new AtomicLong();
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong lotesEnviados = new AtomicLong();
+    private final AtomicLong lotesRecusados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong removidos = new AtomicLong();
+
+    /**
+     * Falhas seguidas de uma partição e até quando ela fica sem envios
+     */
+    private record EsperaParticao(int falhasSeguidas, long ateNanos, String ultimoErro) {
+    }
+
+    public DespachanteOutbox(OutboxEventosSimulacao outbox, @Nullable DestinoEventos destino) {
+        this.outbox = outbox;
+        this.destino = destino;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!isHabilitado()) {
+            log.info("Outbox de eventos desabilitada{}", destino == null ? ": nenhum destino configurado" : "");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "despachante-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::executarCiclo, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info("Despachante da outbox iniciado: destino {}, intervalo {} ms, lote {} eventos, backoff {}-{} ms",
+                destino.tipo(), intervaloMs, tamanhoLote, backoffInicialMs, backoffMaximoMs);
+    }
+
+    /**
+     * Termina o ciclo em andamento; o que ficou pendente é enviado na
+     * próxima inicialização
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutEnvioMs, TimeUnit.MILLISECONDS)) {
+            log.warn("⚠️ Despachante da outbox não terminou o ciclo em {} ms", timeoutEnvioMs);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Com a outbox habilitada e um destino configurado, os eventos são
+     * gravados junto com as simulações em vez de passar pelo
+     * {@link PublicadorEventos}
+     */
+    public boolean isHabilitado() {
+        return habilitada && destino != null;
+    }
+
+    /**
+     * Devolve à fila os eventos já publicados ou descartados a partir de
+     * {@code desdeIdEvento}, que o próximo ciclo reenvia com os mesmos IDs
+     *
+     * @return quantidade de eventos reabertos
+     */
+    public int reenviar(long desdeIdEvento) {
+        int reabertos = outbox.reabrir(desdeIdEvento);
+        log.info("{} evento(s) publicado(s) a partir do ID {} devolvido(s) à outbox para reenvio",
+                reabertos, desdeIdEvento);
+        return reabertos;
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", isHabilitado());
+        if (destino != null) {
+            estatisticas.put("destino", destino.tipo());
+        }
+        estatisticas.put("intervalo_ms", intervaloMs);
+        estatisticas.put("tamanho_lote", tamanhoLote);
+        estatisticas.put("backoff_inicial_ms", backoffInicialMs);
+        estatisticas.put("backoff_maximo_ms", backoffMaximoMs);
+        estatisticas.put("retencao_horas", retencaoHoras);
+        estatisticas.putAll(outbox.resumirPendentes());
+
+        long agora = System.nanoTime();
+        Map<String, Object> particoesEmEspera = new LinkedHashMap<>();
+        emEspera.forEach((chave, espera) -> {
+            Map<String, Object> particao = new LinkedHashMap<>();
+            particao.put("falhas_seguidas", espera.falhasSeguidas());
+            particao.put("proxima_tentativa_em_ms",
+                    Math.max(0, TimeUnit.NANOSECONDS.toMillis(espera.ateNanos() - agora)));
+            particao.put("ultimo_erro", espera.ultimoErro());
+            particoesEmEspera.put(chave, particao);
+        });
+        estatisticas.put("particoes_em_espera", particoesEmEspera);
+        estatisticas.put("ciclos", ciclos.get());
+        estatisticas.put("publicados", publicados.get());
+        estatisticas.put("lotes_enviados", lotesEnviados.get());
+        estatisticas.put("lotes_recusados", lotesRecusados.get());
+        estatisticas.put("descartados_pelo_destino", descartados.get());
+        estatisticas.put("ultima_publicacao", ultimaPublicacao);
+        estatisticas.put("publicados_removidos", removidos.get());
+        return estatisticas;
+    }
+
+    /**
+     * Despacha enquanto houver lotes cheios de pendentes e, uma vez por hora,
+     * remove os publicados fora da retenção. Não deixa exceção escapar, o que
+     * cancelaria o agendamento
+     */
+    private void executarCiclo() {
+        try {
+            ciclos.incrementAndGet();
+            while (despachar() >= tamanhoLote && !executor.isShutdown()) {
+                // Há mais pendentes do que cabem num lote
+            }
+            if (System.nanoTime() - ultimaLimpeza >= INTERVALO_LIMPEZA_NANOS) {
+                limparPublicados();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("❌ Falha no ciclo do despachante da outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Envia um lote de pendentes, um envio por partição, e espera as
+     * confirmações
+     *
+     * @return quantidade de eventos lidos da outbox
+     */
+    private int despachar() throws InterruptedException {
+        long agora = System.nanoTime();
+        List<String> particoesEmEspera = emEspera.entrySet().stream()
+                .filter(entrada -> entrada.getValue().ateNanos() - agora > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<EventoPendente> pendentes = outbox.listarPendentes(tamanhoLote, particoesEmEspera);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        // Em ordem de ID dentro de cada partição
+        Map<String, List<EventoSimulacao>> porParticao = new LinkedHashMap<>();
+        for (EventoPendente pendente : pendentes) {
+            porParticao.computeIfAbsent(pendente.chaveParticao(), chave -> new ArrayList<>())
+                    .add(new EventoSimulacao(pendente.idEvento(), pendente.chaveParticao(), pendente.corpo()));
+        }
+
+        Map<String, CompletableFuture<Void>> envios = new LinkedHashMap<>();
+        porParticao.forEach((chave, eventos) -> {
+            lotesEnviados.incrementAndGet();
+            try {
+                envios.put(chave, destino.enviar(chave, eventos));
+            } catch (RuntimeException e) {
+                envios.put(chave, CompletableFuture.failedFuture(e));
+            }
+        });
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutEnvioMs);
+        List<Long> confirmados = new ArrayList<>(pendentes.size());
+        for (Map.Entry<String, CompletableFuture<Void>> envio : envios.entrySet()) {
+            List<Long> ids = porParticao.get(envio.getKey()).stream().map(EventoSimulacao::idEvento).toList();
+            try {
+                envio.getValue().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmados.addAll(ids);
+                emEspera.remove(envio.getKey());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof EventosRejeitadosException rejeitados) {
+                    descartar(envio.getKey(), rejeitados);
+                    ids.stream().filter(id -> !rejeitados.getIdsEventos().contains(id)).forEach(confirmados::add);
+                    emEspera.remove(envio.getKey());
+                    continue;
+                }
+                adiar(envio.getKey(), ids, e.getCause() != null ? e.getCause() : e);
+            } catch (TimeoutException e) {
+                adiar(envio.getKey(), ids, e);
+            }
+        }
+
+        outbox.marcarPublicados(confirmados);
+        if (!confirmados.isEmpty()) {
+            publicados.addAndGet(confirmados.size());
+            ultimaPublicacao = TimeZoneConfig.now();
+        }
+        return pendentes.size();
+    }
+
+    /**
+     * Registra a falha nos eventos do lote e deixa a partição em espera pelo
+     * dobro do intervalo anterior
+     */
+    private void adiar(String chaveParticao, List<Long> idsEventos, Throwable erro) {
+        lotesRecusados.incrementAndGet();
+        String mensagem = erro instanceof TimeoutException
+                ? "Sem confirmação do destino em " + timeoutEnvioMs + " ms"
+                : String.valueOf(erro.getMessage());
+        outbox.registrarFalha(idsEventos, mensagem);
+
+        EsperaParticao anterior = emEspera.get(chaveParticao);
+        int falhas = anterior != null ? anterior.falhasSeguidas() + 1 : 1;
+        long esperaMs = Math.min(backoffMaximoMs, backoffInicialMs << Math.min(falhas - 1, 30));
+        emEspera.put(chaveParticao, new EsperaParticao(falhas,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMs), mensagem));
+        log.warn("⚠️ Lote de {} evento(s) da partição {} recusado ({} falha(s) seguida(s)): {}; "
+                + "nova tentativa em {} ms", idsEventos.size(), chaveParticao, falhas, mensagem, esperaMs);
+    }
+
+    private void descartar(String chaveParticao, EventosRejeitadosException rejeitados) {
+        outbox.descartar(rejeitados.getIdsEventos(), rejeitados.getMessage());
+        descartados.addAndGet(rejeitados.getIdsEventos().size());
+        log.error("❌ {} evento(s) da partição {} descartado(s) da outbox: {}",
+                rejeitados.getIdsEventos().size(), chaveParticao, rejeitados.getMessage());
+    }
+
+    private void limparPublicados() {
+        LocalDateTime antesDe = TimeZoneConfig.now().minusHours(retencaoHoras);
+        int total = 0;
+        int removidosBloco;
+        do {
+            removidosBloco = outbox.removerPublicados(antesDe, BLOCO_LIMPEZA);
+            total += removidosBloco;
+        } while (removidosBloco == BLOCO_LIMPEZA && !executor.isShutdown());
+        ultimaLimpeza = System.nanoTime();
+        removidos.addAndGet(total);
+        if (total > 0) {
+            log.info("{} evento(s) publicado(s) antes de {} removido(s) da outbox", total, antesDe);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.leo.apisimulador.service.evento;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Para onde o {@link PublicadorEventos} envia os lotes de eventos das
+ * simulações, escolhido por app.simulacao.eventos.destino: {@code eventhub}
+ * (padrão), {@code memoria} ou {@code arquivo}. Os dois últimos substituem o
+ * Event Hub em testes e benchmarks sem acesso ao Azure.
+ */
+public interface DestinoEventos {
+
+    /**
+     * Envia o lote sem bloquear a thread chamadora, na ordem da lista
+     *
+     * @param chaveParticao todos os eventos vão para a partição desta chave;
+     *                      nula, o destino distribui os eventos livremente
+     * @return completado quando o destino confirmar o lote inteiro
+     */
+    CompletableFuture<Void> enviar(String chaveParticao, List<EventoSimulacao> eventos);
+
+    String tipo();
+
+    Map<String, Object> obterEstatisticas();
+}
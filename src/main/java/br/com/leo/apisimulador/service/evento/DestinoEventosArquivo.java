@@ -0,0 +1,100 @@
+package br.com.leo.apisimulador.service.evento;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destino local que acrescenta cada evento como uma linha (NDJSON) em
+ * app.simulacao.eventos.arquivo.caminho, com uma escrita por lote. Serve
+ * para conferir os eventos publicados sem acesso ao Azure.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.simulacao.eventos.destino", havingValue = "arquivo")
+public class DestinoEventosArquivo implements DestinoEventos {
+
+    private final String caminho;
+    private FileChannel canal;
+    private long lotes;
+    private long eventos;
+    private long bytes;
+
+    public DestinoEventosArquivo(
+            @Value("${app.simulacao.eventos.arquivo.caminho:./dados/eventos-simulacao.ndjson}") String caminho) {
+        this.caminho = caminho;
+    }
+
+    @PostConstruct
+    public void abrir() throws IOException {
+        Path arquivo = Paths.get(caminho);
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        log.info("Eventos de simulação gravados em {}", arquivo.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public synchronized void fechar() throws IOException {
+        if (canal != null) {
+            canal.close();
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> enviar(String chaveParticao, List<EventoSimulacao> lote) {
+        int tamanho = 0;
+        for (EventoSimulacao evento : lote) {
+            tamanho += evento.corpo().length + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        for (EventoSimulacao evento : lote) {
+            buffer.put(evento.corpo()).put((byte) '\n');
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+        lotes++;
+        eventos += lote.size();
+        bytes += tamanho;
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public String tipo() {
+        return "arquivo";
+    }
+
+    @Override
+    public synchronized Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("caminho", caminho);
+        estatisticas.put("lotes", lotes);
+        estatisticas.put("eventos", eventos);
+        estatisticas.put("bytes", bytes);
+        return estatisticas;
+    }
+}
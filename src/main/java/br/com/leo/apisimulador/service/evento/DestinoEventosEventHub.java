@@ -0,0 +1,106 @@
+package br.com.leo.apisimulador.service.evento;
+
+import com.azure.messaging.eventhubs.EventData;
+import com.azure.messaging.eventhubs.EventDataBatch;
+import com.azure.messaging.eventhubs.EventHubProducerAsyncClient;
+import com.azure.messaging.eventhubs.models.CreateBatchOptions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia os lotes pelo cliente assíncrono do Event Hub, com o ID do evento no
+ * MessageId e na propriedade idEvento e, quando informada, a chave de
+ * partição no EventDataBatch. Um lote que não caiba em um EventDataBatch é
+ * dividido em envios sucessivos, em ordem. Um evento maior que o próprio
+ * EventDataBatch é pulado e os demais seguem; depois do último envio o lote
+ * termina com {@link EventosRejeitadosException} listando os pulados, que
+ * assim nunca são dados como publicados.
+ *
+ * Criado pelo EventHubConfig, só com o Event Hub habilitado.
+ */
+@Slf4j
+public class DestinoEventosEventHub implements DestinoEventos {
+
+    private final EventHubProducerAsyncClient cliente;
+
+    private final AtomicLong envios = new AtomicLong();
+    private final AtomicLong eventosGrandesDemais = new AtomicLong();
+
+    public DestinoEventosEventHub(EventHubProducerAsyncClient cliente) {
+        this.cliente = cliente;
+    }
+
+    @Override
+    public CompletableFuture<Void> enviar(String chaveParticao, List<EventoSimulacao> eventos) {
+        CreateBatchOptions opcoes = new CreateBatchOptions();
+        if (chaveParticao != null) {
+            opcoes.setPartitionKey(chaveParticao);
+        }
+        List<Long> rejeitados = new ArrayList<>(0);
+        return enviarAPartirDe(opcoes, eventos, 0, rejeitados).thenCompose(enviados -> rejeitados.isEmpty()
+                ? CompletableFuture.<Void>completedFuture(null)
+                : CompletableFuture.<Void>failedFuture(new EventosRejeitadosException(rejeitados,
+                        rejeitados.size() + " evento(s) maior(es) que o lote do Event Hub: " + rejeitados)));
+    }
+
+    @Override
+    public String tipo() {
+        return "eventhub";
+    }
+
+    @Override
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("event_hub", cliente.getEventHubName());
+        estatisticas.put("envios", envios.get());
+        estatisticas.put("eventos_grandes_demais", eventosGrandesDemais.get());
+        return estatisticas;
+    }
+
+    /**
+     * @param rejeitados recebe os IDs dos eventos grandes demais; os envios são
+     *                   sucessivos, então não há acesso concorrente
+     */
+    private CompletableFuture<Void> enviarAPartirDe(CreateBatchOptions opcoes, List<EventoSimulacao> eventos,
+            int inicio, List<Long> rejeitados) {
+        if (inicio >= eventos.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return cliente.createBatch(opcoes).toFuture().thenCompose(lote -> {
+            int proximo = preencher(lote, eventos, inicio);
+            if (proximo == inicio) {
+                eventosGrandesDemais.incrementAndGet();
+                log.error("❌ Evento {} de {} bytes excede o tamanho máximo de um lote do Event Hub ({} bytes)",
+                        eventos.get(inicio).idEvento(), eventos.get(inicio).corpo().length, lote.getMaxSizeInBytes());
+                rejeitados.add(eventos.get(inicio).idEvento());
+                return enviarAPartirDe(opcoes, eventos, inicio + 1, rejeitados);
+            }
+            envios.incrementAndGet();
+            return cliente.send(lote).toFuture().thenCompose(enviado -> enviarAPartirDe(opcoes, eventos, proximo, rejeitados));
+        });
+    }
+
+    /**
+     * @return índice do primeiro evento que não coube no lote
+     */
+    private static int preencher(EventDataBatch lote, List<EventoSimulacao> eventos, int inicio) {
+        int indice = inicio;
+        while (indice < eventos.size() && lote.tryAdd(eventData(eventos.get(indice)))) {
+            indice++;
+        }
+        return indice;
+    }
+
+    private static EventData eventData(EventoSimulacao evento) {
+        EventData eventData = new EventData(evento.corpo());
+        eventData.setMessageId(String.valueOf(evento.idEvento()));
+        eventData.getProperties().put("idEvento", evento.idEvento());
+        return eventData;
+    }
+}
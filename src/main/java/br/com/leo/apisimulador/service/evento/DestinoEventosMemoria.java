@@ -0,0 +1,101 @@
+package br.com.leo.apisimulador.service.evento;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Destino local que só contabiliza os eventos recebidos, confirmando cada
+ * lote depois de app.simulacao.eventos.memoria.latencia-ms, para simular o
+ * tempo de ida e volta ao Event Hub sem acesso ao Azure.
+ *
+ * Com taxa-falha maior que zero, essa fração dos lotes é recusada, para
+ * exercitar as novas tentativas da outbox. Nos lotes com chave de partição, um
+ * evento com ID menor ou igual ao último aceito na partição é contado como
+ * reentregue: com a outbox, só acontece quando a confirmação de um lote se
+ * perde e o lote é enviado de novo.
+ */
+@Component
+@ConditionalOnProperty(name = "app.simulacao.eventos.destino", havingValue = "memoria")
+public class DestinoEventosMemoria implements DestinoEventos {
+
+    private final long latenciaMs;
+    private final double taxaFalha;
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong lotesRecusados = new AtomicLong();
+    private final AtomicLong eventos = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong reentregues = new AtomicLong();
+    private final Map<String, Long> ultimoIdPorParticao = new ConcurrentHashMap<>();
+
+    public DestinoEventosMemoria(@Value("${app.simulacao.eventos.memoria.latencia-ms:0}") long latenciaMs,
+            @Value("${app.simulacao.eventos.memoria.taxa-falha:0}") double taxaFalha) {
+        this.latenciaMs = latenciaMs;
+        this.taxaFalha = taxaFalha;
+    }
+
+    @Override
+    public CompletableFuture<Void> enviar(String chaveParticao, List<EventoSimulacao> lote) {
+        if (taxaFalha > 0 && ThreadLocalRandom.current().nextDouble() < taxaFalha) {
+            lotesRecusados.incrementAndGet();
+            return atrasar(CompletableFuture.failedFuture(
+                    new IllegalStateException("Lote recusado pelo destino em memória (taxa-falha)")));
+        }
+        long bytesLote = 0;
+        for (EventoSimulacao evento : lote) {
+            bytesLote += evento.corpo().length;
+        }
+        if (chaveParticao != null) {
+            // Os lotes de uma mesma partição chegam um de cada vez
+            for (EventoSimulacao evento : lote) {
+                Long anterior = ultimoIdPorParticao.get(chaveParticao);
+                if (anterior != null && evento.idEvento() <= anterior) {
+                    reentregues.incrementAndGet();
+                } else {
+                    ultimoIdPorParticao.put(chaveParticao, evento.idEvento());
+                }
+            }
+        }
+        lotes.incrementAndGet();
+        eventos.addAndGet(lote.size());
+        bytes.addAndGet(bytesLote);
+        return atrasar(CompletableFuture.completedFuture(null));
+    }
+
+    @Override
+    public String tipo() {
+        return "memoria";
+    }
+
+    @Override
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("latencia_ms", latenciaMs);
+        estatisticas.put("taxa_falha", taxaFalha);
+        estatisticas.put("lotes", lotes.get());
+        estatisticas.put("lotes_recusados", lotesRecusados.get());
+        estatisticas.put("eventos", eventos.get());
+        estatisticas.put("bytes", bytes.get());
+        estatisticas.put("reentregues", reentregues.get());
+        estatisticas.put("particoes", ultimoIdPorParticao.size());
+        return estatisticas;
+    }
+
+    private CompletableFuture<Void> atrasar(CompletableFuture<Void> resultado) {
+        if (latenciaMs <= 0) {
+            return resultado;
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(latenciaMs, TimeUnit.MILLISECONDS))
+                .thenCompose(atraso -> resultado);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.leo.apisimulador.service.evento;
+
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+
+/**
+ * Evento publicado para uma simulação. O ID da simulação é o ID do evento,
+ * o mesmo em toda reentrega, para que o consumidor descarte duplicatas; o
+ * código do produto é a chave de partição, que mantém em ordem os eventos de
+ * um mesmo produto
+ *
+ * @param corpo JSON da simulação, igual à resposta de POST /simulacoes
+ */
+public record EventoSimulacao(long idEvento, String chaveParticao, byte[] corpo) {
+
+    public static EventoSimulacao de(SimulacaoResponseDTO resposta, byte[] corpo) {
+        return new EventoSimulacao(resposta.idSimulacao(), String.valueOf(resposta.codigoProduto()), corpo);
+    }
+}
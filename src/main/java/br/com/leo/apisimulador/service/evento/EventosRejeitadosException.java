@@ -0,0 +1,23 @@
+package br.com.leo.apisimulador.service.evento;
+
+import java.util.List;
+
+/**
+ * Eventos que o destino nunca vai aceitar, como um evento maior que o lote do
+ * Event Hub. Completa o envio de um lote em que os demais eventos foram
+ * confirmados: reenviar os rejeitados não adianta, então não são tratados
+ * como falha temporária.
+ */
+public class EventosRejeitadosException extends RuntimeException {
+
+    private final List<Long> idsEventos;
+
+    public EventosRejeitadosException(List<Long> idsEventos, String mensagem) {
+        super(mensagem);
+        this.idsEventos = List.copyOf(idsEventos);
+    }
+
+    public List<Long> getIdsEventos() {
+        return idsEventos;
+    }
+}
@@ -0,0 +1,305 @@
+package br.com.leo.apisimulador.service.evento;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publicação assíncrona, em lotes, dos eventos das simulações.
+ *
+ * As requisições só colocam o JSON da simulação, já gravada, numa fila
+ * limitada; uma thread publicadora junta os eventos em lotes de até
+ * app.simulacao.eventos.maximo-eventos-lote eventos e maximo-bytes-lote bytes,
+ * esperando no máximo espera-lote-ms por mais eventos, e entrega cada lote ao
+ * {@link DestinoEventos} sem esperar a confirmação, com até
+ * maximo-lotes-em-voo lotes aguardando confirmação ao mesmo tempo.
+ *
+ * A publicação não faz parte da simulação: com a fila cheia o evento é
+ * descartado e contado, e um lote recusado pelo destino é registrado no log.
+ * O evento de uma simulação cuja gravação falhou não é publicado, mas é
+ * contado ({@link #descartarNaoGravado}).
+ * Sem destino configurado os eventos são ignorados. No encerramento a fila é
+ * esvaziada e os lotes em voo são aguardados até timeout-encerramento-ms.
+ *
+ * Com a outbox habilitada os eventos não passam por aqui: são gravados com as
+ * simulações e repassados pelo {@link DespachanteOutbox}.
+ */
+@Slf4j
+@Component
+public class PublicadorEventos {
+
+    private static final long INTERVALO_AVISO_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final DestinoEventos destino;
+    private final int capacidadeFila;
+    private final int maximoEventosLote;
+    private final long maximoBytesLote;
+    private final long esperaLoteMs;
+    private final int maximoLotesEmVoo;
+
+    @Value("${app.simulacao.eventos.timeout-encerramento-ms:10000}")
+    private long timeoutEncerramentoMs = 10_000;
+
+    private BlockingQueue<EventoSimulacao> fila;
+    private Semaphore lotesEmVoo;
+    private Thread publicadora;
+    private volatile boolean aceitando;
+    /** Evento retirado da fila que não coube no lote anterior */
+    private EventoSimulacao sobra;
+
+    private final AtomicLong enfileirados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong naoGravados = new AtomicLong();
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong lotesEnviados = new AtomicLong();
+    private final AtomicLong lotesConcluidos = new AtomicLong();
+    private final AtomicLong bytesEnviados = new AtomicLong();
+    private final AtomicLong nanosEnvio = new AtomicLong();
+    private final AtomicLong nanosEnvioMaximo = new AtomicLong();
+    private final AtomicLong ultimoAvisoDescarte = new AtomicLong();
+    private final AtomicLong ultimoAvisoNaoGravado = new AtomicLong();
+
+    public PublicadorEventos(@Nullable DestinoEventos destino,
+            @Value("${app.simulacao.eventos.capacidade-fila:10000}") int capacidadeFila,
+            @Value("${app.simulacao.eventos.maximo-eventos-lote:500}") int maximoEventosLote,
+            @Value("${app.simulacao.eventos.maximo-bytes-lote:262144}") long maximoBytesLote,
+            @Value("${app.simulacao.eventos.espera-lote-ms:20}") long esperaLoteMs,
+            @Value("${app.simulacao.eventos.maximo-lotes-em-voo:4}") int maximoLotesEmVoo) {
+        this.destino = destino;
+        this.capacidadeFila = capacidadeFila;
+        this.maximoEventosLote = maximoEventosLote;
+        this.maximoBytesLote = maximoBytesLote;
+        this.esperaLoteMs = esperaLoteMs;
+        this.maximoLotesEmVoo = maximoLotesEmVoo;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (destino == null) {
+            log.info("Publicação de eventos de simulação desabilitada: nenhum destino configurado");
+            return;
+        }
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        lotesEmVoo = new Semaphore(maximoLotesEmVoo);
+        aceitando = true;
+        publicadora = new Thread(this::executar, "publicador-eventos");
+        publicadora.setDaemon(true);
+        publicadora.start();
+        log.info("Publicador de eventos iniciado: destino {}, fila {}, lote {} eventos / {} bytes, espera {} ms, "
+                + "{} lotes em voo", destino.tipo(), capacidadeFila, maximoEventosLote, maximoBytesLote,
+                esperaLoteMs, maximoLotesEmVoo);
+    }
+
+    /**
+     * Para de aceitar eventos, publica o que está na fila e espera a
+     * confirmação dos lotes em voo
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (publicadora == null) {
+            return;
+        }
+        aceitando = false;
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutEncerramentoMs);
+        publicadora.join(timeoutEncerramentoMs);
+        long restante = Math.max(0, limite - System.nanoTime());
+        if (publicadora.isAlive() || !lotesEmVoo.tryAcquire(maximoLotesEmVoo, restante, TimeUnit.NANOSECONDS)) {
+            log.error("❌ Publicador de eventos não terminou em {} ms; {} eventos na fila e {} lotes em voo perdidos",
+                    timeoutEncerramentoMs, fila.size(), maximoLotesEmVoo - lotesEmVoo.availablePermits());
+            return;
+        }
+        lotesEmVoo.release(maximoLotesEmVoo);
+        log.info("Publicador de eventos encerrado: {} eventos publicados em {} lotes, {} descartados, "
+                + "{} sem gravação, {} com falha", publicados.get(), lotesConcluidos.get(), descartados.get(),
+                naoGravados.get(), falhas.get());
+    }
+
+    public boolean isAtivo() {
+        return destino != null;
+    }
+
+    /**
+     * Coloca o evento na fila de publicação, sem bloquear
+     *
+     * @return false se o evento foi descartado (fila cheia ou publicador
+     *         encerrando) ou se não há destino
+     */
+    public boolean publicar(EventoSimulacao evento) {
+        if (destino == null) {
+            return false;
+        }
+        if (aceitando && fila.offer(evento)) {
+            enfileirados.incrementAndGet();
+            return true;
+        }
+        descartados.incrementAndGet();
+        // No máximo um aviso a cada INTERVALO_AVISO_NANOS, para não inundar o log
+        long agora = System.nanoTime();
+        long ultimo = ultimoAvisoDescarte.get();
+        if ((ultimo == 0 || agora - ultimo >= INTERVALO_AVISO_NANOS)
+                && ultimoAvisoDescarte.compareAndSet(ultimo, agora)) {
+            log.warn("⚠️ Fila de eventos cheia ({} eventos) ou publicador encerrando: {} evento(s) descartado(s)",
+                    capacidadeFila, descartados.get());
+        }
+        return false;
+    }
+
+    /**
+     * Registra o evento que não será publicado porque a gravação da simulação
+     * falhou
+     */
+    public void descartarNaoGravado(long idSimulacao, Throwable erro) {
+        if (destino == null) {
+            return;
+        }
+        naoGravados.incrementAndGet();
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                ? erro.getCause()
+                : erro;
+        long agora = System.nanoTime();
+        long ultimo = ultimoAvisoNaoGravado.get();
+        if ((ultimo == 0 || agora - ultimo >= INTERVALO_AVISO_NANOS)
+                && ultimoAvisoNaoGravado.compareAndSet(ultimo, agora)) {
+            log.warn("⚠️ Evento da simulação {} não publicado, gravação falhou: {} ({} evento(s) sem gravação)",
+                    idSimulacao, causa.getMessage(), naoGravados.get());
+        }
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("ativo", isAtivo());
+        if (destino == null) {
+            return estatisticas;
+        }
+        long lotes = lotesEnviados.get();
+        long concluidos = lotesConcluidos.get();
+        estatisticas.put("destino", destino.tipo());
+        estatisticas.put("aceitando", aceitando);
+        estatisticas.put("fila_atual", fila.size());
+        estatisticas.put("capacidade_fila", capacidadeFila);
+        estatisticas.put("maximo_eventos_lote", maximoEventosLote);
+        estatisticas.put("maximo_bytes_lote", maximoBytesLote);
+        estatisticas.put("espera_lote_ms", esperaLoteMs);
+        estatisticas.put("maximo_lotes_em_voo", maximoLotesEmVoo);
+        estatisticas.put("lotes_em_voo", maximoLotesEmVoo - lotesEmVoo.availablePermits());
+        estatisticas.put("enfileirados", enfileirados.get());
+        estatisticas.put("descartados", descartados.get());
+        estatisticas.put("nao_gravados", naoGravados.get());
+        estatisticas.put("publicados", publicados.get());
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("lotes_enviados", lotes);
+        estatisticas.put("media_eventos_por_lote", concluidos > 0
+                ? (double) (publicados.get() + falhas.get()) / concluidos
+                : 0.0);
+        estatisticas.put("preenchimento_medio_lote", lotes > 0
+                ? (double) bytesEnviados.get() / lotes / maximoBytesLote
+                : 0.0);
+        estatisticas.put("latencia_envio_media_ms", concluidos > 0 ? nanosEnvio.get() / 1e6 / concluidos : 0.0);
+        estatisticas.put("latencia_envio_maxima_ms", nanosEnvioMaximo.get() / 1e6);
+        estatisticas.put("destino_detalhes", destino.obterEstatisticas());
+        return estatisticas;
+    }
+
+    /**
+     * Laço da thread publicadora; termina quando o publicador deixa de
+     * aceitar eventos e a fila está vazia
+     */
+    private void executar() {
+        while (aceitando || !fila.isEmpty() || sobra != null) {
+            try {
+                EventoSimulacao primeiro = sobra != null ? sobra : fila.poll(100, TimeUnit.MILLISECONDS);
+                sobra = null;
+                if (primeiro == null) {
+                    continue;
+                }
+                List<EventoSimulacao> lote = new ArrayList<>(Math.min(maximoEventosLote, 64));
+                lote.add(primeiro);
+                long bytes = completarLote(lote, primeiro.corpo().length);
+                lotesEmVoo.acquire();
+                enviar(lote, bytes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Junta ao lote os eventos da fila até um dos limites ou até
+     * espera-lote-ms; o evento que ultrapassaria maximo-bytes-lote fica para
+     * o próximo lote
+     *
+     * @return bytes do lote
+     */
+    private long completarLote(List<EventoSimulacao> lote, long bytes) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaLoteMs);
+        while (lote.size() < maximoEventosLote) {
+            EventoSimulacao proximo = fila.poll();
+            if (proximo == null) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0 || !aceitando) {
+                    break;
+                }
+                proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                if (proximo == null) {
+                    break;
+                }
+            }
+            if (bytes + proximo.corpo().length > maximoBytesLote) {
+                sobra = proximo;
+                break;
+            }
+            lote.add(proximo);
+            bytes += proximo.corpo().length;
+        }
+        return bytes;
+    }
+
+    private void enviar(List<EventoSimulacao> lote, long bytes) {
+        long inicio = System.nanoTime();
+        lotesEnviados.incrementAndGet();
+        bytesEnviados.addAndGet(bytes);
+        CompletableFuture<Void> envio;
+        try {
+            // Sem chave de partição: a ordem entre eventos só é garantida pela outbox
+            envio = destino.enviar(null, lote);
+        } catch (RuntimeException e) {
+            envio = CompletableFuture.failedFuture(e);
+        }
+        envio.whenComplete((confirmado, erro) -> {
+            long nanos = System.nanoTime() - inicio;
+            nanosEnvio.addAndGet(nanos);
+            nanosEnvioMaximo.accumulateAndGet(nanos, Math::max);
+            lotesConcluidos.incrementAndGet();
+            Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+            if (erro == null) {
+                publicados.addAndGet(lote.size());
+            } else if (causa instanceof EventosRejeitadosException rejeitados) {
+                publicados.addAndGet(lote.size() - rejeitados.getIdsEventos().size());
+                falhas.addAndGet(rejeitados.getIdsEventos().size());
+                log.error("❌ Eventos recusados pelo destino ({}): {}", destino.tipo(), rejeitados.getMessage());
+            } else {
+                falhas.addAndGet(lote.size());
+                log.error("❌ Falha ao publicar lote de {} eventos ({}): {}", lote.size(), destino.tipo(),
+                        erro.getMessage());
+            }
+            lotesEmVoo.release();
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quantidade de simulações gravadas mantida em memória, para que a listagem
+ * não execute COUNT(*) a cada página. É contada uma vez na inicialização e
+ * atualizada por quem grava ou remove simulações, depois do commit.
+ */
+@Slf4j
+@Component
+@DependsOn("localEntityManagerFactory")
+public class ContadorSimulacoes {
+
+    private final ArmazenamentoSimulacoes armazenamento;
+    private final AtomicLong total = new AtomicLong();
+
+    public ContadorSimulacoes(ArmazenamentoSimulacoes armazenamento) {
+        this.armazenamento = armazenamento;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        recontar();
+        log.info("Contador de simulações iniciado com {} registros", total.get());
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    public void adicionar(long quantidade) {
+        total.addAndGet(quantidade);
+    }
+
+    public void remover(long quantidade) {
+        total.addAndGet(-quantidade);
+    }
+
+    /**
+     * Refaz a contagem no armazenamento
+     */
+    public long recontar() {
+        total.set(armazenamento.contar());
+        return total.get();
+    }
+}
@@ -0,0 +1,270 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.repository.CodecResultadoSimulacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Migração de RESULTADO_JSON para a coluna RESULTADO, no formato de
+ * {@link CodecResultadoSimulacao}, em SIMULACAO e SIMULACAO_ARQUIVO.
+ *
+ * Roda numa thread própria a partir da inicialização (depois do
+ * {@link PreenchimentoResumoSimulacoes}, que ainda lê o JSON) ou sob demanda
+ * pelo diagnóstico; as linhas não convertidas continuam legíveis pelo JSON.
+ * Percorre cada tabela por IDSIMULACAO em blocos, com um batch de UPDATE por
+ * bloco. Uma linha só é convertida se o resultado decodificado gerar
+ * exatamente o mesmo JSON; as demais ficam como estão e são registradas no
+ * log. Só existe com o armazenamento em H2.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.simulacao.armazenamento.tipo", havingValue = "h2", matchIfMissing = true)
+@DependsOn("preenchimentoResumoSimulacoes")
+public class ConversaoResultadoSimulacoes {
+
+    private static final List<String> TABELAS = List.of("PUBLIC.SIMULACAO", "PUBLIC.SIMULACAO_ARQUIVO");
+
+    private static final String SQL_PENDENTES = "SELECT IDSIMULACAO, RESULTADO_JSON FROM %s "
+            + "WHERE RESULTADO_JSON IS NOT NULL AND IDSIMULACAO > ? ORDER BY IDSIMULACAO LIMIT ?";
+
+    private static final String SQL_CONVERTER = "UPDATE %s SET RESULTADO = ?, RESULTADO_JSON = NULL "
+            + "WHERE IDSIMULACAO = ? AND RESULTADO_JSON IS NOT NULL";
+
+    private static final String SQL_AMOSTRA = "SELECT RESULTADO FROM PUBLIC.SIMULACAO "
+            + "WHERE RESULTADO IS NOT NULL ORDER BY IDSIMULACAO DESC LIMIT ?";
+
+    private static final String SQL_OCUPACAO = "SELECT COUNT(RESULTADO), COALESCE(SUM(OCTET_LENGTH(RESULTADO)), 0), "
+            + "COUNT(RESULTADO_JSON), COALESCE(SUM(OCTET_LENGTH(RESULTADO_JSON)), 0), "
+            + "COUNT(*) - COUNT(RESULTADO) - COUNT(RESULTADO_JSON) FROM PUBLIC.SIMULACAO";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "conversao-resultado-simulacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.simulacao.resultado.converter-na-inicializacao:true}")
+    private boolean converterNaInicializacao;
+
+    @Value("${app.simulacao.resultado.tamanho-bloco:500}")
+    private int tamanhoBloco;
+
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+    private final AtomicLong totalConvertidas = new AtomicLong();
+    private final AtomicLong totalDivergentes = new AtomicLong();
+    private final AtomicLong totalInvalidas = new AtomicLong();
+    private final AtomicLong bytesJsonConvertidos = new AtomicLong();
+    private final AtomicLong bytesBinarioGravados = new AtomicLong();
+    private volatile LocalDateTime ultimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile String ultimoErro;
+
+    public ConversaoResultadoSimulacoes(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (converterNaInicializacao) {
+            iniciarConversao();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return false se já havia uma conversão em andamento
+     */
+    public boolean iniciarConversao() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                converter();
+            } finally {
+                emAndamento.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("converter_na_inicializacao", converterNaInicializacao);
+        estatisticas.put("tamanho_bloco", tamanhoBloco);
+        estatisticas.put("em_andamento", emAndamento.get());
+        estatisticas.put("total_convertidas", totalConvertidas.get());
+        estatisticas.put("total_divergentes", totalDivergentes.get());
+        estatisticas.put("total_invalidas", totalInvalidas.get());
+        estatisticas.put("bytes_json_convertidos", bytesJsonConvertidos.get());
+        estatisticas.put("bytes_binario_gravados", bytesBinarioGravados.get());
+        estatisticas.put("ultima_execucao", ultimaExecucao);
+        estatisticas.put("duracao_ultima_execucao_ms", duracaoUltimaExecucaoMs);
+        estatisticas.put("ultimo_erro", ultimoErro);
+        return estatisticas;
+    }
+
+    /**
+     * Ocupação do resultado em SIMULACAO nos dois formatos, linhas gravadas
+     * sem resultado (modo RECALCULADO) e, para as
+     * {@code amostra} simulações mais recentes já convertidas, o tamanho
+     * médio em binário e em JSON e o tempo médio para decodificar cada um
+     */
+    public Map<String, Object> medir(int amostra) {
+        Map<String, Object> medicao = new LinkedHashMap<>();
+        jdbcTemplate.query(SQL_OCUPACAO, rs -> {
+            medicao.put("linhas_binario", rs.getLong(1));
+            medicao.put("bytes_binario", rs.getLong(2));
+            medicao.put("linhas_json", rs.getLong(3));
+            medicao.put("bytes_json", rs.getLong(4));
+            medicao.put("linhas_recalculadas", rs.getLong(5));
+        });
+
+        List<byte[]> resultados = jdbcTemplate.queryForList(SQL_AMOSTRA, byte[].class, amostra);
+        medicao.put("amostra", resultados.size());
+        if (resultados.isEmpty()) {
+            return medicao;
+        }
+        try {
+            List<String> jsons = new ArrayList<>(resultados.size());
+            long bytesBinario = 0;
+            long bytesJson = 0;
+            for (byte[] resultado : resultados) {
+                String json = objectMapper.writeValueAsString(CodecResultadoSimulacao.decodificar(resultado));
+                jsons.add(json);
+                bytesBinario += resultado.length;
+                bytesJson += json.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            // A primeira passada de cada formato só aquece o código
+            long nanosBinario = 0;
+            long nanosJson = 0;
+            for (int passada = 0; passada < 2; passada++) {
+                long inicio = System.nanoTime();
+                for (byte[] resultado : resultados) {
+                    CodecResultadoSimulacao.decodificar(resultado);
+                }
+                nanosBinario = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                for (String json : jsons) {
+                    objectMapper.readValue(json, SimulacaoResponseDTO.class);
+                }
+                nanosJson = System.nanoTime() - inicio;
+            }
+
+            medicao.put("bytes_medio_binario", bytesBinario / resultados.size());
+            medicao.put("bytes_medio_json", bytesJson / resultados.size());
+            medicao.put("reducao_percentual", 100.0 - 100.0 * bytesBinario / bytesJson);
+            medicao.put("decodificacao_binario_us", nanosBinario / 1000.0 / resultados.size());
+            medicao.put("desserializacao_json_us", nanosJson / 1000.0 / resultados.size());
+        } catch (JsonProcessingException e) {
+            medicao.put("erro", e.getOriginalMessage());
+        }
+        return medicao;
+    }
+
+    private void converter() {
+        long inicio = System.nanoTime();
+        ultimaExecucao = TimeZoneConfig.now();
+        long convertidas = 0;
+        try {
+            for (String tabela : TABELAS) {
+                convertidas += converterTabela(tabela);
+            }
+            ultimoErro = null;
+        } catch (RuntimeException e) {
+            ultimoErro = e.getMessage();
+            log.error("❌ Falha na conversão do RESULTADO_JSON: {}", e.getMessage(), e);
+        } finally {
+            duracaoUltimaExecucaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        }
+        if (convertidas > 0) {
+            log.info("Resultado de {} simulações convertido para binário em {} ms ({} bytes de JSON → {} bytes)",
+                    convertidas, duracaoUltimaExecucaoMs, bytesJsonConvertidos.get(), bytesBinarioGravados.get());
+        }
+    }
+
+    private long converterTabela(String tabela) {
+        String sqlPendentes = String.format(SQL_PENDENTES, tabela);
+        String sqlConverter = String.format(SQL_CONVERTER, tabela);
+        long ultimoId = 0;
+        long convertidas = 0;
+        List<Object[]> lidas;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            lidas = jdbcTemplate.query(sqlPendentes,
+                    (rs, linha) -> new Object[] { rs.getLong(1), rs.getString(2) }, ultimoId, tamanhoBloco);
+
+            List<Object[]> bloco = new ArrayList<>(lidas.size());
+            for (Object[] linha : lidas) {
+                long id = (Long) linha[0];
+                ultimoId = id;
+                byte[] binario = codificar(tabela, id, (String) linha[1]);
+                if (binario != null) {
+                    bloco.add(new Object[] { binario, id });
+                    bytesJsonConvertidos.addAndGet(((String) linha[1]).getBytes(StandardCharsets.UTF_8).length);
+                    bytesBinarioGravados.addAndGet(binario.length);
+                }
+            }
+            if (!bloco.isEmpty()) {
+                jdbcTemplate.batchUpdate(sqlConverter, bloco);
+                convertidas += bloco.size();
+                totalConvertidas.addAndGet(bloco.size());
+            }
+        } while (lidas.size() == tamanhoBloco);
+        return convertidas;
+    }
+
+    /**
+     * @return null se o JSON for inválido ou não voltar idêntico do binário
+     */
+    private byte[] codificar(String tabela, long id, String json) {
+        try {
+            byte[] binario = CodecResultadoSimulacao.codificar(objectMapper.readValue(json,
+                    SimulacaoResponseDTO.class));
+            if (!json.equals(objectMapper.writeValueAsString(CodecResultadoSimulacao.decodificar(binario)))) {
+                totalDivergentes.incrementAndGet();
+                log.warn("Simulação {} de {} mantida em JSON: o binário não reproduz o mesmo JSON", id, tabela);
+                return null;
+            }
+            return binario;
+        } catch (JsonProcessingException | RuntimeException e) {
+            totalInvalidas.incrementAndGet();
+            log.error("Simulação {} de {} mantida em JSON: {}", id, tabela, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+/**
+ * A fila de gravação continuou cheia durante todo o tempo de espera
+ * configurado, ou o gravador já está encerrando
+ */
+public class FilaGravacaoCheiaException extends RuntimeException {
+
+    public FilaGravacaoCheiaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+/**
+ * No modo PERSISTENCIA, a gravação da simulação não foi confirmada em
+ * timeout-persistencia-ms. Se a simulação ainda estava na fila ela foi
+ * retirada e não será gravada ({@link #isCancelada()}); caso contrário o
+ * lote com ela já estava sendo gravado e a simulação pode aparecer depois com
+ * o ID informado.
+ */
+public class GravacaoNaoConfirmadaException extends RuntimeException {
+
+    private final long idSimulacao;
+    private final boolean cancelada;
+
+    public GravacaoNaoConfirmadaException(long idSimulacao, boolean cancelada, String mensagem) {
+        super(mensagem);
+        this.idSimulacao = idSimulacao;
+        this.cancelada = cancelada;
+    }
+
+    public long getIdSimulacao() {
+        return idSimulacao;
+    }
+
+    public boolean isCancelada() {
+        return cancelada;
+    }
+}
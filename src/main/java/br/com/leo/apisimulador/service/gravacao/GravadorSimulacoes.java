@@ -0,0 +1,327 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.enums.ModoDurabilidadeEnum;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gravação assíncrona (write-behind) das simulações no H2.
+ *
+ * As requisições colocam a simulação, já com ID e JSON, numa fila limitada;
+ * uma única thread gravadora junta o que houver na fila em lotes de até
+ * app.simulacao.gravacao.tamanho-lote, esperando no máximo espera-lote-ms
+ * por mais itens, e grava cada lote de uma vez no
+ * {@link ArmazenamentoSimulacoes} (batch JDBC em uma transação, no H2).
+ *
+ * No modo PERSISTENCIA a chamada só retorna depois que o lote foi gravado;
+ * no modo ENFILEIRAMENTO retorna ao entrar na fila. Se a gravação não for
+ * confirmada em timeout-persistencia-ms, a simulação é retirada da fila
+ * quando a thread gravadora ainda não a pegou, para que uma requisição
+ * recusada nunca seja gravada (nem tenha o evento publicado) depois; em
+ * ambos os casos a chamada falha com
+ * {@link GravacaoNaoConfirmadaException}. Com a fila cheia a chamada espera
+ * até timeout-fila-ms e então falha com {@link FilaGravacaoCheiaException}
+ * (contrapressão). No encerramento a fila deixa de aceitar itens e é
+ * esvaziada antes de a thread terminar.
+ */
+@Slf4j
+@Component
+public class GravadorSimulacoes {
+
+    private final ArmazenamentoSimulacoes armazenamento;
+    private final ContadorSimulacoes contadorSimulacoes;
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+
+    @Value("${app.simulacao.gravacao.modo:PERSISTENCIA}")
+    private ModoDurabilidadeEnum modo;
+
+    @Value("${app.simulacao.gravacao.capacidade-fila:10000}")
+    private int capacidadeFila;
+
+    @Value("${app.simulacao.gravacao.tamanho-lote:200}")
+    private int tamanhoLote;
+
+    @Value("${app.simulacao.gravacao.espera-lote-ms:5}")
+    private long esperaLoteMs;
+
+    @Value("${app.simulacao.gravacao.timeout-fila-ms:1000}")
+    private long timeoutFilaMs;
+
+    @Value("${app.simulacao.gravacao.timeout-persistencia-ms:10000}")
+    private long timeoutPersistenciaMs;
+
+    @Value("${app.simulacao.gravacao.timeout-encerramento-ms:30000}")
+    private long timeoutEncerramentoMs;
+
+    private BlockingQueue<PedidoGravacao> fila;
+    private Thread gravadora;
+    private volatile boolean aceitando;
+
+    private final AtomicLong enfileiradas = new AtomicLong();
+    private final AtomicLong gravadas = new AtomicLong();
+    private final AtomicLong lotesGravados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong rejeitadas = new AtomicLong();
+    private final AtomicLong canceladas = new AtomicLong();
+    private final AtomicLong naoConfirmadas = new AtomicLong();
+
+    /**
+     * @param reservado marcado por quem decide o destino do pedido: a thread
+     *                  gravadora ao colocá-lo num lote, ou a requisição ao
+     *                  cancelá-lo por timeout
+     */
+    private record PedidoGravacao(Simulacao simulacao, CompletableFuture<Void> confirmacao, AtomicBoolean reservado) {
+
+        boolean reservar() {
+            return reservado.compareAndSet(false, true);
+        }
+    }
+
+    public GravadorSimulacoes(ArmazenamentoSimulacoes armazenamento, ContadorSimulacoes contadorSimulacoes,
+            ConsolidacaoVolumeDiario consolidacaoVolume) {
+        this.armazenamento = armazenamento;
+        this.contadorSimulacoes = contadorSimulacoes;
+        this.consolidacaoVolume = consolidacaoVolume;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        aceitando = true;
+        gravadora = new Thread(this::executar, "gravador-simulacoes");
+        gravadora.start();
+        log.info("Gravador de simulações iniciado: modo {}, fila {}, lote {}, espera {} ms",
+                modo, capacidadeFila, tamanhoLote, esperaLoteMs);
+    }
+
+    /**
+     * Deixa de aceitar novas simulações e espera a thread gravar o que já
+     * está na fila
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        // Sem interrupt: um canal de arquivo do H2 interrompido fecha o banco
+        aceitando = false;
+        gravadora.join(timeoutEncerramentoMs);
+        if (gravadora.isAlive()) {
+            log.error("❌ Gravador de simulações não terminou em {} ms; {} simulações na fila não foram gravadas",
+                    timeoutEncerramentoMs, fila.size());
+            return;
+        }
+
+        // Pedidos que entraram na fila depois que a thread terminou
+        List<PedidoGravacao> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        restantes.forEach(pedido -> pedido.confirmacao().completeExceptionally(
+                new FilaGravacaoCheiaException("Gravador de simulações encerrado")));
+        log.info("Gravador de simulações encerrado: {} simulações gravadas em {} lotes",
+                gravadas.get(), lotesGravados.get());
+    }
+
+    /**
+     * Entrega a simulação para gravação, retornando conforme o modo de
+     * durabilidade
+     *
+     * @return completado quando o lote com a simulação for gravado (já
+     *         completado no modo PERSISTENCIA)
+     * @throws FilaGravacaoCheiaException     se a fila continuar cheia após o
+     *                                        tempo de espera
+     * @throws GravacaoNaoConfirmadaException no modo PERSISTENCIA, se a
+     *                                        gravação não for confirmada a
+     *                                        tempo
+     */
+    public CompletableFuture<Void> gravar(Simulacao simulacao) {
+        PedidoGravacao pedido = new PedidoGravacao(simulacao, new CompletableFuture<>(), new AtomicBoolean());
+        enfileirar(pedido);
+        if (modo == ModoDurabilidadeEnum.PERSISTENCIA) {
+            aguardar(pedido);
+        }
+        return pedido.confirmacao();
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        long lotes = lotesGravados.get();
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("modo", modo);
+        estatisticas.put("aceitando", aceitando);
+        estatisticas.put("fila_atual", fila.size());
+        estatisticas.put("capacidade_fila", capacidadeFila);
+        estatisticas.put("tamanho_lote", tamanhoLote);
+        estatisticas.put("espera_lote_ms", esperaLoteMs);
+        estatisticas.put("enfileiradas", enfileiradas.get());
+        estatisticas.put("gravadas", gravadas.get());
+        estatisticas.put("lotes_gravados", lotes);
+        estatisticas.put("media_por_lote", lotes > 0 ? (double) gravadas.get() / lotes : 0.0);
+        estatisticas.put("falhas", falhas.get());
+        estatisticas.put("rejeitadas", rejeitadas.get());
+        estatisticas.put("canceladas_por_timeout", canceladas.get());
+        estatisticas.put("nao_confirmadas_em_gravacao", naoConfirmadas.get());
+        return estatisticas;
+    }
+
+    private void enfileirar(PedidoGravacao pedido) {
+        if (!aceitando) {
+            rejeitadas.incrementAndGet();
+            throw new FilaGravacaoCheiaException("Gravador de simulações em encerramento");
+        }
+        try {
+            if (!fila.offer(pedido, timeoutFilaMs, TimeUnit.MILLISECONDS)) {
+                rejeitadas.incrementAndGet();
+                throw new FilaGravacaoCheiaException(
+                        "Fila de gravação cheia (" + capacidadeFila + " simulações); tente novamente");
+            }
+            enfileiradas.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FilaGravacaoCheiaException("Interrompido aguardando espaço na fila de gravação");
+        }
+    }
+
+    private void aguardar(PedidoGravacao pedido) {
+        try {
+            pedido.confirmacao().get(timeoutPersistenciaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha ao gravar simulação " + pedido.simulacao().getIdSimulacao(),
+                    e.getCause());
+        } catch (TimeoutException e) {
+            throw naoConfirmada(pedido);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando gravação da simulação", e);
+        }
+    }
+
+    /**
+     * Retira da fila o pedido que a thread gravadora ainda não pegou; se ela
+     * já o colocou num lote, a gravação está em andamento e não é desfeita
+     */
+    private GravacaoNaoConfirmadaException naoConfirmada(PedidoGravacao pedido) {
+        long idSimulacao = pedido.simulacao().getIdSimulacao();
+        if (pedido.reservar()) {
+            fila.remove(pedido);
+            canceladas.incrementAndGet();
+            pedido.confirmacao().completeExceptionally(new CancellationException(
+                    "Gravação cancelada por timeout"));
+            return new GravacaoNaoConfirmadaException(idSimulacao, true, "Simulação " + idSimulacao
+                    + " não gravada em " + timeoutPersistenciaMs + " ms e retirada da fila; tente novamente");
+        }
+        naoConfirmadas.incrementAndGet();
+        log.warn("⚠️ Gravação da simulação {} em andamento após {} ms", idSimulacao, timeoutPersistenciaMs);
+        return new GravacaoNaoConfirmadaException(idSimulacao, false, "Gravação da simulação " + idSimulacao
+                + " não confirmada em " + timeoutPersistenciaMs + " ms; consulte GET /simulacoes/" + idSimulacao);
+    }
+
+    /**
+     * Laço da thread gravadora; termina quando o gravador deixa de aceitar
+     * simulações e a fila está vazia
+     */
+    private void executar() {
+        List<PedidoGravacao> lote = new ArrayList<>(tamanhoLote);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                PedidoGravacao primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                completarLote(lote);
+            } catch (InterruptedException e) {
+                // Grava o que já foi retirado da fila e termina
+                Thread.currentThread().interrupt();
+                if (!lote.isEmpty()) {
+                    gravarLote(lote);
+                }
+                return;
+            }
+            if (!lote.isEmpty()) {
+                gravarLote(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Junta ao lote o que já estiver na fila e espera até espera-lote-ms por
+     * mais itens enquanto o lote não estiver cheio
+     */
+    private void completarLote(List<PedidoGravacao> lote) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaLoteMs);
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0 || !aceitando) {
+                return;
+            }
+            PedidoGravacao proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                return;
+            }
+            lote.add(proximo);
+        }
+    }
+
+    private void gravarLote(List<PedidoGravacao> lote) {
+        // Pedidos cancelados por timeout depois de sair da fila
+        lote.removeIf(pedido -> !pedido.reservar());
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Simulacao> simulacoes = new ArrayList<>(lote.size());
+        for (PedidoGravacao pedido : lote) {
+            simulacoes.add(pedido.simulacao());
+        }
+        try {
+            consolidacaoVolume.gravarERegistrar(simulacoes, () -> armazenamento.gravar(simulacoes));
+            gravadas.addAndGet(lote.size());
+            contadorSimulacoes.adicionar(lote.size());
+            lotesGravados.incrementAndGet();
+            lote.forEach(pedido -> pedido.confirmacao().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Falha ao gravar lote de {} simulações, gravando individualmente: {}",
+                    lote.size(), e.getMessage());
+            gravarIndividualmente(lote);
+        }
+    }
+
+    /**
+     * Isola a simulação com problema para que as demais do lote sejam
+     * gravadas
+     */
+    private void gravarIndividualmente(List<PedidoGravacao> lote) {
+        for (PedidoGravacao pedido : lote) {
+            try {
+                List<Simulacao> simulacao = List.of(pedido.simulacao());
+                consolidacaoVolume.gravarERegistrar(simulacao, () -> armazenamento.gravar(simulacao));
+                gravadas.incrementAndGet();
+                contadorSimulacoes.adicionar(1);
+                lotesGravados.incrementAndGet();
+                pedido.confirmacao().complete(null);
+            } catch (RuntimeException e) {
+                falhas.incrementAndGet();
+                log.error("❌ Falha ao gravar simulação {}: {}", pedido.simulacao().getIdSimulacao(),
+                        e.getMessage(), e);
+                pedido.confirmacao().completeExceptionally(e);
+            }
+        }
+    }
+}
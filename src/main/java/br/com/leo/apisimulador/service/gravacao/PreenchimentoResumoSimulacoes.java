@@ -0,0 +1,150 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.service.SimulacaoService;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migração das colunas de resumo de SIMULACAO (TAXA_JUROS,
+ * DESCRICAO_PRODUTO, VALOR_TOTAL_SAC, VALOR_TOTAL_PRICE,
+ * VALOR_PRIMEIRA_PRESTACAO).
+ *
+ * As colunas são criadas por db/h2/schema.sql; na inicialização este
+ * componente preenche as linhas gravadas antes delas: taxa e descrição vêm do
+ * início do RESULTADO_JSON e os totais são recalculados em forma fechada.
+ * Percorre a tabela por IDSIMULACAO em blocos, com um batch de UPDATE por
+ * bloco; linhas com JSON inválido ficam sem resumo e são registradas no log.
+ * Só existe com o armazenamento em H2.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.simulacao.armazenamento.tipo", havingValue = "h2", matchIfMissing = true)
+@DependsOn("localEntityManagerFactory")
+public class PreenchimentoResumoSimulacoes {
+
+    private static final int TAMANHO_BLOCO = 500;
+
+    private static final String SQL_PENDENTES = "SELECT IDSIMULACAO, VALOR_DESEJADO, PRAZO, RESULTADO_JSON "
+            + "FROM PUBLIC.SIMULACAO WHERE TAXA_JUROS IS NULL AND IDSIMULACAO > ? "
+            + "ORDER BY IDSIMULACAO LIMIT ?";
+
+    private static final String SQL_ATUALIZAR = "UPDATE PUBLIC.SIMULACAO SET TAXA_JUROS = ?, "
+            + "DESCRICAO_PRODUTO = ?, VALOR_TOTAL_SAC = ?, VALOR_TOTAL_PRICE = ?, VALOR_PRIMEIRA_PRESTACAO = ? "
+            + "WHERE IDSIMULACAO = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimulacaoService simulacaoService;
+    private final ObjectMapper objectMapper;
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+
+    public PreenchimentoResumoSimulacoes(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate,
+            SimulacaoService simulacaoService, ObjectMapper objectMapper,
+            ConsolidacaoVolumeDiario consolidacaoVolume) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.simulacaoService = simulacaoService;
+        this.objectMapper = objectMapper;
+        this.consolidacaoVolume = consolidacaoVolume;
+    }
+
+    @PostConstruct
+    public void migrar() {
+        long inicio = System.nanoTime();
+        long ultimoId = 0;
+        long preenchidas = 0;
+        long invalidas = 0;
+        List<Simulacao> lidas;
+        do {
+            lidas = jdbcTemplate.query(SQL_PENDENTES, (rs, linha) -> {
+                Simulacao simulacao = new Simulacao();
+                simulacao.setIdSimulacao(rs.getLong(1));
+                simulacao.setValorDesejado(rs.getBigDecimal(2));
+                simulacao.setPrazo(rs.getInt(3));
+                simulacao.setResultadoJson(rs.getString(4));
+                return simulacao;
+            }, ultimoId, TAMANHO_BLOCO);
+
+            List<Simulacao> bloco = new ArrayList<>(lidas.size());
+            for (Simulacao simulacao : lidas) {
+                ultimoId = simulacao.getIdSimulacao();
+                try {
+                    preencher(simulacao);
+                    bloco.add(simulacao);
+                } catch (IOException | RuntimeException e) {
+                    invalidas++;
+                    log.error("Simulação {} sem resumo: {}", simulacao.getIdSimulacao(), e.getMessage());
+                }
+            }
+            atualizar(bloco);
+            preenchidas += bloco.size();
+        } while (lidas.size() == TAMANHO_BLOCO);
+
+        if (preenchidas > 0 || invalidas > 0) {
+            log.info("Resumo de {} simulações preenchido em {} ms ({} com JSON inválido)",
+                    preenchidas, (System.nanoTime() - inicio) / 1_000_000, invalidas);
+        }
+        if (preenchidas > 0 && consolidacaoVolume.isHabilitada()) {
+            // A consolidação foi montada antes do preenchimento, sem essas somas
+            consolidacaoVolume.reconstruir();
+        }
+    }
+
+    private void preencher(Simulacao simulacao) throws IOException {
+        String descricaoProduto = null;
+        BigDecimal taxaJuros = null;
+
+        // Parser de streaming: para antes de resultadosSimulacao
+        try (JsonParser parser = objectMapper.getFactory().createParser(simulacao.getResultadoJson())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("JSON da simulação não é um objeto");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if ("descricaoProduto".equals(campo)) {
+                    descricaoProduto = parser.getValueAsString();
+                } else if ("taxaJuros".equals(campo) && valor != JsonToken.VALUE_NULL) {
+                    taxaJuros = parser.getDecimalValue();
+                } else {
+                    parser.skipChildren();
+                }
+                if (taxaJuros != null && descricaoProduto != null) {
+                    break;
+                }
+            }
+        }
+
+        if (taxaJuros == null) {
+            throw new IOException("taxaJuros ausente no JSON da simulação");
+        }
+        simulacaoService.preencherResumo(simulacao, descricaoProduto, taxaJuros);
+    }
+
+    private void atualizar(List<Simulacao> simulacoes) {
+        if (simulacoes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SQL_ATUALIZAR, simulacoes, simulacoes.size(), (stmt, simulacao) -> {
+            stmt.setBigDecimal(1, simulacao.getTaxaJuros());
+            stmt.setString(2, simulacao.getDescricaoProduto());
+            stmt.setBigDecimal(3, simulacao.getValorTotalSac());
+            stmt.setBigDecimal(4, simulacao.getValorTotalPrice());
+            stmt.setBigDecimal(5, simulacao.getValorPrimeiraPrestacao());
+            stmt.setLong(6, simulacao.getIdSimulacao());
+        });
+    }
+}
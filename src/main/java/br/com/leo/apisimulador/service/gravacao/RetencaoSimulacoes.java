@@ -0,0 +1,243 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.service.SimulacoesRecentesCacheService;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Política de retenção de SIMULACAO: remove as simulações com
+ * DATA_REFERENCIA anterior a app.simulacao.retencao.dias, copiando-as antes
+ * para SIMULACAO_ARQUIVO quando arquivar está ativo.
+ *
+ * Cada dia é percorrido por IDSIMULACAO em blocos (índice
+ * IDX_SIMULACAO_DATA_ID); cada bloco é copiado e apagado em uma transação
+ * curta, com uma pausa entre blocos, para não segurar locks nem disputar o
+ * banco com a gravação das simulações novas. Os IDs de cada bloco confirmado
+ * saem do cache das simulações recentes, para que GET /simulacoes/{id} não
+ * continue servindo uma simulação removida. A execução roda em uma thread
+ * própria, fora do agendador compartilhado com a recarga dos produtos. Só
+ * existe com o armazenamento em H2.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.simulacao.armazenamento.tipo", havingValue = "h2", matchIfMissing = true)
+public class RetencaoSimulacoes {
+
+    private static final String SQL_DIAS = "SELECT DISTINCT DATA_REFERENCIA FROM PUBLIC.SIMULACAO "
+            + "WHERE DATA_REFERENCIA < ? ORDER BY DATA_REFERENCIA";
+
+    private static final String SQL_BLOCO = "SELECT IDSIMULACAO FROM PUBLIC.SIMULACAO "
+            + "WHERE DATA_REFERENCIA = ? AND IDSIMULACAO > ? ORDER BY IDSIMULACAO LIMIT ?";
+
+    private static final String COLUNAS = "IDSIMULACAO, DATA_REFERENCIA, VALOR_DESEJADO, PRAZO, PRODUTO_ID, "
+            + "RESULTADO, RESULTADO_JSON, TAXA_JUROS, DESCRICAO_PRODUTO, VALOR_TOTAL_SAC, VALOR_TOTAL_PRICE, "
+            + "VALOR_PRIMEIRA_PRESTACAO, VERSAO_TAXA";
+
+    private static final String FILTRO_BLOCO = " WHERE DATA_REFERENCIA = ? AND IDSIMULACAO BETWEEN ? AND ?";
+
+    private static final String SQL_ARQUIVAR = "INSERT INTO PUBLIC.SIMULACAO_ARQUIVO (" + COLUNAS + ") SELECT "
+            + COLUNAS + " FROM PUBLIC.SIMULACAO" + FILTRO_BLOCO;
+
+    private static final String SQL_REMOVER = "DELETE FROM PUBLIC.SIMULACAO" + FILTRO_BLOCO;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContadorSimulacoes contadorSimulacoes;
+    private final ConsolidacaoVolumeDiario consolidacaoVolume;
+    private final SimulacoesRecentesCacheService simulacoesRecentes;
+
+    @Value("${app.simulacao.retencao.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${app.simulacao.retencao.dias:90}")
+    private int diasRetencao;
+
+    @Value("${app.simulacao.retencao.arquivar:true}")
+    private boolean arquivar;
+
+    @Value("${app.simulacao.retencao.tamanho-bloco:1000}")
+    private int tamanhoBloco;
+
+    @Value("${app.simulacao.retencao.pausa-entre-blocos-ms:50}")
+    private long pausaEntreBlocosMs;
+
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "retencao-simulacoes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong totalExecucoes = new AtomicLong();
+    private final AtomicLong totalRemovidas = new AtomicLong();
+    private final AtomicLong totalArquivadas = new AtomicLong();
+    private final AtomicLong totalFalhas = new AtomicLong();
+    private volatile LocalDateTime ultimaExecucao;
+    private volatile long removidasUltimaExecucao;
+    private volatile long duracaoUltimaExecucaoMs;
+    private volatile String ultimoErro;
+    private volatile boolean encerrando;
+
+    public RetencaoSimulacoes(@Qualifier("localJdbcTemplate") JdbcTemplate jdbcTemplate,
+            @Qualifier("localTransactionManager") PlatformTransactionManager transactionManager,
+            ContadorSimulacoes contadorSimulacoes, ConsolidacaoVolumeDiario consolidacaoVolume,
+            SimulacoesRecentesCacheService simulacoesRecentes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contadorSimulacoes = contadorSimulacoes;
+        this.consolidacaoVolume = consolidacaoVolume;
+        this.simulacoesRecentes = simulacoesRecentes;
+    }
+
+    /**
+     * Interrompe entre blocos: o bloco em andamento termina e é confirmado
+     */
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+        executor.shutdown();
+    }
+
+    @Scheduled(cron = "${app.simulacao.retencao.cron:0 30 3 * * *}", zone = "${app.timezone:America/Sao_Paulo}")
+    public void executarPeriodicamente() {
+        if (habilitada) {
+            iniciarExecucao();
+        }
+    }
+
+    /**
+     * Dispara a retenção em segundo plano, se ainda não houver uma em
+     * andamento
+     *
+     * @return false se já havia uma execução em andamento
+     */
+    public boolean iniciarExecucao() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    executar();
+                } finally {
+                    emAndamento.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            emAndamento.set(false);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", habilitada);
+        estatisticas.put("dias_retencao", diasRetencao);
+        estatisticas.put("arquivar", arquivar);
+        estatisticas.put("tamanho_bloco", tamanhoBloco);
+        estatisticas.put("pausa_entre_blocos_ms", pausaEntreBlocosMs);
+        estatisticas.put("em_andamento", emAndamento.get());
+        estatisticas.put("total_execucoes", totalExecucoes.get());
+        estatisticas.put("total_removidas", totalRemovidas.get());
+        estatisticas.put("total_arquivadas", totalArquivadas.get());
+        estatisticas.put("total_falhas", totalFalhas.get());
+        estatisticas.put("ultima_execucao", ultimaExecucao);
+        estatisticas.put("removidas_ultima_execucao", removidasUltimaExecucao);
+        estatisticas.put("duracao_ultima_execucao_ms", duracaoUltimaExecucaoMs);
+        estatisticas.put("ultimo_erro", ultimoErro);
+        return estatisticas;
+    }
+
+    private void executar() {
+        long inicio = System.nanoTime();
+        LocalDate limite = TimeZoneConfig.today().minusDays(diasRetencao);
+        long removidas = 0;
+        try {
+            List<LocalDate> diasAntigos = jdbcTemplate.queryForList(SQL_DIAS, LocalDate.class, limite);
+            for (LocalDate dia : diasAntigos) {
+                if (encerrando) {
+                    break;
+                }
+                removidas += removerDia(dia);
+            }
+            ultimoErro = null;
+        } catch (RuntimeException e) {
+            totalFalhas.incrementAndGet();
+            ultimoErro = e.getMessage();
+            log.error("Falha na retenção de simulações após {} removidas: {}", removidas, e.getMessage(), e);
+        } finally {
+            // Também depois de falha: os blocos já confirmados saíram do banco
+            consolidacaoVolume.descartarDiasAnteriores(limite);
+
+            totalExecucoes.incrementAndGet();
+            ultimaExecucao = TimeZoneConfig.now();
+            removidasUltimaExecucao = removidas;
+            duracaoUltimaExecucaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        }
+        if (removidas > 0) {
+            log.info("Retenção de simulações: {} removidas (anteriores a {}, arquivar={}) em {} ms",
+                    removidas, limite, arquivar, duracaoUltimaExecucaoMs);
+        }
+    }
+
+    private long removerDia(LocalDate dia) {
+        long removidas = 0;
+        long ultimoId = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList(SQL_BLOCO, Long.class, dia, ultimoId, tamanhoBloco);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long primeiroId = ids.get(0);
+            ultimoId = ids.get(ids.size() - 1);
+            long ultimoDoBloco = ultimoId;
+
+            int[] afetadas = transactionTemplate.execute(status -> new int[] {
+                    arquivar ? jdbcTemplate.update(SQL_ARQUIVAR, dia, primeiroId, ultimoDoBloco) : 0,
+                    jdbcTemplate.update(SQL_REMOVER, dia, primeiroId, ultimoDoBloco)
+            });
+
+            simulacoesRecentes.remover(ids);
+            totalArquivadas.addAndGet(afetadas[0]);
+            totalRemovidas.addAndGet(afetadas[1]);
+            contadorSimulacoes.remover(afetadas[1]);
+            removidas += afetadas[1];
+            pausar();
+        } while (ids.size() == tamanhoBloco && !encerrando);
+        return removidas;
+    }
+
+    private void pausar() {
+        if (pausaEntreBlocosMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pausaEntreBlocosMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            encerrando = true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.leo.apisimulador.service.produto;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Retrato imutável dos produtos carregados do SQL Server. Cada atualização
+ * do cache cria um novo catálogo e o publica por troca de referência, de modo
+ * que a leitura nunca vê um estado parcial nem precisa de lock.
+ *
+ * @param produtos      produtos na ordem retornada pelo banco (somente leitura)
+ * @param indice        índice de elegibilidade por prazo e valor
+ * @param porCodigo     produtos indexados por CO_PRODUTO
+ * @param carregadoEm   momento da carga, no fuso da aplicação
+ * @param instanteNanos {@link System#nanoTime()} da carga, usado para o TTL
+ */
+public record CatalogoProdutos(List<Produto> produtos, IndiceElegibilidade indice, MapaProdutosPorCodigo porCodigo,
+        LocalDateTime carregadoEm, long instanteNanos) {
+
+    public static final CatalogoProdutos VAZIO = de(List.of(), null);
+
+    public CatalogoProdutos {
+        produtos = List.copyOf(produtos);
+    }
+
+    public static CatalogoProdutos de(List<Produto> produtos, LocalDateTime carregadoEm) {
+        return new CatalogoProdutos(produtos, IndiceElegibilidade.construir(produtos),
+                new MapaProdutosPorCodigo(produtos), carregadoEm, System.nanoTime());
+    }
+
+    /**
+     * Primeiro produto, na ordem do catálogo, elegível para o valor e o
+     * prazo, ou null
+     */
+    public Produto buscarElegivel(BigDecimal valor, int prazo) {
+        return indice.buscar(valor, prazo);
+    }
+
+    /**
+     * Produto pelo CO_PRODUTO em O(1), ou null
+     */
+    public Produto buscarPorCodigo(int codigoProduto) {
+        return porCodigo.buscar(codigoProduto);
+    }
+
+    public boolean carregado() {
+        return carregadoEm != null;
+    }
+
+    public long idadeMillis() {
+        return carregado() ? (System.nanoTime() - instanteNanos) / 1_000_000 : -1L;
+    }
+
+    public int tamanho() {
+        return produtos.size();
+    }
+}
@@ -0,0 +1,404 @@
+package br.com.leo.apisimulador.service.produto;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de elegibilidade dos produtos por prazo e valor, construído uma vez
+ * por catálogo.
+ *
+ * Cada produto é um retângulo [NU_MINIMO_MESES, NU_MAXIMO_MESES] x
+ * [VR_MINIMO, VR_MAXIMO] (limite máximo nulo = infinito) e a busca retorna o
+ * primeiro produto, na ordem do catálogo, que contém o ponto (prazo, valor),
+ * a mesma semântica do antigo filtro linear com findFirst.
+ *
+ * Os prazos são comprimidos em segmentos elementares sobre os quais há uma
+ * árvore de segmentos; cada produto é registrado nos O(log S) nós que cobrem
+ * sua faixa de prazo. Em cada nó, os limites de valor viram pontos de quebra
+ * ordenados com a menor posição de catálogo de cada intervalo elementar. A
+ * busca percorre o caminho folha-raiz (O(log S) nós, S limitado pela
+ * quantidade de prazos distintos) com uma busca binária por nó. Esse percurso
+ * ({@link #buscarPorChave}) não aloca memória; {@link #buscar} antes converte
+ * o BigDecimal pesquisado para a chave inteira, o que cria um BigDecimal
+ * intermediário (ou três, quando o valor tem mais casas que o catálogo).
+ *
+ * Valores são comparados como inteiros: o limite na maior escala decimal do
+ * catálogo, multiplicado por 2, e o valor pesquisado como 2 * piso + 1 quando
+ * tem casas além dessa escala. Isso mantém a comparação exata para qualquer
+ * valor de entrada. Se os limites não couberem nessa representação o índice
+ * fica indisponível e a busca recorre ao percurso linear.
+ */
+public final class IndiceElegibilidade {
+
+    private static final int SEM_POSICAO = Integer.MAX_VALUE;
+    private static final int ESCALA_MAXIMA = 17;
+    private static final int BITS_MAXIMOS_CHAVE = 61;
+
+    private final Produto[] produtos;
+    private final int[] produtosIgnorados;
+    private final boolean disponivel;
+    private final int escalaValor;
+
+    /** Início de cada segmento elementar de prazo, crescente */
+    private final int[] quebrasPrazo;
+    private final int folhas;
+    private final long[][] quebrasValor;
+    private final int[][] posicoes;
+
+    private IndiceElegibilidade(Produto[] produtos, int[] produtosIgnorados, boolean disponivel, int escalaValor,
+            int[] quebrasPrazo, int folhas, long[][] quebrasValor, int[][] posicoes) {
+        this.produtos = produtos;
+        this.produtosIgnorados = produtosIgnorados;
+        this.disponivel = disponivel;
+        this.escalaValor = escalaValor;
+        this.quebrasPrazo = quebrasPrazo;
+        this.folhas = folhas;
+        this.quebrasValor = quebrasValor;
+        this.posicoes = posicoes;
+    }
+
+    /**
+     * Regra de elegibilidade de um produto, usada pelo percurso linear de
+     * referência. Produtos sem VR_MINIMO ou NU_MINIMO_MESES nunca são
+     * elegíveis.
+     */
+    public static boolean elegivel(Produto produto, BigDecimal valor, int prazo) {
+        if (produto.getValorMinimo() == null || produto.getMinimoMeses() == null) {
+            return false;
+        }
+        return valor.compareTo(produto.getValorMinimo()) >= 0
+                && prazo >= produto.getMinimoMeses()
+                && (produto.getValorMaximo() == null || valor.compareTo(produto.getValorMaximo()) <= 0)
+                && (produto.getMaximoMeses() == null || prazo <= produto.getMaximoMeses());
+    }
+
+    /**
+     * Primeiro produto elegível por percurso linear, sem o índice
+     */
+    public static Produto buscarLinear(List<Produto> produtos, BigDecimal valor, int prazo) {
+        for (Produto produto : produtos) {
+            if (elegivel(produto, valor, prazo)) {
+                return produto;
+            }
+        }
+        return null;
+    }
+
+    public static IndiceElegibilidade construir(List<Produto> catalogo) {
+        Produto[] produtos = catalogo.toArray(new Produto[0]);
+
+        List<Integer> ignorados = new ArrayList<>();
+        int escala = 0;
+        for (Produto produto : produtos) {
+            if (produto.getValorMinimo() == null || produto.getMinimoMeses() == null) {
+                ignorados.add(produto.getCodigoProduto());
+                continue;
+            }
+            escala = Math.max(escala, Math.max(0, produto.getValorMinimo().stripTrailingZeros().scale()));
+            if (produto.getValorMaximo() != null) {
+                escala = Math.max(escala, Math.max(0, produto.getValorMaximo().stripTrailingZeros().scale()));
+            }
+        }
+        int[] codigosIgnorados = ignorados.stream().mapToInt(c -> c != null ? c : 0).toArray();
+
+        try {
+            if (escala > ESCALA_MAXIMA) {
+                throw new ArithmeticException("Escala de valor acima do suportado: " + escala);
+            }
+            return construirArvore(produtos, codigosIgnorados, escala);
+        } catch (ArithmeticException e) {
+            return new IndiceElegibilidade(produtos, codigosIgnorados, false, escala, new int[0], 0, null, null);
+        }
+    }
+
+    private static IndiceElegibilidade construirArvore(Produto[] produtos, int[] ignorados, int escala) {
+        int n = produtos.length;
+        int[] prazoMinimo = new int[n];
+        int[] prazoMaximo = new int[n];
+        long[] valorMinimo = new long[n];
+        long[] valorMaximo = new long[n];
+        boolean[] valido = new boolean[n];
+
+        int[] quebras = new int[2 * n];
+        int totalQuebras = 0;
+        for (int i = 0; i < n; i++) {
+            Produto produto = produtos[i];
+            if (produto.getValorMinimo() == null || produto.getMinimoMeses() == null) {
+                continue;
+            }
+            prazoMinimo[i] = produto.getMinimoMeses();
+            prazoMaximo[i] = produto.getMaximoMeses() != null ? produto.getMaximoMeses() : Integer.MAX_VALUE;
+            valorMinimo[i] = chaveLimite(produto.getValorMinimo(), escala);
+            valorMaximo[i] = produto.getValorMaximo() != null
+                    ? chaveLimite(produto.getValorMaximo(), escala)
+                    : Long.MAX_VALUE;
+            if (prazoMaximo[i] < prazoMinimo[i] || valorMaximo[i] < valorMinimo[i]) {
+                continue;
+            }
+            valido[i] = true;
+            quebras[totalQuebras++] = prazoMinimo[i];
+            if (prazoMaximo[i] != Integer.MAX_VALUE) {
+                quebras[totalQuebras++] = prazoMaximo[i] + 1;
+            }
+        }
+
+        int[] quebrasPrazo = distintosOrdenados(quebras, totalQuebras);
+        int segmentos = quebrasPrazo.length;
+        int folhas = Integer.highestOneBit(Math.max(1, segmentos - 1)) << 1;
+        List<List<Integer>> membros = new ArrayList<>(2 * folhas);
+        for (int no = 0; no < 2 * folhas; no++) {
+            membros.add(null);
+        }
+
+        // Produtos inseridos na ordem do catálogo: cada nó recebe posições crescentes
+        for (int i = 0; i < n; i++) {
+            if (!valido[i]) {
+                continue;
+            }
+            int esquerda = Arrays.binarySearch(quebrasPrazo, prazoMinimo[i]) + folhas;
+            int direita = (prazoMaximo[i] == Integer.MAX_VALUE
+                    ? segmentos
+                    : Arrays.binarySearch(quebrasPrazo, prazoMaximo[i] + 1)) + folhas;
+            while (esquerda < direita) {
+                if ((esquerda & 1) == 1) {
+                    adicionar(membros, esquerda++, i);
+                }
+                if ((direita & 1) == 1) {
+                    adicionar(membros, --direita, i);
+                }
+                esquerda >>= 1;
+                direita >>= 1;
+            }
+        }
+
+        long[][] quebrasValor = new long[2 * folhas][];
+        int[][] posicoes = new int[2 * folhas][];
+        for (int no = 1; no < 2 * folhas; no++) {
+            List<Integer> lista = membros.get(no);
+            if (lista != null) {
+                construirNo(lista, valorMinimo, valorMaximo, quebrasValor, posicoes, no);
+            }
+        }
+        return new IndiceElegibilidade(produtos, ignorados, true, escala, quebrasPrazo, folhas, quebrasValor,
+                posicoes);
+    }
+
+    /**
+     * Monta os intervalos elementares de valor de um nó com a menor posição
+     * de catálogo que cobre cada um. Como os membros chegam em ordem de
+     * posição, cada intervalo é pintado uma única vez (union-find do próximo
+     * intervalo livre).
+     */
+    private static void construirNo(List<Integer> membros, long[] valorMinimo, long[] valorMaximo,
+            long[][] quebrasValor, int[][] posicoes, int no) {
+        long[] quebras = new long[2 * membros.size()];
+        int total = 0;
+        for (int posicao : membros) {
+            quebras[total++] = valorMinimo[posicao];
+            if (valorMaximo[posicao] != Long.MAX_VALUE) {
+                quebras[total++] = valorMaximo[posicao] + 1;
+            }
+        }
+        long[] distintas = distintosOrdenados(quebras, total);
+        int intervalos = distintas.length;
+
+        int[] posicaoIntervalo = new int[intervalos];
+        Arrays.fill(posicaoIntervalo, SEM_POSICAO);
+        int[] proximoLivre = new int[intervalos + 1];
+        for (int j = 0; j <= intervalos; j++) {
+            proximoLivre[j] = j;
+        }
+
+        for (int posicao : membros) {
+            int inicio = Arrays.binarySearch(distintas, valorMinimo[posicao]);
+            int fim = valorMaximo[posicao] == Long.MAX_VALUE
+                    ? intervalos - 1
+                    : Arrays.binarySearch(distintas, valorMaximo[posicao] + 1) - 1;
+            for (int j = raiz(proximoLivre, inicio); j <= fim; j = raiz(proximoLivre, j)) {
+                posicaoIntervalo[j] = posicao;
+                proximoLivre[j] = j + 1;
+            }
+        }
+        quebrasValor[no] = distintas;
+        posicoes[no] = posicaoIntervalo;
+    }
+
+    private static int raiz(int[] proximoLivre, int j) {
+        while (proximoLivre[j] != j) {
+            proximoLivre[j] = proximoLivre[proximoLivre[j]];
+            j = proximoLivre[j];
+        }
+        return j;
+    }
+
+    /**
+     * Primeiro produto do catálogo elegível para o valor e o prazo, ou null
+     */
+    public Produto buscar(BigDecimal valor, int prazo) {
+        if (!disponivel) {
+            return buscarLinear(Arrays.asList(produtos), valor, prazo);
+        }
+        return buscarPorChave(chaveValor(valor, escalaValor), prazo);
+    }
+
+    /**
+     * Busca com o valor já convertido por {@link #chaveValor}; não aloca
+     * memória
+     */
+    public Produto buscarPorChave(long chaveValor, int prazo) {
+        int segmento = ultimoMenorOuIgual(quebrasPrazo, prazo);
+        if (segmento < 0) {
+            return null;
+        }
+        int melhor = SEM_POSICAO;
+        for (int no = segmento + folhas; no >= 1; no >>= 1) {
+            long[] quebras = quebrasValor[no];
+            if (quebras != null) {
+                int intervalo = ultimoMenorOuIgual(quebras, chaveValor);
+                if (intervalo >= 0 && posicoes[no][intervalo] < melhor) {
+                    melhor = posicoes[no][intervalo];
+                }
+            }
+        }
+        return melhor == SEM_POSICAO ? null : produtos[melhor];
+    }
+
+    /**
+     * Converte o valor pesquisado para a chave inteira do índice: 2 * piso na
+     * escala do catálogo, mais 1 se houver casas decimais além dela
+     */
+    public static long chaveValor(BigDecimal valor, int escala) {
+        BigDecimal escalado = valor.movePointRight(escala);
+        if (escalado.scale() == 0 && escalado.precision() <= 18) {
+            // Sem casas além da escala do catálogo (o caso comum): o piso é o
+            // próprio valor e cabe na chave
+            return 2 * escalado.longValue();
+        }
+        BigDecimal piso = escalado.setScale(0, RoundingMode.FLOOR);
+        if (piso.unscaledValue().bitLength() > BITS_MAXIMOS_CHAVE) {
+            // Fora da faixa de qualquer limite finito
+            return piso.signum() > 0 ? Long.MAX_VALUE - 1 : Long.MIN_VALUE;
+        }
+        long chave = 2 * piso.longValue();
+        return escalado.compareTo(piso) == 0 ? chave : chave + 1;
+    }
+
+    public int getEscalaValor() {
+        return escalaValor;
+    }
+
+    public boolean isDisponivel() {
+        return disponivel;
+    }
+
+    /**
+     * Códigos dos produtos sem VR_MINIMO ou NU_MINIMO_MESES, nunca elegíveis
+     */
+    public int[] getProdutosIgnorados() {
+        return produtosIgnorados.clone();
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        long pontosValor = 0;
+        int nosOcupados = 0;
+        if (quebrasValor != null) {
+            for (long[] quebras : quebrasValor) {
+                if (quebras != null) {
+                    nosOcupados++;
+                    pontosValor += quebras.length;
+                }
+            }
+        }
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("disponivel", disponivel);
+        estatisticas.put("produtos", produtos.length);
+        estatisticas.put("produtos_ignorados", produtosIgnorados.length);
+        estatisticas.put("segmentos_prazo", quebrasPrazo.length);
+        estatisticas.put("nos_ocupados", nosOcupados);
+        estatisticas.put("pontos_valor", pontosValor);
+        estatisticas.put("bytes_estimados", pontosValor * (Long.BYTES + Integer.BYTES)
+                + (long) quebrasPrazo.length * Integer.BYTES);
+        return estatisticas;
+    }
+
+    /**
+     * Limite do catálogo como chave; valores com 62 bits ou mais tornam o
+     * índice indisponível, para que qualquer chave de busca limitada fique
+     * fora da faixa dos limites finitos
+     */
+    private static long chaveLimite(BigDecimal limite, int escala) {
+        long unscaled = limite.movePointRight(escala).longValueExact();
+        if (Math.abs(unscaled) >= 1L << BITS_MAXIMOS_CHAVE) {
+            throw new ArithmeticException("Limite de valor fora da faixa do índice: " + limite);
+        }
+        return 2 * unscaled;
+    }
+
+    private static void adicionar(List<List<Integer>> membros, int no, int posicao) {
+        List<Integer> lista = membros.get(no);
+        if (lista == null) {
+            lista = new ArrayList<>();
+            membros.set(no, lista);
+        }
+        lista.add(posicao);
+    }
+
+    private static int ultimoMenorOuIgual(int[] ordenado, int chave) {
+        int baixo = 0;
+        int alto = ordenado.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenado[meio] <= chave) {
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return alto;
+    }
+
+    private static int ultimoMenorOuIgual(long[] ordenado, long chave) {
+        int baixo = 0;
+        int alto = ordenado.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenado[meio] <= chave) {
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return alto;
+    }
+
+    private static int[] distintosOrdenados(int[] valores, int total) {
+        int[] ordenado = Arrays.copyOf(valores, total);
+        Arrays.sort(ordenado);
+        int distintos = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 0 || ordenado[i] != ordenado[i - 1]) {
+                ordenado[distintos++] = ordenado[i];
+            }
+        }
+        return Arrays.copyOf(ordenado, distintos);
+    }
+
+    private static long[] distintosOrdenados(long[] valores, int total) {
+        long[] ordenado = Arrays.copyOf(valores, total);
+        Arrays.sort(ordenado);
+        int distintos = 0;
+        for (int i = 0; i < total; i++) {
+            if (i == 0 || ordenado[i] != ordenado[i - 1]) {
+                ordenado[distintos++] = ordenado[i];
+            }
+        }
+        return Arrays.copyOf(ordenado, distintos);
+    }
+}
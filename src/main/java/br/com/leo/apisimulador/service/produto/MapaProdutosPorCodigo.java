@@ -0,0 +1,77 @@
+package br.com.leo.apisimulador.service.produto;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+
+import java.util.List;
+
+/**
+ * Mapa imutável de CO_PRODUTO para {@link Produto} com chaves {@code int}
+ * primitivas, em endereçamento aberto com sondagem linear.
+ *
+ * A capacidade é potência de 2 com fator de carga de no máximo 1/2, então a
+ * busca faz em média pouco mais de uma comparação, sem boxing nem lock. Em
+ * códigos repetidos prevalece o primeiro produto do catálogo.
+ */
+public final class MapaProdutosPorCodigo {
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final int[] codigos;
+    private final Produto[] produtos;
+    private final int mascara;
+    private final int tamanho;
+
+    public MapaProdutosPorCodigo(List<Produto> catalogo) {
+        int capacidade = Integer.highestOneBit(Math.max(2, catalogo.size()) * 2 - 1) << 1;
+        this.codigos = new int[capacidade];
+        this.produtos = new Produto[capacidade];
+        this.mascara = capacidade - 1;
+
+        int inseridos = 0;
+        for (Produto produto : catalogo) {
+            if (produto.getCodigoProduto() == null) {
+                continue;
+            }
+            int codigo = produto.getCodigoProduto();
+            int posicao = posicao(codigo);
+            while (produtos[posicao] != null && codigos[posicao] != codigo) {
+                posicao = (posicao + 1) & mascara;
+            }
+            if (produtos[posicao] == null) {
+                codigos[posicao] = codigo;
+                produtos[posicao] = produto;
+                inseridos++;
+            }
+        }
+        this.tamanho = inseridos;
+    }
+
+    /**
+     * Produto com o código informado, ou null
+     */
+    public Produto buscar(int codigoProduto) {
+        int posicao = posicao(codigoProduto);
+        Produto produto;
+        while ((produto = produtos[posicao]) != null) {
+            if (codigos[posicao] == codigoProduto) {
+                return produto;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return null;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int capacidade() {
+        return produtos.length;
+    }
+
+    private int posicao(int codigo) {
+        // Espalha códigos sequenciais pelos bits altos antes de aplicar a máscara
+        int hash = codigo * GOLDEN_RATIO;
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+}
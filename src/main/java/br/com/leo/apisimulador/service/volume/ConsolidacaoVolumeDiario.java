@@ -0,0 +1,237 @@
+package br.com.leo.apisimulador.service.volume;
+
+import br.com.leo.apisimulador.config.geral.TimeZoneConfig;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.VolumeDiaProdutoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import br.com.leo.apisimulador.service.calculadora.AritmeticaCentavos;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Totais de simulações por (DATA_REFERENCIA, PRODUTO_ID) mantidos em memória,
+ * para que o relatório de volume do dia não consulte o banco.
+ *
+ * Os totais são reconstruídos do armazenamento na inicialização e somados a
+ * cada simulação gravada, com {@link LongAdder} em unidades inteiras
+ * (centavos e bilionésimos da taxa). Dias anteriores a hoje são congelados em
+ * um retrato imutável na primeira consulta; uma gravação atrasada em um dia
+ * já congelado descarta o retrato, que é refeito na consulta seguinte.
+ *
+ * A reconstrução monta os totais à parte e os publica com uma troca de
+ * referência, então as consultas nunca veem totais vazios ou parciais. A
+ * gravação e a soma de cada lote ({@link #gravarERegistrar}) acontecem sob a
+ * parte de leitura de um lock que a reconstrução toma para escrita durante a
+ * agregação e a troca: nenhum lote fica entre o commit e a soma enquanto o
+ * banco é agregado, o que o contaria duas vezes (ou nenhuma, se a soma fosse
+ * para os totais descartados).
+ */
+@Slf4j
+@Component
+public class ConsolidacaoVolumeDiario {
+
+    private final ArmazenamentoSimulacoes armazenamento;
+
+    @Value("${app.simulacao.volume.consolidacao-habilitada:true}")
+    private boolean habilitada;
+
+    private final ReadWriteLock reconstrucao = new ReentrantReadWriteLock();
+    private volatile Totais totais = new Totais();
+
+    /**
+     * Somas por dia e produto e os retratos dos dias congelados, trocados
+     * juntos na reconstrução
+     */
+    private static final class Totais {
+        private final Map<LocalDate, Map<Integer, AcumuladorProduto>> dias = new ConcurrentHashMap<>();
+        private final Map<LocalDate, List<VolumeProdutoProjecao>> diasFechados = new ConcurrentHashMap<>();
+
+        private AcumuladorProduto acumulador(LocalDate data, Integer produtoId) {
+            return dias.computeIfAbsent(data, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(produtoId, p -> new AcumuladorProduto());
+        }
+    }
+
+    /**
+     * Somas de um produto em um dia. Linhas sem colunas de resumo contam na
+     * quantidade e no valor desejado, como no SUM do banco.
+     */
+    private static final class AcumuladorProduto {
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder valorDesejadoCentavos = new LongAdder();
+        private final LongAdder taxasEscaladas = new LongAdder();
+        private final LongAdder creditoCentavos = new LongAdder();
+        private final LongAdder primeirasPrestacoesCentavos = new LongAdder();
+        private volatile String descricaoProduto;
+    }
+
+    public ConsolidacaoVolumeDiario(ArmazenamentoSimulacoes armazenamento) {
+        this.armazenamento = armazenamento;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (habilitada) {
+            reconstruir();
+        }
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Refaz os totais a partir do armazenamento, com uma agregação por dia e
+     * produto, e os publica no lugar dos atuais. Gravações que terminarem
+     * durante a reconstrução esperam a troca para somar.
+     */
+    public void reconstruir() {
+        Lock escrita = reconstrucao.writeLock();
+        escrita.lock();
+        try {
+            long inicio = System.nanoTime();
+            List<VolumeDiaProdutoProjecao> volumes = armazenamento.agregarVolumePorDiaEProduto();
+
+            Totais reconstruidos = new Totais();
+            for (VolumeDiaProdutoProjecao volume : volumes) {
+                AcumuladorProduto acumulador = reconstruidos.acumulador(volume.getDataReferencia(),
+                        volume.getProdutoId());
+                acumulador.quantidade.add(volume.getQuantidade());
+                acumulador.valorDesejadoCentavos.add(centavos(volume.getValorTotalDesejado()));
+                acumulador.taxasEscaladas.add(taxaEscalada(volume.getSomaTaxasJuros()));
+                acumulador.creditoCentavos.add(centavos(volume.getValorTotalCredito()));
+                acumulador.primeirasPrestacoesCentavos.add(centavos(volume.getSomaPrimeirasPrestacoes()));
+                acumulador.descricaoProduto = volume.getDescricaoProduto();
+            }
+            totais = reconstruidos;
+            log.info("Consolidação de volume diário reconstruída: {} dias, {} grupos em {} ms",
+                    reconstruidos.dias.size(), volumes.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Executa {@code gravacao} e soma as simulações gravadas, sem que uma
+     * reconstrução comece entre o commit e a soma. Se a gravação falhar, nada
+     * é somado.
+     */
+    public void gravarERegistrar(Collection<Simulacao> simulacoes, Runnable gravacao) {
+        if (!habilitada) {
+            gravacao.run();
+            return;
+        }
+        Lock leitura = reconstrucao.readLock();
+        leitura.lock();
+        try {
+            gravacao.run();
+            somar(totais, simulacoes);
+        } finally {
+            leitura.unlock();
+        }
+    }
+
+    /**
+     * Totais por produto do dia, em ordem de código do produto
+     */
+    public List<VolumeProdutoProjecao> consultar(LocalDate data) {
+        Totais atuais = totais;
+        if (!data.isBefore(TimeZoneConfig.today())) {
+            return retratar(atuais, data);
+        }
+        return atuais.diasFechados.computeIfAbsent(data, d -> retratar(atuais, d));
+    }
+
+    /**
+     * Remove os totais dos dias anteriores a {@code limite}, depois que a
+     * retenção apagou essas linhas do H2
+     */
+    public void descartarDiasAnteriores(LocalDate limite) {
+        Totais atuais = totais;
+        atuais.dias.keySet().removeIf(dia -> dia.isBefore(limite));
+        atuais.diasFechados.keySet().removeIf(dia -> dia.isBefore(limite));
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        Totais atuais = totais;
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("habilitada", habilitada);
+        estatisticas.put("dias", atuais.dias.size());
+        estatisticas.put("dias_fechados_em_cache", atuais.diasFechados.size());
+        estatisticas.put("grupos_dia_produto", atuais.dias.values().stream().mapToInt(Map::size).sum());
+        return estatisticas;
+    }
+
+    /**
+     * Soma simulações já gravadas; chamado sob a parte de leitura do lock
+     */
+    private static void somar(Totais totais, Collection<Simulacao> simulacoes) {
+        for (Simulacao simulacao : simulacoes) {
+            AcumuladorProduto acumulador = totais.acumulador(simulacao.getDataReferencia(), simulacao.getProdutoId());
+            acumulador.quantidade.increment();
+            acumulador.valorDesejadoCentavos.add(centavos(simulacao.getValorDesejado()));
+            if (simulacao.getTaxaJuros() != null) {
+                acumulador.taxasEscaladas.add(taxaEscalada(simulacao.getTaxaJuros()));
+                acumulador.creditoCentavos.add(centavos(simulacao.getValorTotalPrice()));
+                acumulador.primeirasPrestacoesCentavos.add(centavos(simulacao.getValorPrimeiraPrestacao()));
+                acumulador.descricaoProduto = simulacao.getDescricaoProduto();
+            }
+            // Depois da soma: um retrato feito antes dela é descartado
+            totais.diasFechados.remove(simulacao.getDataReferencia());
+        }
+    }
+
+    private static List<VolumeProdutoProjecao> retratar(Totais atuais, LocalDate data) {
+        Map<Integer, AcumuladorProduto> produtos = atuais.dias.get(data);
+        if (produtos == null) {
+            return List.of();
+        }
+        List<VolumeProdutoProjecao> retrato = new ArrayList<>(produtos.size());
+        produtos.forEach((produtoId, acumulador) -> retrato.add(new TotaisVolumeProduto(
+                produtoId,
+                acumulador.descricaoProduto,
+                acumulador.quantidade.sum(),
+                AritmeticaCentavos.paraValor(acumulador.valorDesejadoCentavos.sum()),
+                BigDecimal.valueOf(acumulador.taxasEscaladas.sum(), AritmeticaCentavos.ESCALA_TAXA),
+                AritmeticaCentavos.paraValor(acumulador.creditoCentavos.sum()),
+                AritmeticaCentavos.paraValor(acumulador.primeirasPrestacoesCentavos.sum()))));
+        retrato.sort(Comparator.comparing(VolumeProdutoProjecao::getProdutoId));
+        return List.copyOf(retrato);
+    }
+
+    /**
+     * Valor nas duas casas da coluna, em centavos
+     */
+    private static long centavos(BigDecimal valor) {
+        return valor != null
+                ? AritmeticaCentavos.paraCentavos(valor.setScale(AritmeticaCentavos.ESCALA_MOEDA, RoundingMode.HALF_UP))
+                : 0L;
+    }
+
+    /**
+     * Taxa nas nove casas da coluna, em bilionésimos
+     */
+    private static long taxaEscalada(BigDecimal taxa) {
+        return taxa != null
+                ? AritmeticaCentavos.paraTaxaEscalada(taxa.setScale(AritmeticaCentavos.ESCALA_TAXA, RoundingMode.HALF_UP))
+                : 0L;
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.leo.apisimulador.service.volume;
+
+import br.com.leo.apisimulador.dto.telemetria.VolumeSimuladoProdutoDTO;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Médias e totais de um produto exibidos nos relatórios de volume, a partir
+ * das somas de um dia ou de um período
+ */
+public final class MetricasVolumeProduto {
+
+    private MetricasVolumeProduto() {
+    }
+
+    /**
+     * @param produto produto do catálogo atual; se não existir mais, a
+     *                descrição vem da coluna gravada com as simulações
+     */
+    public static VolumeSimuladoProdutoDTO calcular(VolumeProdutoProjecao volume, Produto produto) {
+        String descricaoProduto = produto != null
+                ? produto.getDescricaoProduto()
+                : volume.getDescricaoProduto() != null ? volume.getDescricaoProduto() : "Descrição Indisponível";
+
+        int quantidadeSimulacoes = volume.getQuantidade().intValue();
+        BigDecimal quantidade = BigDecimal.valueOf(quantidadeSimulacoes);
+        BigDecimal taxaMedia = valorOuZero(volume.getSomaTaxasJuros()).divide(quantidade, 4, RoundingMode.HALF_UP);
+        BigDecimal valorMedioPrestacao = valorOuZero(volume.getSomaPrimeirasPrestacoes())
+                .divide(quantidade, 2, RoundingMode.HALF_UP);
+
+        return new VolumeSimuladoProdutoDTO(
+                volume.getProdutoId(),
+                descricaoProduto,
+                quantidadeSimulacoes,
+                taxaMedia,
+                valorOuZero(volume.getValorTotalDesejado()),
+                valorOuZero(volume.getValorTotalCredito()),
+                valorMedioPrestacao);
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+}
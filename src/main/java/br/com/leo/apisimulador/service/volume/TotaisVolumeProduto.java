@@ -0,0 +1,24 @@
+package br.com.leo.apisimulador.service.volume;
+
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Retrato imutável dos totais consolidados de um produto em um dia, no mesmo
+ * formato da agregação feita no banco
+ */
+@Getter
+@RequiredArgsConstructor
+public final class TotaisVolumeProduto implements VolumeProdutoProjecao {
+
+    private final Integer produtoId;
+    private final String descricaoProduto;
+    private final Long quantidade;
+    private final BigDecimal valorTotalDesejado;
+    private final BigDecimal somaTaxasJuros;
+    private final BigDecimal valorTotalCredito;
+    private final BigDecimal somaPrimeirasPrestacoes;
+}
@@ -0,0 +1,91 @@
+-- Schema do banco local H2 (simulações). Executado na inicialização por
+-- LocalH2Config; todos os comandos são idempotentes, para que um banco em
+-- arquivo (MVStore) seja reaproveitado entre execuções.
+
+CREATE TABLE IF NOT EXISTS PUBLIC.SIMULACAO (
+    IDSIMULACAO BIGINT NOT NULL PRIMARY KEY,
+    DATA_REFERENCIA DATE,
+    VALOR_DESEJADO NUMERIC(38, 2),
+    PRAZO INTEGER,
+    PRODUTO_ID INTEGER,
+    RESULTADO_JSON CHARACTER LARGE OBJECT
+);
+
+-- Colunas de resumo, ausentes em bancos criados antes delas
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS TAXA_JUROS NUMERIC(10, 9);
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS DESCRICAO_PRODUTO VARCHAR(200);
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS VALOR_TOTAL_SAC NUMERIC(18, 2);
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS VALOR_TOTAL_PRICE NUMERIC(18, 2);
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS VALOR_PRIMEIRA_PRESTACAO NUMERIC(18, 2);
+
+-- Resultado no formato binário de CodecResultadoSimulacao; RESULTADO_JSON
+-- só fica preenchido nas linhas gravadas antes dele, até a conversão
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS RESULTADO BINARY LARGE OBJECT;
+
+-- Versão da taxa do produto em PRODUTO_TAXA_HISTORICO; com
+-- app.simulacao.resultado.modo=RECALCULADO, RESULTADO fica nulo e o
+-- resultado é recalculado a partir dela, do valor e do prazo
+ALTER TABLE PUBLIC.SIMULACAO ADD COLUMN IF NOT EXISTS VERSAO_TAXA BIGINT;
+
+-- Relatório do dia agregado por produto
+CREATE INDEX IF NOT EXISTS PUBLIC.IDX_SIMULACAO_DATA_PRODUTO ON PUBLIC.SIMULACAO (DATA_REFERENCIA, PRODUTO_ID);
+
+-- Exportação de um dia e retenção em blocos, ambas em ordem de ID dentro do dia
+CREATE INDEX IF NOT EXISTS PUBLIC.IDX_SIMULACAO_DATA_ID ON PUBLIC.SIMULACAO (DATA_REFERENCIA, IDSIMULACAO);
+
+-- IDs reservados em blocos pelo AlocadorIdSimulacao, que ajusta o
+-- incremento e o reinício na inicialização
+CREATE SEQUENCE IF NOT EXISTS PUBLIC.SIMULACAO_SEQ START WITH 1 INCREMENT BY 50;
+
+-- Simulações removidas da tabela principal pela política de retenção
+CREATE TABLE IF NOT EXISTS PUBLIC.SIMULACAO_ARQUIVO (
+    IDSIMULACAO BIGINT NOT NULL PRIMARY KEY,
+    DATA_REFERENCIA DATE,
+    VALOR_DESEJADO NUMERIC(38, 2),
+    PRAZO INTEGER,
+    PRODUTO_ID INTEGER,
+    RESULTADO_JSON CHARACTER LARGE OBJECT,
+    TAXA_JUROS NUMERIC(10, 9),
+    DESCRICAO_PRODUTO VARCHAR(200),
+    VALOR_TOTAL_SAC NUMERIC(18, 2),
+    VALOR_TOTAL_PRICE NUMERIC(18, 2),
+    VALOR_PRIMEIRA_PRESTACAO NUMERIC(18, 2),
+    ARQUIVADO_EM TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE PUBLIC.SIMULACAO_ARQUIVO ADD COLUMN IF NOT EXISTS RESULTADO BINARY LARGE OBJECT;
+ALTER TABLE PUBLIC.SIMULACAO_ARQUIVO ADD COLUMN IF NOT EXISTS VERSAO_TAXA BIGINT;
+
+CREATE INDEX IF NOT EXISTS PUBLIC.IDX_SIMULACAO_ARQUIVO_DATA ON PUBLIC.SIMULACAO_ARQUIVO (DATA_REFERENCIA);
+
+-- Histórico só de acréscimo das taxas dos produtos do SQL Server: uma nova
+-- versão a cada mudança de taxa ou descrição vista na recarga do catálogo
+CREATE TABLE IF NOT EXISTS PUBLIC.PRODUTO_TAXA_HISTORICO (
+    VERSAO BIGINT NOT NULL PRIMARY KEY,
+    PRODUTO_ID INTEGER NOT NULL,
+    TAXA_JUROS NUMERIC(10, 9) NOT NULL,
+    DESCRICAO_PRODUTO VARCHAR(200),
+    REGISTRADA_EM TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS PUBLIC.IDX_PRODUTO_TAXA_HISTORICO_PRODUTO ON PUBLIC.PRODUTO_TAXA_HISTORICO (PRODUTO_ID, VERSAO);
+
+-- Outbox dos eventos das simulações: cada evento é inserido na mesma
+-- transação da simulação e removido da fila de pendentes (PUBLICADO_EM
+-- preenchido) quando o destino confirma o envio. IDEVENTO é o IDSIMULACAO
+CREATE TABLE IF NOT EXISTS PUBLIC.SIMULACAO_EVENTO_OUTBOX (
+    IDEVENTO BIGINT NOT NULL PRIMARY KEY,
+    CHAVE_PARTICAO VARCHAR(40) NOT NULL,
+    CORPO BINARY LARGE OBJECT NOT NULL,
+    CRIADO_EM TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PUBLICADO_EM TIMESTAMP,
+    TENTATIVAS INTEGER DEFAULT 0 NOT NULL,
+    ULTIMO_ERRO VARCHAR(500)
+);
+
+-- Eventos que o destino nunca vai aceitar (maiores que o lote do Event Hub):
+-- saem dos pendentes sem PUBLICADO_EM e voltam com o reenvio do diagnóstico
+ALTER TABLE PUBLIC.SIMULACAO_EVENTO_OUTBOX ADD COLUMN IF NOT EXISTS DESCARTADO_EM TIMESTAMP;
+
+-- Pendentes em ordem de ID e limpeza dos publicados
+CREATE INDEX IF NOT EXISTS PUBLIC.IDX_SIMULACAO_EVENTO_OUTBOX_PUBLICADO ON PUBLIC.SIMULACAO_EVENTO_OUTBOX (PUBLICADO_EM, IDEVENTO);
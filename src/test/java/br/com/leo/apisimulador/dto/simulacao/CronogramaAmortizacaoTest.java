@@ -0,0 +1,102 @@
+package br.com.leo.apisimulador.dto.simulacao;
+
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O cronograma colunar, produzido pelo motor BigDecimal padrão, tem as mesmas
+ * parcelas e serializa nos mesmos bytes da lista de {@link ParcelaDTO}
+ */
+class CronogramaAmortizacaoTest {
+
+    private static final BigDecimal TAXA = new BigDecimal("0.017900000");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void motorPadraoDevolveCronogramaComAsParcelasDaLista() {
+        SACCalculadora sac = new SACCalculadora();
+        PriceCalculadora price = new PriceCalculadora(new TabelaFatoresAmortizacao());
+        for (int prazo : new int[] { 1, 2, 7, 24, 96, 420 }) {
+            for (String valor : new String[] { "0.01", "200.00", "5000.00", "123456.78", "2000000.00" }) {
+                BigDecimal valorEmprestimo = new BigDecimal(valor);
+
+                List<ParcelaDTO> parcelasSac = sac.calcular(valorEmprestimo, TAXA, prazo);
+                assertTrue(parcelasSac instanceof CronogramaAmortizacao);
+                assertEquals(sacEmLista(valorEmprestimo, prazo), parcelasSac, "SAC " + valor + " em " + prazo);
+
+                List<ParcelaDTO> parcelasPrice = price.calcular(valorEmprestimo, TAXA, prazo);
+                assertTrue(parcelasPrice instanceof CronogramaAmortizacao);
+                assertEquals(priceEmLista(valorEmprestimo, prazo), parcelasPrice, "PRICE " + valor + " em " + prazo);
+            }
+        }
+    }
+
+    @Test
+    void valorForaDeLongVoltaParaALista() {
+        BigDecimal valor = new BigDecimal("100000000000000000.00");
+        List<ParcelaDTO> parcelas = new SACCalculadora().calcular(valor, TAXA, 12);
+        assertEquals(sacEmLista(valor, 12), parcelas);
+    }
+
+    @Test
+    void serializaNosMesmosBytesDaListaDeParcelas() throws Exception {
+        CronogramaAmortizacao cronograma = new CronogramaAmortizacao(TipoSimulacaoEnum.SAC,
+                new long[] { 0, 1, 10, 99, 100, 123456789012L, -5, -150 },
+                new long[] { 7, 70, 700, 7000, 70000, 1, -1, -100 },
+                new long[] { 1, 2, 3, 4, 5, 6, 7, Long.MAX_VALUE / 1000 });
+
+        for (List<ParcelaDTO> lista : List.of(cronograma, new SACCalculadora().calcular(new BigDecimal("5000.00"),
+                TAXA, 20))) {
+            SimulacaoResponseDTO colunar = resposta(lista);
+            SimulacaoResponseDTO emObjetos = resposta(new ArrayList<>(lista));
+            assertArrayEquals(objectMapper.writeValueAsBytes(emObjetos), objectMapper.writeValueAsBytes(colunar));
+        }
+    }
+
+    private static SimulacaoResponseDTO resposta(List<ParcelaDTO> parcelas) {
+        return new SimulacaoResponseDTO(1L, 1, "Produto 1", TAXA,
+                List.of(new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, parcelas)));
+    }
+
+    /** Algoritmo da lista de ParcelaDTO, anterior ao cronograma colunar */
+    private static List<ParcelaDTO> sacEmLista(BigDecimal valorEmprestimo, int numeroParcelas) {
+        List<ParcelaDTO> parcelas = new ArrayList<>();
+        BigDecimal amortizacao = valorEmprestimo.divide(BigDecimal.valueOf(numeroParcelas), 2, RoundingMode.HALF_UP);
+        BigDecimal saldo = valorEmprestimo;
+        for (int i = 1; i <= numeroParcelas; i++) {
+            BigDecimal juros = saldo.multiply(TAXA).setScale(2, RoundingMode.HALF_UP);
+            parcelas.add(new ParcelaDTO(i, amortizacao, juros, amortizacao.add(juros).setScale(2, RoundingMode.HALF_UP)));
+            saldo = saldo.subtract(amortizacao);
+        }
+        return parcelas;
+    }
+
+    private static List<ParcelaDTO> priceEmLista(BigDecimal valorEmprestimo, int numeroParcelas) {
+        List<ParcelaDTO> parcelas = new ArrayList<>();
+        BigDecimal parcelaConstante = valorEmprestimo.multiply(PriceCalculadora.calcularFator(TAXA, numeroParcelas))
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal saldo = valorEmprestimo;
+        for (int i = 1; i <= numeroParcelas; i++) {
+            BigDecimal juros = saldo.multiply(TAXA).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal amortizacao = parcelaConstante.subtract(juros).setScale(2, RoundingMode.HALF_UP);
+            saldo = saldo.subtract(amortizacao);
+            parcelas.add(new ParcelaDTO(i, amortizacao, juros, parcelaConstante));
+        }
+        return parcelas;
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.leo.apisimulador.repository;
+
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoResponseDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecResultadoSimulacaoTest {
+
+    private static final BigDecimal TAXA = new BigDecimal("0.017900000");
+
+    @Test
+    void cronogramaLongoVoltaIgualECompactado() {
+        SimulacaoResponseDTO original = resposta(7, 360);
+        byte[] dados = CodecResultadoSimulacao.codificar(original);
+
+        assertEquals(1, dados[1], "cronograma longo deveria ser gravado compactado");
+        SimulacaoResponseDTO decodificado = CodecResultadoSimulacao.decodificar(dados);
+        assertEquals(original.idSimulacao(), decodificado.idSimulacao());
+        assertEquals(Integer.valueOf(7), decodificado.codigoProduto());
+        assertEquals(original.taxaJuros(), decodificado.taxaJuros());
+        assertEquals(original.resultadosSimulacao().get(0).parcelas(),
+                new ArrayList<>(decodificado.resultadosSimulacao().get(0).parcelas()));
+    }
+
+    @Test
+    void codigoDoProdutoAusenteVoltaNulo() {
+        SimulacaoResponseDTO original = resposta(null, 3);
+
+        SimulacaoResponseDTO decodificado = CodecResultadoSimulacao.decodificar(
+                CodecResultadoSimulacao.codificar(original));
+
+        assertNull(decodificado.codigoProduto());
+        assertEquals("Produto", decodificado.descricaoProduto());
+        assertEquals(3, decodificado.resultadosSimulacao().get(0).parcelas().size());
+    }
+
+    @Test
+    void tamanhoDescompactadoForaDoPossivelERejeitadoSemAlocar() {
+        // Bloco Deflate final e vazio (0x03 0x00) declarando corpos impossíveis
+        byte[] bloco = { 0x03, 0x00 };
+        for (long declarado : new long[] { Integer.MAX_VALUE, Long.MAX_VALUE, -1L, 0L,
+                CodecResultadoSimulacao.TAMANHO_MAXIMO_CORPO + 1L, 100_000L }) {
+            byte[] dados = compactado(declarado, bloco);
+            IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                    () -> CodecResultadoSimulacao.decodificar(dados), "declarado=" + declarado);
+            assertTrue(erro.getMessage().contains("Tamanho descompactado"), erro.getMessage());
+        }
+    }
+
+    @Test
+    void tamanhoDeclaradoMaiorQueOCorpoEhTruncado() {
+        byte[] dados = CodecResultadoSimulacao.codificar(resposta(1, 360));
+        byte[] corpo = new byte[dados.length - 2 - tamanhoVarint(dados, 2)];
+        System.arraycopy(dados, dados.length - corpo.length, corpo, 0, corpo.length);
+
+        long real = lerVarint(dados, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> CodecResultadoSimulacao.decodificar(compactado(real + 1, corpo)));
+    }
+
+    private static byte[] compactado(long declarado, byte[] corpo) {
+        byte[] cabecalho = new byte[12];
+        int n = 0;
+        cabecalho[n++] = CodecResultadoSimulacao.VERSAO;
+        cabecalho[n++] = 1;
+        long valor = declarado;
+        while ((valor & ~0x7FL) != 0) {
+            cabecalho[n++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        cabecalho[n++] = (byte) valor;
+        byte[] dados = new byte[n + corpo.length];
+        System.arraycopy(cabecalho, 0, dados, 0, n);
+        System.arraycopy(corpo, 0, dados, n, corpo.length);
+        return dados;
+    }
+
+    private static long lerVarint(byte[] dados, int inicio) {
+        long valor = 0;
+        for (int i = inicio, deslocamento = 0; ; i++, deslocamento += 7) {
+            valor |= (long) (dados[i] & 0x7F) << deslocamento;
+            if (dados[i] >= 0) {
+                return valor;
+            }
+        }
+    }
+
+    private static int tamanhoVarint(byte[] dados, int inicio) {
+        int i = inicio;
+        while (dados[i] < 0) {
+            i++;
+        }
+        return i - inicio + 1;
+    }
+
+    private static SimulacaoResponseDTO resposta(Integer codigoProduto, int prazo) {
+        List<ParcelaDTO> parcelas = new ArrayList<>(prazo);
+        BigDecimal amortizacao = new BigDecimal("100.00");
+        for (int i = 1; i <= prazo; i++) {
+            BigDecimal juros = BigDecimal.valueOf((prazo - i + 1) * 179L, 2);
+            parcelas.add(new ParcelaDTO(i, amortizacao, juros, amortizacao.add(juros)));
+        }
+        return new SimulacaoResponseDTO(1L, codigoProduto, "Produto", TAXA,
+                List.of(new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, parcelas)));
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.dto.simulacao.ResultadoSimulacaoDTO;
+import br.com.leo.apisimulador.enums.TipoSimulacaoEnum;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultadoSimulacaoCacheServiceTest {
+
+    private static final Produto PRODUTO = Produto.builder()
+            .codigoProduto(1)
+            .taxaJuros(new BigDecimal("0.017900000"))
+            .build();
+
+    @Test
+    void valoresEquivalentesReaproveitamOResultado() {
+        ResultadoSimulacaoCacheService cache = cache(100, 1_000_000);
+        List<ResultadoSimulacaoDTO> primeiro = cache.obter(PRODUTO, new BigDecimal("1000"), 12, ResultadoSimulacaoCacheServiceTest::resultados);
+
+        assertSame(primeiro, cache.obter(PRODUTO, new BigDecimal("1000.00"), 12, ResultadoSimulacaoCacheServiceTest::resultados));
+        assertNotSame(primeiro, cache.obter(PRODUTO, new BigDecimal("1000"), 13, ResultadoSimulacaoCacheServiceTest::resultados));
+        assertEquals(1L, cache.obterEstatisticas().get("acertos"));
+        assertEquals(2L, cache.obterEstatisticas().get("falhas"));
+    }
+
+    @Test
+    void remocaoPreservaAsEntradasUsadasRecentemente() {
+        ResultadoSimulacaoCacheService cache = cache(10, 1_000_000);
+        List<ResultadoSimulacaoDTO> frequente = cache.obter(PRODUTO, BigDecimal.ONE, 1, ResultadoSimulacaoCacheServiceTest::resultados);
+        for (int prazo = 2; prazo <= 50; prazo++) {
+            cache.obter(PRODUTO, BigDecimal.ONE, prazo, ResultadoSimulacaoCacheServiceTest::resultados);
+            assertSame(frequente, cache.obter(PRODUTO, BigDecimal.ONE, 1, ResultadoSimulacaoCacheServiceTest::resultados));
+        }
+
+        assertTrue((int) cache.obterEstatisticas().get("entradas") <= 10);
+    }
+
+    @Test
+    void calculoIniciadoAntesDaInvalidacaoNaoEGravado() {
+        ResultadoSimulacaoCacheService cache = cache(100, 1_000_000);
+        cache.obter(PRODUTO, BigDecimal.TEN, 12, () -> {
+            cache.invalidar();
+            return resultados();
+        });
+
+        assertEquals(0, cache.obterEstatisticas().get("entradas"));
+        assertEquals(0L, cache.obterEstatisticas().get("bytes_estimados"));
+    }
+
+    @Test
+    void acessoConcorrenteRespeitaOsLimitesEOsBytes() throws Exception {
+        ResultadoSimulacaoCacheService cache = cache(200, 1_000_000);
+        AtomicInteger calculos = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        int prazo = ThreadLocalRandom.current().nextInt(1, 400);
+                        cache.obter(PRODUTO, BigDecimal.ONE, prazo, () -> {
+                            calculos.incrementAndGet();
+                            return resultados();
+                        });
+                        if (i % 1_000 == 999) {
+                            cache.invalidar();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int entradas = (int) cache.obterEstatisticas().get("entradas");
+        assertTrue(entradas <= 200 + 8, "entradas: " + entradas);
+        cache.invalidar();
+        assertEquals(0, cache.obterEstatisticas().get("entradas"));
+        assertEquals(0L, cache.obterEstatisticas().get("bytes_estimados"));
+        assertEquals(40_000L, (long) cache.obterEstatisticas().get("acertos") + calculos.get());
+    }
+
+    private static ResultadoSimulacaoCacheService cache(int maximoEntradas, long maximoBytes) {
+        ResultadoSimulacaoCacheService cache = new ResultadoSimulacaoCacheService();
+        ReflectionTestUtils.setField(cache, "habilitado", true);
+        ReflectionTestUtils.setField(cache, "maximoEntradas", maximoEntradas);
+        ReflectionTestUtils.setField(cache, "maximoBytes", maximoBytes);
+        return cache;
+    }
+
+    private static List<ResultadoSimulacaoDTO> resultados() {
+        List<ParcelaDTO> parcelas = List.of(new ParcelaDTO(1, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE));
+        return List.of(new ResultadoSimulacaoDTO(TipoSimulacaoEnum.SAC, parcelas));
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.leo.apisimulador.service;
+
+import br.com.leo.apisimulador.dto.simulacao.SimulacaoRequestDTO;
+import br.com.leo.apisimulador.enums.ModoDurabilidadeEnum;
+import br.com.leo.apisimulador.enums.ModoResultadoEnum;
+import br.com.leo.apisimulador.enums.MotorCalculoEnum;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.AlocadorIdSimulacao;
+import br.com.leo.apisimulador.repository.h2.HistoricoTaxasProduto;
+import br.com.leo.apisimulador.service.SimulacoesRecentesCacheService.RespostaSerializada;
+import br.com.leo.apisimulador.service.calculadora.PriceCalculadora;
+import br.com.leo.apisimulador.service.calculadora.SACCalculadora;
+import br.com.leo.apisimulador.service.calculadora.TabelaFatoresAmortizacao;
+import br.com.leo.apisimulador.service.evento.DespachanteOutbox;
+import br.com.leo.apisimulador.service.evento.PublicadorEventos;
+import br.com.leo.apisimulador.service.gravacao.ContadorSimulacoes;
+import br.com.leo.apisimulador.service.gravacao.GravadorSimulacoes;
+import br.com.leo.apisimulador.service.produto.CatalogoProdutos;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimulacaoServiceTest {
+
+    private static final Produto PRODUTO = Produto.builder()
+            .codigoProduto(1)
+            .descricaoProduto("Produto 1")
+            .taxaJuros(new BigDecimal("0.017900000"))
+            .minimoMeses((short) 1)
+            .maximoMeses((short) 24)
+            .valorMinimo(new BigDecimal("200.00"))
+            .valorMaximo(new BigDecimal("10000.00"))
+            .build();
+
+    private final CountDownLatch liberarGravacao = new CountDownLatch(1);
+
+    private JdbcTemplate jdbcTemplate;
+    private GravadorSimulacoes gravador;
+    private SimulacoesRecentesCacheService simulacoesRecentes;
+    private SimulacaoService servico;
+
+    @BeforeEach
+    void criarServico() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:simulacao-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/h2/schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        ArmazenamentoSimulacoes armazenamento = armazenamentoQueFalha();
+
+        AlocadorIdSimulacao alocadorId = new AlocadorIdSimulacao(jdbcTemplate, armazenamento);
+        ReflectionTestUtils.setField(alocadorId, "tamanhoBloco", 50);
+        alocadorId.iniciar();
+
+        ProdutoCacheService produtoCacheService = new ProdutoCacheService();
+        @SuppressWarnings("unchecked")
+        AtomicReference<CatalogoProdutos> catalogo = (AtomicReference<CatalogoProdutos>) ReflectionTestUtils
+                .getField(produtoCacheService, "catalogo");
+        catalogo.set(CatalogoProdutos.de(List.of(PRODUTO), LocalDateTime.now()));
+
+        ConsolidacaoVolumeDiario consolidacao = new ConsolidacaoVolumeDiario(armazenamento);
+        gravador = new GravadorSimulacoes(armazenamento, new ContadorSimulacoes(armazenamento), consolidacao);
+        ReflectionTestUtils.setField(gravador, "modo", ModoDurabilidadeEnum.ENFILEIRAMENTO);
+        ReflectionTestUtils.setField(gravador, "capacidadeFila", 10);
+        ReflectionTestUtils.setField(gravador, "tamanhoLote", 1);
+        ReflectionTestUtils.setField(gravador, "timeoutFilaMs", 100L);
+        ReflectionTestUtils.setField(gravador, "timeoutPersistenciaMs", 1_000L);
+        ReflectionTestUtils.setField(gravador, "timeoutEncerramentoMs", 5_000L);
+        gravador.iniciar();
+
+        simulacoesRecentes = new SimulacoesRecentesCacheService();
+        ReflectionTestUtils.setField(simulacoesRecentes, "habilitado", true);
+        ReflectionTestUtils.setField(simulacoesRecentes, "maximoEntradas", 100);
+        ReflectionTestUtils.setField(simulacoesRecentes, "maximoBytes", 1_000_000L);
+
+        TabelaFatoresAmortizacao tabelaFatores = new TabelaFatoresAmortizacao();
+        servico = new SimulacaoService(armazenamento,
+                new CalculoAmortizacaoService(new SACCalculadora(), new PriceCalculadora(tabelaFatores), null, null,
+                        MotorCalculoEnum.BIGDECIMAL),
+                new ObjectMapper(), new TelemetriaService(), produtoCacheService,
+                new ResultadoSimulacaoCacheService(), alocadorId, gravador, consolidacao,
+                new HistoricoTaxasProduto(jdbcTemplate), simulacoesRecentes,
+                new PublicadorEventos(null, 10, 10, 10_000, 1, 1), new DespachanteOutbox(null, null));
+        ReflectionTestUtils.setField(servico, "modoResultado", ModoResultadoEnum.COMPLETO);
+    }
+
+    @AfterEach
+    void encerrar() throws Exception {
+        liberarGravacao.countDown();
+        gravador.encerrar();
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void gravacaoQueFalhaNoModoEnfileiramentoNaoFicaNasRecentes() throws Exception {
+        RespostaSerializada resposta = servico.simular(new SimulacaoRequestDTO(new BigDecimal("1000.00"), 12));
+        long id = new ObjectMapper().readTree(resposta.json()).get("idSimulacao").asLong();
+
+        // Enquanto a gravação não termina, GET /simulacoes/{id} responde das recentes
+        assertSame(resposta, servico.obterSerializada(id));
+
+        liberarGravacao.countDown();
+        gravador.encerrar();
+
+        assertThrows(SimulacaoNaoEncontradaException.class, () -> servico.obterSerializada(id));
+        assertEquals(1L, simulacoesRecentes.obterEstatisticas().get("removidas_sem_gravacao"));
+    }
+
+    /**
+     * Armazenamento vazio cuja gravação espera {@code liberarGravacao} e falha
+     */
+    private ArmazenamentoSimulacoes armazenamentoQueFalha() {
+        return (ArmazenamentoSimulacoes) Proxy.newProxyInstance(ArmazenamentoSimulacoes.class.getClassLoader(),
+                new Class<?>[] { ArmazenamentoSimulacoes.class }, (proxy, metodo, argumentos) -> {
+                    switch (metodo.getName()) {
+                        case "gravar" -> {
+                            liberarGravacao.await();
+                            throw new IllegalStateException("falha no commit");
+                        }
+                        case "buscarPorId" -> {
+                            return Optional.empty();
+                        }
+                        case "contar", "maiorId" -> {
+                            return 0L;
+                        }
+                        default -> throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+}
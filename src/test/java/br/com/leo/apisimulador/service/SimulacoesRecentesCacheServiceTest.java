@@ -0,0 +1,56 @@
+package br.com.leo.apisimulador.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SimulacoesRecentesCacheServiceTest {
+
+    @Test
+    void remocaoPelaRetencaoTiraAsSimulacoesDoCache() {
+        SimulacoesRecentesCacheService cache = cache();
+        cache.registrar(1L, json(1));
+        cache.registrar(2L, json(2));
+        long bytesAntes = (long) cache.obterEstatisticas().get("bytes");
+
+        cache.remover(List.of(1L, 3L));
+
+        assertNull(cache.obter(1L));
+        assertNotNull(cache.obter(2L));
+        assertEquals(1, cache.obterEstatisticas().get("entradas"));
+        assertEquals(1L, cache.obterEstatisticas().get("removidas_pela_retencao"));
+        assertEquals(bytesAntes / 2, (long) cache.obterEstatisticas().get("bytes"));
+    }
+
+    @Test
+    void leituraAnteriorARemocaoNaoVoltaParaOCache() {
+        SimulacoesRecentesCacheService cache = cache();
+
+        // A linha foi lida antes da remoção e só chega ao cache depois dela
+        long geracaoLeitura = cache.obterGeracaoRemocoes();
+        cache.remover(List.of(1L));
+        cache.registrarLida(1L, json(1), geracaoLeitura);
+        assertNull(cache.obter(1L));
+
+        cache.registrarLida(1L, json(1), cache.obterGeracaoRemocoes());
+        assertNotNull(cache.obter(1L));
+    }
+
+    private static SimulacoesRecentesCacheService cache() {
+        SimulacoesRecentesCacheService cache = new SimulacoesRecentesCacheService();
+        ReflectionTestUtils.setField(cache, "habilitado", true);
+        ReflectionTestUtils.setField(cache, "maximoEntradas", 100);
+        ReflectionTestUtils.setField(cache, "maximoBytes", 1_000_000L);
+        return cache;
+    }
+
+    private static byte[] json(long idSimulacao) {
+        return ("{\"idSimulacao\":" + idSimulacao + "}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import br.com.leo.apisimulador.dto.simulacao.ParcelaDTO;
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paridade entre o motor de ponto fixo (app.calculo.motor=PONTO_FIXO) e o
+ * motor BigDecimal de referência: para cada produto, todos os prazos válidos,
+ * com os limites de valor e uma amostra determinística de valores
+ * intermediários com centavos arbitrários. Qualquer parcela ou resumo
+ * divergente falha o build.
+ */
+class ParidadeMotoresCalculoTest {
+
+    private static final int AMOSTRAS_POR_PRAZO = 8;
+    private static final int LIMITE_EXEMPLOS = 10;
+
+    private SACCalculadora sac;
+    private PriceCalculadora price;
+    private SACPontoFixoCalculadora sacPontoFixo;
+    private PricePontoFixoCalculadora pricePontoFixo;
+
+    @BeforeEach
+    void preparar() {
+        TabelaFatoresAmortizacao tabela = new TabelaFatoresAmortizacao();
+        tabela.sincronizar(produtos());
+        sac = new SACCalculadora();
+        price = new PriceCalculadora(tabela);
+        sacPontoFixo = new SACPontoFixoCalculadora(sac, tabela);
+        pricePontoFixo = new PricePontoFixoCalculadora(price, tabela);
+    }
+
+    @Test
+    void parcelasEResumosCoincidemEmTodoODominioDosProdutos() {
+        SplittableRandom aleatorio = new SplittableRandom(20250825L);
+        List<String> divergencias = new ArrayList<>();
+        long comparacoes = 0;
+
+        for (Produto produto : produtos()) {
+            long valorMinimo = AritmeticaCentavos.paraCentavos(produto.getValorMinimo());
+            long valorMaximo = produto.getValorMaximo() != null
+                    ? AritmeticaCentavos.paraCentavos(produto.getValorMaximo())
+                    : valorMinimo * 100;
+            for (int prazo = Math.max(1, produto.getMinimoMeses()); prazo <= produto.getMaximoMeses(); prazo++) {
+                for (int amostra = 0; amostra < AMOSTRAS_POR_PRAZO + 2; amostra++) {
+                    long centavos = switch (amostra) {
+                        case 0 -> valorMinimo;
+                        case 1 -> valorMaximo;
+                        default -> aleatorio.nextLong(valorMinimo, valorMaximo + 1);
+                    };
+                    BigDecimal valor = AritmeticaCentavos.paraValor(centavos);
+                    comparar(sac, sacPontoFixo, "SAC", produto, valor, prazo, divergencias);
+                    comparar(price, pricePontoFixo, "PRICE", produto, valor, prazo, divergencias);
+                    comparacoes += 4;
+                }
+            }
+        }
+
+        assertTrue(comparacoes > 0);
+        assertTrue(divergencias.isEmpty(), divergencias.size() + " divergência(s) em " + comparacoes
+                + " comparações, por exemplo: " + divergencias.subList(0, Math.min(LIMITE_EXEMPLOS,
+                        divergencias.size())));
+    }
+
+    @Test
+    void taxaForaDaEscalaDoPontoFixoUsaAReferencia() {
+        BigDecimal taxa = new BigDecimal("0.0123456789");
+        BigDecimal valor = new BigDecimal("12345.67");
+        assertEquals(sac.calcular(valor, taxa, 36), sacPontoFixo.calcular(valor, taxa, 36));
+        assertEquals(price.calcular(valor, taxa, 36), pricePontoFixo.calcular(valor, taxa, 36));
+    }
+
+    private static void comparar(AmortizacaoCalculadora referencia, AmortizacaoCalculadora pontoFixo,
+            String sistema, Produto produto, BigDecimal valor, int prazo, List<String> divergencias) {
+        List<ParcelaDTO> esperado = referencia.calcular(valor, produto.getTaxaJuros(), prazo);
+        if (!esperado.equals(pontoFixo.calcular(valor, produto.getTaxaJuros(), prazo))) {
+            divergencias.add(String.format("%s produto=%d valor=%s prazo=%d", sistema,
+                    produto.getCodigoProduto(), valor, prazo));
+        }
+        if (!ResumoAmortizacao.somar(esperado)
+                .equals(pontoFixo.calcularResumo(valor, produto.getTaxaJuros(), prazo))) {
+            divergencias.add(String.format("RESUMO_%s produto=%d valor=%s prazo=%d", sistema,
+                    produto.getCodigoProduto(), valor, prazo));
+        }
+    }
+
+    /**
+     * Os quatro produtos cadastrados (PRODUTOS-DISPONÍVEIS.md), com o produto
+     * sem prazo máximo limitado ao prazo de referência, e um produto com taxa
+     * de nove casas decimais
+     */
+    private static List<Produto> produtos() {
+        return List.of(
+                produto(1, "0.017900000", 0, 24, "200.00", "10000.00"),
+                produto(2, "0.017500000", 25, 48, "10000.01", "100000.00"),
+                produto(3, "0.018200000", 49, 96, "100000.01", "1000000.00"),
+                produto(4, "0.015100000", 97, 420, "1000000.01", null),
+                produto(5, "0.009876543", 1, 60, "0.01", "250000.00"));
+    }
+
+    private static Produto produto(int codigo, String taxa, int minimoMeses, int maximoMeses, String valorMinimo,
+            String valorMaximo) {
+        return Produto.builder()
+                .codigoProduto(codigo)
+                .descricaoProduto("Produto " + codigo)
+                .taxaJuros(new BigDecimal(taxa))
+                .minimoMeses((short) minimoMeses)
+                .maximoMeses((short) maximoMeses)
+                .valorMinimo(new BigDecimal(valorMinimo))
+                .valorMaximo(valorMaximo != null ? new BigDecimal(valorMaximo) : null)
+                .build();
+    }
+}
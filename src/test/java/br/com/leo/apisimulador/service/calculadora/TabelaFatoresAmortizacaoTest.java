@@ -0,0 +1,70 @@
+package br.com.leo.apisimulador.service.calculadora;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TabelaFatoresAmortizacaoTest {
+
+    @Test
+    void fatorDaTabelaIgualAoCalculado() {
+        TabelaFatoresAmortizacao tabela = new TabelaFatoresAmortizacao();
+        tabela.sincronizar(List.of(produto(1, "0.017900000", 1, 24), produto(2, "0.017500000", 25, 48)));
+
+        for (int prazo = 1; prazo <= 24; prazo++) {
+            assertEquals(PriceCalculadora.calcularFator(new BigDecimal("0.0179"), prazo).unscaledValue().longValue(),
+                    tabela.fatorPriceEscalado(new BigDecimal("0.0179"), prazo));
+        }
+        assertEquals(TabelaFatoresAmortizacao.SEM_FATOR, tabela.fatorPriceEscalado(new BigDecimal("0.0179"), 25));
+        assertEquals(TabelaFatoresAmortizacao.SEM_FATOR, tabela.fatorPriceEscalado(new BigDecimal("0.0180"), 10));
+        assertEquals(TabelaFatoresAmortizacao.SEM_FATOR,
+                tabela.fatorPriceEscalado(new BigDecimal("0.0179000000001"), 10));
+    }
+
+    @Test
+    void produtosComAMesmaTaxaSaoBuscadosPeloPrazo() {
+        TabelaFatoresAmortizacao tabela = new TabelaFatoresAmortizacao();
+        tabela.sincronizar(List.of(produto(1, "0.015000000", 1, 12), produto(2, "0.015000000", 13, 36)));
+
+        BigDecimal taxa = new BigDecimal("0.015");
+        assertEquals(PriceCalculadora.calcularFator(taxa, 12).unscaledValue().longValue(),
+                tabela.fatorPriceEscalado(taxa, 12));
+        assertEquals(PriceCalculadora.calcularFator(taxa, 30).unscaledValue().longValue(),
+                tabela.fatorPriceEscalado(taxa, 30));
+        assertEquals(TabelaFatoresAmortizacao.SEM_FATOR, tabela.fatorPriceEscalado(taxa, 37));
+    }
+
+    @Test
+    void catalogoGrandeEncontraTodosOsProdutos() {
+        List<Produto> produtos = new ArrayList<>();
+        for (int codigo = 1; codigo <= 5_000; codigo++) {
+            produtos.add(produto(codigo, BigDecimal.valueOf(1_000_000L + codigo * 997L, 9).toPlainString(), 1, 3));
+        }
+        TabelaFatoresAmortizacao tabela = new TabelaFatoresAmortizacao();
+        assertTrue(tabela.sincronizar(produtos));
+
+        for (Produto produto : produtos) {
+            assertEquals(PriceCalculadora.calcularFator(produto.getTaxaJuros(), 2).unscaledValue().longValue(),
+                    tabela.fatorPriceEscalado(produto.getTaxaJuros(), 2), "produto " + produto.getCodigoProduto());
+        }
+        assertFalse(tabela.sincronizar(produtos));
+    }
+
+    private static Produto produto(int codigo, String taxa, int minimoMeses, int maximoMeses) {
+        return Produto.builder()
+                .codigoProduto(codigo)
+                .descricaoProduto("Produto " + codigo)
+                .taxaJuros(new BigDecimal(taxa))
+                .minimoMeses((short) minimoMeses)
+                .maximoMeses((short) maximoMeses)
+                .valorMinimo(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.leo.apisimulador.service.evento;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.h2.OutboxEventosSimulacao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DespachanteOutboxTest {
+
+    private static final int EVENTOS = 2_000;
+    private static final int PARTICOES = 4;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private OutboxEventosSimulacao outbox;
+    private DespachanteOutbox despachante;
+
+    @BeforeEach
+    void criarBanco() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/h2/schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        outbox = new OutboxEventosSimulacao(jdbcTemplate);
+    }
+
+    @AfterEach
+    void encerrar() throws Exception {
+        if (despachante != null) {
+            despachante.encerrar();
+        }
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void falhasDoDestinoNaoPerdemNemReordenamEventos() throws Exception {
+        inserirEventos(1, EVENTOS);
+        DestinoEventosMemoria destino = new DestinoEventosMemoria(0, 0.3);
+        despachante = despachante(destino);
+
+        aguardarPendentes(0);
+
+        Map<String, Object> entregues = destino.obterEstatisticas();
+        assertTrue((long) entregues.get("lotes_recusados") > 0, "nenhum lote recusado: " + entregues);
+        assertEquals((long) EVENTOS, entregues.get("eventos"));
+        // Um evento fora de ordem na partição seria contado como reentregue
+        assertEquals(0L, entregues.get("reentregues"));
+        assertEquals((long) PARTICOES, (long) (int) entregues.get("particoes"));
+        assertEquals(Long.valueOf(EVENTOS), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX WHERE PUBLICADO_EM IS NOT NULL", Long.class));
+    }
+
+    @Test
+    void eventoRejeitadoEDescartadoSemSerMarcadoComoPublicado() throws Exception {
+        inserirEventos(1, 20);
+        List<Long> recebidos = new CopyOnWriteArrayList<>();
+        AtomicBoolean rejeitar = new AtomicBoolean(true);
+        despachante = despachante(new DestinoEventos() {
+
+            @Override
+            public CompletableFuture<Void> enviar(String chaveParticao, List<EventoSimulacao> eventos) {
+                List<Long> rejeitados = new ArrayList<>();
+                for (EventoSimulacao evento : eventos) {
+                    if (evento.idEvento() == 5 && rejeitar.get()) {
+                        rejeitados.add(evento.idEvento());
+                    } else {
+                        recebidos.add(evento.idEvento());
+                    }
+                }
+                return rejeitados.isEmpty()
+                        ? CompletableFuture.completedFuture(null)
+                        : CompletableFuture.failedFuture(new EventosRejeitadosException(rejeitados, "grande demais"));
+            }
+
+            @Override
+            public String tipo() {
+                return "teste";
+            }
+
+            @Override
+            public Map<String, Object> obterEstatisticas() {
+                return new LinkedHashMap<>();
+            }
+        });
+
+        aguardarPendentes(0);
+
+        assertEquals(19, recebidos.size());
+        assertNull(publicadoEm(5));
+        assertNotNull(publicadoEm(1));
+        assertNotNull(publicadoEm(9), "a partição do evento rejeitado não pode ficar bloqueada");
+        assertEquals(1L, despachante.obterEstatisticas().get("descartados"));
+        assertEquals(1L, despachante.obterEstatisticas().get("descartados_pelo_destino"));
+
+        rejeitar.set(false);
+        // O reenvio devolve o descartado à fila, junto com os publicados depois dele
+        assertEquals(16, despachante.reenviar(5));
+        aguardarPendentes(0);
+        assertNotNull(publicadoEm(5));
+        assertEquals(0L, despachante.obterEstatisticas().get("descartados"));
+    }
+
+    private DespachanteOutbox despachante(DestinoEventos destino) {
+        DespachanteOutbox despachante = new DespachanteOutbox(outbox, destino);
+        ReflectionTestUtils.setField(despachante, "habilitada", true);
+        ReflectionTestUtils.setField(despachante, "intervaloMs", 5L);
+        ReflectionTestUtils.setField(despachante, "tamanhoLote", 50);
+        ReflectionTestUtils.setField(despachante, "backoffInicialMs", 1L);
+        ReflectionTestUtils.setField(despachante, "backoffMaximoMs", 20L);
+        ReflectionTestUtils.setField(despachante, "timeoutEnvioMs", 5_000L);
+        ReflectionTestUtils.setField(despachante, "retencaoHoras", 24L);
+        despachante.iniciar();
+        return despachante;
+    }
+
+    private void inserirEventos(long primeiroId, int quantidade) {
+        List<Simulacao> simulacoes = new ArrayList<>(quantidade);
+        for (long id = primeiroId; id < primeiroId + quantidade; id++) {
+            Simulacao simulacao = new Simulacao();
+            simulacao.setIdSimulacao(id);
+            simulacao.setProdutoId((int) (id % PARTICOES) + 1);
+            simulacao.setEvento(("{\"idSimulacao\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+            simulacoes.add(simulacao);
+        }
+        outbox.inserir(simulacoes);
+    }
+
+    private void aguardarPendentes(long esperados) throws InterruptedException {
+        long limite = System.nanoTime() + 30_000_000_000L;
+        while ((long) outbox.resumirPendentes().get("pendentes") != esperados) {
+            if (System.nanoTime() > limite) {
+                fail("outbox não esvaziou: " + despachante.obterEstatisticas());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Object publicadoEm(long idEvento) {
+        return jdbcTemplate.queryForObject("SELECT PUBLICADO_EM FROM PUBLIC.SIMULACAO_EVENTO_OUTBOX WHERE IDEVENTO = ?",
+                Object.class, idEvento);
+    }
+}
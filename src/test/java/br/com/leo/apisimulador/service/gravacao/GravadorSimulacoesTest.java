@@ -0,0 +1,89 @@
+package br.com.leo.apisimulador.service.gravacao;
+
+import br.com.leo.apisimulador.enums.ModoDurabilidadeEnum;
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.service.volume.ConsolidacaoVolumeDiario;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GravadorSimulacoesTest {
+
+    @Test
+    void timeoutRetiraDaFilaOQueAindaNaoFoiGravado() throws Exception {
+        List<Long> gravadas = new CopyOnWriteArrayList<>();
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ArmazenamentoSimulacoes armazenamento = armazenamento(gravadas, gravando, liberar);
+
+        GravadorSimulacoes gravador = new GravadorSimulacoes(armazenamento, new ContadorSimulacoes(armazenamento),
+                new ConsolidacaoVolumeDiario(armazenamento));
+        ReflectionTestUtils.setField(gravador, "modo", ModoDurabilidadeEnum.PERSISTENCIA);
+        ReflectionTestUtils.setField(gravador, "capacidadeFila", 10);
+        ReflectionTestUtils.setField(gravador, "tamanhoLote", 1);
+        ReflectionTestUtils.setField(gravador, "timeoutFilaMs", 100L);
+        ReflectionTestUtils.setField(gravador, "timeoutPersistenciaMs", 200L);
+        ReflectionTestUtils.setField(gravador, "timeoutEncerramentoMs", 5_000L);
+        gravador.iniciar();
+
+        // A primeira simulação fica presa no armazenamento; a segunda espera na fila
+        CompletableFuture<GravacaoNaoConfirmadaException> emGravacao = CompletableFuture.supplyAsync(
+                () -> assertThrows(GravacaoNaoConfirmadaException.class, () -> gravador.gravar(simulacao(1L))));
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+        GravacaoNaoConfirmadaException naFila = assertThrows(GravacaoNaoConfirmadaException.class,
+                () -> gravador.gravar(simulacao(2L)));
+
+        assertTrue(naFila.isCancelada());
+        assertEquals(2L, naFila.getIdSimulacao());
+        assertFalse(emGravacao.get(5, TimeUnit.SECONDS).isCancelada());
+
+        liberar.countDown();
+        gravador.gravar(simulacao(3L));
+        gravador.encerrar();
+
+        assertEquals(List.of(1L, 3L), gravadas);
+        assertEquals(1L, gravador.obterEstatisticas().get("canceladas_por_timeout"));
+        assertEquals(1L, gravador.obterEstatisticas().get("nao_confirmadas_em_gravacao"));
+        assertEquals(2L, gravador.obterEstatisticas().get("gravadas"));
+    }
+
+    /**
+     * Armazenamento que registra os IDs gravados e segura a primeira gravação
+     * até {@code liberar}
+     */
+    @SuppressWarnings("unchecked")
+    private static ArmazenamentoSimulacoes armazenamento(List<Long> gravadas, CountDownLatch gravando,
+            CountDownLatch liberar) {
+        return (ArmazenamentoSimulacoes) Proxy.newProxyInstance(ArmazenamentoSimulacoes.class.getClassLoader(),
+                new Class<?>[] { ArmazenamentoSimulacoes.class }, (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("gravar")) {
+                        gravando.countDown();
+                        liberar.await();
+                        ((List<Simulacao>) argumentos[0]).forEach(s -> gravadas.add(s.getIdSimulacao()));
+                        return null;
+                    }
+                    if (metodo.getName().equals("contar")) {
+                        return 0L;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    private static Simulacao simulacao(long id) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setIdSimulacao(id);
+        return simulacao;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.leo.apisimulador.service.produto;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gera catálogos sintéticos de produtos para medir o índice de elegibilidade
+ * em escala (10 mil produtos ou mais). As faixas se sobrepõem, parte dos
+ * produtos tem limite máximo nulo e uma pequena fração tem limites mínimos
+ * nulos, como pode ocorrer na tabela PRODUTO.
+ */
+public final class GeradorCatalogoSintetico {
+
+    public static final int PRAZO_MAXIMO = 420;
+    public static final long VALOR_MAXIMO_CENTAVOS = 500_000_000L;
+
+    private GeradorCatalogoSintetico() {
+    }
+
+    public static List<Produto> gerar(int quantidade, long semente) {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        List<Produto> produtos = new ArrayList<>(quantidade);
+
+        for (int i = 0; i < quantidade; i++) {
+            int prazoMinimo = 1 + aleatorio.nextInt(PRAZO_MAXIMO);
+            Integer prazoMaximo = aleatorio.nextInt(10) == 0
+                    ? null
+                    : Math.min(PRAZO_MAXIMO, prazoMinimo + aleatorio.nextInt(120));
+            long valorMinimo = 20_000L + aleatorio.nextLong(VALOR_MAXIMO_CENTAVOS);
+            Long valorMaximo = aleatorio.nextInt(10) == 0
+                    ? null
+                    : valorMinimo + aleatorio.nextLong(VALOR_MAXIMO_CENTAVOS / 10);
+
+            produtos.add(Produto.builder()
+                    .codigoProduto(i + 1)
+                    .descricaoProduto("Produto Sintético " + (i + 1))
+                    .taxaJuros(BigDecimal.valueOf(10_000_000L + aleatorio.nextInt(15_000_000), 9))
+                    .minimoMeses(aleatorio.nextInt(200) == 0 ? null : (short) prazoMinimo)
+                    .maximoMeses(prazoMaximo != null ? prazoMaximo.shortValue() : null)
+                    .valorMinimo(aleatorio.nextInt(200) == 0 ? null : BigDecimal.valueOf(valorMinimo, 2))
+                    .valorMaximo(valorMaximo != null ? BigDecimal.valueOf(valorMaximo, 2) : null)
+                    .build());
+        }
+        return produtos;
+    }
+}
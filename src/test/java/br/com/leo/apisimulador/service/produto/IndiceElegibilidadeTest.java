@@ -0,0 +1,89 @@
+package br.com.leo.apisimulador.service.produto;
+
+import br.com.leo.apisimulador.model.sqlserver.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceElegibilidadeTest {
+
+    private static final long SEMENTE = 20250825L;
+
+    @Test
+    void indiceIgualAoPercursoLinearEmCatalogosSinteticos() {
+        for (int quantidade : new int[] { 1, 4, 1_000, 10_000 }) {
+            List<Produto> produtos = GeradorCatalogoSintetico.gerar(quantidade, SEMENTE + quantidade);
+            IndiceElegibilidade indice = IndiceElegibilidade.construir(produtos);
+            assertTrue(indice.isDisponivel(), "índice indisponível com " + quantidade + " produtos");
+
+            SplittableRandom aleatorio = new SplittableRandom(SEMENTE);
+            long valorMaximo = GeradorCatalogoSintetico.VALOR_MAXIMO_CENTAVOS * 2;
+            int encontrados = 0;
+            for (int i = 0; i < 20_000; i++) {
+                // Um décimo das consultas usa três casas decimais
+                BigDecimal valor = aleatorio.nextInt(10) == 0
+                        ? BigDecimal.valueOf(aleatorio.nextLong(valorMaximo * 10), 3)
+                        : BigDecimal.valueOf(aleatorio.nextLong(valorMaximo), 2);
+                int prazo = aleatorio.nextInt(GeradorCatalogoSintetico.PRAZO_MAXIMO + 10);
+
+                Produto esperado = IndiceElegibilidade.buscarLinear(produtos, valor, prazo);
+                String consulta = quantidade + " produtos, valor=" + valor + " prazo=" + prazo;
+                assertSame(esperado, indice.buscar(valor, prazo), consulta);
+                assertSame(esperado, indice.buscarPorChave(
+                        IndiceElegibilidade.chaveValor(valor, indice.getEscalaValor()), prazo), consulta);
+                if (esperado != null) {
+                    encontrados++;
+                }
+            }
+            assertTrue(encontrados > 0, "nenhuma consulta elegível com " + quantidade + " produtos");
+        }
+    }
+
+    @Test
+    void limitesSaoInclusivosEMaximoNuloEIlimitado() {
+        Produto limitado = produto(1, "200.00", "10000.00", 1, 24);
+        Produto semMaximo = produto(2, "10000.01", null, 25, null);
+        Produto semMinimo = produto(3, null, null, 1, null);
+        IndiceElegibilidade indice = IndiceElegibilidade.construir(List.of(limitado, semMaximo, semMinimo));
+
+        assertSame(limitado, indice.buscar(new BigDecimal("200"), 1));
+        assertSame(limitado, indice.buscar(new BigDecimal("10000.00"), 24));
+        assertNull(indice.buscar(new BigDecimal("199.999"), 1));
+        assertNull(indice.buscar(new BigDecimal("10000.001"), 24));
+        assertNull(indice.buscar(new BigDecimal("10000.001"), 25));
+        assertSame(semMaximo, indice.buscar(new BigDecimal("10000.01"), 25));
+        assertSame(semMaximo, indice.buscar(new BigDecimal("1E+30"), 10_000));
+        assertNull(indice.buscar(new BigDecimal("500"), 0));
+        assertEquals(1, indice.getProdutosIgnorados().length);
+        assertEquals(3, indice.getProdutosIgnorados()[0]);
+    }
+
+    @Test
+    void chaveDoValorSeparaValoresEntreOsLimites() {
+        assertEquals(2_000_000L, IndiceElegibilidade.chaveValor(new BigDecimal("10000"), 2));
+        assertEquals(2_000_000L, IndiceElegibilidade.chaveValor(new BigDecimal("10000.00"), 2));
+        assertEquals(2_000_001L, IndiceElegibilidade.chaveValor(new BigDecimal("10000.001"), 2));
+        assertEquals(-3L, IndiceElegibilidade.chaveValor(new BigDecimal("-0.015"), 2));
+        assertEquals(Long.MAX_VALUE - 1, IndiceElegibilidade.chaveValor(new BigDecimal("1E+30"), 2));
+    }
+
+    private static Produto produto(int codigo, String valorMinimo, String valorMaximo, Integer minimoMeses,
+            Integer maximoMeses) {
+        return Produto.builder()
+                .codigoProduto(codigo)
+                .descricaoProduto("Produto " + codigo)
+                .taxaJuros(new BigDecimal("0.017900000"))
+                .minimoMeses(minimoMeses != null ? minimoMeses.shortValue() : null)
+                .maximoMeses(maximoMeses != null ? maximoMeses.shortValue() : null)
+                .valorMinimo(valorMinimo != null ? new BigDecimal(valorMinimo) : null)
+                .valorMaximo(valorMaximo != null ? new BigDecimal(valorMaximo) : null)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.leo.apisimulador.service.volume;
+
+import br.com.leo.apisimulador.model.h2.Simulacao;
+import br.com.leo.apisimulador.repository.ArmazenamentoSimulacoes;
+import br.com.leo.apisimulador.repository.h2.VolumeDiaProdutoProjecao;
+import br.com.leo.apisimulador.repository.h2.VolumeProdutoProjecao;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ConsolidacaoVolumeDiarioTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 8, 25);
+    private static final int GRAVADORAS = 4;
+    private static final int LOTES = 1_500;
+    private static final int TAMANHO_LOTE = 4;
+
+    @Test
+    void reconstrucaoDuranteGravacoesNaoPerdeNemDuplica() throws Exception {
+        List<Simulacao> gravadas = new ArrayList<>();
+        ConsolidacaoVolumeDiario consolidacao = new ConsolidacaoVolumeDiario(armazenamento(gravadas));
+        ReflectionTestUtils.setField(consolidacao, "habilitada", true);
+        consolidacao.iniciar();
+
+        AtomicBoolean gravando = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(GRAVADORAS + 2);
+        try {
+            List<Future<?>> gravadoras = new ArrayList<>();
+            for (int g = 0; g < GRAVADORAS; g++) {
+                gravadoras.add(executor.submit(() -> {
+                    for (int l = 0; l < LOTES; l++) {
+                        List<Simulacao> lote = new ArrayList<>();
+                        for (int i = 0; i < TAMANHO_LOTE; i++) {
+                            lote.add(simulacao(1 + i % 2));
+                        }
+                        consolidacao.gravarERegistrar(lote, () -> {
+                            synchronized (gravadas) {
+                                gravadas.addAll(lote);
+                            }
+                        });
+                    }
+                }));
+            }
+            Future<?> reconstrucoes = executor.submit(() -> {
+                while (gravando.get()) {
+                    consolidacao.reconstruir();
+                }
+            });
+            // Os totais nunca diminuem: a reconstrução não expõe totais vazios ou parciais
+            Future<?> leitora = executor.submit(() -> {
+                long anterior = 0;
+                while (gravando.get()) {
+                    long atual = quantidade(consolidacao.consultar(DIA));
+                    if (atual < anterior) {
+                        fail("quantidade caiu de " + anterior + " para " + atual);
+                    }
+                    anterior = atual;
+                }
+            });
+
+            for (Future<?> gravadora : gravadoras) {
+                gravadora.get();
+            }
+            gravando.set(false);
+            reconstrucoes.get();
+            leitora.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        long esperado = (long) GRAVADORAS * LOTES * TAMANHO_LOTE;
+        assertEquals(esperado, quantidade(consolidacao.consultar(DIA)));
+        consolidacao.reconstruir();
+        assertEquals(esperado, quantidade(consolidacao.consultar(DIA)));
+    }
+
+    @Test
+    void gravacaoComFalhaNaoSoma() {
+        List<Simulacao> gravadas = new ArrayList<>();
+        ConsolidacaoVolumeDiario consolidacao = new ConsolidacaoVolumeDiario(armazenamento(gravadas));
+        ReflectionTestUtils.setField(consolidacao, "habilitada", true);
+
+        try {
+            consolidacao.gravarERegistrar(List.of(simulacao(1)), () -> {
+                throw new IllegalStateException("falha no commit");
+            });
+            fail("a falha da gravação deve ser propagada");
+        } catch (IllegalStateException e) {
+            assertEquals("falha no commit", e.getMessage());
+        }
+        assertTrue(consolidacao.consultar(DIA).isEmpty());
+    }
+
+    private static long quantidade(List<VolumeProdutoProjecao> totais) {
+        return totais.stream().mapToLong(VolumeProdutoProjecao::getQuantidade).sum();
+    }
+
+    private static Simulacao simulacao(int produtoId) {
+        Simulacao simulacao = new Simulacao();
+        simulacao.setDataReferencia(DIA);
+        simulacao.setProdutoId(produtoId);
+        simulacao.setValorDesejado(new BigDecimal("1000.00"));
+        return simulacao;
+    }
+
+    /**
+     * Armazenamento que agrega as simulações gravadas por produto, como o
+     * GROUP BY do banco
+     */
+    private static ArmazenamentoSimulacoes armazenamento(List<Simulacao> gravadas) {
+        return (ArmazenamentoSimulacoes) Proxy.newProxyInstance(ArmazenamentoSimulacoes.class.getClassLoader(),
+                new Class<?>[] { ArmazenamentoSimulacoes.class }, (proxy, metodo, argumentos) -> {
+                    if (!metodo.getName().equals("agregarVolumePorDiaEProduto")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    Map<Integer, Long> porProduto = new TreeMap<>();
+                    synchronized (gravadas) {
+                        gravadas.forEach(s -> porProduto.merge(s.getProdutoId(), 1L, Long::sum));
+                    }
+                    List<VolumeDiaProdutoProjecao> volumes = new ArrayList<>();
+                    porProduto.forEach((produtoId, quantidade) -> volumes.add(new VolumeDia(produtoId, quantidade)));
+                    return volumes;
+                });
+    }
+
+    private record VolumeDia(Integer produtoId, long quantidade) implements VolumeDiaProdutoProjecao {
+
+        @Override
+        public LocalDate getDataReferencia() {
+            return DIA;
+        }
+
+        @Override
+        public Integer getProdutoId() {
+            return produtoId;
+        }
+
+        @Override
+        public String getDescricaoProduto() {
+            return "Produto " + produtoId;
+        }
+
+        @Override
+        public Long getQuantidade() {
+            return quantidade;
+        }
+
+        @Override
+        public BigDecimal getValorTotalDesejado() {
+            return new BigDecimal("1000.00").multiply(BigDecimal.valueOf(quantidade));
+        }
+
+        @Override
+        public BigDecimal getSomaTaxasJuros() {
+            return null;
+        }
+
+        @Override
+        public BigDecimal getValorTotalCredito() {
+            return null;
+        }
+
+        @Override
+        public BigDecimal getSomaPrimeirasPrestacoes() {
+            return null;
+        }
+    }
+}